@@ -0,0 +1,201 @@
+package server;
+
+import java.io.Closeable;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import server.config.ServerConfig;
+import server.render.RenderCache;
+import server.service.AuthService;
+import server.service.HashingExecutor;
+import server.service.ImageService;
+import server.service.PostService;
+import server.service.SessionManager;
+import server.service.UploadService;
+import server.service.UserRepository;
+import server.service.ViewCounter;
+import server.util.AccessLog;
+import server.util.Logger;
+
+/**
+ * 서버 전체가 함께 쓰는 서비스들을 한 벌씩 만들어 들고 있는 컨테이너.
+ * 핸들러는 서비스를 직접 만들지 않고 여기서 받아 쓰므로, 로그인과 세션 검증이 같은 저장소와 캐시를 본다.
+ * <p>
+ * 수명 주기: 생성자에서 서비스를 만들고, {@link #start()} 에서 주기 작업을 켠 뒤 예열하고,
+ * {@link #close()} 에서 메모리에 모아 둔 내용을 기록하며 만든 순서의 반대로 내린다.
+ */
+public final class ApplicationContext implements Closeable {
+    private final HashingExecutor hashingExecutor;
+    private final AuthService authService;
+    private final PostService postService;
+    private final UploadService uploadService;
+    private final ViewCounter viewCounter;
+    private final RenderCache renderCache;
+    private final ImageService imageService;
+    /** ACCESS_LOG_FILE 이 null 이면 null */
+    private final AccessLog accessLog;
+    /** 종료할 때 거꾸로 실행할 정리 작업 */
+    private final Deque<Stop> stops = new ArrayDeque<>();
+    private ScheduledExecutorService maintenance;
+    private boolean started;
+    private boolean closed;
+
+    public ApplicationContext() {
+        // 가장 먼저 만들어 다른 서비스를 모두 내린 뒤 마지막에 닫는다.
+        if (ServerConfig.ACCESS_LOG_FILE != null) {
+            accessLog = new AccessLog(ServerConfig.ACCESS_LOG_FILE, ServerConfig.ACCESS_LOG_BUFFER_SIZE,
+                    ServerConfig.ACCESS_LOG_MAX_BYTES, ServerConfig.ACCESS_LOG_ROTATE_INTERVAL_MILLIS,
+                    ServerConfig.ACCESS_LOG_GZIP);
+            onClose("access log", accessLog::close);
+        } else {
+            accessLog = null;
+        }
+
+        hashingExecutor = new HashingExecutor(ServerConfig.HASH_THREADS,
+                ServerConfig.HASH_QUEUE_CAPACITY, ServerConfig.HASH_WAIT_TIMEOUT_MILLIS);
+        onClose("hashing executor", hashingExecutor::shutdown);
+
+        authService = new AuthService(new UserRepository(), new SessionManager(), hashingExecutor);
+        // 마지막 로그인 시각처럼 메모리에 모아 둔 사용자 정보를 기록한다.
+        onClose("auth service", authService::shutdown);
+
+        postService = new PostService();
+        onClose("post service", postService::close);
+        uploadService = new UploadService(ServerConfig.UPLOAD_DIR, ServerConfig.UPLOAD_TEMP_DIR, "/images/");
+
+        viewCounter = new ViewCounter(ServerConfig.VIEW_COUNTS_FILE,
+                ServerConfig.VIEW_CHECKPOINT_INTERVAL_MILLIS, ServerConfig.VIEW_TRENDING_HALF_LIFE_MILLIS,
+                ServerConfig.VIEW_TRENDING_SIZE, postService::hasPost);
+        onClose("view counter", viewCounter::shutdown);
+        postService.addChangeListener(id -> {
+            if (!postService.hasPost(id)) {
+                viewCounter.remove(id);
+            }
+        });
+
+        renderCache = new RenderCache(ServerConfig.RENDER_CACHE_MAX_BYTES);
+        postService.addChangeListener(renderCache::invalidate);
+
+        imageService = new ImageService(ServerConfig.IMAGE_DERIVED_DIR, ServerConfig.IMAGE_THREADS,
+                ServerConfig.IMAGE_QUEUE_CAPACITY, ServerConfig.IMAGE_WAIT_TIMEOUT_MILLIS,
+                ServerConfig.IMAGE_MAX_DIMENSION, ServerConfig.IMAGE_MAX_SOURCE_PIXELS,
+                ServerConfig.IMAGE_CACHE_MAX_BYTES, ServerConfig.IMAGE_DISK_CACHE_MAX_BYTES);
+        onClose("image service", imageService::shutdown);
+    }
+
+    /**
+     * 접근 로그와 주기 작업(조회수 기록, 만료 세션 정리)을 켜고 예열한다. 요청을 받기 전에 한 번 부른다.
+     */
+    public synchronized void start() {
+        if (started || closed) {
+            return;
+        }
+        started = true;
+        if (accessLog != null) {
+            accessLog.start();
+        }
+        viewCounter.start();
+        maintenance = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "app-maintenance");
+            thread.setDaemon(true);
+            return thread;
+        });
+        maintenance.scheduleWithFixedDelay(this::cleanupSessions, ServerConfig.SESSION_CLEANUP_INTERVAL_MILLIS,
+                ServerConfig.SESSION_CLEANUP_INTERVAL_MILLIS, TimeUnit.MILLISECONDS);
+        onClose("maintenance", () -> {
+            maintenance.shutdownNow();
+            maintenance.awaitTermination(5, TimeUnit.SECONDS);
+        });
+        warmUp();
+    }
+
+    /**
+     * 첫 요청이 치르지 않도록 지난 실행에서 남은 만료 세션을 지우고, 읽어 들인 상태를 로그로 남긴다.
+     */
+    private void warmUp() {
+        long startNanos = System.nanoTime();
+        cleanupSessions();
+        Logger.info("Application warmed up in " + (System.nanoTime() - startNanos) / 1_000_000 + "ms: "
+                + postService.listPosts().size() + " posts, "
+                + authService.usernameFilterStats().getEntries() + " users");
+    }
+
+    private void cleanupSessions() {
+        try {
+            authService.cleanupExpiredSessions();
+        } catch (RuntimeException e) {
+            Logger.error("Failed to clean up expired sessions", e);
+        }
+    }
+
+    /**
+     * 만든 순서의 반대로 서비스를 내린다. 하나가 실패해도 나머지는 계속 내린다.
+     */
+    @Override
+    public synchronized void close() {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        while (!stops.isEmpty()) {
+            Stop stop = stops.pop();
+            try {
+                stop.action.run();
+            } catch (Exception e) {
+                Logger.error("Failed to stop " + stop.name, e);
+            }
+        }
+        Logger.info("Application context closed");
+    }
+
+    private void onClose(String name, StopAction action) {
+        stops.push(new Stop(name, action));
+    }
+
+    public AuthService authService() {
+        return authService;
+    }
+
+    public PostService postService() {
+        return postService;
+    }
+
+    public UploadService uploadService() {
+        return uploadService;
+    }
+
+    public ViewCounter viewCounter() {
+        return viewCounter;
+    }
+
+    public RenderCache renderCache() {
+        return renderCache;
+    }
+
+    public ImageService imageService() {
+        return imageService;
+    }
+
+    /** 접근 로그를 끄면 null */
+    public AccessLog accessLog() {
+        return accessLog;
+    }
+
+    @FunctionalInterface
+    private interface StopAction {
+        void run() throws Exception;
+    }
+
+    private static final class Stop {
+        private final String name;
+        private final StopAction action;
+
+        private Stop(String name, StopAction action) {
+            this.name = name;
+            this.action = action;
+        }
+    }
+}
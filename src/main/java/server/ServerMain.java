@@ -6,14 +6,34 @@ import java.nio.file.Files; /* 네트워크 수락기 import */
 
 import server.config.ServerConfig; /* 라우터 import */
 import server.core.NetAcceptor; /* 인증 핸들러 import */
+import server.filter.GzipFilter;
+import server.filter.MetricsFilter;
+import server.filter.RateLimitFilter;
+import server.filter.ResponseCacheFilter;
+import server.filter.SessionFilter;
+import server.render.PostRenderer;
 import server.route.AuthHandler; /* 정적 파일 핸들러 import */
+import server.route.AuthStatsHandler;
+import server.route.FilterChain;
+import server.route.ImageUploadHandler;
+import server.route.ImageVariantHandler;
+import server.route.PostBatchHandler;
+import server.route.PostContentHandler;
 import server.route.PostCreationHandler;
 import server.route.PostDeleteHandler;
+import server.route.PostExportHandler;
+import server.route.PostImportHandler;
+import server.route.PostListHandler;
+import server.route.PostSearchHandler;
+import server.route.PostTrendingHandler;
+import server.route.PostViewHandler;
 import server.route.Router; /* 로거 유틸리티 import */
-import server.route.RoutedPostHandler;
+import server.route.ServerStatsHandler;
 import server.route.SimplePostHandler;
 import server.route.StaticFileHandler;
+import server.service.AuthService;
 import server.service.PostService;
+import server.service.ViewCounter;
 import server.util.Logger;
 
 /**
@@ -23,32 +43,77 @@ import server.util.Logger;
 public final class ServerMain {
 
     public static void main(String[] args) {
+        // 썸네일/플레이스홀더를 java.awt 로 그리므로 화면 없는 서버에서도 동작하도록 한다.
+        System.setProperty("java.awt.headless", "true");
         ensureWebRoot(); // 기본 www 디렉터리와 index.html 생성
+        // 정적 파일을 처리하는 핸들러와 라우터를 묶어둔다.
+        // 서비스는 컨텍스트가 한 벌씩 만들어 들고 있고, 핸들러는 그것을 나눠 쓴다.
+        ApplicationContext app = new ApplicationContext();
+        app.start();
+        AuthService authService = app.authService();
+        PostService postService = app.postService();
+        ViewCounter viewCounter = app.viewCounter();
+
         // 정적 파일을 처리하는 핸들러와 라우터를 묶어둔다.
         StaticFileHandler staticHandler = new StaticFileHandler(ServerConfig.WEB_ROOT); // www 디렉토리가 루트가 됨
         SimplePostHandler defaultPostHandler = new SimplePostHandler(); // POST 요청을 단순히 에코해주는 핸들러
-        AuthHandler authHandler = new AuthHandler(); // 로그인/회원가입 처리 핸들러
-        PostService postService = new PostService();
-        PostCreationHandler postCreationHandler = new PostCreationHandler(postService);
+        AuthHandler authHandler = new AuthHandler(authService); // 로그인/회원가입 처리 핸들러
+        PostCreationHandler postCreationHandler = new PostCreationHandler(postService, app.uploadService());
         PostDeleteHandler postDeleteHandler = new PostDeleteHandler(postService);
 
-        RoutedPostHandler routedPostHandler = new RoutedPostHandler(defaultPostHandler);
-        routedPostHandler.register("/login", authHandler);
-        routedPostHandler.register("/register", authHandler);
-        routedPostHandler.register("/logout", authHandler);
-        routedPostHandler.register("/posts/create", postCreationHandler);
-        routedPostHandler.register("/posts/delete", postDeleteHandler);
+        // 등록한 경로에 맞지 않는 GET/HEAD 는 정적 파일로, POST 는 에코 핸들러로 넘어간다.
+        Router router = new Router(staticHandler, defaultPostHandler);
+        // 모든 요청에 걸리는 필터. 측정이 가장 바깥에서 돌아야 다른 필터가 끊은 응답도 센다.
+        MetricsFilter metrics = new MetricsFilter();
+        router.use(metrics);
+        GzipFilter gzip = new GzipFilter(ServerConfig.GZIP_MIN_BYTES);
+        router.use(gzip);
+        // 쓰기 요청은 클라이언트 IP 별 한 버킷을 함께 쓰고, 일괄 처리는 로그인 세션까지 확인한다.
+        FilterChain writes = FilterChain.of(new RateLimitFilter(ServerConfig.RATE_LIMIT_WRITES_PER_SECOND,
+                ServerConfig.RATE_LIMIT_WRITE_BURST, ServerConfig.RATE_LIMIT_MAX_CLIENTS));
+        FilterChain authenticatedWrites = writes.then(SessionFilter.required(authService));
+        // 자주 불리는 목록성 GET 은 잠깐 보관하고 몰린 요청은 한 번만 계산한다. 글이 바뀌면 바로 비운다.
+        // 압축은 캐시 안쪽에서 해 두어 적중한 응답을 다시 압축하지 않는다.
+        ResponseCacheFilter responseCache = new ResponseCacheFilter(ServerConfig.RESPONSE_CACHE_TTL_MILLIS,
+                ServerConfig.RESPONSE_CACHE_MAX_BYTES);
+        postService.addChangeListener(id -> responseCache.clear());
+        FilterChain cached = FilterChain.of(responseCache, gzip);
+        router.postAsync("/login", writes.wrapAsync(authHandler));
+        router.postAsync("/register", writes.wrapAsync(authHandler));
+        router.postAsync("/logout", authHandler);
+        router.postAsync("/posts/create", writes.wrapAsync(postCreationHandler));
+        router.postAsync("/posts/delete", postDeleteHandler);
+        router.postAsync("/images/upload", writes.wrap(new ImageUploadHandler(app.uploadService())));
+        // 가져오기/내보내기는 저장소 전체를 다루므로 로그인한 사용자만 쓸 수 있다.
+        router.postAsync("/posts/import", authenticatedWrites.wrap(new PostImportHandler(postService)));
+        router.postAsync("/posts/batch", authenticatedWrites.wrapAsync(new PostBatchHandler(postService, authService)));
+
+        router.get("/auth/stats", new AuthStatsHandler(authService));
+        router.get("/server/stats", new ServerStatsHandler(metrics, responseCache));
+        router.getAsync("/posts/list", cached.wrap(new PostListHandler(postService, viewCounter)));
+        router.getAsync("/posts/search", cached.wrap(new PostSearchHandler(postService)));
+        router.getAsync("/posts/export", authenticatedWrites.wrap(new PostExportHandler(postService)));
+        router.getAsync("/posts/trending", cached.wrap(new PostTrendingHandler(postService, viewCounter)));
+        router.get("/posts/view/*", new PostViewHandler(postService, app.renderCache(),
+                new PostRenderer(), ServerConfig.WEB_ROOT.resolve("posts"), viewCounter));
+        router.get("/posts/*", new PostContentHandler(postService, staticHandler, viewCounter));
+        ImageVariantHandler imageVariantHandler = new ImageVariantHandler(app.imageService(), ServerConfig.UPLOAD_DIR);
+        router.getAsync(ImageVariantHandler.THUMB_PREFIX + "*", imageVariantHandler);
+        router.getAsync(ImageVariantHandler.PLACEHOLDER_PREFIX + "*", imageVariantHandler);
 
-        Router router = new Router(staticHandler, routedPostHandler);
+        Logger.info("Routes registered: " + router.routeCount());
         // NetAcceptor가 실질적으로 소켓 수락과 워커 스케줄링을 담당한다.
-        NetAcceptor acceptor = new NetAcceptor(router);
-        // JVM 종료 시점에도 서버가 깔끔히 내려가도록 훅을 등록한다.
+        NetAcceptor acceptor = new NetAcceptor(router, app.accessLog());
+        // JVM 종료 시점에도 서버가 깔끔히 내려가도록 훅을 등록한다. 요청을 먼저 끊고 서비스를 내린다.
         Runtime.getRuntime().addShutdownHook(new Thread(() -> {
             try {
                 acceptor.stop();
             } catch (IOException e) {
                 Logger.error("Error during shutdown", e);
             }
+            app.close();
+            // 버퍼에 남은 로그까지 내보낸 뒤 끝낸다.
+            Logger.shutdown();
         }));
         try {
             acceptor.start();
@@ -0,0 +1,113 @@
+package server.bench;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+
+import server.config.ServerConfig;
+import server.storage.Durability;
+import server.storage.GroupCommitter;
+import server.storage.SegmentPostStore;
+
+/**
+ * 그룹 커밋 쓰기 처리량을 내구성 단계(ASYNC, BATCHED, SYNC)별로 재서 ops/s 로 출력한다.
+ * 단계마다 빈 임시 디렉터리에 세그먼트 저장소를 새로 만들고, 여러 스레드가 쓰기를 넣고 완료를 기다리기를 반복한다.
+ * <pre>
+ * java -cp target/classes server.bench.GroupCommitBenchmark [스레드 수=16] [단계별 측정 초=5] [본문 byte=1024]
+ * </pre>
+ * 임시 디렉터리는 시스템 임시 디렉터리 아래에 만들므로 실제 서버와 같은 디스크에서 재려면 -Djava.io.tmpdir 를 준다.
+ */
+public final class GroupCommitBenchmark {
+    private static final long WARMUP_MILLIS = 1000;
+
+    private GroupCommitBenchmark() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        int threads = args.length > 0 ? Integer.parseInt(args[0]) : 16;
+        int seconds = args.length > 1 ? Integer.parseInt(args[1]) : 5;
+        int bodyBytes = args.length > 2 ? Integer.parseInt(args[2]) : 1024;
+        byte[] body = "x".repeat(bodyBytes).getBytes(StandardCharsets.UTF_8);
+
+        System.out.printf("threads=%d seconds=%d body=%dB maxBatch=%d linger=%dms%n", threads, seconds, bodyBytes,
+                ServerConfig.POST_GROUP_COMMIT_MAX_BATCH, ServerConfig.POST_GROUP_COMMIT_LINGER_MILLIS);
+        for (Durability durability : Durability.values()) {
+            run(durability, threads, seconds, body);
+        }
+    }
+
+    private static void run(Durability durability, int threads, int seconds, byte[] body) throws Exception {
+        Path dir = Files.createTempDirectory("group-commit-bench");
+        try (SegmentPostStore store = new SegmentPostStore(dir, ServerConfig.POST_SEGMENT_MAX_BYTES,
+                ServerConfig.POST_COMPACTION_GARBAGE_RATIO, ServerConfig.POST_COMPACTION_INTERVAL_MILLIS)) {
+            GroupCommitter committer = new GroupCommitter(store, ServerConfig.POST_WRITE_QUEUE_CAPACITY,
+                    ServerConfig.POST_GROUP_COMMIT_MAX_BATCH, ServerConfig.POST_GROUP_COMMIT_LINGER_MILLIS);
+            AtomicLong completed = new AtomicLong();
+            AtomicLong rejected = new AtomicLong();
+            AtomicLong failed = new AtomicLong();
+            AtomicLong sequence = new AtomicLong();
+            long start = System.nanoTime();
+            long measureFrom = start + TimeUnit.MILLISECONDS.toNanos(WARMUP_MILLIS);
+            long deadline = measureFrom + TimeUnit.SECONDS.toNanos(seconds);
+
+            List<Thread> workers = new ArrayList<>(threads);
+            for (int i = 0; i < threads; i++) {
+                Thread worker = new Thread(() -> {
+                    while (System.nanoTime() < deadline) {
+                        String id = "bench-" + sequence.incrementAndGet();
+                        try {
+                            committer.submit(id, body, durability).get();
+                        } catch (GroupCommitter.OverloadedException e) {
+                            rejected.incrementAndGet();
+                            Thread.onSpinWait();
+                            continue;
+                        } catch (Exception e) {
+                            failed.incrementAndGet();
+                            continue;
+                        }
+                        if (System.nanoTime() >= measureFrom) {
+                            completed.incrementAndGet();
+                        }
+                    }
+                }, "bench-writer-" + i);
+                worker.setDaemon(true);
+                workers.add(worker);
+            }
+            for (Thread worker : workers) {
+                worker.start();
+            }
+            // 예열이 끝난 시점의 카운터를 빼서 측정 구간만 센다.
+            Thread.sleep(WARMUP_MILLIS);
+            long syncsBefore = committer.syncs();
+            long batchesBefore = committer.batches();
+            for (Thread worker : workers) {
+                worker.join();
+            }
+            long syncs = committer.syncs() - syncsBefore;
+            long batches = committer.batches() - batchesBefore;
+            committer.close();
+
+            long ops = completed.get();
+            System.out.printf("%-8s %10.0f ops/s  batches=%d fsyncs=%d writes/fsync=%.1f rejected=%d failed=%d%n",
+                    durability, ops / (double) seconds, batches, syncs,
+                    syncs == 0 ? 0.0 : ops / (double) syncs, rejected.get(), failed.get());
+        } finally {
+            deleteRecursively(dir);
+        }
+    }
+
+    private static void deleteRecursively(Path dir) throws IOException {
+        try (Stream<Path> paths = Files.walk(dir)) {
+            for (Path path : (Iterable<Path>) paths.sorted(Comparator.reverseOrder())::iterator) {
+                Files.deleteIfExists(path);
+            }
+        }
+    }
+}
@@ -0,0 +1,157 @@
+package server.bench;
+
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import server.util.JsonReader;
+import server.util.JsonUtil;
+import server.util.JsonWriter;
+
+/**
+ * 요청 본문 파싱과 응답 JSON 생성을 {@link JsonReader}/{@link JsonWriter} 와 예전 {@code JsonUtil} 방식으로 각각 재서 ops/s 로 출력한다.
+ * <pre>
+ * java -cp target/classes server.bench.JsonBenchmark [측정 초=3]
+ * </pre>
+ * 예전 방식은 쉼표로 나눠 Map 을 채우는 파싱과 HashMap 에 담아 replace 로 이스케이프하는 직렬화를 그대로 옮겨 왔다.
+ */
+public final class JsonBenchmark {
+    private static final int WARMUP_ROUNDS = 200_000;
+    private static final String[] POST_FIELDS = {"title", "content", "author"};
+    private static final int BATCH_SIZE = 16;
+
+    private JsonBenchmark() {
+    }
+
+    public static void main(String[] args) {
+        int seconds = args.length > 0 ? Integer.parseInt(args[0]) : 3;
+
+        byte[] body = ("{\"title\":\"주간 회의록 2024-05\",\"content\":\"" + "안건 정리와 후속 작업 목록. ".repeat(20)
+                + "\",\"author\":\"alice\"}").getBytes(StandardCharsets.UTF_8);
+        String message = "게시글을 찾을 수 없습니다: \"notes/2024-05.txt\"";
+
+        System.out.printf("body=%dB batch=%d seconds=%d%n", body.length, BATCH_SIZE, seconds);
+        measure("parse/legacy", seconds, () -> legacyParse(new String(body, StandardCharsets.UTF_8)).size());
+        measure("parse/reader", seconds, () -> JsonReader.readStringFields(body, POST_FIELDS)[1].length());
+        measure("response/legacy", seconds, () -> legacyResponse(false, message).getBytes(StandardCharsets.UTF_8).length);
+        measure("response/writer", seconds, () -> JsonUtil.createResponseBytes(false, message).length);
+        measure("batch/builder", seconds, () -> batchWithBuilder().length);
+        measure("batch/writer", seconds, () -> batchWithWriter().length);
+    }
+
+    /** 예전 PostBatchHandler 처럼 StringBuilder 와 quote 로 결과 배열을 만든다 */
+    private static byte[] batchWithBuilder() {
+        StringBuilder json = new StringBuilder("{\"success\":\"true\",\"results\":[");
+        for (int i = 0; i < BATCH_SIZE; i++) {
+            if (i > 0) {
+                json.append(',');
+            }
+            json.append("{\"index\":").append(i)
+                .append(",\"op\":").append(JsonUtil.quote("create"))
+                .append(",\"status\":").append(201)
+                .append(",\"id\":").append(JsonUtil.quote("post-" + i + ".txt"))
+                .append(",\"message\":").append(JsonUtil.quote("게시글이 저장되었습니다."))
+                .append('}');
+        }
+        json.append("]}");
+        return json.toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static byte[] batchWithWriter() {
+        JsonWriter json = new JsonWriter(64 + BATCH_SIZE * 128);
+        json.beginObject().name("success").value("true").name("results").beginArray();
+        for (int i = 0; i < BATCH_SIZE; i++) {
+            json.beginObject()
+                .name("index").value(i)
+                .name("op").value("create")
+                .name("status").value(201)
+                .name("id").value("post-" + i + ".txt")
+                .name("message").value("게시글이 저장되었습니다.")
+                .endObject();
+        }
+        json.endArray().endObject();
+        return json.toByteArray();
+    }
+
+    /** 예전 JsonUtil.parseSimpleJson: 쉼표로 나눠 따옴표만 벗긴다 */
+    private static Map<String, String> legacyParse(String json) {
+        Map<String, String> result = new HashMap<>();
+        String cleaned = json.trim();
+        if (!cleaned.startsWith("{") || !cleaned.endsWith("}")) {
+            return result;
+        }
+        cleaned = cleaned.substring(1, cleaned.length() - 1).trim();
+        for (String pair : cleaned.split(",")) {
+            pair = pair.trim();
+            int colonIndex = pair.indexOf(':');
+            if (colonIndex > 0 && colonIndex < pair.length() - 1) {
+                String key = removeQuotes(pair.substring(0, colonIndex).trim());
+                if (!key.isEmpty()) {
+                    result.put(key, removeQuotes(pair.substring(colonIndex + 1).trim()));
+                }
+            }
+        }
+        return result;
+    }
+
+    /** 예전 JsonUtil.createResponse: HashMap 에 담아 toSimpleJson 으로 직렬화한다 */
+    private static String legacyResponse(boolean success, String message) {
+        Map<String, String> response = new HashMap<>();
+        response.put("success", String.valueOf(success));
+        response.put("message", message != null ? message : "");
+        StringBuilder json = new StringBuilder("{");
+        boolean first = true;
+        for (Map.Entry<String, String> entry : response.entrySet()) {
+            if (!first) {
+                json.append(",");
+            }
+            json.append("\"").append(legacyEscape(entry.getKey())).append("\"");
+            json.append(":");
+            json.append("\"").append(legacyEscape(entry.getValue())).append("\"");
+            first = false;
+        }
+        return json.append("}").toString();
+    }
+
+    private static String removeQuotes(String str) {
+        if (str.length() >= 2 && str.startsWith("\"") && str.endsWith("\"")) {
+            return str.substring(1, str.length() - 1);
+        }
+        return str;
+    }
+
+    private static String legacyEscape(String str) {
+        return str.replace("\\", "\\\\")
+                  .replace("\"", "\\\"")
+                  .replace("\b", "\\b")
+                  .replace("\f", "\\f")
+                  .replace("\n", "\\n")
+                  .replace("\r", "\\r")
+                  .replace("\t", "\\t");
+    }
+
+    private static void measure(String name, int seconds, Task task) {
+        long sink = 0;
+        for (int i = 0; i < WARMUP_ROUNDS; i++) {
+            sink += task.run();
+        }
+        long operations = 0;
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(seconds);
+        long start = System.nanoTime();
+        while (System.nanoTime() < deadline) {
+            for (int i = 0; i < 1_000; i++) {
+                sink += task.run();
+            }
+            operations += 1_000;
+        }
+        double elapsedSeconds = (System.nanoTime() - start) / 1e9;
+        System.out.printf("%-16s %12.0f ops/s  %8.1f ns/op  (checksum %d)%n", name, operations / elapsedSeconds,
+                elapsedSeconds * 1e9 / operations, sink);
+    }
+
+    @FunctionalInterface
+    private interface Task {
+        int run();
+    }
+}
@@ -0,0 +1,110 @@
+package server.bench;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
+
+import server.http.CannedResponses;
+import server.http.HttpRequest;
+import server.http.HttpResponse;
+import server.route.Router;
+
+/**
+ * 라우트 수백 개를 등록한 {@link Router} 의 경로 찾기 속도를 재서 ops/s 로 출력한다.
+ * 같은 라우트를 정규식 목록으로 차례로 맞춰 보는 단순한 방식도 함께 재서 비교한다.
+ * <pre>
+ * java -cp target/classes server.bench.RouterBenchmark [리소스 수=100] [측정 초=3]
+ * </pre>
+ * 리소스 하나마다 고정 경로, 경로 변수, 변수 뒤 고정 경로, 와일드카드 라우트를 하나씩 등록하므로 라우트 수는 리소스 수의 4배다.
+ */
+public final class RouterBenchmark {
+    private static final HttpResponse OK = CannedResponses.text(200, "OK", "OK");
+    private static final int WARMUP_ROUNDS = 200_000;
+
+    private RouterBenchmark() {
+    }
+
+    public static void main(String[] args) {
+        int resources = args.length > 0 ? Integer.parseInt(args[0]) : 100;
+        int seconds = args.length > 1 ? Integer.parseInt(args[1]) : 3;
+
+        Router router = new Router(request -> CannedResponses.NOT_FOUND);
+        List<Pattern> linearPatterns = new ArrayList<>();
+        List<String> linearMethods = new ArrayList<>();
+        for (int i = 0; i < resources; i++) {
+            String base = "/api/r" + i;
+            register(router, linearMethods, linearPatterns, "GET", base + "/list");
+            register(router, linearMethods, linearPatterns, "GET", base + "/{id}");
+            register(router, linearMethods, linearPatterns, "POST", base + "/{id}/comments");
+            register(router, linearMethods, linearPatterns, "GET", "/static/r" + i + "/*");
+        }
+
+        // 맞는 경로, 경로 변수, 깊은 와일드카드, 405, 어느 라우트에도 맞지 않는 경로를 섞는다.
+        List<HttpRequest> requests = new ArrayList<>();
+        for (int i = 0; i < resources; i += Math.max(1, resources / 16)) {
+            requests.add(request("GET", "/api/r" + i + "/list"));
+            requests.add(request("GET", "/api/r" + i + "/12345?page=2"));
+            requests.add(request("POST", "/api/r" + i + "/12345/comments"));
+            requests.add(request("GET", "/static/r" + i + "/css/site/main.css"));
+            requests.add(request("DELETE", "/api/r" + i + "/list"));
+            requests.add(request("GET", "/index.html"));
+        }
+        HttpRequest[] batch = requests.toArray(new HttpRequest[0]);
+
+        System.out.printf("routes=%d requests=%d seconds=%d%n", router.routeCount(), batch.length, seconds);
+        measure("trie", seconds, batch, request -> router.route(request).toCompletableFuture().join().statusCode());
+        measure("regex", seconds, batch, request -> matchLinear(linearMethods, linearPatterns, request));
+    }
+
+    private static void register(Router router, List<String> methods, List<Pattern> patterns,
+                                 String method, String pattern) {
+        router.add(method, pattern, request -> OK);
+        methods.add(method);
+        patterns.add(Pattern.compile(pattern.replaceAll("\\{[^}]+}", "[^/]+").replace("*", ".*")));
+    }
+
+    /** 쿼리를 떼고 등록 순서대로 정규식을 맞춰 보는 비교용 방식 */
+    private static int matchLinear(List<String> methods, List<Pattern> patterns, HttpRequest request) {
+        String path = request.target().split("\\?", 2)[0];
+        boolean pathMatched = false;
+        for (int i = 0; i < patterns.size(); i++) {
+            if (patterns.get(i).matcher(path).matches()) {
+                if (methods.get(i).equals(request.method())) {
+                    return 200;
+                }
+                pathMatched = true;
+            }
+        }
+        return pathMatched ? 405 : 404;
+    }
+
+    private static void measure(String name, int seconds, HttpRequest[] batch, Matcher matcher) {
+        long sink = 0;
+        for (int i = 0; i < WARMUP_ROUNDS; i++) {
+            sink += matcher.match(batch[i % batch.length]);
+        }
+        long operations = 0;
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(seconds);
+        long start = System.nanoTime();
+        while (System.nanoTime() < deadline) {
+            for (HttpRequest request : batch) {
+                sink += matcher.match(request);
+            }
+            operations += batch.length;
+        }
+        double elapsedSeconds = (System.nanoTime() - start) / 1e9;
+        System.out.printf("%-6s %12.0f ops/s  %8.1f ns/op  (checksum %d)%n", name, operations / elapsedSeconds,
+                elapsedSeconds * 1e9 / operations, sink);
+    }
+
+    private static HttpRequest request(String method, String target) {
+        return new HttpRequest(method, target, "HTTP/1.1", Map.of("host", "localhost"), new byte[0]);
+    }
+
+    @FunctionalInterface
+    private interface Matcher {
+        int match(HttpRequest request);
+    }
+}
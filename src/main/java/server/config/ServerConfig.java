@@ -20,6 +20,12 @@ public final class ServerConfig {
     /** 워커 스레드 개수(코어 수 * 2, 최소 4개) */
     public static final int WORKER_THREADS = Math.max(4, Runtime.getRuntime().availableProcessors() * 2);
 
+    /**
+     * 비동기 핸들러가 끝낸 응답을 쓰는 스레드 개수. 워커가 모두 keep-alive 읽기에 묶여 있어도
+     * 끝난 응답이 새 연결 뒤에서 기다리지 않도록 워커 풀과 따로 둔다.
+     */
+    public static final int RESPONSE_WRITER_THREADS = Math.max(2, Runtime.getRuntime().availableProcessors() / 2);
+
     /** 소켓 읽기 타임아웃(밀리초) */
     public static final int SOCKET_TIMEOUT_MILLIS = 15_000;
 
@@ -47,6 +53,195 @@ public final class ServerConfig {
     /** 정적 파일을 제공할 루트 디렉터리 */
     public static final Path WEB_ROOT = Paths.get("www");
 
+    /** 비밀번호 해시 전용 스레드 개수(코어 수의 절반, 최소 1개) */
+    public static final int HASH_THREADS = Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+
+    /** 해시 작업 대기열 상한. 넘치면 요청을 즉시 거절(503)한다. */
+    public static final int HASH_QUEUE_CAPACITY = 64;
+
+    /** 해시 작업 결과를 기다리는 최대 시간(밀리초) */
+    public static final int HASH_WAIT_TIMEOUT_MILLIS = 5_000;
+
+    /** PBKDF2 반복 횟수. 값을 올리면 다음 로그인 때 기존 해시가 자동으로 갱신된다. */
+    public static final int PASSWORD_HASH_ITERATIONS = 120_000;
+
+    /** 마지막 로그인 시각을 파일에 모아 쓰는 주기(밀리초) */
+    public static final int LAST_LOGIN_FLUSH_INTERVAL_MILLIS = 5_000;
+
+    /** 사용자명 블룸 필터의 최소 용량 */
+    public static final int USERNAME_FILTER_EXPECTED_USERS = 10_000;
+
+    /** 사용자명 블룸 필터의 목표 오탐률 */
+    public static final double USERNAME_FILTER_FALSE_POSITIVE_RATE = 0.01;
+
+    /** 파일 저장소에서 키별 락으로 쓰는 줄무늬 개수 */
+    public static final int LOCK_STRIPES = 64;
+
+    /** 게시글 목록 한 페이지의 기본 개수 */
+    public static final int POST_PAGE_DEFAULT_SIZE = 20;
+
+    /** 게시글 목록 한 페이지의 최대 개수 */
+    public static final int POST_PAGE_MAX_SIZE = 100;
+
+    /** 검색 결과 기본 개수 */
+    public static final int SEARCH_DEFAULT_RESULTS = 10;
+
+    /** 검색 결과 최대 개수 */
+    public static final int SEARCH_MAX_RESULTS = 50;
+
+    /** 런타임 데이터(세그먼트, 체크포인트 등)를 두는 디렉터리 */
+    public static final Path DATA_DIR = Paths.get("data");
+
+    /** 게시글 저장 방식: "segment"(세그먼트 파일) 또는 "file"(게시글마다 .txt 파일) */
+    public static final String POST_STORE_ENGINE = "segment";
+
+    /** 게시글 세그먼트 파일 디렉터리 */
+    public static final Path POST_SEGMENT_DIR = DATA_DIR.resolve("posts");
+
+    /** 세그먼트 파일 하나의 최대 크기 */
+    public static final long POST_SEGMENT_MAX_BYTES = 64L * 1024 * 1024;
+
+    /** 세그먼트 압축 검사 주기(밀리초) */
+    public static final long POST_COMPACTION_INTERVAL_MILLIS = 60_000;
+
+    /** 세그먼트 안에서 쓰레기 비율이 이 값 이상이면 압축한다 */
+    public static final double POST_COMPACTION_GARBAGE_RATIO = 0.5;
+
+    /** 게시글 ID 생성기의 노드 번호 (0~1023). 서버를 여러 대 띄우면 서로 다르게 설정한다 */
+    public static final int NODE_ID = 0;
+
+    /** 요청에 내구성 단계가 없을 때 쓰는 값 ("async", "batched", "sync") */
+    public static final String POST_DEFAULT_DURABILITY = "batched";
+
+    /** 그룹 커밋 대기열 크기. 가득 차면 게시글 작성을 503 으로 거절한다 */
+    public static final int POST_WRITE_QUEUE_CAPACITY = 1024;
+
+    /** fsync 한 번에 묶을 최대 쓰기 수 */
+    public static final int POST_GROUP_COMMIT_MAX_BATCH = 128;
+
+    /** BATCHED 쓰기가 배치를 키우려고 기다리는 최대 시간 (밀리초) */
+    public static final long POST_GROUP_COMMIT_LINGER_MILLIS = 2;
+
+    /** 요청 스레드가 자기 쓰기의 커밋을 기다리는 최대 시간 (밀리초) */
+    public static final long POST_WRITE_WAIT_TIMEOUT_MILLIS = 5000;
+
+    /** 업로드 파일을 저장하는 디렉터리 (정적 경로 /images/ 로 제공) */
+    public static final Path UPLOAD_DIR = WEB_ROOT.resolve("images");
+
+    /** 받는 중인 업로드를 담는 임시 디렉터리. 정적 경로로 제공되지 않아야 하고, 이름만 바꿔 옮기도록 UPLOAD_DIR 과 같은 디스크에 둔다 */
+    public static final Path UPLOAD_TEMP_DIR = DATA_DIR.resolve("upload-tmp");
+
+    /** multipart 요청 전체의 최대 크기 (바이트) */
+    public static final long UPLOAD_MAX_REQUEST_BYTES = 64L * 1024 * 1024;
+
+    /** 파일 파트 하나의 최대 크기 (바이트) */
+    public static final long UPLOAD_MAX_FILE_BYTES = 10L * 1024 * 1024;
+
+    /** 파일이 아닌 일반 필드 파트 하나의 최대 크기 (바이트) */
+    public static final int UPLOAD_MAX_FIELD_BYTES = 64 * 1024;
+
+    /** 요청 하나에 담을 수 있는 최대 파트 수 */
+    public static final int UPLOAD_MAX_PARTS = 16;
+
+    /** 핸들러가 읽지 않고 남긴 업로드 본문을 연결 유지를 위해 비워 줄 최대 크기. 넘으면 연결을 닫는다 */
+    public static final long UPLOAD_DRAIN_LIMIT_BYTES = 1024 * 1024;
+
+    /** 렌더링한 게시글 HTML 캐시의 최대 크기 (바이트) */
+    public static final long RENDER_CACHE_MAX_BYTES = 16L * 1024 * 1024;
+
+    /** 썸네일/플레이스홀더를 만드는 이미지 작업 스레드 개수 */
+    public static final int IMAGE_THREADS = Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+
+    /** 이미지 작업 대기열 크기. 가득 차면 503 으로 거절한다 */
+    public static final int IMAGE_QUEUE_CAPACITY = 32;
+
+    /** 요청 스레드가 이미지 생성을 기다리는 최대 시간 (밀리초) */
+    public static final long IMAGE_WAIT_TIMEOUT_MILLIS = 10_000;
+
+    /** 생성할 수 있는 이미지의 가로/세로 최대 픽셀 수 */
+    public static final int IMAGE_MAX_DIMENSION = 2000;
+
+    /** 원본 이미지로 받아들이는 최대 픽셀 수 (가로 * 세로). 넘으면 디코딩하지 않는다 */
+    public static final long IMAGE_MAX_SOURCE_PIXELS = 40_000_000L;
+
+    /** 생성한 이미지를 보관하는 디스크 캐시 디렉터리 */
+    public static final Path IMAGE_DERIVED_DIR = DATA_DIR.resolve("derived");
+
+    /** 생성한 이미지 메모리 캐시의 최대 크기 (바이트) */
+    public static final long IMAGE_CACHE_MAX_BYTES = 32L * 1024 * 1024;
+
+    /** 생성한 이미지 디스크 캐시의 최대 크기 (바이트). 넘으면 가장 오래 안 쓴 파일부터 지운다 */
+    public static final long IMAGE_DISK_CACHE_MAX_BYTES = 256L * 1024 * 1024;
+
+    /** 게시글 가져오기(tar) 요청 본문의 최대 크기 (바이트) */
+    public static final long POST_IMPORT_MAX_BYTES = 1024L * 1024 * 1024;
+
+    /** 가져오기에서 게시글 하나의 최대 크기 (바이트) */
+    public static final int POST_IMPORT_MAX_ENTRY_BYTES = MAX_BODY_SIZE;
+
+    /** 가져오기가 동시에 진행하는 최대 쓰기 수. 쓰기 대기열 크기보다 작게 두어 일반 작성 자리를 남긴다 */
+    public static final int POST_IMPORT_PARALLELISM = 256;
+
+    /** 게시글 일괄 처리 요청 하나에 담을 수 있는 최대 작업 수 */
+    public static final int POST_BATCH_MAX_OPERATIONS = 500;
+
+    /** 게시글 조회수를 기록하는 파일 */
+    public static final Path VIEW_COUNTS_FILE = DATA_DIR.resolve("views.tsv");
+
+    /** 메모리에 모은 조회수를 파일에 기록하고 인기 순위를 다시 계산하는 간격 (밀리초) */
+    public static final long VIEW_CHECKPOINT_INTERVAL_MILLIS = 10_000;
+
+    /** 인기 점수의 반감기 (밀리초). 이 시간이 지나면 예전 조회의 무게가 절반이 된다 */
+    public static final long VIEW_TRENDING_HALF_LIFE_MILLIS = 60L * 60 * 1000;
+
+    /** 메모리에 유지하는 인기 게시글 수 */
+    public static final int VIEW_TRENDING_SIZE = 20;
+
+    /** 비동기 핸들러의 응답을 기다리는 최대 시간 (밀리초). 넘으면 503 으로 응답한다. */
+    public static final long ASYNC_RESPONSE_TIMEOUT_MILLIS = 30_000;
+
+    /** 이보다 작은 응답 본문은 gzip 으로 압축하지 않는다 (바이트) */
+    public static final int GZIP_MIN_BYTES = 1024;
+
+    /** 쓰기 요청(로그인, 게시글 작성 등)을 클라이언트 IP 별로 초당 허용하는 수 */
+    public static final double RATE_LIMIT_WRITES_PER_SECOND = 50;
+
+    /** 쓰기 요청을 한꺼번에 몰아 보낼 수 있는 최대 수 */
+    public static final int RATE_LIMIT_WRITE_BURST = 100;
+
+    /** 요청 제한을 위해 기억하는 최대 클라이언트 수 */
+    public static final int RATE_LIMIT_MAX_CLIENTS = 10_000;
+
+    /** 만료된 세션 파일을 지우는 주기 (밀리초) */
+    public static final long SESSION_CLEANUP_INTERVAL_MILLIS = 10 * 60_000L;
+
+    /** 목록/검색/인기 글 응답을 보관하는 시간 (밀리초). 짧게 두어 몰리는 요청만 흡수한다. */
+    public static final long RESPONSE_CACHE_TTL_MILLIS = 1_000L;
+
+    /** 라우트 응답 캐시가 쓰는 최대 메모리 (바이트) */
+    public static final long RESPONSE_CACHE_MAX_BYTES = 8L * 1024 * 1024;
+
+    /** 출력을 기다리는 로그 이벤트를 담는 링 버퍼 크기. 2의 거듭제곱으로 내림한다. */
+    public static final int LOG_BUFFER_SIZE = 16_384;
+
+    /** 로그 버퍼가 가득 찼을 때: "drop" 은 INFO/WARN 을 버리고, "block" 은 자리가 날 때까지 기다린다 */
+    public static final String LOG_OVERFLOW_POLICY = "block";
+
+    /** 요청마다 한 줄씩 JSON 으로 남기는 접근 로그 파일. null 이면 남기지 않는다 */
+    public static final Path ACCESS_LOG_FILE = Paths.get("logs").resolve("access.log");
+
+    /** 파일에 쓰기를 기다리는 접근 로그 항목을 담는 링 버퍼 크기. 가득 차면 새 항목은 버리고 센다 */
+    public static final int ACCESS_LOG_BUFFER_SIZE = 65_536;
+
+    /** 접근 로그 파일이 이 크기를 넘으면 새 파일로 바꾼다 (바이트) */
+    public static final long ACCESS_LOG_MAX_BYTES = 64L * 1024 * 1024;
+
+    /** 접근 로그 파일을 크기와 관계없이 바꾸는 주기 (밀리초) */
+    public static final long ACCESS_LOG_ROTATE_INTERVAL_MILLIS = 24 * 60 * 60_000L;
+
+    /** 바꾼 접근 로그 파일을 gzip 으로 압축할지 */
+    public static final boolean ACCESS_LOG_GZIP = true;
+
     /** Server 헤더에 노출할 서버 식별자 */
     public static final String SERVER_NAME = "SimpleJavaServer/0.1";
 }
@@ -1,6 +1,7 @@
 package server.core;
 
 import server.config.ServerConfig;
+import server.http.CannedResponses;
 import server.http.ConnectionPolicy;
 import server.http.HttpParseException;
 import server.http.HttpRequest;
@@ -8,31 +9,64 @@ import server.http.HttpRequestParser;
 import server.http.HttpResponse;
 import server.http.HttpResponseWriter;
 import server.route.Router;
+import server.util.AccessLog;
 import server.util.Logger;
 
 import java.io.BufferedInputStream;
+import java.io.FilterOutputStream;
 import java.io.IOException;
 import java.io.OutputStream;
 import java.net.Socket;
 import java.net.SocketTimeoutException;
 import java.net.SocketException;
 import java.nio.charset.StandardCharsets;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 
 /**
  * 단일 TCP 연결에 대한 HTTP 요청/응답 처리를 담당하는 워커.
  * keep-alive를 고려하여 하나의 소켓에서 여러 요청을 순차적으로 처리한다.
+ * 핸들러가 아직 끝나지 않은 응답 단계를 돌려주면 스레드를 놓고, 완료 콜백이 응답 쓰기 풀에서 응답을 쓴 뒤
+ * 다음 요청 읽기는 워커 풀에 다시 맡긴다.
  */
 public final class ConnectionWorker implements Runnable {
 
     private final Socket socket;
     private final Router router;
+    /** 비동기 응답을 쓴 뒤 다음 요청을 읽을 풀. null 이면 같은 스레드에서 응답을 기다린다. */
+    private final Executor executor;
+    /** 비동기 응답을 쓰는 풀. 읽기에 묶이지 않는 스레드라 끝난 응답이 바로 나간다. */
+    private final Executor responseExecutor;
     private final HttpRequestParser parser;
     private final ConnectionPolicy policy;
     private final HttpResponseWriter writer;
+    /** 응답마다 한 줄씩 남길 접근 로그. null 이면 남기지 않는다. */
+    private final AccessLog accessLog;
+    private BufferedInputStream in;
+    private CountingOutputStream out;
+    private int handledRequests;
+    /** 요청 컨텍스트에 넣을 클라이언트 IP. 연결마다 한 번만 구한다. */
+    private String remoteAddress;
 
     public ConnectionWorker(Socket socket, Router router) {
+        this(socket, router, null, null, null);
+    }
+
+    /**
+     * @param responseExecutor 비동기 응답을 쓸 풀. null 이면 executor 를 쓴다.
+     */
+    public ConnectionWorker(Socket socket, Router router, Executor executor, Executor responseExecutor,
+                            AccessLog accessLog) {
         this.socket = socket;
         this.router = router;
+        this.executor = executor;
+        this.responseExecutor = responseExecutor != null ? responseExecutor : executor;
+        this.accessLog = accessLog;
         this.parser = new HttpRequestParser();
         this.policy = new ConnectionPolicy();
         this.writer = new HttpResponseWriter();
@@ -40,59 +74,216 @@ public final class ConnectionWorker implements Runnable {
 
     @Override
     public void run() {
-        try (Socket s = socket) {
+        boolean suspended = false;
+        try {
             // 읽기 타임아웃을 걸어 유휴 연결이 무한정 대기하지 않도록 한다.
-            s.setSoTimeout(ServerConfig.SOCKET_TIMEOUT_MILLIS);
-            BufferedInputStream in = new BufferedInputStream(s.getInputStream());
-            OutputStream out = s.getOutputStream();
-            int handledRequests = 0;
-            boolean keepAlive;
-            do {
-                HttpRequest request;
+            socket.setSoTimeout(ServerConfig.SOCKET_TIMEOUT_MILLIS);
+            in = new BufferedInputStream(socket.getInputStream());
+            out = new CountingOutputStream(socket.getOutputStream());
+            if (socket.getInetAddress() != null) {
+                remoteAddress = socket.getInetAddress().getHostAddress();
+            }
+            suspended = serve();
+        } catch (IOException e) {
+            Logger.error("IO error on connection", e);
+        } finally {
+            if (!suspended) {
+                close();
+            }
+        }
+    }
+
+    /**
+     * 연결이 끝나거나 응답을 기다려야 할 때까지 요청을 읽고 처리한다.
+     *
+     * @return 아직 끝나지 않은 응답을 기다리느라 연결을 콜백에 넘겼으면 true
+     */
+    private boolean serve() throws IOException {
+        boolean keepAlive;
+        do {
+            HttpRequest request;
+            long parseStartNanos = System.nanoTime();
+            try {
+                // 요청 라인/헤더/바디를 순서대로 파싱한다.
+                request = parser.parse(in);
+            } catch (SocketTimeoutException e) {
+                Logger.warn("Socket timeout from " + socket.getRemoteSocketAddress());
+                return false;
+            } catch (HttpParseException e) {
+                Logger.warn("Bad request from " + socket.getRemoteSocketAddress() + ": " + e.getMessage());
+                // 파싱 실패가 났을 때 이미 클라이언트가 연결을 끊었으면 오류 응답을 보내지 않는다.
+                if (!socket.isOutputShutdown() && !socket.isClosed()) {
+                    long writtenBefore = out.count;
+                    sendError(out, 400, "Bad Request", e.getMessage());
+                    // 요청 줄을 해석하지 못했으므로 메서드와 대상은 비워 둔다. 시간에는 keep-alive 유휴 시간이 섞일 수 있다.
+                    handledRequests++;
+                    log(null, null, 400, out.count - writtenBefore, System.nanoTime() - parseStartNanos);
+                } else {
+                    Logger.warn("클라이언트가 연결을 끊어 오류 응답을 생략합니다.");
+                }
+                return false;
+            }
+            if (request == null) {
+                // 클라이언트가 연결을 종료한 경우 null 반환으로 루프를 마친다.
+                return false;
+            }
+
+            request.context().setRemoteAddress(remoteAddress);
+            CompletableFuture<HttpResponse> pending = router.route(request).toCompletableFuture();
+            if (!pending.isDone() && executor != null) {
+                // 제한 시간은 복사본에만 걸어 핸들러가 공유하는 단계를 건드리지 않는다.
+                pending.copy()
+                        .orTimeout(ServerConfig.ASYNC_RESPONSE_TIMEOUT_MILLIS, TimeUnit.MILLISECONDS)
+                        .whenComplete((response, failure) -> resume(request, response, failure));
+                return true;
+            }
+            keepAlive = respond(request, await(pending));
+        } while (keepAlive);
+        return false;
+    }
+
+    /**
+     * 비동기 응답이 끝났을 때 완료 콜백에서 불린다. 완료시킨 스레드(커밋 스레드 등)를 붙잡지 않도록
+     * 응답 쓰기는 응답 쓰기 풀로 넘긴다. 워커 풀은 keep-alive 읽기로 한참 막혀 있을 수 있어
+     * 이미 끝난 응답을 그 뒤에 줄 세우지 않는다.
+     */
+    private void resume(HttpRequest request, HttpResponse response, Throwable failure) {
+        try {
+            responseExecutor.execute(() -> {
+                boolean keepAlive = false;
                 try {
-                    // 요청 라인/헤더/바디를 순서대로 파싱한다.
-                    request = parser.parse(in);
-                } catch (SocketTimeoutException e) {
-                    Logger.warn("Socket timeout from " + s.getRemoteSocketAddress());
-                    break;
-                } catch (HttpParseException e) {
-                    Logger.warn("Bad request from " + s.getRemoteSocketAddress() + ": " + e.getMessage());
-                    // 파싱 실패가 났을 때 이미 클라이언트가 연결을 끊었으면 오류 응답을 보내지 않는다.
-                    if (!s.isOutputShutdown() && !s.isClosed()) {
-                        sendError(out, 400, "Bad Request", e.getMessage());
-                    } else {
-                        Logger.warn("클라이언트가 연결을 끊어 오류 응답을 생략합니다.");
-                    }
-                    break;
+                    keepAlive = respond(request, responseOf(response, failure));
+                } catch (IOException e) {
+                    Logger.error("IO error on connection", e);
                 }
-                if (request == null) {
-                    // 클라이언트가 연결을 종료한 경우 null 반환으로 루프를 마친다.
-                    break;
+                if (keepAlive) {
+                    continueServing();
+                } else {
+                    close();
                 }
+            });
+        } catch (RejectedExecutionException e) {
+            // 서버가 내려가는 중이면 응답 없이 연결을 닫는다.
+            close();
+        }
+    }
 
-                HttpResponse response;
+    /**
+     * 응답을 쓴 연결의 다음 요청 읽기를 워커 풀에 맡긴다. 읽기는 유휴 시간만큼 막힐 수 있으므로
+     * 응답 쓰기 스레드를 붙잡지 않는다.
+     */
+    private void continueServing() {
+        try {
+            executor.execute(() -> {
+                boolean suspended = false;
                 try {
-                    response = router.route(request);
-                } catch (Exception e) {
-                    Logger.error("Handler failure", e);
-                    response = HttpResponse.builder(500, "Internal Server Error")
-                            .header("Content-Type", "text/plain; charset=UTF-8")
-                            .body("Internal Server Error".getBytes(StandardCharsets.UTF_8))
-                            .build();
+                    suspended = serve();
+                } catch (IOException e) {
+                    Logger.error("IO error on connection", e);
+                } finally {
+                    if (!suspended) {
+                        close();
+                    }
                 }
-                handledRequests++;
-                keepAlive = policy.shouldKeepAlive(request, handledRequests);
-                // 기존 응답 객체를 기반으로 keep-alive 헤더 등을 보강한다.
-                HttpResponse.Builder builder = HttpResponse.builder(response.statusCode(), response.reasonPhrase());
-                response.headers().forEach(builder::header);
-                builder.body(response.body());
-                policy.applyResponseHeaders(builder, keepAlive);
-                HttpResponse finalResponse = builder.build();
-                boolean includeBody = !"HEAD".equalsIgnoreCase(request.method());
-                writer.write(out, finalResponse, includeBody);
-            } while (keepAlive);
+            });
+        } catch (RejectedExecutionException e) {
+            close();
+        }
+    }
+
+    private HttpResponse await(CompletableFuture<HttpResponse> pending) {
+        try {
+            return pending.get(ServerConfig.ASYNC_RESPONSE_TIMEOUT_MILLIS, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return responseOf(null, e);
+        } catch (ExecutionException e) {
+            return responseOf(null, e.getCause());
+        } catch (TimeoutException e) {
+            return responseOf(null, e);
+        }
+    }
+
+    private HttpResponse responseOf(HttpResponse response, Throwable failure) {
+        if (failure == null) {
+            return response;
+        }
+        Throwable cause = failure instanceof CompletionException && failure.getCause() != null
+                ? failure.getCause()
+                : failure;
+        if (cause instanceof TimeoutException) {
+            Logger.warn("Handler timed out from " + socket.getRemoteSocketAddress());
+            return CannedResponses.SERVICE_UNAVAILABLE;
+        }
+        Logger.error("Handler failure", cause);
+        return CannedResponses.INTERNAL_SERVER_ERROR;
+    }
+
+    /**
+     * 응답을 쓰고 접근 로그에 남긴 뒤 연결을 유지할지 돌려준다. 쓰기가 실패한 응답도 남긴다.
+     */
+    private boolean respond(HttpRequest request, HttpResponse response) throws IOException {
+        handledRequests++;
+        long writtenBefore = out.count;
+        try {
+            boolean keepAlive = writeResponse(request, response);
+            log(request, response, out.count - writtenBefore);
+            return keepAlive;
         } catch (IOException e) {
-            Logger.error("IO error on connection", e);
+            // 쓰다가 끊긴 응답도 남긴다. bytes 가 응답 크기보다 작으면 중간에 끊긴 것이다.
+            log(request, response, out.count - writtenBefore);
+            throw e;
+        }
+    }
+
+    /**
+     * 응답을 쓰고 연결을 유지할지 돌려준다.
+     */
+    private boolean writeResponse(HttpRequest request, HttpResponse response) throws IOException {
+        boolean keepAlive = policy.shouldKeepAlive(request, handledRequests);
+        // 핸들러가 다 읽지 않은 업로드 본문은 비워야 다음 요청을 읽을 수 있다. 너무 크면 연결을 닫는다.
+        if (request.hasStreamingBody() && !request.discardRemainingBody(ServerConfig.UPLOAD_DRAIN_LIMIT_BYTES)) {
+            keepAlive = false;
+        }
+        // HTTP/1.0 은 chunked 를 모르므로 스트리밍 응답은 연결을 닫아 본문 끝을 알린다.
+        boolean chunked = "HTTP/1.1".equals(request.version());
+        if (response.isStreaming() && !chunked) {
+            keepAlive = false;
+        }
+        boolean includeBody = !"HEAD".equalsIgnoreCase(request.method());
+        if (response.isPreEncoded()) {
+            writer.writePreEncoded(out, response, includeBody, policy.connectionHeaders(keepAlive));
+            return keepAlive;
+        }
+        // 기존 응답 객체를 기반으로 keep-alive 헤더 등을 보강한다.
+        HttpResponse.Builder builder = HttpResponse.builder(response.statusCode(), response.reasonPhrase());
+        response.headers().forEach(builder::header);
+        if (response.isStreaming()) {
+            builder.stream(response.streamingBody());
+        } else {
+            builder.body(response.body());
+        }
+        policy.applyResponseHeaders(builder, keepAlive);
+        HttpResponse finalResponse = builder.build();
+        writer.write(out, finalResponse, includeBody, chunked);
+        return keepAlive;
+    }
+
+    private void log(HttpRequest request, HttpResponse response, long bytes) {
+        log(request.method(), request.target(), response.statusCode(), bytes, request.context().elapsedNanos());
+    }
+
+    private void log(String method, String target, int status, long bytes, long durationNanos) {
+        if (accessLog != null) {
+            accessLog.record(remoteAddress, method, target, status, bytes, durationNanos, handledRequests);
+        }
+    }
+
+    private void close() {
+        try {
+            socket.close();
+        } catch (IOException e) {
+            Logger.warn("Failed to close connection: " + e.getMessage());
         }
     }
 
@@ -111,4 +302,27 @@ public final class ConnectionWorker implements Runnable {
             }
         }
     }
+
+    /**
+     * 접근 로그에 남길 응답 크기를 세려고 소켓 출력을 감싼다.
+     */
+    private static final class CountingOutputStream extends FilterOutputStream {
+        private long count;
+
+        private CountingOutputStream(OutputStream out) {
+            super(out);
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            out.write(b);
+            count++;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            out.write(b, off, len);
+            count += len;
+        }
+    }
 }
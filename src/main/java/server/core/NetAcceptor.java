@@ -2,6 +2,7 @@ package server.core;
 
 import server.config.ServerConfig;
 import server.route.Router;
+import server.util.AccessLog;
 import server.util.Logger;
 
 import java.io.Closeable;
@@ -13,6 +14,7 @@ import java.net.SocketTimeoutException;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * 클라이언트 연결을 받아 ConnectionWorker에 위임하는 구성 요소.
@@ -20,12 +22,23 @@ import java.util.concurrent.TimeUnit;
  */
 public final class NetAcceptor implements Closeable {
     private final Router router;
+    private final AccessLog accessLog;
     private volatile boolean running;
     private ExecutorService executor;
+    /** 비동기 응답을 쓰는 풀. 요청을 읽는 워커 풀과 따로 둔다. */
+    private ExecutorService responders;
     private ServerSocket serverSocket;
 
     public NetAcceptor(Router router) {
+        this(router, null);
+    }
+
+    /**
+     * @param accessLog 요청마다 한 줄씩 남길 접근 로그. null 이면 남기지 않는다.
+     */
+    public NetAcceptor(Router router, AccessLog accessLog) {
         this.router = router;
+        this.accessLog = accessLog;
     }
 
     public void start() throws IOException {
@@ -35,6 +48,12 @@ public final class NetAcceptor implements Closeable {
                 return;
             }
             executor = Executors.newFixedThreadPool(ServerConfig.WORKER_THREADS);
+            AtomicInteger responderCount = new AtomicInteger();
+            responders = Executors.newFixedThreadPool(ServerConfig.RESPONSE_WRITER_THREADS, runnable -> {
+                Thread thread = new Thread(runnable, "response-writer-" + responderCount.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            });
             serverSocket = new ServerSocket();
             serverSocket.bind(new InetSocketAddress(ServerConfig.PORT), ServerConfig.ACCEPT_BACKLOG);
             serverSocket.setSoTimeout(1000);
@@ -46,7 +65,7 @@ public final class NetAcceptor implements Closeable {
                 try {
                     // 새 연결을 수락하면 워커에게 처리하도록 맡긴다.
                     Socket socket = serverSocket.accept();
-                    executor.execute(new ConnectionWorker(socket, router));
+                    executor.execute(new ConnectionWorker(socket, router, executor, responders, accessLog));
                 } catch (SocketTimeoutException e) {
                     // 1초마다 깨어나서 running 플래그를 점검한다.
                 } catch (IOException e) {
@@ -84,18 +103,33 @@ public final class NetAcceptor implements Closeable {
     }
 
     private void cleanup() {
-        if (executor != null) {
-            executor.shutdown();
-            try {
-                if (!executor.awaitTermination(5, TimeUnit.SECONDS)) {
-                    executor.shutdownNow();
-                }
-            } catch (InterruptedException e) {
-                Thread.currentThread().interrupt();
-                executor.shutdownNow();
-            }
+        // 수락 루프와 stop() 이 동시에 정리할 수 있으므로 한쪽만 풀을 가져가 종료한다.
+        ExecutorService current;
+        ExecutorService currentResponders;
+        synchronized (this) {
+            current = executor;
+            currentResponders = responders;
             executor = null;
+            responders = null;
         }
+        // 워커가 넘긴 응답은 마저 쓰고, 그 뒤의 다음 요청 읽기는 이미 내린 워커 풀이 거절해 연결을 닫는다.
+        shutdown(current);
+        shutdown(currentResponders);
         serverSocket = null;
     }
+
+    private static void shutdown(ExecutorService pool) {
+        if (pool == null) {
+            return;
+        }
+        pool.shutdown();
+        try {
+            if (!pool.awaitTermination(5, TimeUnit.SECONDS)) {
+                pool.shutdownNow();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            pool.shutdownNow();
+        }
+    }
 }
@@ -0,0 +1,106 @@
+package server.filter;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.CompletionStage;
+import java.util.zip.GZIPOutputStream;
+
+import server.http.HttpRequest;
+import server.http.HttpResponse;
+import server.route.AsyncHandler;
+import server.route.Filter;
+
+/**
+ * 클라이언트가 gzip 을 받으면 텍스트 계열 응답 본문을 압축하는 필터.
+ * 스트리밍 응답, 이미 인코딩된 응답, 작은 본문, 이미지 같은 압축된 형식은 건드리지 않는다.
+ * 그래서 라우트 체인에서 한 번 압축한 응답은 전역 체인의 같은 필터를 그냥 지나간다.
+ */
+public final class GzipFilter implements Filter {
+    private final int minBytes;
+
+    /**
+     * @param minBytes 이보다 작은 본문은 압축하지 않는다
+     */
+    public GzipFilter(int minBytes) {
+        this.minBytes = minBytes;
+    }
+
+    @Override
+    public CompletionStage<HttpResponse> filter(HttpRequest request, AsyncHandler next) {
+        if (!acceptsGzip(request.header("accept-encoding"))) {
+            return next.handleAsync(request);
+        }
+        return next.handleAsync(request).thenApply(this::compress);
+    }
+
+    private HttpResponse compress(HttpResponse response) {
+        if (response.isStreaming() || response.statusCode() != 200
+                || response.headers().containsKey("Content-Encoding")
+                || !isCompressible(response.headers().get("Content-Type"))) {
+            return response;
+        }
+        byte[] body = response.body();
+        if (body.length < minBytes) {
+            return response;
+        }
+        ByteArrayOutputStream compressed = new ByteArrayOutputStream(body.length / 3 + 64);
+        try (GZIPOutputStream gzip = new GZIPOutputStream(compressed, 8192)) {
+            gzip.write(body);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        if (compressed.size() >= body.length) {
+            return response;
+        }
+        HttpResponse.Builder builder = HttpResponse.builder(response.statusCode(), response.reasonPhrase());
+        for (Map.Entry<String, String> header : response.headers().entrySet()) {
+            if (!"Content-Length".equalsIgnoreCase(header.getKey())) {
+                builder.header(header.getKey(), header.getValue());
+            }
+        }
+        return builder.header("Content-Encoding", "gzip")
+                .header("Vary", "Accept-Encoding")
+                .body(compressed.toByteArray())
+                .build();
+    }
+
+    /**
+     * Accept-Encoding 헤더가 gzip 을 받는지 본다. {@link ResponseCacheFilter} 가 캐시 키를 나눌 때도 쓴다.
+     */
+    static boolean acceptsGzip(String acceptEncoding) {
+        if (acceptEncoding == null) {
+            return false;
+        }
+        for (String coding : acceptEncoding.split(",")) {
+            String[] parts = coding.split(";");
+            if (!"gzip".equalsIgnoreCase(parts[0].trim())) {
+                continue;
+            }
+            // "gzip;q=0" 은 받지 않겠다는 뜻이다.
+            for (int i = 1; i < parts.length; i++) {
+                String param = parts[i].trim();
+                if (param.startsWith("q=")) {
+                    try {
+                        return Double.parseDouble(param.substring(2)) > 0;
+                    } catch (NumberFormatException e) {
+                        return false;
+                    }
+                }
+            }
+            return true;
+        }
+        return false;
+    }
+
+    private static boolean isCompressible(String contentType) {
+        if (contentType == null) {
+            return false;
+        }
+        String type = contentType.toLowerCase(Locale.ROOT);
+        return type.startsWith("text/") || type.contains("json") || type.contains("javascript")
+                || type.contains("xml") || type.contains("svg");
+    }
+}
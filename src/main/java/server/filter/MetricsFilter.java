@@ -0,0 +1,79 @@
+package server.filter;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+import server.http.HttpRequest;
+import server.http.HttpResponse;
+import server.route.AsyncHandler;
+import server.route.Filter;
+
+/**
+ * 요청 수, 상태 코드 분류별 수, 처리 시간을 모으는 필터. 처리 시간은 요청을 다 읽은 뒤부터
+ * 응답이 준비될 때까지이며, 비동기 응답이면 완료 시점에 센다.
+ * 가장 바깥에 걸어야 다른 필터가 돌려보낸 응답(401, 429 등)까지 함께 센다.
+ */
+public final class MetricsFilter implements Filter {
+    private static final String UNROUTED = "(unrouted)";
+
+    private final LongAdder requests = new LongAdder();
+    /** 1xx ~ 5xx */
+    private final LongAdder[] byStatusClass = new LongAdder[5];
+    private final LongAdder totalNanos = new LongAdder();
+    private final LongAccumulator maxNanos = new LongAccumulator(Math::max, 0);
+    private final Map<String, LongAdder> byRoute = new ConcurrentHashMap<>();
+
+    public MetricsFilter() {
+        for (int i = 0; i < byStatusClass.length; i++) {
+            byStatusClass[i] = new LongAdder();
+        }
+    }
+
+    @Override
+    public CompletionStage<HttpResponse> filter(HttpRequest request, AsyncHandler next) {
+        return next.handleAsync(request).whenComplete((response, failure) -> {
+            long elapsed = request.context().elapsedNanos();
+            requests.increment();
+            totalNanos.add(elapsed);
+            maxNanos.accumulate(elapsed);
+            int status = failure != null || response == null ? 500 : response.statusCode();
+            int statusClass = status / 100;
+            if (statusClass >= 1 && statusClass <= 5) {
+                byStatusClass[statusClass - 1].increment();
+            }
+            String route = request.context().route();
+            byRoute.computeIfAbsent(route != null ? route : UNROUTED, key -> new LongAdder()).increment();
+        });
+    }
+
+    public long requests() {
+        return requests.sum();
+    }
+
+    /**
+     * @param statusClass 1 ~ 5 (2 면 2xx)
+     */
+    public long responses(int statusClass) {
+        return byStatusClass[statusClass - 1].sum();
+    }
+
+    public double averageMillis() {
+        long count = requests.sum();
+        return count == 0 ? 0 : totalNanos.sum() / 1_000_000d / count;
+    }
+
+    public double maxMillis() {
+        return maxNanos.get() / 1_000_000d;
+    }
+
+    /** 라우트 패턴별 요청 수. 등록된 라우트에 맞지 않은 요청은 "(unrouted)" 로 센다. */
+    public Map<String, Long> requestsByRoute() {
+        Map<String, Long> snapshot = new TreeMap<>();
+        byRoute.forEach((route, count) -> snapshot.put(route, count.sum()));
+        return snapshot;
+    }
+}
@@ -0,0 +1,145 @@
+package server.filter;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import server.http.HttpRequest;
+import server.http.HttpResponse;
+import server.route.AsyncHandler;
+import server.route.Filter;
+import server.util.JsonUtil;
+import server.util.Logger;
+
+/**
+ * 클라이언트 IP 별 토큰 버킷으로 요청 수를 제한하는 필터. 한도를 넘으면 429 와 Retry-After 로 응답한다.
+ * 같은 인스턴스를 여러 라우트에 걸면 그 라우트들이 한 버킷을 함께 쓴다.
+ * 거절은 요청마다 로그를 남기지 않고 세어 두었다가 {@link #REPORT_INTERVAL_NANOS} 에 한 번 합쳐서 남긴다.
+ */
+public final class RateLimitFilter implements Filter {
+    private static final long REPORT_INTERVAL_NANOS = TimeUnit.SECONDS.toNanos(1);
+
+    private final double permitsPerNano;
+    private final double burst;
+    private final int maxClients;
+    private final Map<String, Bucket> buckets = new ConcurrentHashMap<>();
+    /** 마지막 보고 이후 거절한 요청 수 */
+    private final AtomicLong rejected = new AtomicLong();
+    private final AtomicLong nextReportNanos = new AtomicLong(System.nanoTime());
+
+    /**
+     * @param permitsPerSecond 초당 채워지는 요청 수
+     * @param burst            한 번에 몰아 쓸 수 있는 최대 요청 수
+     * @param maxClients       기억할 클라이언트 수. 넘으면 다 찬(한동안 조용한) 버킷부터 버리고,
+     *                         그래도 넘으면 가장 오래 요청이 없던 버킷부터 버린다.
+     */
+    public RateLimitFilter(double permitsPerSecond, int burst, int maxClients) {
+        this.permitsPerNano = permitsPerSecond / 1_000_000_000d;
+        this.burst = burst;
+        this.maxClients = maxClients;
+    }
+
+    @Override
+    public CompletionStage<HttpResponse> filter(HttpRequest request, AsyncHandler next) {
+        String client = request.context().remoteAddress();
+        if (client == null) {
+            return next.handleAsync(request);
+        }
+        Bucket bucket = buckets.get(client);
+        if (bucket == null) {
+            if (buckets.size() >= maxClients) {
+                evictIdle();
+            }
+            bucket = buckets.computeIfAbsent(client, key -> new Bucket(burst));
+        }
+        long now = System.nanoTime();
+        long waitNanos = bucket.acquire(now);
+        if (waitNanos > 0) {
+            rejected(client, now);
+            long retryAfter = Math.max(1, (waitNanos + 999_999_999L) / 1_000_000_000L);
+            return CompletableFuture.completedFuture(HttpResponse.builder(429, "Too Many Requests")
+                    .header("Retry-After", Long.toString(retryAfter))
+                    .header("Content-Type", "application/json; charset=UTF-8")
+                    .body(JsonUtil.createResponseBytes(false, "요청이 너무 많습니다. 잠시 후 다시 시도해 주세요."))
+                    .build());
+        }
+        return next.handleAsync(request);
+    }
+
+    /**
+     * 거절을 센다. 보고 주기가 지났으면 그동안 센 수를 로그 한 줄로 남긴다.
+     * 429 가 몰려도 로그 버퍼를 채워 거절하는 워커까지 막지 않게 한다.
+     */
+    private void rejected(String client, long now) {
+        rejected.incrementAndGet();
+        long due = nextReportNanos.get();
+        if (now - due >= 0 && nextReportNanos.compareAndSet(due, now + REPORT_INTERVAL_NANOS)) {
+            Logger.warn("Rate limit exceeded: " + rejected.getAndSet(0) + " requests rejected (last client "
+                    + client + ")");
+        }
+    }
+
+    /**
+     * 다 찬 버킷을 먼저 버리고, 그래도 가득 차 있으면 가장 오래 요청이 없던 버킷부터 한도의 10% 만큼 더 버린다.
+     * 지금 제한받는 클라이언트는 계속 요청하므로 최근에 쓴 버킷으로 남아 한도가 풀리지 않는다.
+     */
+    private void evictIdle() {
+        long now = System.nanoTime();
+        buckets.values().removeIf(bucket -> bucket.isFull(now));
+        int excess = buckets.size() - (maxClients - maxClients / 10);
+        if (excess <= 0) {
+            return;
+        }
+        // 정렬 중에 시각이 바뀌지 않도록 먼저 찍어 둔다.
+        List<long[]> byLastUse = new ArrayList<>(buckets.size());
+        List<Map.Entry<String, Bucket>> entries = new ArrayList<>(buckets.entrySet());
+        for (int i = 0; i < entries.size(); i++) {
+            byLastUse.add(new long[] {entries.get(i).getValue().lastUsedNanos, i});
+        }
+        byLastUse.sort(Comparator.comparingLong(entry -> entry[0]));
+        for (int i = 0; i < excess && i < byLastUse.size(); i++) {
+            Map.Entry<String, Bucket> entry = entries.get((int) byLastUse.get(i)[1]);
+            buckets.remove(entry.getKey(), entry.getValue());
+        }
+    }
+
+    private final class Bucket {
+        private double tokens;
+        private long updatedNanos = System.nanoTime();
+        /** 마지막으로 요청한 시각. 가득 찼을 때 버릴 버킷을 고르는 데 쓴다 */
+        private volatile long lastUsedNanos = updatedNanos;
+
+        private Bucket(double tokens) {
+            this.tokens = tokens;
+        }
+
+        /**
+         * 토큰 하나를 쓴다. 모자라면 쓰지 않고 다음 토큰까지 남은 시간을 돌려준다.
+         */
+        private synchronized long acquire(long now) {
+            lastUsedNanos = now;
+            refill(now);
+            if (tokens >= 1) {
+                tokens -= 1;
+                return 0;
+            }
+            return (long) ((1 - tokens) / permitsPerNano);
+        }
+
+        private synchronized boolean isFull(long now) {
+            refill(now);
+            return tokens >= burst;
+        }
+
+        private void refill(long now) {
+            tokens = Math.min(burst, tokens + (now - updatedNanos) * permitsPerNano);
+            updatedNanos = now;
+        }
+    }
+}
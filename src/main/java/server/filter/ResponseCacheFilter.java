@@ -0,0 +1,212 @@
+package server.filter;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+import server.http.HttpRequest;
+import server.http.HttpResponse;
+import server.route.AsyncHandler;
+import server.route.Filter;
+
+/**
+ * 자주 불리는 동적 GET 응답을 짧게 보관하는 라우트 단위 캐시(microcache).
+ * 키는 경로+쿼리와 지정한 요청 헤더 값이며, 항목은 TTL 이 지나거나 전체 크기가 한도를 넘으면 버린다.
+ * 같은 키로 동시에 들어온 요청은 진행 중인 계산 하나를 함께 기다리므로 몰려도 계산은 한 번만 한다.
+ * <p>
+ * 200 이고 스트리밍이 아니며 Set-Cookie 가 없는 응답만 보관한다. 로그인 사용자마다 달라지는 라우트에는 걸지 않는다.
+ * <p>
+ * 안쪽에 {@link GzipFilter} 를 두면 압축한 본문을 그대로 보관해 적중할 때마다 다시 압축하지 않는다.
+ * 그래서 키에는 클라이언트가 gzip 을 받는지도 넣는다. Accept-Encoding 원문이 아니라 받는지 여부만 넣어 변형이 늘지 않게 한다.
+ */
+public final class ResponseCacheFilter implements Filter {
+    private final long ttlNanos;
+    private final long maxBytes;
+    private final List<String> varyHeaders;
+    private final Map<String, Entry> entries = new LinkedHashMap<>(64, 0.75f, true);
+    private final Map<String, CompletableFuture<HttpResponse>> inFlight = new ConcurrentHashMap<>();
+    /** {@link #clear()} 할 때마다 올린다. 비우기 전에 시작한 계산의 결과는 보관하지 않는다. */
+    private final AtomicLong generation = new AtomicLong();
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder coalesced = new LongAdder();
+    private long totalBytes;
+
+    /**
+     * @param varyHeaders 키에 넣을 요청 헤더 이름(소문자)
+     */
+    public ResponseCacheFilter(long ttlMillis, long maxBytes, String... varyHeaders) {
+        this.ttlNanos = TimeUnit.MILLISECONDS.toNanos(ttlMillis);
+        this.maxBytes = maxBytes;
+        this.varyHeaders = List.of(varyHeaders);
+    }
+
+    @Override
+    public CompletionStage<HttpResponse> filter(HttpRequest request, AsyncHandler next) {
+        String method = request.method();
+        if (!"GET".equals(method) && !"HEAD".equals(method)) {
+            return next.handleAsync(request);
+        }
+        String key = keyOf(request);
+        long now = System.nanoTime();
+        HttpResponse cached = lookup(key, now);
+        if (cached != null) {
+            hits.increment();
+            return CompletableFuture.completedFuture(cached);
+        }
+
+        CompletableFuture<HttpResponse> pending = new CompletableFuture<>();
+        CompletableFuture<HttpResponse> running = inFlight.putIfAbsent(key, pending);
+        if (running != null) {
+            coalesced.increment();
+            return running;
+        }
+        misses.increment();
+        long startedGeneration = generation.get();
+        CompletionStage<HttpResponse> computed;
+        try {
+            computed = next.handleAsync(request);
+        } catch (RuntimeException e) {
+            computed = CompletableFuture.failedFuture(e);
+        }
+        computed.whenComplete((response, failure) -> {
+            if (failure == null && isCacheable(response) && generation.get() == startedGeneration) {
+                store(key, response, System.nanoTime());
+            }
+            // 기다리던 요청이 새 계산을 시작할 수 있도록 완료 전에 뺀다.
+            inFlight.remove(key, pending);
+            if (failure != null) {
+                pending.completeExceptionally(failure);
+            } else {
+                pending.complete(response);
+            }
+        });
+        return pending;
+    }
+
+    /**
+     * 모든 항목을 버린다. 원본이 바뀌었을 때(게시글 생성/삭제) 부른다.
+     */
+    public synchronized void clear() {
+        generation.incrementAndGet();
+        entries.clear();
+        totalBytes = 0;
+    }
+
+    public long hits() {
+        return hits.sum();
+    }
+
+    public long misses() {
+        return misses.sum();
+    }
+
+    /** 진행 중인 계산을 함께 기다린 요청 수 */
+    public long coalesced() {
+        return coalesced.sum();
+    }
+
+    public synchronized long totalBytes() {
+        return totalBytes;
+    }
+
+    private String keyOf(HttpRequest request) {
+        boolean gzip = GzipFilter.acceptsGzip(request.header("accept-encoding"));
+        if (varyHeaders.isEmpty()) {
+            return gzip ? request.target() + "\ngzip" : request.target();
+        }
+        StringBuilder key = new StringBuilder(request.target());
+        if (gzip) {
+            key.append("\ngzip");
+        }
+        for (String header : varyHeaders) {
+            String value = request.header(header);
+            key.append('\n').append(value != null ? value : "");
+        }
+        return key.toString();
+    }
+
+    private synchronized HttpResponse lookup(String key, long now) {
+        Entry entry = entries.get(key);
+        if (entry == null) {
+            return null;
+        }
+        if (now - entry.storedNanos >= ttlNanos) {
+            entries.remove(key);
+            totalBytes -= entry.size;
+            return null;
+        }
+        return entry.response;
+    }
+
+    private synchronized void store(String key, HttpResponse response, long now) {
+        long size = sizeOf(key, response);
+        if (size > maxBytes) {
+            return;
+        }
+        Entry previous = entries.put(key, new Entry(response, now, size));
+        if (previous != null) {
+            totalBytes -= previous.size;
+        }
+        totalBytes += size;
+        if (totalBytes <= maxBytes) {
+            return;
+        }
+        // 한도를 넘으면 만료된 것을 순서와 관계없이 먼저 버리고, 그래도 넘으면 가장 오래 안 쓴 것부터 버린다.
+        Iterator<Entry> iterator = entries.values().iterator();
+        while (iterator.hasNext()) {
+            Entry entry = iterator.next();
+            if (now - entry.storedNanos >= ttlNanos) {
+                iterator.remove();
+                totalBytes -= entry.size;
+            }
+        }
+        iterator = entries.values().iterator();
+        while (iterator.hasNext() && totalBytes > maxBytes) {
+            Entry eldest = iterator.next();
+            iterator.remove();
+            totalBytes -= eldest.size;
+        }
+    }
+
+    private static boolean isCacheable(HttpResponse response) {
+        return response != null && response.statusCode() == 200 && !response.isStreaming()
+                && !response.headers().containsKey("Set-Cookie");
+    }
+
+    private static long sizeOf(String key, HttpResponse response) {
+        long size = key.length() * 2L + 64;
+        for (Map.Entry<String, String> header : response.headers().entrySet()) {
+            size += (header.getKey().length() + header.getValue().length()) * 2L;
+        }
+        // body() 는 복사본을 만들므로 Content-Length 가 있으면 그것을 쓴다.
+        String length = response.headers().get("Content-Length");
+        if (length != null) {
+            try {
+                return size + Long.parseLong(length);
+            } catch (NumberFormatException e) {
+                // 아래에서 본문 길이로 센다.
+            }
+        }
+        return size + response.body().length;
+    }
+
+    private static final class Entry {
+        private final HttpResponse response;
+        private final long storedNanos;
+        private final long size;
+
+        private Entry(HttpResponse response, long storedNanos, long size) {
+            this.response = response;
+            this.storedNanos = storedNanos;
+            this.size = size;
+        }
+    }
+}
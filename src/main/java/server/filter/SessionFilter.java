@@ -0,0 +1,40 @@
+package server.filter;
+
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+
+import server.http.CannedResponses;
+import server.http.HttpRequest;
+import server.http.HttpResponse;
+import server.route.AsyncHandler;
+import server.route.Filter;
+import server.service.AuthService;
+import server.util.Logger;
+
+/**
+ * 세션 쿠키로 로그인 사용자를 확인해 요청 컨텍스트에 남기는 필터.
+ * 뒤 단계는 {@code request.context().user()} 로 결과를 읽으며 세션을 다시 검증하지 않는다.
+ */
+public final class SessionFilter implements Filter {
+    private final AuthService authService;
+
+    private SessionFilter(AuthService authService) {
+        this.authService = authService;
+    }
+
+    /** 로그인하지 않은 요청은 401 로 돌려보낸다. */
+    public static SessionFilter required(AuthService authService) {
+        return new SessionFilter(authService);
+    }
+
+    @Override
+    public CompletionStage<HttpResponse> filter(HttpRequest request, AsyncHandler next) {
+        Optional<String> user = request.context().user(authService::validateSession);
+        if (user.isEmpty()) {
+            Logger.warn("Unauthorized access attempt to: " + request.target());
+            return CompletableFuture.completedFuture(CannedResponses.LOGIN_REQUIRED);
+        }
+        return next.handleAsync(request);
+    }
+}
@@ -0,0 +1,76 @@
+package server.http;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * Content-Length 만큼만 읽도록 제한한 요청 본문 스트림.
+ * 연결 스트림을 그대로 감싸므로 본문을 힙에 모으지 않고 핸들러가 직접 읽는다.
+ * close 는 연결을 닫지 않는다.
+ */
+public final class BoundedInputStream extends InputStream {
+    private final InputStream in;
+    private long remaining;
+
+    public BoundedInputStream(InputStream in, long length) {
+        this.in = in;
+        this.remaining = length;
+    }
+
+    /** 아직 읽지 않은 본문 바이트 수 */
+    public long remaining() {
+        return remaining;
+    }
+
+    @Override
+    public int read() throws IOException {
+        if (remaining <= 0) {
+            return -1;
+        }
+        int b = in.read();
+        if (b == -1) {
+            throw new IOException("Unexpected EOF while reading body");
+        }
+        remaining--;
+        return b;
+    }
+
+    @Override
+    public int read(byte[] buffer, int offset, int length) throws IOException {
+        if (remaining <= 0) {
+            return -1;
+        }
+        int read = in.read(buffer, offset, (int) Math.min(length, remaining));
+        if (read == -1) {
+            throw new IOException("Unexpected EOF while reading body");
+        }
+        remaining -= read;
+        return read;
+    }
+
+    /**
+     * 남은 본문을 limit 바이트까지 읽어 버린다.
+     *
+     * @return 본문을 끝까지 비웠으면 true. 남은 양이 limit 보다 많으면 읽지 않고 false
+     */
+    public boolean drain(long limit) throws IOException {
+        if (remaining > limit) {
+            return false;
+        }
+        byte[] scratch = new byte[8192];
+        while (read(scratch, 0, scratch.length) != -1) {
+            // 버린다
+        }
+        return true;
+    }
+
+    @Override
+    public int available() throws IOException {
+        return (int) Math.min(in.available(), remaining);
+    }
+
+    @Override
+    public void close() {
+        // 연결 스트림은 ConnectionWorker 가 관리한다.
+    }
+}
@@ -0,0 +1,73 @@
+package server.http;
+
+import java.nio.charset.StandardCharsets;
+
+import server.util.JsonUtil;
+
+/**
+ * 여러 곳에서 늘 같은 내용으로 돌려주는 오류/상태 응답 모음.
+ * 클래스를 읽어 들일 때 상태 라인, 헤더, 본문을 모두 바이트로 만들어 두므로 요청마다 포맷하거나 인코딩하지 않는다.
+ * 핸들러마다 고정 문구가 따로 있으면 {@link #json}, {@link #text} 로 만들어 그 핸들러의 상수로 둔다.
+ */
+public final class CannedResponses {
+    public static final HttpResponse NOT_FOUND = text(404, "Not Found", "Not Found");
+    public static final HttpResponse FORBIDDEN = text(403, "Forbidden", "Forbidden");
+    /** POST 만 받는 핸들러의 405 */
+    public static final HttpResponse POST_ONLY = methodNotAllowed("POST");
+    public static final HttpResponse INTERNAL_SERVER_ERROR =
+            text(500, "Internal Server Error", "Internal Server Error");
+    /** 처리 시간이 제한을 넘었을 때 */
+    public static final HttpResponse SERVICE_UNAVAILABLE = HttpResponse.builder(503, "Service Unavailable")
+            .header("Retry-After", "1")
+            .header("Content-Type", "text/plain; charset=UTF-8")
+            .body("Service Unavailable".getBytes(StandardCharsets.UTF_8))
+            .buildPreEncoded();
+    /** 쓰기 큐가 가득 찼을 때의 JSON 503 */
+    public static final HttpResponse OVERLOADED = HttpResponse.builder(503, "Service Unavailable")
+            .header("Retry-After", "1")
+            .header("Content-Type", "application/json; charset=UTF-8")
+            .body(JsonUtil.createResponseBytes(false, "요청이 많아 잠시 후 다시 시도해 주세요."))
+            .buildPreEncoded();
+    /** 로그인이 필요한 API 의 JSON 401 */
+    public static final HttpResponse LOGIN_REQUIRED = json(401, "Unauthorized", false, "로그인이 필요합니다.");
+    public static final HttpResponse JSON_CONTENT_TYPE_REQUIRED =
+            json(400, "Bad Request", false, "Content-Type must be application/json");
+    public static final HttpResponse INVALID_JSON = json(400, "Bad Request", false, "잘못된 JSON 형식입니다.");
+
+    private CannedResponses() {}
+
+    public static HttpResponse text(int status, String reason, String message) {
+        return HttpResponse.builder(status, reason)
+                .header("Content-Type", "text/plain; charset=UTF-8")
+                .body(message.getBytes(StandardCharsets.UTF_8))
+                .buildPreEncoded();
+    }
+
+    /**
+     * {@link JsonUtil#createResponse} 형식({"success":..,"message":..})의 응답.
+     */
+    public static HttpResponse json(int status, String reason, boolean success, String message) {
+        return HttpResponse.builder(status, reason)
+                .header("Content-Type", "application/json; charset=UTF-8")
+                .body(JsonUtil.createResponseBytes(success, message))
+                .buildPreEncoded();
+    }
+
+    public static HttpResponse html(int status, String reason, String page) {
+        return HttpResponse.builder(status, reason)
+                .header("Content-Type", "text/html; charset=UTF-8")
+                .body(page.getBytes(StandardCharsets.UTF_8))
+                .buildPreEncoded();
+    }
+
+    /**
+     * @param allow Allow 헤더 값 (예: "GET, HEAD")
+     */
+    public static HttpResponse methodNotAllowed(String allow) {
+        return HttpResponse.builder(405, "Method Not Allowed")
+                .header("Allow", allow)
+                .header("Content-Type", "text/plain; charset=UTF-8")
+                .body("Method Not Allowed".getBytes(StandardCharsets.UTF_8))
+                .buildPreEncoded();
+    }
+}
@@ -0,0 +1,97 @@
+package server.http;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * 쓴 내용을 모아 HTTP chunked 전송 형식으로 내보내는 스트림.
+ * 작은 쓰기가 잦아도 버퍼가 찰 때마다 청크 하나로 보낸다. {@link #finish()} 가 마지막 빈 청크를 쓴다.
+ * 닫아도 아래 스트림(소켓)은 닫지 않는다.
+ */
+public final class ChunkedOutputStream extends OutputStream {
+    private static final byte[] CRLF = {'\r', '\n'};
+    private static final byte[] LAST_CHUNK = "0\r\n\r\n".getBytes(StandardCharsets.US_ASCII);
+
+    private final OutputStream out;
+    private final byte[] buffer;
+    private int count;
+    private boolean finished;
+
+    public ChunkedOutputStream(OutputStream out, int bufferSize) {
+        this.out = out;
+        this.buffer = new byte[bufferSize];
+    }
+
+    @Override
+    public void write(int b) throws IOException {
+        ensureOpen();
+        if (count == buffer.length) {
+            flushBuffer();
+        }
+        buffer[count++] = (byte) b;
+    }
+
+    @Override
+    public void write(byte[] b, int off, int len) throws IOException {
+        ensureOpen();
+        if (len >= buffer.length) {
+            // 버퍼보다 큰 쓰기는 복사하지 않고 바로 청크로 보낸다.
+            flushBuffer();
+            writeChunk(b, off, len);
+            return;
+        }
+        if (len > buffer.length - count) {
+            flushBuffer();
+        }
+        System.arraycopy(b, off, buffer, count, len);
+        count += len;
+    }
+
+    @Override
+    public void flush() throws IOException {
+        flushBuffer();
+        out.flush();
+    }
+
+    /**
+     * 남은 내용과 마지막 청크를 보낸다. 여러 번 불러도 한 번만 쓴다.
+     */
+    public void finish() throws IOException {
+        if (finished) {
+            return;
+        }
+        flushBuffer();
+        out.write(LAST_CHUNK);
+        out.flush();
+        finished = true;
+    }
+
+    @Override
+    public void close() throws IOException {
+        finish();
+    }
+
+    private void flushBuffer() throws IOException {
+        if (count > 0) {
+            writeChunk(buffer, 0, count);
+            count = 0;
+        }
+    }
+
+    private void writeChunk(byte[] b, int off, int len) throws IOException {
+        if (len == 0) {
+            return;
+        }
+        out.write(Integer.toHexString(len).getBytes(StandardCharsets.US_ASCII));
+        out.write(CRLF);
+        out.write(b, off, len);
+        out.write(CRLF);
+    }
+
+    private void ensureOpen() throws IOException {
+        if (finished) {
+            throw new IOException("Chunked stream already finished");
+        }
+    }
+}
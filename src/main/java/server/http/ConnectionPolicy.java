@@ -1,11 +1,18 @@
 package server.http;
 
+import java.nio.charset.StandardCharsets;
+
 import server.config.ServerConfig;
 
 /**
  * HTTP 버전과 Connection 헤더를 바탕으로 keep-alive 여부와 응답 헤더를 결정한다.
  */
 public final class ConnectionPolicy {
+    private static final String KEEP_ALIVE_VALUE = "timeout=" + (ServerConfig.KEEP_ALIVE_TIMEOUT_MILLIS / 1000)
+            + ", max=" + ServerConfig.KEEP_ALIVE_MAX_REQUESTS;
+    private static final byte[] KEEP_ALIVE_LINES =
+            ("Connection: keep-alive\r\nKeep-Alive: " + KEEP_ALIVE_VALUE + "\r\n").getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] CLOSE_LINES = "Connection: close\r\n".getBytes(StandardCharsets.US_ASCII);
 
     public boolean shouldKeepAlive(HttpRequest request, int requestsServed) {
         String version = request.version();
@@ -28,10 +35,16 @@ public final class ConnectionPolicy {
         if (keepAlive) {
             // 지속 연결을 허용하면 Connection과 Keep-Alive 헤더를 내려준다.
             builder.header("Connection", "keep-alive");
-            builder.header("Keep-Alive", "timeout=" + (ServerConfig.KEEP_ALIVE_TIMEOUT_MILLIS / 1000)
-                    + ", max=" + ServerConfig.KEEP_ALIVE_MAX_REQUESTS);
+            builder.header("Keep-Alive", KEEP_ALIVE_VALUE);
         } else {
             builder.header("Connection", "close");
         }
     }
+
+    /**
+     * {@link #applyResponseHeaders} 와 같은 헤더를 인코딩한 줄. 미리 인코딩한 응답 뒤에 붙인다.
+     */
+    public byte[] connectionHeaders(boolean keepAlive) {
+        return keepAlive ? KEEP_ALIVE_LINES : CLOSE_LINES;
+    }
 }
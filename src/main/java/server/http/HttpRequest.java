@@ -1,5 +1,8 @@
 package server.http;
 
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
 import java.util.Collections;
 import java.util.LinkedHashMap;
 import java.util.Map;
@@ -7,6 +10,7 @@ import java.util.Map;
 /**
  * 파싱된 HTTP 요청 데이터를 보관하는 불변 객체.
  * 메소드/경로/버전/헤더/본문 정보를 한 번 받아오면 외부에서 수정할 수 없다.
+ * 업로드처럼 큰 본문은 미리 읽지 않고 {@link #bodyStream()} 으로 연결에서 바로 읽는다.
  */
 public final class HttpRequest {
     private final String method;
@@ -14,6 +18,9 @@ public final class HttpRequest {
     private final String version;
     private final Map<String, String> headers;
     private final byte[] body;
+    private final BoundedInputStream bodyStream;
+    private final Map<String, String> pathParams;
+    private final RequestContext context;
 
     public HttpRequest(String method,
                        String target,
@@ -25,6 +32,45 @@ public final class HttpRequest {
         this.version = version;
         this.headers = Collections.unmodifiableMap(new LinkedHashMap<>(headers));
         this.body = body == null ? new byte[0] : body.clone();
+        this.bodyStream = null;
+        this.pathParams = Map.of();
+        this.context = new RequestContext(this.headers.get("cookie"));
+    }
+
+    /**
+     * 본문을 읽지 않은 채 스트림으로 넘기는 요청을 만든다. {@link #body()} 는 빈 배열을 돌려준다.
+     */
+    public HttpRequest(String method,
+                       String target,
+                       String version,
+                       Map<String, String> headers,
+                       BoundedInputStream bodyStream) {
+        this.method = method;
+        this.target = target;
+        this.version = version;
+        this.headers = Collections.unmodifiableMap(new LinkedHashMap<>(headers));
+        this.body = new byte[0];
+        this.bodyStream = bodyStream;
+        this.pathParams = Map.of();
+        this.context = new RequestContext(this.headers.get("cookie"));
+    }
+
+    private HttpRequest(HttpRequest source, Map<String, String> pathParams) {
+        this.method = source.method;
+        this.target = source.target;
+        this.version = source.version;
+        this.headers = source.headers;
+        this.body = source.body;
+        this.bodyStream = source.bodyStream;
+        this.pathParams = Collections.unmodifiableMap(pathParams);
+        this.context = source.context;
+    }
+
+    /**
+     * 라우터가 찾은 경로 변수를 붙인 요청을 돌려준다. 헤더와 본문, 요청 컨텍스트는 복사하지 않고 그대로 공유한다.
+     */
+    public HttpRequest withPathParams(Map<String, String> pathParams) {
+        return new HttpRequest(this, pathParams);
     }
 
     public String method() {
@@ -50,7 +96,46 @@ public final class HttpRequest {
         return headers.get(name.toLowerCase());
     }
 
+    /**
+     * 라우트 패턴의 {@code {name}} 자리에 들어온 값. 끝자리 {@code *} 가 받은 나머지 경로는 "*" 키로 들어 있다.
+     */
+    public Map<String, String> pathParams() {
+        return pathParams;
+    }
+
+    public String pathParam(String name) {
+        return pathParams.get(name);
+    }
+
+    /**
+     * 필터와 핸들러가 함께 쓰는 요청별 상태 (세션, 라우트, 처리 시간 등)
+     */
+    public RequestContext context() {
+        return context;
+    }
+
     public byte[] body() {
         return body.clone();
     }
+
+    /**
+     * 본문을 스트림으로 읽는다. 미리 읽어 둔 본문이면 그 내용을 담은 스트림을 돌려준다.
+     */
+    public InputStream bodyStream() {
+        return bodyStream != null ? bodyStream : new ByteArrayInputStream(body);
+    }
+
+    public boolean hasStreamingBody() {
+        return bodyStream != null;
+    }
+
+    /**
+     * 핸들러가 다 읽지 않은 스트리밍 본문을 limit 바이트까지 읽어 버린다.
+     * 다음 요청을 같은 연결에서 읽으려면 본문이 끝까지 소비되어 있어야 한다.
+     *
+     * @return 본문이 모두 소비되었으면 true, 남은 양이 많아 연결을 닫아야 하면 false
+     */
+    public boolean discardRemainingBody(long limit) throws IOException {
+        return bodyStream == null || bodyStream.drain(limit);
+    }
 }
@@ -14,6 +14,7 @@ import java.util.Map;
 /**
  * 소켓에서 들어오는 바이트 스트림을 HTTP 요청 객체로 변환하는 파서.
  * HTTP/1.0과 1.1의 기본 규칙만 지원하며, chunked 등은 제외한다.
+ * multipart/form-data 와 application/x-tar 본문은 읽지 않고 스트림으로 넘겨 크기와 상관없이 메모리를 일정하게 쓴다.
  */
 public final class HttpRequestParser {
 
@@ -41,12 +42,19 @@ public final class HttpRequestParser {
         }
 
         // Content-Length 값을 확인하여 바디 읽을 길이를 결정한다.
-        int contentLength = parseContentLength(headers.get("content-length"));
+        long contentLength = parseContentLength(headers.get("content-length"));
+        long streamingLimit = streamingLimitOf(headers.get("content-type"));
+        if (streamingLimit > 0) {
+            if (contentLength > streamingLimit) {
+                throw new HttpParseException("Request body too large");
+            }
+            return new HttpRequest(method, target, version, headers, new BoundedInputStream(in, contentLength));
+        }
         if (contentLength > ServerConfig.MAX_BODY_SIZE) {
             throw new HttpParseException("Request body too large");
         }
 
-        byte[] body = readBody(in, contentLength);
+        byte[] body = readBody(in, (int) contentLength);
         return new HttpRequest(method, target, version, headers, body);
     }
 
@@ -79,12 +87,29 @@ public final class HttpRequestParser {
         }
     }
 
-    private int parseContentLength(String value) throws HttpParseException {
+    /**
+     * 버퍼에 담지 않고 스트림으로 넘길 본문이면 허용하는 최대 크기를, 아니면 0 을 돌려준다.
+     */
+    private long streamingLimitOf(String contentType) {
+        if (contentType == null) {
+            return 0;
+        }
+        String type = contentType.toLowerCase(Locale.ROOT);
+        if (type.startsWith("multipart/form-data")) {
+            return ServerConfig.UPLOAD_MAX_REQUEST_BYTES;
+        }
+        if (type.startsWith("application/x-tar")) {
+            return ServerConfig.POST_IMPORT_MAX_BYTES;
+        }
+        return 0;
+    }
+
+    private long parseContentLength(String value) throws HttpParseException {
         if (value == null || value.isEmpty()) {
             return 0;
         }
         try {
-            int len = Integer.parseInt(value);
+            long len = Long.parseLong(value);
             if (len < 0) {
                 throw new NumberFormatException("negative");
             }
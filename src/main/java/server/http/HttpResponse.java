@@ -1,5 +1,7 @@
 package server.http;
 
+import java.io.IOException;
+import java.io.OutputStream;
 import java.util.Collections;
 import java.util.LinkedHashMap;
 import java.util.Map;
@@ -7,21 +9,38 @@ import java.util.Map;
 /**
  * 서버에서 생성한 HTTP 응답의 불변 표현.
  * 상태 코드/이유구문/헤더/본문을 한 번 세팅하면 외부에서 수정할 수 없다.
+ * 크기를 미리 알 수 없는 큰 본문은 {@link Builder#stream(BodyWriter)} 로 응답을 보내는 시점에 직접 쓴다.
+ * 내용이 늘 같은 응답은 {@link Builder#buildPreEncoded()} 로 상태 라인과 헤더까지 바이트로 만들어 두고 재사용한다.
  */
 public final class HttpResponse {
     private final int statusCode;
     private final String reasonPhrase;
     private final Map<String, String> headers;
     private final byte[] body;
+    private final BodyWriter streamingBody;
+    /** 미리 인코딩한 상태 라인과 헤더. 보통 응답이면 null. */
+    private final byte[] encodedHead;
 
     private HttpResponse(int statusCode,
                          String reasonPhrase,
                          Map<String, String> headers,
-                         byte[] body) {
+                         byte[] body,
+                         BodyWriter streamingBody) {
         this.statusCode = statusCode;
         this.reasonPhrase = reasonPhrase;
         this.headers = Collections.unmodifiableMap(new LinkedHashMap<>(headers));
         this.body = body == null ? new byte[0] : body.clone();
+        this.streamingBody = streamingBody;
+        this.encodedHead = null;
+    }
+
+    private HttpResponse(HttpResponse response, byte[] encodedHead) {
+        this.statusCode = response.statusCode;
+        this.reasonPhrase = response.reasonPhrase;
+        this.headers = response.headers;
+        this.body = response.body;
+        this.streamingBody = null;
+        this.encodedHead = encodedHead;
     }
 
     public int statusCode() {
@@ -40,6 +59,29 @@ public final class HttpResponse {
         return body.clone();
     }
 
+    /** 스트리밍 본문. 일반 응답이면 null. */
+    public BodyWriter streamingBody() {
+        return streamingBody;
+    }
+
+    public boolean isStreaming() {
+        return streamingBody != null;
+    }
+
+    /** 상태 라인과 헤더를 미리 인코딩해 둔 응답인지 */
+    public boolean isPreEncoded() {
+        return encodedHead != null;
+    }
+
+    byte[] encodedHead() {
+        return encodedHead;
+    }
+
+    /** 복사하지 않은 본문. 같은 패키지의 응답 작성기만 쓴다. */
+    byte[] rawBody() {
+        return body;
+    }
+
     public static Builder builder(int statusCode, String reasonPhrase) {
         return new Builder(statusCode, reasonPhrase);
     }
@@ -49,6 +91,7 @@ public final class HttpResponse {
         private final String reasonPhrase;
         private final Map<String, String> headers = new LinkedHashMap<>();
         private byte[] body = new byte[0];
+        private BodyWriter streamingBody;
 
         private Builder(int statusCode, String reasonPhrase) {
             this.statusCode = statusCode;
@@ -67,8 +110,39 @@ public final class HttpResponse {
             return this;
         }
 
+        /**
+         * 본문을 메모리에 두지 않고 응답을 보낼 때 writer 로 직접 쓴다. 설정하면 body 는 무시된다.
+         * Content-Length 대신 chunked 전송을 쓴다.
+         */
+        public Builder stream(BodyWriter writer) {
+            this.streamingBody = writer;
+            return this;
+        }
+
         public HttpResponse build() {
-            return new HttpResponse(statusCode, reasonPhrase, new LinkedHashMap<>(headers), body);
+            return new HttpResponse(statusCode, reasonPhrase, new LinkedHashMap<>(headers), body, streamingBody);
         }
+
+        /**
+         * 상태 라인과 헤더(Content-Length, Server 포함)를 지금 바이트로 만들어 둔 응답을 만든다.
+         * 보낼 때는 Date 와 연결 헤더만 덧붙이므로, 시작할 때 한 번 만들어 여러 요청에 그대로 돌려준다.
+         *
+         * @throws IllegalStateException 스트리밍 응답이거나 보낼 때 정해지는 헤더(Date, Connection 등)를 넣은 경우
+         */
+        public HttpResponse buildPreEncoded() {
+            if (streamingBody != null) {
+                throw new IllegalStateException("Streaming responses cannot be pre-encoded");
+            }
+            HttpResponse response = build();
+            return new HttpResponse(response, HttpResponseWriter.encodeHead(response));
+        }
+    }
+
+    /**
+     * 스트리밍 본문을 쓰는 콜백. 전달된 스트림을 닫을 필요는 없다.
+     */
+    @FunctionalInterface
+    public interface BodyWriter {
+        void writeTo(OutputStream out) throws IOException;
     }
 }
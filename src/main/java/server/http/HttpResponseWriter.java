@@ -2,29 +2,56 @@ package server.http;
 
 import server.config.ServerConfig;
 
+import java.io.FilterOutputStream;
 import java.io.IOException;
 import java.io.OutputStream;
 import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.ZoneOffset;
 import java.time.ZonedDateTime;
 import java.time.format.DateTimeFormatter;
 import java.util.LinkedHashMap;
+import java.util.Locale;
 import java.util.Map;
+import java.util.Set;
 
 /**
  * HttpResponse 객체를 실제 HTTP 응답 포맷(상태라인/헤더/본문)으로 직렬화한다.
  */
 public final class HttpResponseWriter {
+    private static final int CHUNK_SIZE = 64 * 1024;
+    private static final byte[] CRLF = {'\r', '\n'};
+    /** 보낼 때 정해지므로 미리 인코딩한 응답에 넣을 수 없는 헤더 */
+    private static final Set<String> PER_REQUEST_HEADERS =
+            Set.of("date", "connection", "keep-alive", "content-length", "transfer-encoding");
+    /** 초 단위로 바뀌는 Date 값. 같은 초 안의 응답은 다시 포맷하지 않는다. */
+    private static volatile CachedDate cachedDate = new CachedDate(-1, "");
 
     public void write(OutputStream out, HttpResponse response, boolean includeBody) throws IOException {
+        write(out, response, includeBody, true);
+    }
+
+    /**
+     * @param chunked 스트리밍 본문을 chunked 로 보낼지. HTTP/1.0 클라이언트에는 false 로 두고
+     *                본문을 그대로 보낸 뒤 연결을 닫아 끝을 알린다.
+     */
+    public void write(OutputStream out, HttpResponse response, boolean includeBody, boolean chunked)
+            throws IOException {
         Map<String, String> headers = new LinkedHashMap<>(response.headers());
         // Date, Server 헤더가 없다면 기본 값을 채워 넣는다.
-        headers.putIfAbsent("Date", DateTimeFormatter.RFC_1123_DATE_TIME
-                .format(ZonedDateTime.now(java.time.ZoneOffset.UTC)));
+        headers.putIfAbsent("Date", currentDate().value);
         headers.putIfAbsent("Server", ServerConfig.SERVER_NAME);
 
         // HEAD 같은 경우 본문 전송을 생략할 수 있도록 플래그로 분리한다.
-        byte[] body = includeBody ? response.body() : new byte[0];
-        headers.put("Content-Length", Integer.toString(body.length));
+        byte[] body = includeBody && !response.isStreaming() ? response.body() : new byte[0];
+        if (response.isStreaming()) {
+            headers.remove("Content-Length");
+            if (chunked) {
+                headers.put("Transfer-Encoding", "chunked");
+            }
+        } else {
+            headers.put("Content-Length", Integer.toString(body.length));
+        }
 
         String statusLine = "HTTP/1.1 " + response.statusCode() + " " + response.reasonPhrase() + "\r\n";
         out.write(statusLine.getBytes(StandardCharsets.US_ASCII));
@@ -33,9 +60,102 @@ public final class HttpResponseWriter {
             out.write(headerLine.getBytes(StandardCharsets.US_ASCII));
         }
         out.write("\r\n".getBytes(StandardCharsets.US_ASCII));
+        if (includeBody && response.isStreaming()) {
+            writeStreaming(out, response.streamingBody(), chunked);
+            return;
+        }
         if (includeBody && body.length > 0) {
             out.write(body);
         }
         out.flush();
     }
+
+    /**
+     * {@link HttpResponse.Builder#buildPreEncoded()} 로 만든 응답을 쓴다. 미리 만든 상태 라인과 헤더 뒤에
+     * Date 와 연결 헤더만 붙이고, 본문은 복사하지 않고 그대로 보낸다.
+     *
+     * @param connectionHeaders {@link ConnectionPolicy#connectionHeaders(boolean)} 가 돌려준 헤더 줄
+     */
+    public void writePreEncoded(OutputStream out, HttpResponse response, boolean includeBody,
+                                byte[] connectionHeaders) throws IOException {
+        out.write(response.encodedHead());
+        out.write(currentDate().line);
+        out.write(connectionHeaders);
+        out.write(CRLF);
+        byte[] body = response.rawBody();
+        if (includeBody && body.length > 0) {
+            out.write(body);
+        }
+        out.flush();
+    }
+
+    /**
+     * 상태 라인과 헤더를 Content-Length, Server 까지 넣어 인코딩한다. 마지막 빈 줄은 넣지 않는다.
+     */
+    static byte[] encodeHead(HttpResponse response) {
+        StringBuilder head = new StringBuilder(128);
+        head.append("HTTP/1.1 ").append(response.statusCode()).append(' ').append(response.reasonPhrase()).append("\r\n");
+        boolean hasServer = false;
+        for (Map.Entry<String, String> entry : response.headers().entrySet()) {
+            String name = entry.getKey().toLowerCase(Locale.ROOT);
+            if (PER_REQUEST_HEADERS.contains(name)) {
+                throw new IllegalStateException("Header is set per request: " + entry.getKey());
+            }
+            hasServer |= name.equals("server");
+            head.append(entry.getKey()).append(": ").append(entry.getValue()).append("\r\n");
+        }
+        if (!hasServer) {
+            head.append("Server: ").append(ServerConfig.SERVER_NAME).append("\r\n");
+        }
+        head.append("Content-Length: ").append(response.rawBody().length).append("\r\n");
+        return head.toString().getBytes(StandardCharsets.US_ASCII);
+    }
+
+    private static CachedDate currentDate() {
+        CachedDate date = cachedDate;
+        long second = System.currentTimeMillis() / 1000;
+        if (date.second != second) {
+            String value = DateTimeFormatter.RFC_1123_DATE_TIME
+                    .format(ZonedDateTime.ofInstant(Instant.ofEpochSecond(second), ZoneOffset.UTC));
+            date = new CachedDate(second, value);
+            cachedDate = date;
+        }
+        return date;
+    }
+
+    private void writeStreaming(OutputStream out, HttpResponse.BodyWriter bodyWriter, boolean chunked)
+            throws IOException {
+        if (chunked) {
+            ChunkedOutputStream chunkedOut = new ChunkedOutputStream(out, CHUNK_SIZE);
+            bodyWriter.writeTo(chunkedOut);
+            chunkedOut.finish();
+            return;
+        }
+        // 핸들러가 스트림을 닫아도 소켓은 닫히지 않도록 감싼다.
+        OutputStream raw = new FilterOutputStream(out) {
+            @Override
+            public void write(byte[] b, int off, int len) throws IOException {
+                out.write(b, off, len);
+            }
+
+            @Override
+            public void close() throws IOException {
+                flush();
+            }
+        };
+        bodyWriter.writeTo(raw);
+        raw.flush();
+    }
+
+    private static final class CachedDate {
+        private final long second;
+        private final String value;
+        private final byte[] line;
+
+        private CachedDate(long second, String value) {
+            this.second = second;
+            this.value = value;
+            this.line = ("Date: " + value + "\r\n").getBytes(StandardCharsets.US_ASCII);
+        }
+    }
 }
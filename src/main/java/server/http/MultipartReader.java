@@ -0,0 +1,307 @@
+package server.http;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * multipart/form-data 본문을 파트 단위로 차례로 읽는 스트리밍 파서.
+ * 고정 크기 버퍼 하나로 경계 문자열을 찾으므로 파트 크기와 상관없이 메모리 사용량이 일정하다.
+ *
+ * <pre>
+ * MultipartReader reader = new MultipartReader(request.bodyStream(), boundary);
+ * MultipartReader.Part part;
+ * while ((part = reader.nextPart()) != null) {
+ *     part.body() 를 끝까지 읽거나 그냥 다음 파트로 넘어간다
+ * }
+ * </pre>
+ */
+public final class MultipartReader {
+    private static final int MAX_PART_HEADER_BYTES = 8 * 1024;
+
+    private final InputStream in;
+    /** 파트 사이의 구분자 "\r\n--" + boundary */
+    private final byte[] delimiter;
+    private final byte[] buffer;
+    private int position;
+    private int limit;
+    private boolean eof;
+    private boolean finished;
+    private PartInputStream current;
+
+    public MultipartReader(InputStream in, String boundary) {
+        this.in = in;
+        this.delimiter = ("\r\n--" + boundary).getBytes(StandardCharsets.ISO_8859_1);
+        this.buffer = new byte[Math.max(2 * MAX_PART_HEADER_BYTES, delimiter.length * 4)];
+        // 첫 경계 앞에는 CRLF 가 없으므로 있는 것처럼 채워 두고 모든 경계를 같은 방식으로 찾는다.
+        buffer[0] = '\r';
+        buffer[1] = '\n';
+        this.limit = 2;
+    }
+
+    /**
+     * Content-Type 헤더에서 boundary 값을 꺼낸다. multipart/form-data 가 아니거나 없으면 null.
+     */
+    public static String boundaryOf(String contentType) {
+        if (contentType == null || !contentType.toLowerCase(Locale.ROOT).startsWith("multipart/form-data")) {
+            return null;
+        }
+        String boundary = parameters(contentType).get("boundary");
+        if (boundary == null || boundary.isEmpty() || boundary.length() > 70) {
+            return null;
+        }
+        return boundary;
+    }
+
+    /**
+     * 다음 파트로 넘어간다. 이전 파트에서 읽지 않은 내용은 버린다.
+     *
+     * @return 다음 파트, 마지막 경계를 지났으면 null
+     */
+    public Part nextPart() throws IOException, HttpParseException {
+        if (finished) {
+            return null;
+        }
+        // 앞 파트(처음이면 preamble)를 구분자까지 건너뛴다.
+        PartInputStream skipping = current != null ? current : new PartInputStream();
+        skipping.skipAll();
+        current = null;
+
+        ensure(2);
+        if (limit - position >= 2 && buffer[position] == '-' && buffer[position + 1] == '-') {
+            finished = true;
+            return null;
+        }
+        // 경계 줄의 나머지(공백 패딩 포함)를 버린다.
+        readLine(MAX_PART_HEADER_BYTES);
+
+        Map<String, String> headers = new LinkedHashMap<>();
+        int total = 0;
+        while (true) {
+            String line = readLine(MAX_PART_HEADER_BYTES);
+            if (line.isEmpty()) {
+                break;
+            }
+            total += line.length();
+            if (total > MAX_PART_HEADER_BYTES) {
+                throw new HttpParseException("Multipart headers too large");
+            }
+            int colon = line.indexOf(':');
+            if (colon <= 0) {
+                throw new HttpParseException("Invalid multipart header");
+            }
+            headers.put(line.substring(0, colon).trim().toLowerCase(Locale.ROOT), line.substring(colon + 1).trim());
+        }
+
+        Map<String, String> disposition = parameters(headers.getOrDefault("content-disposition", ""));
+        current = new PartInputStream();
+        return new Part(disposition.get("name"), disposition.get("filename"), headers.get("content-type"), current);
+    }
+
+    /**
+     * 파트 헤더 한 줄을 읽는다. 헤더는 UTF-8 로 해석한다(브라우저가 파일명을 UTF-8 로 보낸다).
+     */
+    private String readLine(int maxLength) throws IOException, HttpParseException {
+        int start = position;
+        while (true) {
+            for (int i = start; i + 1 < limit; i++) {
+                if (buffer[i] == '\r' && buffer[i + 1] == '\n') {
+                    String line = new String(buffer, position, i - position, StandardCharsets.UTF_8);
+                    position = i + 2;
+                    return line;
+                }
+            }
+            if (limit - position >= maxLength) {
+                throw new HttpParseException("Multipart header line too long");
+            }
+            start = Math.max(position, limit - 1);
+            int before = position;
+            if (!fill()) {
+                throw new HttpParseException("Unexpected end of multipart body");
+            }
+            start -= before - position;
+        }
+    }
+
+    /**
+     * 버퍼에 최소 count 바이트가 있도록 채운다. 스트림이 끝나 못 채우면 있는 만큼만 둔다.
+     */
+    private void ensure(int count) throws IOException {
+        while (limit - position < count && fill()) {
+            // 채운다
+        }
+    }
+
+    /**
+     * 읽은 부분을 버퍼 앞으로 당기고 스트림에서 더 읽는다.
+     *
+     * @return 새로 읽었으면 true, 스트림이 끝났으면 false
+     */
+    private boolean fill() throws IOException {
+        if (eof) {
+            return false;
+        }
+        if (position > 0) {
+            System.arraycopy(buffer, position, buffer, 0, limit - position);
+            limit -= position;
+            position = 0;
+        }
+        if (limit == buffer.length) {
+            return true;
+        }
+        int read = in.read(buffer, limit, buffer.length - limit);
+        if (read == -1) {
+            eof = true;
+            return false;
+        }
+        limit += read;
+        return true;
+    }
+
+    private int indexOfDelimiter() {
+        int last = limit - delimiter.length;
+        byte first = delimiter[0];
+        for (int i = position; i <= last; i++) {
+            if (buffer[i] != first) {
+                continue;
+            }
+            int j = 1;
+            while (j < delimiter.length && buffer[i + j] == delimiter[j]) {
+                j++;
+            }
+            if (j == delimiter.length) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * "form-data; name="a"; filename="b.png"" 같은 값에서 매개변수를 꺼낸다. 이름은 소문자로 통일한다.
+     */
+    static Map<String, String> parameters(String headerValue) {
+        Map<String, String> params = new LinkedHashMap<>();
+        int i = headerValue.indexOf(';');
+        while (i >= 0 && i < headerValue.length()) {
+            int eq = headerValue.indexOf('=', i + 1);
+            if (eq < 0) {
+                break;
+            }
+            String name = headerValue.substring(i + 1, eq).trim().toLowerCase(Locale.ROOT);
+            int valueStart = eq + 1;
+            String value;
+            if (valueStart < headerValue.length() && headerValue.charAt(valueStart) == '"') {
+                StringBuilder quoted = new StringBuilder();
+                int k = valueStart + 1;
+                while (k < headerValue.length() && headerValue.charAt(k) != '"') {
+                    char c = headerValue.charAt(k);
+                    if (c == '\\' && k + 1 < headerValue.length()) {
+                        c = headerValue.charAt(++k);
+                    }
+                    quoted.append(c);
+                    k++;
+                }
+                value = quoted.toString();
+                i = headerValue.indexOf(';', k);
+            } else {
+                int end = headerValue.indexOf(';', valueStart);
+                value = (end < 0 ? headerValue.substring(valueStart) : headerValue.substring(valueStart, end)).trim();
+                i = end;
+            }
+            params.put(name, value);
+        }
+        return params;
+    }
+
+    /**
+     * 파트 하나. 본문은 {@link #body()} 로 한 번만 읽을 수 있다.
+     */
+    public static final class Part {
+        private final String name;
+        private final String filename;
+        private final String contentType;
+        private final InputStream body;
+
+        private Part(String name, String filename, String contentType, InputStream body) {
+            this.name = name;
+            this.filename = filename;
+            this.contentType = contentType;
+            this.body = body;
+        }
+
+        /** form 필드 이름 */
+        public String name() {
+            return name;
+        }
+
+        /** 파일 파트면 클라이언트가 보낸 파일명, 일반 필드면 null */
+        public String filename() {
+            return filename;
+        }
+
+        public String contentType() {
+            return contentType;
+        }
+
+        public boolean isFile() {
+            return filename != null;
+        }
+
+        public InputStream body() {
+            return body;
+        }
+    }
+
+    /**
+     * 다음 구분자 직전까지만 읽히는 파트 본문 스트림.
+     */
+    private final class PartInputStream extends InputStream {
+        private boolean done;
+
+        @Override
+        public int read() throws IOException {
+            byte[] one = new byte[1];
+            return read(one, 0, 1) == -1 ? -1 : one[0] & 0xFF;
+        }
+
+        @Override
+        public int read(byte[] target, int offset, int length) throws IOException {
+            if (done) {
+                return -1;
+            }
+            if (length == 0) {
+                return 0;
+            }
+            ensure(delimiter.length);
+            int index = indexOfDelimiter();
+            if (index == position) {
+                position += delimiter.length;
+                done = true;
+                return -1;
+            }
+            int available;
+            if (index >= 0) {
+                available = index - position;
+            } else if (eof) {
+                throw new IOException("Unexpected end of multipart body");
+            } else {
+                // 구분자가 버퍼 끝에 걸쳐 있을 수 있으므로 그 길이만큼은 남겨 둔다.
+                available = limit - position - (delimiter.length - 1);
+            }
+            int count = Math.min(length, available);
+            System.arraycopy(buffer, position, target, offset, count);
+            position += count;
+            return count;
+        }
+
+        void skipAll() throws IOException {
+            byte[] scratch = new byte[4096];
+            while (read(scratch, 0, scratch.length) != -1) {
+                // 버린다
+            }
+        }
+    }
+}
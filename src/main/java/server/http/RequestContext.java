@@ -0,0 +1,103 @@
+package server.http;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Function;
+
+import server.util.CookieUtil;
+
+/**
+ * 요청 하나가 필터와 핸들러를 지나는 동안 함께 다니는 상태.
+ * 세션 ID 와 로그인 사용자는 처음 필요한 단계에서 한 번만 구해 두고, 뒤 단계는 그 값을 그대로 쓴다.
+ * 한 요청은 한 번에 한 스레드만 다루므로 동기화하지 않는다.
+ */
+public final class RequestContext {
+    private final long startNanos = System.nanoTime();
+    private final String cookieHeader;
+    private String remoteAddress;
+    private String route;
+    private boolean sessionResolved;
+    private String sessionId;
+    private boolean userResolved;
+    private String user;
+    private Map<String, Object> attributes;
+
+    RequestContext(String cookieHeader) {
+        this.cookieHeader = cookieHeader;
+    }
+
+    /** 요청을 다 읽은 시각 ({@link System#nanoTime()}) */
+    public long startNanos() {
+        return startNanos;
+    }
+
+    public long elapsedNanos() {
+        return System.nanoTime() - startNanos;
+    }
+
+    /** 클라이언트 IP. 연결 워커가 채운다. 모르면 null. */
+    public String remoteAddress() {
+        return remoteAddress;
+    }
+
+    public void setRemoteAddress(String remoteAddress) {
+        this.remoteAddress = remoteAddress;
+    }
+
+    /** 요청을 받은 라우트 패턴 (예: /posts/view/*). 등록된 라우트에 맞지 않았으면 null. */
+    public String route() {
+        return route;
+    }
+
+    public void setRoute(String route) {
+        this.route = route;
+    }
+
+    /**
+     * JSESSIONID 쿠키 값. Cookie 헤더는 처음 부를 때 한 번만 해석한다.
+     */
+    public String sessionId() {
+        if (!sessionResolved) {
+            sessionId = CookieUtil.getCookie(cookieHeader, CookieUtil.SESSION_COOKIE);
+            sessionResolved = true;
+        }
+        return sessionId;
+    }
+
+    /**
+     * 로그인 사용자. 아직 확인하지 않았으면 validator 로 세션을 한 번 검증하고 결과를 기억한다.
+     *
+     * @param validator 세션 ID 로 사용자명을 찾는 함수 (예: AuthService::validateSession)
+     */
+    public Optional<String> user(Function<String, Optional<String>> validator) {
+        if (!userResolved) {
+            String id = sessionId();
+            user = id == null ? null : validator.apply(id).orElse(null);
+            userResolved = true;
+        }
+        return Optional.ofNullable(user);
+    }
+
+    /**
+     * 이미 확인한 로그인 사용자. 확인한 단계가 없으면 비어 있다.
+     */
+    public Optional<String> user() {
+        return Optional.ofNullable(user);
+    }
+
+    /**
+     * 필터끼리 주고받는 임의의 값.
+     */
+    @SuppressWarnings("unchecked")
+    public <T> T attribute(String name) {
+        return attributes == null ? null : (T) attributes.get(name);
+    }
+
+    public void setAttribute(String name, Object value) {
+        if (attributes == null) {
+            attributes = new HashMap<>();
+        }
+        attributes.put(name, value);
+    }
+}
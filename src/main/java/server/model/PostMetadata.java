@@ -0,0 +1,84 @@
+package server.model;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * 게시글 목록에 필요한 요약 정보를 담는 모델 클래스
+ * 본문 없이 식별자/제목/작성자/작성일/크기/첨부 경로만 가진다.
+ */
+public final class PostMetadata {
+    private final String id;
+    private final String title;
+    private final String author;
+    private final LocalDateTime createdAt;
+    private final long size;
+    private final List<String> attachments;
+
+    public PostMetadata(String id, String title, String author, LocalDateTime createdAt, long size) {
+        this(id, title, author, createdAt, size, List.of());
+    }
+
+    public PostMetadata(String id, String title, String author, LocalDateTime createdAt, long size,
+                        List<String> attachments) {
+        this.id = id;
+        this.title = title;
+        this.author = author;
+        this.createdAt = createdAt;
+        this.size = size;
+        this.attachments = List.copyOf(attachments);
+    }
+
+    /** 게시글 식별자(저장 파일명) */
+    public String getId() {
+        return id;
+    }
+
+    public String getTitle() {
+        return title;
+    }
+
+    public String getAuthor() {
+        return author;
+    }
+
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+
+    /** 저장된 게시글 전체 크기(byte) */
+    public long getSize() {
+        return size;
+    }
+
+    /** 첨부 파일의 정적 경로 (예: /images/ab12...ef.png) */
+    public List<String> getAttachments() {
+        return attachments;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        PostMetadata that = (PostMetadata) o;
+        return Objects.equals(id, that.id);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(id);
+    }
+
+    @Override
+    public String toString() {
+        return "PostMetadata{" +
+                "id='" + id + '\'' +
+                ", title='" + title + '\'' +
+                ", author='" + author + '\'' +
+                ", createdAt=" + createdAt +
+                ", size=" + size +
+                ", attachments=" + attachments +
+                '}';
+    }
+}
@@ -39,6 +39,10 @@ public final class User {
         return lastLoginAt;
     }
 
+    public User withPasswordHash(String passwordHash) {
+        return new User(username, passwordHash, createdAt, lastLoginAt);
+    }
+
     public User withLastLogin(LocalDateTime lastLoginAt) {
         return new User(username, passwordHash, createdAt, lastLoginAt);
     }
@@ -0,0 +1,384 @@
+package server.render;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * 마크다운/텍스트 게시글을 HTML 페이지로 바꾸는 렌더러.
+ * 입력을 한 줄씩 읽어 바로 출력에 쓰므로 문서 전체를 메모리에 올리거나 중간 트리를 만들지 않는다.
+ *
+ * 마크다운은 제목(#), 문단, 목록(-, *, 1.), 인용(>), 코드 블록(```), 구분선(---)과
+ * 인라인 `코드`, **굵게**, *기울임*, [링크](주소) 만 지원한다.
+ * 게시글 머리말(제목:/작성자:/작성일:/첨부: 다음 ---)이 있으면 페이지 머리로 쓰고, 첨부 이미지는 본문 뒤에 붙인다.
+ */
+public final class PostRenderer {
+    private static final String TITLE_PREFIX = "제목: ";
+    private static final String AUTHOR_PREFIX = "작성자: ";
+    private static final String CREATED_PREFIX = "작성일: ";
+    private static final String ATTACHMENTS_PREFIX = "첨부: ";
+    /** 머리말 줄 수(제목/작성자/작성일/첨부) + 구분선 */
+    private static final int MAX_HEADER_LINES = 5;
+
+    /**
+     * 원문 형식. 확장자가 .md/.markdown 이면 마크다운, 그 외는 일반 텍스트로 본다.
+     */
+    public enum Format {
+        MARKDOWN, TEXT;
+
+        public static Format of(String id) {
+            String lower = id.toLowerCase(Locale.ROOT);
+            return lower.endsWith(".md") || lower.endsWith(".markdown") ? MARKDOWN : TEXT;
+        }
+    }
+
+    private enum Block { NONE, PARAGRAPH, UNORDERED, ORDERED, QUOTE, CODE }
+
+    /**
+     * 원문을 HTML 문서로 렌더링해 out 에 쓴다. out 은 닫지 않는다.
+     *
+     * @param fallbackTitle 머리말이 없을 때 쓸 문서 제목
+     */
+    public void render(InputStream source, Format format, String fallbackTitle, OutputStream out) throws IOException {
+        BufferedReader reader = new BufferedReader(new InputStreamReader(source, StandardCharsets.UTF_8));
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+
+        // 머리말은 앞의 몇 줄만 보고 판단한다. 아니면 읽은 줄을 본문으로 되돌린다.
+        List<String> pending = new ArrayList<>(MAX_HEADER_LINES);
+        String title = null;
+        String author = null;
+        String createdAt = null;
+        String attachments = null;
+        boolean hasHeader = false;
+        String line;
+        while (pending.size() < MAX_HEADER_LINES && (line = reader.readLine()) != null) {
+            pending.add(line);
+            boolean metaAllowed = pending.size() < MAX_HEADER_LINES;
+            if (metaAllowed && line.startsWith(TITLE_PREFIX)) {
+                title = line.substring(TITLE_PREFIX.length());
+            } else if (metaAllowed && line.startsWith(AUTHOR_PREFIX)) {
+                author = line.substring(AUTHOR_PREFIX.length());
+            } else if (metaAllowed && line.startsWith(CREATED_PREFIX)) {
+                createdAt = line.substring(CREATED_PREFIX.length());
+            } else if (metaAllowed && line.startsWith(ATTACHMENTS_PREFIX)) {
+                attachments = line.substring(ATTACHMENTS_PREFIX.length());
+            } else {
+                hasHeader = title != null && "---".equals(line);
+                break;
+            }
+        }
+        if (hasHeader) {
+            pending.clear();
+        } else {
+            title = null;
+            author = null;
+            createdAt = null;
+            attachments = null;
+        }
+
+        writeHead(writer, title != null ? title : fallbackTitle);
+        if (hasHeader) {
+            writer.write("<header><h1>");
+            escape(title, writer);
+            writer.write("</h1>");
+            if (author != null || createdAt != null) {
+                writer.write("<p class=\"meta\">");
+                escape(author != null ? author : "", writer);
+                if (author != null && createdAt != null) {
+                    writer.write(" · ");
+                }
+                escape(createdAt != null ? createdAt : "", writer);
+                writer.write("</p>");
+            }
+            writer.write("</header>\n");
+        }
+
+        BlockWriter blocks = format == Format.MARKDOWN ? new MarkdownBlocks(writer) : new TextBlocks(writer);
+        for (String buffered : pending) {
+            blocks.line(buffered);
+        }
+        while ((line = reader.readLine()) != null) {
+            blocks.line(line);
+        }
+        blocks.finish();
+        if (attachments != null) {
+            writeAttachments(writer, attachments);
+        }
+        writer.write("</article>\n</body>\n</html>\n");
+        writer.flush();
+    }
+
+    private static void writeAttachments(Writer writer, String attachments) throws IOException {
+        for (String path : attachments.split(",")) {
+            String trimmed = path.trim();
+            if (isLocalPath(trimmed)) {
+                writer.write("<figure><img src=\"");
+                escape(trimmed, writer);
+                writer.write("\" alt=\"\" loading=\"lazy\"></figure>\n");
+            }
+        }
+    }
+
+    /**
+     * 이 서버의 경로만 받는다. {@code //host} 나 {@code /\host} 는 브라우저가 다른 호스트로 읽으므로 막는다.
+     */
+    private static boolean isLocalPath(String path) {
+        return path.length() > 1 && path.charAt(0) == '/' && path.charAt(1) != '/' && path.indexOf('\\') < 0;
+    }
+
+    private static void writeHead(Writer writer, String title) throws IOException {
+        writer.write("<!DOCTYPE html>\n<html lang=\"ko\">\n<head>\n<meta charset=\"UTF-8\">\n"
+                + "<meta name=\"viewport\" content=\"width=device-width, initial-scale=1\">\n<title>");
+        escape(title, writer);
+        writer.write("</title>\n<style>body{max-width:46rem;margin:2rem auto;padding:0 1rem;"
+                + "font-family:sans-serif;line-height:1.6}pre{background:#f4f4f4;padding:.75rem;overflow:auto}"
+                + "blockquote{border-left:4px solid #ddd;margin:0;padding-left:1rem;color:#555}"
+                + ".meta{color:#777}img{max-width:100%}</style>\n</head>\n<body>\n<article>\n");
+    }
+
+    /**
+     * 한 줄씩 받아 블록 단위 HTML 을 쓰는 상태 기계.
+     */
+    private abstract static class BlockWriter {
+        final Writer out;
+        Block block = Block.NONE;
+
+        BlockWriter(Writer out) {
+            this.out = out;
+        }
+
+        abstract void line(String line) throws IOException;
+
+        void open(Block next, String tag) throws IOException {
+            if (block == next) {
+                return;
+            }
+            close();
+            block = next;
+            out.write(tag);
+        }
+
+        void close() throws IOException {
+            switch (block) {
+                case PARAGRAPH -> out.write("</p>\n");
+                case UNORDERED -> out.write("</ul>\n");
+                case ORDERED -> out.write("</ol>\n");
+                case QUOTE -> out.write("</blockquote>\n");
+                case CODE -> out.write("</code></pre>\n");
+                default -> {
+                }
+            }
+            block = Block.NONE;
+        }
+
+        void finish() throws IOException {
+            close();
+        }
+    }
+
+    /**
+     * 일반 텍스트: 빈 줄로 문단을 나누고 문단 안의 줄바꿈은 그대로 살린다.
+     */
+    private static final class TextBlocks extends BlockWriter {
+        TextBlocks(Writer out) {
+            super(out);
+        }
+
+        @Override
+        void line(String line) throws IOException {
+            if (line.isBlank()) {
+                close();
+                return;
+            }
+            if (block == Block.PARAGRAPH) {
+                out.write("<br>\n");
+            }
+            open(Block.PARAGRAPH, "<p>");
+            escape(line, out);
+        }
+    }
+
+    private static final class MarkdownBlocks extends BlockWriter {
+        MarkdownBlocks(Writer out) {
+            super(out);
+        }
+
+        @Override
+        void line(String line) throws IOException {
+            if (block == Block.CODE) {
+                if (line.startsWith("```")) {
+                    close();
+                } else {
+                    escape(line, out);
+                    out.write('\n');
+                }
+                return;
+            }
+            String trimmed = line.trim();
+            if (trimmed.isEmpty()) {
+                close();
+                return;
+            }
+            if (trimmed.startsWith("```")) {
+                close();
+                block = Block.CODE;
+                out.write("<pre><code>");
+                return;
+            }
+            int level = headingLevel(trimmed);
+            if (level > 0) {
+                close();
+                out.write("<h" + level + ">");
+                inline(trimmed.substring(level).trim(), out);
+                out.write("</h" + level + ">\n");
+                return;
+            }
+            if (trimmed.equals("---") || trimmed.equals("***")) {
+                close();
+                out.write("<hr>\n");
+                return;
+            }
+            if (trimmed.startsWith("- ") || trimmed.startsWith("* ")) {
+                open(Block.UNORDERED, "<ul>\n");
+                out.write("<li>");
+                inline(trimmed.substring(2), out);
+                out.write("</li>\n");
+                return;
+            }
+            int ordered = orderedItemStart(trimmed);
+            if (ordered > 0) {
+                open(Block.ORDERED, "<ol>\n");
+                out.write("<li>");
+                inline(trimmed.substring(ordered), out);
+                out.write("</li>\n");
+                return;
+            }
+            if (trimmed.startsWith(">")) {
+                if (block == Block.QUOTE) {
+                    out.write("<br>\n");
+                }
+                open(Block.QUOTE, "<blockquote>");
+                inline(trimmed.substring(1).trim(), out);
+                return;
+            }
+            if (block == Block.PARAGRAPH) {
+                out.write('\n');
+            }
+            open(Block.PARAGRAPH, "<p>");
+            inline(trimmed, out);
+        }
+
+        private static int headingLevel(String line) {
+            int level = 0;
+            while (level < line.length() && level < 6 && line.charAt(level) == '#') {
+                level++;
+            }
+            return level > 0 && level < line.length() && line.charAt(level) == ' ' ? level : 0;
+        }
+
+        /** "12. 내용" 이면 내용이 시작하는 위치, 아니면 0 */
+        private static int orderedItemStart(String line) {
+            int i = 0;
+            while (i < line.length() && Character.isDigit(line.charAt(i))) {
+                i++;
+            }
+            if (i == 0 || i + 1 >= line.length() || line.charAt(i) != '.' || line.charAt(i + 1) != ' ') {
+                return 0;
+            }
+            return i + 2;
+        }
+    }
+
+    /**
+     * 인라인 마크다운을 처리한다. 짝이 맞지 않는 기호는 글자 그대로 둔다.
+     */
+    static void inline(String text, Writer out) throws IOException {
+        int i = 0;
+        int length = text.length();
+        while (i < length) {
+            char c = text.charAt(i);
+            if (c == '`') {
+                int end = text.indexOf('`', i + 1);
+                if (end > i) {
+                    out.write("<code>");
+                    escape(text.substring(i + 1, end), out);
+                    out.write("</code>");
+                    i = end + 1;
+                    continue;
+                }
+            } else if (c == '*' && i + 1 < length && text.charAt(i + 1) == '*') {
+                int end = text.indexOf("**", i + 2);
+                if (end > i + 2) {
+                    out.write("<strong>");
+                    inline(text.substring(i + 2, end), out);
+                    out.write("</strong>");
+                    i = end + 2;
+                    continue;
+                }
+            } else if (c == '*') {
+                int end = text.indexOf('*', i + 1);
+                if (end > i + 1) {
+                    out.write("<em>");
+                    inline(text.substring(i + 1, end), out);
+                    out.write("</em>");
+                    i = end + 1;
+                    continue;
+                }
+            } else if (c == '[') {
+                int close = text.indexOf("](", i + 1);
+                int end = close > 0 ? text.indexOf(')', close + 2) : -1;
+                if (end > 0) {
+                    String url = text.substring(close + 2, end).trim();
+                    if (isSafeUrl(url)) {
+                        out.write("<a href=\"");
+                        escape(url, out);
+                        out.write("\">");
+                        inline(text.substring(i + 1, close), out);
+                        out.write("</a>");
+                        i = end + 1;
+                        continue;
+                    }
+                }
+            }
+            escape(c, out);
+            i++;
+        }
+    }
+
+    /**
+     * javascript: 같은 스킴을 막기 위해 http(s) 와 상대 주소만 링크로 만든다.
+     */
+    private static boolean isSafeUrl(String url) {
+        String lower = url.toLowerCase(Locale.ROOT);
+        if (lower.startsWith("http://") || lower.startsWith("https://")) {
+            return true;
+        }
+        return !url.isEmpty() && url.indexOf(':') < 0;
+    }
+
+    static void escape(String text, Writer out) throws IOException {
+        for (int i = 0; i < text.length(); i++) {
+            escape(text.charAt(i), out);
+        }
+    }
+
+    private static void escape(char c, Writer out) throws IOException {
+        switch (c) {
+            case '<' -> out.write("&lt;");
+            case '>' -> out.write("&gt;");
+            case '&' -> out.write("&amp;");
+            case '"' -> out.write("&quot;");
+            case '\'' -> out.write("&#39;");
+            default -> out.write(c);
+        }
+    }
+}
@@ -0,0 +1,83 @@
+package server.render;
+
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import server.util.ByteLruCache;
+
+/**
+ * 렌더링한 HTML 을 원문 내용 해시로 보관하는 메모리 캐시.
+ * 게시글 ID 는 (버전, 해시) 만 가리키고 HTML 은 해시별로 한 벌만 두므로 같은 원문은 공유된다.
+ * 전체 크기가 한도를 넘으면 가장 오래 쓰이지 않은 HTML 부터 버린다.
+ */
+public final class RenderCache {
+    private final Map<String, Ref> byId = new ConcurrentHashMap<>();
+    private final ByteLruCache byHash;
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+
+    public RenderCache(long maxBytes) {
+        this.byHash = new ByteLruCache(maxBytes);
+    }
+
+    /**
+     * 캐시된 HTML 을 돌려준다. 없거나 버전이 다르면 null.
+     *
+     * @param version 원문이 바뀌었는지 판단할 값(파일이면 수정 시각/크기). 바뀌지 않는 원문은 null
+     */
+    public byte[] get(String id, String version) {
+        Ref ref = byId.get(id);
+        if (ref != null && Objects.equals(ref.version, version)) {
+            byte[] html = getByHash(ref.contentHash);
+            if (html != null) {
+                hits.incrementAndGet();
+                return html;
+            }
+        }
+        misses.incrementAndGet();
+        return null;
+    }
+
+    /**
+     * 같은 내용으로 이미 렌더링한 HTML 이 있으면 돌려준다. 다른 ID 로 올라온 같은 글도 다시 렌더링하지 않는다.
+     */
+    public byte[] getByHash(String contentHash) {
+        return byHash.get(contentHash);
+    }
+
+    public void put(String id, String version, String contentHash, byte[] html) {
+        byHash.put(contentHash, html);
+        byId.put(id, new Ref(version, contentHash));
+    }
+
+    /**
+     * 게시글이 생성/삭제되었을 때 호출한다. HTML 은 다른 ID 가 공유할 수 있으므로 한도에 따라 자연히 밀려난다.
+     */
+    public void invalidate(String id) {
+        byId.remove(id);
+    }
+
+    public long hits() {
+        return hits.get();
+    }
+
+    public long misses() {
+        return misses.get();
+    }
+
+    public long totalBytes() {
+        return byHash.totalBytes();
+    }
+
+    private static final class Ref {
+        private final String version;
+        private final String contentHash;
+
+        private Ref(String version, String contentHash) {
+            this.version = version;
+            this.contentHash = contentHash;
+        }
+    }
+}
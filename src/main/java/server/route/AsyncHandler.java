@@ -0,0 +1,33 @@
+package server.route;
+
+import server.http.HttpRequest;
+import server.http.HttpResponse;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+
+/**
+ * 응답을 나중에 완성하는 핸들러. 디스크 쓰기처럼 기다려야 하는 작업을 시작만 하고 바로 돌아오면,
+ * 연결 워커는 스레드를 쥐고 기다리지 않고 완료 콜백에서 응답을 보낸다.
+ * 예외는 던지지 않고 실패한 단계로 돌려준다. 연결 워커가 500 으로 바꾼다.
+ */
+@FunctionalInterface
+public interface AsyncHandler {
+    CompletionStage<HttpResponse> handleAsync(HttpRequest request);
+
+    /**
+     * 기존 동기 {@link Handler} 를 그대로 감싼다. 같은 스레드에서 처리하고 완료된 단계를 돌려준다.
+     */
+    static AsyncHandler of(Handler handler) {
+        if (handler instanceof AsyncHandler async) {
+            return async;
+        }
+        return request -> {
+            try {
+                return CompletableFuture.completedFuture(handler.handle(request));
+            } catch (Exception e) {
+                return CompletableFuture.failedFuture(e);
+            }
+        };
+    }
+}
@@ -1,33 +1,38 @@
 package server.route;
 
-import java.io.IOException;
-import java.nio.charset.StandardCharsets;
-import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
 
+import server.http.CannedResponses;
 import server.http.HttpRequest;
 import server.http.HttpResponse;
 import server.service.AuthService;
 import server.util.CookieUtil;
+import server.util.JsonReader;
 import server.util.JsonUtil;
 import server.util.Logger;
 
 /**
- * 로그인 및 회원가입 요청을 처리하는 핸들러
+ * 로그인 및 회원가입 요청을 처리하는 핸들러.
+ * 비밀번호 해시는 전용 풀에서 돌고, 연결 워커는 기다리지 않고 돌아가 완료 콜백에서 응답이 나간다.
  */
-public final class AuthHandler implements Handler {
+public final class AuthHandler implements AsyncHandler {
+    /** 로그인/회원가입 본문에서 읽는 필드 */
+    private static final String[] CREDENTIAL_FIELDS = {"username", "password"};
+
     private final AuthService authService;
 
-    public AuthHandler() {
-        this.authService = new AuthService();
+    public AuthHandler(AuthService authService) {
+        this.authService = authService;
     }
 
     @Override
-    public HttpResponse handle(HttpRequest request) throws IOException {
+    public CompletionStage<HttpResponse> handleAsync(HttpRequest request) {
         String target = request.target();
         String method = request.method();
 
         if (!"POST".equals(method)) {
-            return methodNotAllowed();
+            return CompletableFuture.completedFuture(CannedResponses.POST_ONLY);
         }
 
         if ("/login".equals(target)) {
@@ -35,89 +40,112 @@ public final class AuthHandler implements Handler {
         } else if ("/register".equals(target)) {
             return handleRegister(request);
         } else if ("/logout".equals(target)) {
-            return handleLogout(request);
+            return CompletableFuture.completedFuture(handleLogout(request));
         }
 
-        return notFound();
+        return CompletableFuture.completedFuture(CannedResponses.NOT_FOUND);
     }
 
     /**
-     * 로그인 처리
+     * 로그인 처리. 비밀번호 확인이 끝나면 해시 풀의 콜백에서 응답을 완성한다.
      */
-    private HttpResponse handleLogin(HttpRequest request) {
+    private CompletionStage<HttpResponse> handleLogin(HttpRequest request) {
+        String[] credentials;
         try {
-            String contentType = request.header("content-type");
-            if (contentType == null || !contentType.toLowerCase().contains("application/json")) {
-                return badRequest("Content-Type must be application/json");
-            }
+            credentials = readCredentials(request);
+        } catch (IllegalArgumentException e) {
+            return CompletableFuture.completedFuture(CannedResponses.INVALID_JSON);
+        }
+        if (credentials == null) {
+            return CompletableFuture.completedFuture(CannedResponses.JSON_CONTENT_TYPE_REQUIRED);
+        }
+        String username = credentials[0];
+        String password = credentials[1];
 
-            String body = new String(request.body(), StandardCharsets.UTF_8);
-            Map<String, String> data = JsonUtil.parseSimpleJson(body);
-            
-            String username = data.get("username");
-            String password = data.get("password");
+        return authService.loginAsync(username, password).handle((result, failure) -> {
+            if (failure != null) {
+                Logger.error("Error processing login request", failure);
+                return internalServerError("로그인 처리 중 오류가 발생했습니다.");
+            }
+            if (result.isOverloaded()) {
+                Logger.warn("Login shed for user: " + username);
+                return serviceUnavailable(result.getMessage());
+            }
 
-            AuthService.LoginResult result = authService.login(username, password);
-            
             if (result.isSuccess()) {
                 Logger.info("Login successful for user: " + username);
-                
+
                 HttpResponse.Builder builder = HttpResponse.builder(200, "OK")
                         .header("Content-Type", "application/json; charset=UTF-8")
-                        .body(JsonUtil.createResponse(true, result.getMessage()).getBytes(StandardCharsets.UTF_8));
-                
+                        .body(JsonUtil.createResponseBytes(true, result.getMessage()));
+
                 // 세션 쿠키 설정
                 CookieUtil.setSessionCookie(builder, result.getSession().getSessionId());
-                
+
                 return builder.build();
             } else {
                 Logger.warn("Login failed for user: " + username);
                 return HttpResponse.builder(401, "Unauthorized")
                         .header("Content-Type", "application/json; charset=UTF-8")
-                        .body(JsonUtil.createResponse(false, result.getMessage()).getBytes(StandardCharsets.UTF_8))
+                        .body(JsonUtil.createResponseBytes(false, result.getMessage()))
                         .build();
             }
-        } catch (Exception e) {
-            Logger.error("Error processing login request", e);
-            return internalServerError("로그인 처리 중 오류가 발생했습니다.");
-        }
+        });
     }
 
     /**
-     * 회원가입 처리
+     * 회원가입 처리. 해시가 끝나면 해시 풀의 콜백에서 응답을 완성한다.
      */
-    private HttpResponse handleRegister(HttpRequest request) {
+    private CompletionStage<HttpResponse> handleRegister(HttpRequest request) {
+        String[] credentials;
         try {
-            String contentType = request.header("content-type");
-            if (contentType == null || !contentType.toLowerCase().contains("application/json")) {
-                return badRequest("Content-Type must be application/json");
-            }
+            credentials = readCredentials(request);
+        } catch (IllegalArgumentException e) {
+            return CompletableFuture.completedFuture(CannedResponses.INVALID_JSON);
+        }
+        if (credentials == null) {
+            return CompletableFuture.completedFuture(CannedResponses.JSON_CONTENT_TYPE_REQUIRED);
+        }
+        String username = credentials[0];
+        String password = credentials[1];
 
-            String body = new String(request.body(), StandardCharsets.UTF_8);
-            Map<String, String> data = JsonUtil.parseSimpleJson(body);
-            
-            String username = data.get("username");
-            String password = data.get("password");
+        return authService.registerAsync(username, password).handle((result, failure) -> {
+            if (failure != null) {
+                Logger.error("Error processing registration request", failure);
+                return internalServerError("회원가입 처리 중 오류가 발생했습니다.");
+            }
+            if (result.isOverloaded()) {
+                Logger.warn("Registration shed for user: " + username);
+                return serviceUnavailable(result.getMessage());
+            }
 
-            AuthService.RegisterResult result = authService.register(username, password);
-            
             if (result.isSuccess()) {
                 Logger.info("Registration successful for user: " + username);
                 return HttpResponse.builder(201, "Created")
                         .header("Content-Type", "application/json; charset=UTF-8")
-                        .body(JsonUtil.createResponse(true, result.getMessage()).getBytes(StandardCharsets.UTF_8))
+                        .body(JsonUtil.createResponseBytes(true, result.getMessage()))
                         .build();
             } else {
                 Logger.warn("Registration failed for user: " + username + " - " + result.getMessage());
                 return HttpResponse.builder(400, "Bad Request")
                         .header("Content-Type", "application/json; charset=UTF-8")
-                        .body(JsonUtil.createResponse(false, result.getMessage()).getBytes(StandardCharsets.UTF_8))
+                        .body(JsonUtil.createResponseBytes(false, result.getMessage()))
                         .build();
             }
-        } catch (Exception e) {
-            Logger.error("Error processing registration request", e);
-            return internalServerError("회원가입 처리 중 오류가 발생했습니다.");
+        });
+    }
+
+    /**
+     * JSON 본문에서 아이디와 비밀번호를 읽는다. Content-Type 이 JSON 이 아니면 null.
+     *
+     * @throws IllegalArgumentException 본문이 올바른 JSON 이 아닌 경우
+     */
+    private static String[] readCredentials(HttpRequest request) {
+        String contentType = request.header("content-type");
+        if (contentType == null || !contentType.toLowerCase().contains("application/json")) {
+            return null;
         }
+        return JsonReader.readStringFields(request.body(), CREDENTIAL_FIELDS);
     }
 
     /**
@@ -134,7 +162,7 @@ public final class AuthHandler implements Handler {
 
             HttpResponse.Builder builder = HttpResponse.builder(200, "OK")
                     .header("Content-Type", "application/json; charset=UTF-8")
-                    .body(JsonUtil.createResponse(true, "로그아웃되었습니다.").getBytes(StandardCharsets.UTF_8));
+                    .body(JsonUtil.createResponseBytes(true, "로그아웃되었습니다."));
             
             // 세션 쿠키 삭제
             CookieUtil.deleteSessionCookie(builder);
@@ -147,32 +175,18 @@ public final class AuthHandler implements Handler {
     }
 
     // Helper methods
-    private HttpResponse methodNotAllowed() {
-        return HttpResponse.builder(405, "Method Not Allowed")
-                .header("Allow", "POST")
-                .header("Content-Type", "text/plain; charset=UTF-8")
-                .body("Method Not Allowed".getBytes(StandardCharsets.UTF_8))
-                .build();
-    }
-
-    private HttpResponse notFound() {
-        return HttpResponse.builder(404, "Not Found")
-                .header("Content-Type", "text/plain; charset=UTF-8")
-                .body("Not Found".getBytes(StandardCharsets.UTF_8))
-                .build();
-    }
-
-    private HttpResponse badRequest(String message) {
-        return HttpResponse.builder(400, "Bad Request")
+    private HttpResponse serviceUnavailable(String message) {
+        return HttpResponse.builder(503, "Service Unavailable")
+                .header("Retry-After", "1")
                 .header("Content-Type", "application/json; charset=UTF-8")
-                .body(JsonUtil.createResponse(false, message).getBytes(StandardCharsets.UTF_8))
+                .body(JsonUtil.createResponseBytes(false, message))
                 .build();
     }
 
     private HttpResponse internalServerError(String message) {
         return HttpResponse.builder(500, "Internal Server Error")
                 .header("Content-Type", "application/json; charset=UTF-8")
-                .body(JsonUtil.createResponse(false, message).getBytes(StandardCharsets.UTF_8))
+                .body(JsonUtil.createResponseBytes(false, message))
                 .build();
     }
 }
\ No newline at end of file
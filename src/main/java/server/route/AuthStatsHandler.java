@@ -0,0 +1,40 @@
+package server.route;
+
+import java.nio.charset.StandardCharsets;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import server.http.HttpRequest;
+import server.http.HttpResponse;
+import server.service.AuthService;
+import server.service.UserRepository;
+import server.util.JsonUtil;
+
+/**
+ * 사용자명 블룸 필터의 크기와 오탐률 통계를 JSON 으로 돌려주는 핸들러.
+ */
+public final class AuthStatsHandler implements Handler {
+    private final AuthService authService;
+
+    public AuthStatsHandler(AuthService authService) {
+        this.authService = authService;
+    }
+
+    @Override
+    public HttpResponse handle(HttpRequest request) {
+        UserRepository.FilterStats stats = authService.usernameFilterStats();
+        Map<String, String> body = new LinkedHashMap<>();
+        body.put("entries", Long.toString(stats.getEntries()));
+        body.put("bits", Long.toString(stats.getBits()));
+        body.put("hashFunctions", Integer.toString(stats.getHashFunctions()));
+        body.put("lookups", Long.toString(stats.getLookups()));
+        body.put("definiteMisses", Long.toString(stats.getDefiniteMisses()));
+        body.put("falsePositives", Long.toString(stats.getFalsePositives()));
+        body.put("observedFalsePositiveRate", String.format("%.6f", stats.getObservedFalsePositiveRate()));
+        body.put("expectedFalsePositiveRate", String.format("%.6f", stats.getExpectedFalsePositiveRate()));
+        return HttpResponse.builder(200, "OK")
+                .header("Content-Type", "application/json; charset=UTF-8")
+                .body(JsonUtil.toSimpleJson(body).getBytes(StandardCharsets.UTF_8))
+                .build();
+    }
+}
@@ -0,0 +1,16 @@
+package server.route;
+
+import server.http.HttpRequest;
+import server.http.HttpResponse;
+
+import java.util.concurrent.CompletionStage;
+
+/**
+ * 핸들러 앞뒤에서 도는 공통 처리(인증, 압축, 측정, 요청 제한 등).
+ * 다음 단계를 부르지 않고 바로 응답을 돌려주면 요청이 거기서 끝난다.
+ * 앞 단계가 구한 값은 {@link HttpRequest#context()} 에 남겨 뒤 단계가 다시 구하지 않도록 한다.
+ */
+@FunctionalInterface
+public interface Filter {
+    CompletionStage<HttpResponse> filter(HttpRequest request, AsyncHandler next);
+}
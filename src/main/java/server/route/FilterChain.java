@@ -0,0 +1,56 @@
+package server.route;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * 필터 목록을 핸들러 하나로 엮는다. 엮는 일은 서버를 띄울 때 한 번만 하고,
+ * 요청마다 새 객체를 만들지 않는다. 먼저 넣은 필터가 바깥쪽에서 돈다.
+ */
+public final class FilterChain {
+    private final List<Filter> filters;
+
+    private FilterChain(List<Filter> filters) {
+        this.filters = filters;
+    }
+
+    public static FilterChain of(Filter... filters) {
+        return new FilterChain(List.of(filters));
+    }
+
+    /**
+     * 뒤에 필터를 더한 새 체인을 돌려준다.
+     */
+    public FilterChain then(Filter filter) {
+        List<Filter> next = new ArrayList<>(filters);
+        next.add(filter);
+        return new FilterChain(List.copyOf(next));
+    }
+
+    /**
+     * 동기 핸들러 앞에 필터를 엮는다. 비동기 핸들러는 {@link #wrapAsync} 를 쓴다.
+     * 람다를 넘겨도 어느 쪽인지 헷갈리지 않도록 {@link Router} 의 get/getAsync 처럼 이름을 나눴다.
+     */
+    public AsyncHandler wrap(Handler handler) {
+        return wrapAsync(AsyncHandler.of(handler));
+    }
+
+    public AsyncHandler wrapAsync(AsyncHandler handler) {
+        AsyncHandler next = handler;
+        for (int i = filters.size() - 1; i >= 0; i--) {
+            next = link(filters.get(i), next);
+        }
+        return next;
+    }
+
+    private static AsyncHandler link(Filter filter, AsyncHandler next) {
+        return request -> {
+            try {
+                return filter.filter(request, next);
+            } catch (RuntimeException e) {
+                return CompletableFuture.failedFuture(e);
+            }
+        };
+    }
+}
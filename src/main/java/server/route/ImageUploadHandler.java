@@ -0,0 +1,71 @@
+package server.route;
+
+import java.io.IOException;
+
+import server.http.HttpParseException;
+import server.http.CannedResponses;
+import server.http.HttpRequest;
+import server.http.HttpResponse;
+import server.service.UploadService;
+import server.util.JsonUtil;
+import server.util.JsonWriter;
+import server.util.Logger;
+
+/**
+ * 이미지 업로드 핸들러. multipart/form-data 의 파일 파트를 www/images 에 저장하고 경로를 돌려준다.
+ * 예: POST /images/upload (file=@photo.png)
+ * 응답: {"success":"true","files":[{"path":"/images/…png","size":1234,"deduplicated":false}]}
+ */
+public final class ImageUploadHandler implements Handler {
+    private final UploadService uploadService;
+
+    public ImageUploadHandler(UploadService uploadService) {
+        this.uploadService = uploadService;
+    }
+
+    @Override
+    public HttpResponse handle(HttpRequest request) throws IOException {
+        if (!"POST".equals(request.method())) {
+            return CannedResponses.POST_ONLY;
+        }
+        if (!UploadForm.isMultipart(request)) {
+            return error(400, "Bad Request", "Content-Type must be multipart/form-data");
+        }
+
+        UploadForm form;
+        try {
+            form = UploadForm.read(request, uploadService);
+        } catch (UploadService.UploadException e) {
+            return error(e.getStatus(), e.getStatus() == 413 ? "Payload Too Large" : "Unsupported Media Type",
+                    e.getMessage());
+        } catch (HttpParseException e) {
+            Logger.warn("Malformed upload: " + e.getMessage());
+            return error(400, "Bad Request", "잘못된 업로드 요청입니다.");
+        }
+        if (form.files().isEmpty()) {
+            return error(400, "Bad Request", "올릴 파일이 없습니다.");
+        }
+
+        JsonWriter json = new JsonWriter(64 + form.files().size() * 96);
+        json.beginObject().name("success").value("true").name("files").beginArray();
+        for (UploadService.StoredUpload file : form.files()) {
+            json.beginObject()
+                .name("path").value(file.getPath())
+                .name("size").value(file.getSize())
+                .name("deduplicated").value(file.isDeduplicated())
+                .endObject();
+        }
+        json.endArray().endObject();
+        return HttpResponse.builder(201, "Created")
+                .header("Content-Type", "application/json; charset=UTF-8")
+                .body(json.toByteArray())
+                .build();
+    }
+
+    private HttpResponse error(int status, String reason, String message) {
+        return HttpResponse.builder(status, reason)
+                .header("Content-Type", "application/json; charset=UTF-8")
+                .body(JsonUtil.createResponseBytes(false, message))
+                .build();
+    }
+}
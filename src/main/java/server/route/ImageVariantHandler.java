@@ -0,0 +1,183 @@
+package server.route;
+
+import java.io.IOException;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Function;
+
+import server.http.CannedResponses;
+import server.http.HttpRequest;
+import server.http.HttpResponse;
+import server.service.ImageService;
+import server.util.Logger;
+import server.util.QueryUtil;
+
+/**
+ * 썸네일과 플레이스홀더 이미지를 돌려주는 핸들러.
+ * 예: GET /images/thumb/photo.png?w=320&h=240
+ *     GET /images/placeholder/1000x600/1C3C58/ffffff?text=City+Night+Sketch
+ * 플레이스홀더 경로는 content_manifest.json 의 placeholder 값을 그대로 붙여 쓸 수 있다.
+ * 이미지 생성은 이미지 풀에서 돌고, 응답은 생성이 끝났을 때 완료 콜백에서 완성된다.
+ */
+public final class ImageVariantHandler implements AsyncHandler {
+    public static final String THUMB_PREFIX = "/images/thumb/";
+    public static final String PLACEHOLDER_PREFIX = "/images/placeholder/";
+    private static final String DEFAULT_BACKGROUND = "cccccc";
+    private static final String DEFAULT_FOREGROUND = "333333";
+
+    private final ImageService imageService;
+    private final Path imageDir;
+
+    public ImageVariantHandler(ImageService imageService, Path imageDir) {
+        this.imageService = imageService;
+        this.imageDir = imageDir.normalize().toAbsolutePath();
+    }
+
+    @Override
+    public CompletionStage<HttpResponse> handleAsync(HttpRequest request) {
+        String target = request.target();
+        int queryIndex = target.indexOf('?');
+        String path = queryIndex >= 0 ? target.substring(0, queryIndex) : target;
+        Map<String, String> params = QueryUtil.parse(target);
+        try {
+            if (path.startsWith(THUMB_PREFIX)) {
+                return thumbnail(path.substring(THUMB_PREFIX.length()), params);
+            }
+            if (path.startsWith(PLACEHOLDER_PREFIX)) {
+                return placeholder(path.substring(PLACEHOLDER_PREFIX.length()), params);
+            }
+            return CompletableFuture.completedFuture(CannedResponses.NOT_FOUND);
+        } catch (ImageService.OverloadedException e) {
+            return CompletableFuture.completedFuture(busy(e.getMessage()));
+        } catch (IOException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+    }
+
+    private CompletionStage<HttpResponse> thumbnail(String rawName, Map<String, String> params)
+            throws IOException, ImageService.OverloadedException {
+        String name;
+        try {
+            name = URLDecoder.decode(rawName, StandardCharsets.UTF_8);
+        } catch (IllegalArgumentException e) {
+            return CompletableFuture.completedFuture(CannedResponses.NOT_FOUND);
+        }
+        if (name.isEmpty() || name.indexOf('/') >= 0 || name.indexOf('\\') >= 0 || name.contains("..")) {
+            return CompletableFuture.completedFuture(CannedResponses.NOT_FOUND);
+        }
+        int max = imageService.maxDimension();
+        int width = QueryUtil.intParam(params, "w", 0, 0, max);
+        int height = QueryUtil.intParam(params, "h", 0, 0, max);
+        if (width == 0 && height == 0) {
+            return CompletableFuture.completedFuture(badRequest("w 또는 h 를 1 이상으로 지정해야 합니다."));
+        }
+
+        CompletableFuture<ImageService.Variant> variant;
+        try {
+            variant = imageService.thumbnailAsync(imageDir.resolve(name), width, height);
+        } catch (NoSuchFileException e) {
+            return CompletableFuture.completedFuture(CannedResponses.NOT_FOUND);
+        } catch (ImageService.UnsupportedImageException e) {
+            return CompletableFuture.completedFuture(unsupportedMediaType(e.getMessage()));
+        }
+        return respond(variant, "public, max-age=3600", this::unsupportedMediaType);
+    }
+
+    /**
+     * "{가로}x{세로}[/{배경색}[/{글자색}]]" 형식을 해석한다.
+     */
+    private CompletionStage<HttpResponse> placeholder(String spec, Map<String, String> params)
+            throws ImageService.OverloadedException {
+        String[] segments = spec.split("/");
+        if (segments.length < 1 || segments.length > 3) {
+            return CompletableFuture.completedFuture(CannedResponses.NOT_FOUND);
+        }
+        int x = segments[0].indexOf('x');
+        int width;
+        int height;
+        try {
+            width = x > 0 ? Integer.parseInt(segments[0].substring(0, x)) : -1;
+            height = x > 0 ? Integer.parseInt(segments[0].substring(x + 1)) : -1;
+        } catch (NumberFormatException e) {
+            return CompletableFuture.completedFuture(badRequest("크기는 {가로}x{세로} 형식이어야 합니다."));
+        }
+        int max = imageService.maxDimension();
+        if (width < 1 || height < 1 || width > max || height > max) {
+            return CompletableFuture.completedFuture(badRequest("크기는 1 부터 " + max + " 사이여야 합니다."));
+        }
+        String background = segments.length > 1 ? segments[1] : DEFAULT_BACKGROUND;
+        String foreground = segments.length > 2 ? segments[2] : DEFAULT_FOREGROUND;
+        String text = params.get("text");
+
+        CompletableFuture<ImageService.Variant> variant;
+        try {
+            variant = imageService.placeholderAsync(width, height, background, foreground, text);
+        } catch (ImageService.UnsupportedImageException e) {
+            return CompletableFuture.completedFuture(badRequest(e.getMessage()));
+        }
+        // 같은 주소는 언제나 같은 이미지이므로 오래 캐시해도 된다.
+        return respond(variant, "public, max-age=31536000, immutable", this::badRequest);
+    }
+
+    /**
+     * 생성이 끝나면 이미지 응답을 만든다. 제한 시간을 넘기면 503, 읽을 수 없는 이미지면 unsupported 가 만든 응답.
+     */
+    private CompletionStage<HttpResponse> respond(CompletableFuture<ImageService.Variant> variant, String cacheControl,
+                                                  Function<String, HttpResponse> unsupported) {
+        return variant.handle((result, failure) -> {
+            if (failure == null) {
+                return image(result, cacheControl);
+            }
+            Throwable cause = failure instanceof CompletionException && failure.getCause() != null
+                    ? failure.getCause() : failure;
+            if (cause instanceof TimeoutException) {
+                return busy("Image generation timed out");
+            }
+            if (cause instanceof NoSuchFileException) {
+                return CannedResponses.NOT_FOUND;
+            }
+            if (cause instanceof ImageService.UnsupportedImageException) {
+                return unsupported.apply(cause.getMessage());
+            }
+            throw new CompletionException(cause);
+        });
+    }
+
+    private HttpResponse image(ImageService.Variant variant, String cacheControl) {
+        return HttpResponse.builder(200, "OK")
+                .header("Content-Type", variant.getContentType())
+                .header("Cache-Control", cacheControl)
+                .body(variant.getData())
+                .build();
+    }
+
+    private HttpResponse busy(String reason) {
+        Logger.warn("Image request rejected: " + reason);
+        return HttpResponse.builder(503, "Service Unavailable")
+                .header("Retry-After", "1")
+                .header("Content-Type", "text/plain; charset=UTF-8")
+                .body("Image service is busy".getBytes(StandardCharsets.UTF_8))
+                .build();
+    }
+
+    private HttpResponse unsupportedMediaType(String message) {
+        return HttpResponse.builder(415, "Unsupported Media Type")
+                .header("Content-Type", "text/plain; charset=UTF-8")
+                .body(message.getBytes(StandardCharsets.UTF_8))
+                .build();
+    }
+
+    private HttpResponse badRequest(String message) {
+        return HttpResponse.builder(400, "Bad Request")
+                .header("Content-Type", "text/plain; charset=UTF-8")
+                .body(message.getBytes(StandardCharsets.UTF_8))
+                .build();
+    }
+}
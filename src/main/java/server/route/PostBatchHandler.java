@@ -0,0 +1,238 @@
+package server.route;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+
+import server.config.ServerConfig;
+import server.http.CannedResponses;
+import server.http.HttpRequest;
+import server.http.HttpResponse;
+import server.service.AuthService;
+import server.service.PostService;
+import server.storage.Durability;
+import server.storage.GroupCommitter;
+import server.util.JsonReader;
+import server.util.JsonUtil;
+import server.util.JsonWriter;
+import server.util.Logger;
+
+/**
+ * 여러 게시글 생성/삭제를 한 요청으로 처리하는 핸들러. 로그인한 사용자만 쓸 수 있다.
+ * 예: POST /posts/batch
+ * {"durability":"batched","operations":[{"op":"create","title":"…","content":"…"},{"op":"delete","id":"…"}]}
+ * 응답: {"success":"true","results":[{"index":0,"op":"create","status":201,"id":"…","message":"…"}, …]}
+ * 세션 확인은 요청마다 한 번, 본문은 트리를 만들지 않고 한 번 훑어 읽으며, 쓰기는 fsync 한 번으로 묶인다. 각 작업의 성공 여부는 results 의 status 로 본다.
+ * 제한 시간 안에 커밋되지 않은 작업은 요청 전체를 실패로 돌리지 않고 status 202(처리 중)로 알린다.
+ * 커밋을 기다리는 동안 연결 워커를 붙잡지 않도록 응답은 커밋이 끝났을 때 완성된다.
+ */
+public final class PostBatchHandler implements AsyncHandler {
+    private static final Durability DEFAULT_DURABILITY =
+            Durability.parse(ServerConfig.POST_DEFAULT_DURABILITY, Durability.BATCHED);
+    private static final byte[][] BATCH_FIELDS = {bytes("operations"), bytes("durability")};
+    private static final byte[][] OPERATION_FIELDS =
+            {bytes("op"), bytes("title"), bytes("content"), bytes("id"), bytes("filename")};
+    private static final int FIELD_OP = 0;
+    private static final int FIELD_TITLE = 1;
+    private static final int FIELD_CONTENT = 2;
+    private static final int FIELD_ID = 3;
+    private static final int FIELD_FILENAME = 4;
+
+    private final PostService postService;
+    private final AuthService authService;
+
+    public PostBatchHandler(PostService postService, AuthService authService) {
+        this.postService = postService;
+        this.authService = authService;
+    }
+
+    @Override
+    public CompletionStage<HttpResponse> handleAsync(HttpRequest request) {
+        if (!"POST".equals(request.method())) {
+            return CompletableFuture.completedFuture(CannedResponses.POST_ONLY);
+        }
+        // 앞의 SessionFilter 가 확인했으면 그 결과를 그대로 쓴다.
+        Optional<String> username = request.context().user(authService::validateSession);
+        if (username.isEmpty()) {
+            Logger.warn("Unauthorized batch request");
+            return error(401, "Unauthorized", "로그인이 필요합니다.");
+        }
+        String contentType = request.header("content-type");
+        if (contentType == null || !contentType.toLowerCase().contains("application/json")) {
+            return error(400, "Bad Request", "Content-Type must be application/json");
+        }
+
+        Batch batch;
+        try {
+            batch = readBatch(request.body());
+        } catch (InvalidBatchException e) {
+            return error(400, "Bad Request", e.getMessage());
+        } catch (IllegalArgumentException e) {
+            return error(400, "Bad Request", "잘못된 JSON 입니다: " + e.getMessage());
+        }
+        if (batch.operations.isEmpty()) {
+            return error(400, "Bad Request", "operations 배열이 필요합니다.");
+        }
+
+        Durability durability;
+        try {
+            durability = Durability.parse(batch.durability, DEFAULT_DURABILITY);
+        } catch (IllegalArgumentException e) {
+            return error(400, "Bad Request", "durability 는 async, batched, sync 중 하나여야 합니다.");
+        }
+        List<PostService.BatchOperation> operations = batch.operations;
+        List<String> kinds = batch.kinds;
+
+        CompletableFuture<List<PostService.BatchResult>> pending;
+        try {
+            pending = postService.applyBatchAsync(operations, username.get(), durability);
+        } catch (GroupCommitter.OverloadedException e) {
+            Logger.warn("Post batch rejected: " + e.getMessage());
+            return CompletableFuture.completedFuture(CannedResponses.OVERLOADED);
+        }
+        // 제한 시간이 지나면 끝나지 않은 작업은 202 로 담겨 온다.
+        return pending.thenApply(results -> results(kinds, results));
+    }
+
+    private HttpResponse results(List<String> kinds, List<PostService.BatchResult> results) {
+        JsonWriter json = new JsonWriter(64 + results.size() * 128);
+        json.beginObject().name("success").value("true").name("results").beginArray();
+        for (int i = 0; i < results.size(); i++) {
+            PostService.BatchResult result = results.get(i);
+            json.beginObject()
+                .name("index").value(i)
+                .name("op").value(kinds.get(i))
+                .name("status").value(result.getStatus())
+                .name("id").value(result.getId())
+                .name("message").value(result.getMessage())
+                .endObject();
+        }
+        json.endArray().endObject();
+        return HttpResponse.builder(200, "OK")
+                .header("Content-Type", "application/json; charset=UTF-8")
+                .body(json.toByteArray())
+                .build();
+    }
+
+    /**
+     * 본문을 트리로 만들지 않고 {@link JsonReader} 로 앞에서부터 읽어 작업 목록을 만든다.
+     * 작업 배열만 보내도 되고, durability 를 함께 담은 객체로 보내도 된다. 최상위 객체의 다른 필드는 건너뛴다.
+     *
+     * @throws InvalidBatchException     JSON 은 맞지만 작업 내용이 잘못된 경우
+     * @throws IllegalArgumentException JSON 형식이 잘못된 경우
+     */
+    private static Batch readBatch(byte[] body) throws InvalidBatchException {
+        Batch batch = new Batch();
+        JsonReader reader = new JsonReader(body);
+        switch (reader.peek()) {
+            case ARRAY -> readOperations(reader, batch);
+            case OBJECT -> {
+                boolean hasOperations = false;
+                reader.beginObject();
+                while (reader.hasNext()) {
+                    int field = reader.nextName(BATCH_FIELDS);
+                    if (field == 0 && reader.peek() == JsonReader.Type.ARRAY) {
+                        batch.operations.clear();
+                        batch.kinds.clear();
+                        readOperations(reader, batch);
+                        hasOperations = true;
+                    } else if (field == 1) {
+                        batch.durability = nextStringOrNull(reader);
+                    } else {
+                        if (field == 0) {
+                            hasOperations = false;
+                        }
+                        reader.skipValue();
+                    }
+                }
+                reader.endObject();
+                if (!hasOperations) {
+                    throw new InvalidBatchException("operations 배열이 필요합니다.");
+                }
+            }
+            default -> throw new InvalidBatchException("operations 배열이 필요합니다.");
+        }
+        reader.endDocument();
+        return batch;
+    }
+
+    private static void readOperations(JsonReader reader, Batch batch) throws InvalidBatchException {
+        reader.beginArray();
+        for (int i = 0; reader.hasNext(); i++) {
+            if (i == ServerConfig.POST_BATCH_MAX_OPERATIONS) {
+                throw new InvalidBatchException(
+                        "한 번에 최대 " + ServerConfig.POST_BATCH_MAX_OPERATIONS + "개까지 처리할 수 있습니다.");
+            }
+            String[] values = new String[OPERATION_FIELDS.length];
+            boolean hasId = false;
+            if (reader.peek() == JsonReader.Type.OBJECT) {
+                reader.beginObject();
+                while (reader.hasNext()) {
+                    int field = reader.nextName(OPERATION_FIELDS);
+                    if (field < 0) {
+                        reader.skipValue();
+                        continue;
+                    }
+                    values[field] = nextStringOrNull(reader);
+                    hasId |= field == FIELD_ID;
+                }
+                reader.endObject();
+            } else {
+                reader.skipValue();
+            }
+
+            String op = values[FIELD_OP];
+            if ("create".equals(op)) {
+                batch.operations.add(PostService.BatchOperation.create(values[FIELD_TITLE], values[FIELD_CONTENT]));
+            } else if ("delete".equals(op)) {
+                String id = hasId ? values[FIELD_ID] : values[FIELD_FILENAME];
+                if (id == null) {
+                    throw new InvalidBatchException("operations[" + i + "]: 삭제할 id 가 필요합니다.");
+                }
+                batch.operations.add(PostService.BatchOperation.delete(id));
+            } else {
+                throw new InvalidBatchException("operations[" + i + "]: op 는 create 또는 delete 여야 합니다.");
+            }
+            batch.kinds.add(op);
+        }
+        reader.endArray();
+    }
+
+    private static byte[] bytes(String name) {
+        return name.getBytes(StandardCharsets.UTF_8);
+    }
+
+    /** 문자열 값이면 읽고, 다른 종류의 값은 건너뛰고 null 을 돌려준다. */
+    private static String nextStringOrNull(JsonReader reader) {
+        if (reader.peek() == JsonReader.Type.STRING) {
+            return reader.nextString();
+        }
+        reader.skipValue();
+        return null;
+    }
+
+    private CompletionStage<HttpResponse> error(int status, String reason, String message) {
+        return CompletableFuture.completedFuture(HttpResponse.builder(status, reason)
+                .header("Content-Type", "application/json; charset=UTF-8")
+                .body(JsonUtil.createResponseBytes(false, message))
+                .build());
+    }
+
+    private static final class Batch {
+        private final List<PostService.BatchOperation> operations = new ArrayList<>();
+        private final List<String> kinds = new ArrayList<>();
+        private String durability;
+    }
+
+    /**
+     * JSON 형식은 맞지만 작업 목록이 잘못된 요청
+     */
+    private static final class InvalidBatchException extends Exception {
+        private InvalidBatchException(String message) {
+            super(message);
+        }
+    }
+}
@@ -0,0 +1,67 @@
+package server.route;
+
+import java.io.IOException;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.util.Optional;
+
+import server.http.HttpRequest;
+import server.http.HttpResponse;
+import server.service.PostService;
+import server.service.ViewCounter;
+import server.util.MimeTypes;
+
+/**
+ * 게시글 원문을 저장소에서 꺼내 돌려주는 핸들러.
+ * 예: GET /posts/20240101_제목.txt
+ * 저장소에 없는 경로는 정적 파일 핸들러로 넘겨 www/posts 아래의 다른 파일도 그대로 제공한다.
+ * 저장소의 글을 돌려줄 때마다 조회수를 센다.
+ */
+public final class PostContentHandler implements Handler {
+    private static final String PREFIX = "/posts/";
+
+    private final PostService postService;
+    private final Handler fallback;
+    private final ViewCounter viewCounter;
+
+    public PostContentHandler(PostService postService, Handler fallback) {
+        this(postService, fallback, null);
+    }
+
+    /**
+     * @param viewCounter 조회수를 셀 카운터. null 이면 세지 않는다.
+     */
+    public PostContentHandler(PostService postService, Handler fallback, ViewCounter viewCounter) {
+        this.postService = postService;
+        this.fallback = fallback;
+        this.viewCounter = viewCounter;
+    }
+
+    @Override
+    public HttpResponse handle(HttpRequest request) throws IOException {
+        String target = request.target();
+        int queryIndex = target.indexOf('?');
+        String path = queryIndex >= 0 ? target.substring(0, queryIndex) : target;
+        if (!path.startsWith(PREFIX)) {
+            return fallback.handle(request);
+        }
+
+        String id;
+        try {
+            id = URLDecoder.decode(path.substring(PREFIX.length()), StandardCharsets.UTF_8);
+        } catch (IllegalArgumentException e) {
+            return fallback.handle(request);
+        }
+        Optional<byte[]> content = postService.readPost(id);
+        if (content.isEmpty()) {
+            return fallback.handle(request);
+        }
+        if (viewCounter != null) {
+            viewCounter.record(id);
+        }
+        return HttpResponse.builder(200, "OK")
+                .header("Content-Type", MimeTypes.probe(id))
+                .body(content.get())
+                .build();
+    }
+}
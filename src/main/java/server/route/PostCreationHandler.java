@@ -1,64 +1,161 @@
 package server.route;
 
 import java.io.IOException;
-import java.nio.charset.StandardCharsets;
-import java.util.Map;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CompletionStage;
 
+import server.config.ServerConfig;
+import server.http.HttpParseException;
+import server.http.CannedResponses;
 import server.http.HttpRequest;
 import server.http.HttpResponse;
 import server.service.PostService;
+import server.service.UploadService;
+import server.storage.Durability;
+import server.storage.GroupCommitter;
+import server.util.JsonReader;
 import server.util.JsonUtil;
+import server.util.JsonWriter;
+import server.util.Logger;
 
 /**
  * 게시글 생성 요청을 처리하는 핸들러.
+ * 본문의 "durability" 값(async, batched, sync)으로 응답 전에 기다릴 내구성 단계를 고를 수 있다.
+ * JSON 본문 외에 multipart/form-data 도 받으며, 이때 파일 파트는 이미지로 저장해 게시글 첨부로 남긴다.
+ * 본문을 읽은 뒤 쓰기를 큐에 넣고 바로 돌아오며, 응답은 커밋이 끝났을 때 완성된다.
  */
-public final class PostCreationHandler implements Handler {
+public final class PostCreationHandler implements AsyncHandler {
+    private static final Durability DEFAULT_DURABILITY =
+            Durability.parse(ServerConfig.POST_DEFAULT_DURABILITY, Durability.BATCHED);
+    /** 본문에서 읽는 필드. 순서대로 제목, 내용, 작성자, 내구성 단계 */
+    private static final String[] FIELDS = {"title", "content", "author", "durability"};
+    private static final HttpResponse CREATED = CannedResponses.json(201, "Created", true, "게시글이 등록되었습니다.");
+    private static final HttpResponse TITLE_AND_CONTENT_REQUIRED =
+            CannedResponses.json(400, "Bad Request", false, "제목과 내용을 모두 입력해 주세요.");
+    private static final String PENDING_MESSAGE = "아직 처리 중입니다. 잠시 후 목록에서 확인해 주세요.";
+    private static final HttpResponse UNSUPPORTED_CONTENT_TYPE = CannedResponses.json(400, "Bad Request", false,
+            "Content-Type must be application/json or multipart/form-data");
+
     private final PostService postService;
+    private final UploadService uploadService;
 
-    public PostCreationHandler(PostService postService) {
+    public PostCreationHandler(PostService postService, UploadService uploadService) {
         this.postService = postService;
+        this.uploadService = uploadService;
     }
 
     @Override
-    public HttpResponse handle(HttpRequest request) throws IOException {
+    public CompletionStage<HttpResponse> handleAsync(HttpRequest request) {
+        try {
+            return create(request);
+        } catch (IOException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+    }
+
+    private CompletionStage<HttpResponse> create(HttpRequest request) throws IOException {
         if (!"POST".equals(request.method())) {
-            return methodNotAllowed();
+            return CompletableFuture.completedFuture(CannedResponses.POST_ONLY);
         }
 
-        String contentType = request.header("content-type");
-        if (contentType == null || !contentType.toLowerCase().contains("application/json")) {
-            return badRequest("Content-Type must be application/json");
+        String[] fields;
+        List<String> attachments = List.of();
+        if (UploadForm.isMultipart(request)) {
+            try {
+                UploadForm form = UploadForm.read(request, uploadService);
+                fields = new String[FIELDS.length];
+                for (int i = 0; i < FIELDS.length; i++) {
+                    fields[i] = form.field(FIELDS[i]);
+                }
+                attachments = form.filePaths();
+            } catch (UploadService.UploadException e) {
+                return CompletableFuture.completedFuture(error(e.getStatus(),
+                        e.getStatus() == 413 ? "Payload Too Large" : "Unsupported Media Type", e.getMessage()));
+            } catch (HttpParseException e) {
+                Logger.warn("Malformed post upload: " + e.getMessage());
+                return CompletableFuture.completedFuture(badRequest("잘못된 업로드 요청입니다."));
+            }
+        } else {
+            String contentType = request.header("content-type");
+            if (contentType == null || !contentType.toLowerCase().contains("application/json")) {
+                return CompletableFuture.completedFuture(UNSUPPORTED_CONTENT_TYPE);
+            }
+
+            try {
+                fields = JsonReader.readStringFields(request.body(), FIELDS);
+            } catch (IllegalArgumentException e) {
+                return CompletableFuture.completedFuture(CannedResponses.INVALID_JSON);
+            }
         }
 
-        String body = new String(request.body(), StandardCharsets.UTF_8);
-        Map<String, String> data = JsonUtil.parseSimpleJson(body);
+        String title = fields[0];
+        String content = fields[1];
+        String author = fields[2];
 
-        String title = data.get("title");
-        String content = data.get("content");
-        String author = data.get("author");
+        Durability durability;
+        try {
+            durability = Durability.parse(fields[3], DEFAULT_DURABILITY);
+        } catch (IllegalArgumentException e) {
+            return CompletableFuture.completedFuture(badRequest("durability 는 async, batched, sync 중 하나여야 합니다."));
+        }
 
-        if (!postService.createPost(title, content, author)) {
-            return badRequest("제목과 내용을 모두 입력해 주세요.");
+        CompletableFuture<Boolean> created;
+        try {
+            created = postService.createPostAsync(title, content, author, durability, attachments);
+        } catch (IllegalArgumentException e) {
+            return CompletableFuture.completedFuture(badRequest(e.getMessage()));
+        } catch (GroupCommitter.OverloadedException e) {
+            Logger.warn("Post creation rejected: " + e.getMessage());
+            return CompletableFuture.completedFuture(CannedResponses.OVERLOADED);
         }
+        return created.handle((success, failure) -> {
+            if (failure != null) {
+                Throwable cause = failure instanceof CompletionException && failure.getCause() != null
+                        ? failure.getCause() : failure;
+                if (cause instanceof PostService.PendingWriteException pending) {
+                    // 쓰기는 큐에 남아 커밋되므로 503 으로 다시 보내게 하면 글이 두 번 생긴다.
+                    Logger.warn("Post creation still pending: " + pending.getId());
+                    return pending(pending.getId());
+                }
+                throw new IllegalStateException("Post creation failed", failure);
+            }
+            if (!success) {
+                return TITLE_AND_CONTENT_REQUIRED;
+            }
+            return CREATED;
+        });
+    }
 
-        return HttpResponse.builder(201, "Created")
+    /**
+     * 아직 커밋되지 않은 글의 ID 를 알려 주는 202 응답. /posts/batch 의 처리 중 항목과 같은 뜻이다.
+     */
+    private HttpResponse pending(String id) {
+        byte[] body = new JsonWriter(128)
+                .beginObject()
+                .name("success").value("true")
+                .name("id").value(id)
+                .name("message").value(PENDING_MESSAGE)
+                .endObject()
+                .toByteArray();
+        return HttpResponse.builder(202, "Accepted")
                 .header("Content-Type", "application/json; charset=UTF-8")
-                .body(JsonUtil.createResponse(true, "게시글이 등록되었습니다.").getBytes(StandardCharsets.UTF_8))
+                .body(body)
                 .build();
     }
 
-    private HttpResponse methodNotAllowed() {
-        return HttpResponse.builder(405, "Method Not Allowed")
-                .header("Allow", "POST")
-                .header("Content-Type", "text/plain; charset=UTF-8")
-                .body("Method Not Allowed".getBytes(StandardCharsets.UTF_8))
+    private HttpResponse error(int status, String reason, String message) {
+        return HttpResponse.builder(status, reason)
+                .header("Content-Type", "application/json; charset=UTF-8")
+                .body(JsonUtil.createResponseBytes(false, message))
                 .build();
     }
 
     private HttpResponse badRequest(String message) {
         return HttpResponse.builder(400, "Bad Request")
                 .header("Content-Type", "application/json; charset=UTF-8")
-                .body(JsonUtil.createResponse(false, message).getBytes(StandardCharsets.UTF_8))
+                .body(JsonUtil.createResponseBytes(false, message))
                 .build();
     }
 }
@@ -1,18 +1,31 @@
 package server.route;
 
-import java.io.IOException;
-import java.nio.charset.StandardCharsets;
-import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CompletionStage;
 
+import server.http.CannedResponses;
 import server.http.HttpRequest;
 import server.http.HttpResponse;
 import server.service.PostService;
-import server.util.JsonUtil;
+import server.storage.GroupCommitter;
+import server.util.JsonReader;
+import server.util.Logger;
 
 /**
  * 게시글 삭제 요청을 처리하는 핸들러.
+ * 삭제는 그룹 커밋 큐를 거치며, 응답은 커밋이 끝났을 때 완성된다.
  */
-public final class PostDeleteHandler implements Handler {
+public final class PostDeleteHandler implements AsyncHandler {
+    private static final HttpResponse DELETED = CannedResponses.json(200, "OK", true, "게시글이 삭제되었습니다.");
+    private static final HttpResponse FILENAME_REQUIRED =
+            CannedResponses.json(400, "Bad Request", false, "삭제할 파일명을 입력해 주세요.");
+    private static final HttpResponse POST_NOT_FOUND =
+            CannedResponses.json(404, "Not Found", false, "삭제할 게시글을 찾을 수 없습니다.");
+    /** 제한 시간 안에 커밋되지 않은 삭제. 큐에 남아 이어서 처리된다. */
+    private static final HttpResponse PENDING =
+            CannedResponses.json(202, "Accepted", true, "삭제가 아직 처리 중입니다. 잠시 후 목록에서 확인해 주세요.");
+
     private final PostService postService;
 
     public PostDeleteHandler(PostService postService) {
@@ -20,54 +33,44 @@ public final class PostDeleteHandler implements Handler {
     }
 
     @Override
-    public HttpResponse handle(HttpRequest request) throws IOException {
+    public CompletionStage<HttpResponse> handleAsync(HttpRequest request) {
         if (!"POST".equals(request.method())) {
-            return methodNotAllowed();
+            return CompletableFuture.completedFuture(CannedResponses.POST_ONLY);
         }
 
         String contentType = request.header("content-type");
         if (contentType == null || !contentType.toLowerCase().contains("application/json")) {
-            return badRequest("Content-Type must be application/json");
+            return CompletableFuture.completedFuture(CannedResponses.JSON_CONTENT_TYPE_REQUIRED);
         }
 
-        String body = new String(request.body(), StandardCharsets.UTF_8);
-        Map<String, String> data = JsonUtil.parseSimpleJson(body);
-
-        String filename = data.get("filename");
+        String filename;
+        try {
+            filename = JsonReader.readStringFields(request.body(), "filename")[0];
+        } catch (IllegalArgumentException e) {
+            return CompletableFuture.completedFuture(CannedResponses.INVALID_JSON);
+        }
         if (filename == null || filename.trim().isEmpty()) {
-            return badRequest("삭제할 파일명을 입력해 주세요.");
+            return CompletableFuture.completedFuture(FILENAME_REQUIRED);
         }
 
-        boolean deleted = postService.deletePost(filename);
-        if (!deleted) {
-            return notFound();
+        CompletableFuture<Boolean> deleted;
+        try {
+            deleted = postService.deletePostAsync(filename);
+        } catch (GroupCommitter.OverloadedException e) {
+            Logger.warn("Post deletion rejected: " + e.getMessage());
+            return CompletableFuture.completedFuture(CannedResponses.OVERLOADED);
         }
-
-        return HttpResponse.builder(200, "OK")
-                .header("Content-Type", "application/json; charset=UTF-8")
-                .body(JsonUtil.createResponse(true, "게시글이 삭제되었습니다.").getBytes(StandardCharsets.UTF_8))
-                .build();
-    }
-
-    private HttpResponse methodNotAllowed() {
-        return HttpResponse.builder(405, "Method Not Allowed")
-                .header("Allow", "POST")
-                .header("Content-Type", "text/plain; charset=UTF-8")
-                .body("Method Not Allowed".getBytes(StandardCharsets.UTF_8))
-                .build();
-    }
-
-    private HttpResponse badRequest(String message) {
-        return HttpResponse.builder(400, "Bad Request")
-                .header("Content-Type", "application/json; charset=UTF-8")
-                .body(JsonUtil.createResponse(false, message).getBytes(StandardCharsets.UTF_8))
-                .build();
-    }
-
-    private HttpResponse notFound() {
-        return HttpResponse.builder(404, "Not Found")
-                .header("Content-Type", "application/json; charset=UTF-8")
-                .body(JsonUtil.createResponse(false, "삭제할 게시글을 찾을 수 없습니다.").getBytes(StandardCharsets.UTF_8))
-                .build();
+        return deleted.handle((removed, failure) -> {
+            if (failure != null) {
+                Throwable cause = failure instanceof CompletionException && failure.getCause() != null
+                        ? failure.getCause() : failure;
+                if (cause instanceof PostService.PendingWriteException) {
+                    Logger.warn("Post deletion still pending: " + filename);
+                    return PENDING;
+                }
+                throw new IllegalStateException("Post deletion failed", failure);
+            }
+            return removed ? DELETED : POST_NOT_FOUND;
+        });
     }
 }
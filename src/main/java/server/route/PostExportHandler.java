@@ -0,0 +1,46 @@
+package server.route;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+
+import server.http.HttpRequest;
+import server.http.HttpResponse;
+import server.service.PostService;
+import server.util.Logger;
+import server.util.TarWriter;
+
+/**
+ * 저장된 게시글 전체를 tar 아카이브 하나로 내려주는 핸들러.
+ * 예: GET /posts/export → posts-20240101-120000.tar
+ * 게시글을 한 건씩 읽어 바로 chunked 응답으로 흘려보내므로 아카이브 전체를 메모리에 만들지 않는다.
+ * 항목 이름은 게시글 ID 이므로 그대로 풀면 게시글 파일이 되고, POST /posts/import 로 다시 가져올 수 있다.
+ */
+public final class PostExportHandler implements Handler {
+    private static final DateTimeFormatter FILE_TIME = DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss");
+
+    private final PostService postService;
+
+    public PostExportHandler(PostService postService) {
+        this.postService = postService;
+    }
+
+    @Override
+    public HttpResponse handle(HttpRequest request) throws IOException {
+        String filename = "posts-" + LocalDateTime.now().format(FILE_TIME) + ".tar";
+        return HttpResponse.builder(200, "OK")
+                .header("Content-Type", "application/x-tar")
+                .header("Content-Disposition", "attachment; filename=\"" + filename + "\"")
+                .stream(out -> {
+                    TarWriter tar = new TarWriter(out);
+                    int[] count = {0};
+                    postService.forEachPost(post -> {
+                        tar.addFile(post.getId(), post.getContent(), post.getStoredAtMillis());
+                        count[0]++;
+                    });
+                    tar.finish();
+                    Logger.info("Posts exported: " + count[0]);
+                })
+                .build();
+    }
+}
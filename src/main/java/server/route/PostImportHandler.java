@@ -0,0 +1,97 @@
+package server.route;
+
+import java.io.IOException;
+import java.util.Locale;
+
+import server.config.ServerConfig;
+import server.http.CannedResponses;
+import server.http.HttpRequest;
+import server.http.HttpResponse;
+import server.service.PostImporter;
+import server.service.PostService;
+import server.util.JsonUtil;
+import server.util.JsonWriter;
+import server.util.Logger;
+import server.util.TarReader;
+
+/**
+ * {@link PostExportHandler} 가 만든 tar 아카이브로 게시글을 가져오는 핸들러.
+ * 예: POST /posts/import (Content-Type: application/x-tar)
+ * 응답: {"success":"true","imported":120,"skipped":3,"failed":0}
+ * 본문을 스트림으로 읽으며 항목마다 바로 쓰기 큐에 넣는다. 이미 있는 ID 는 건너뛴다.
+ */
+public final class PostImportHandler implements Handler {
+    private final PostService postService;
+
+    public PostImportHandler(PostService postService) {
+        this.postService = postService;
+    }
+
+    @Override
+    public HttpResponse handle(HttpRequest request) throws IOException {
+        if (!"POST".equals(request.method())) {
+            return CannedResponses.POST_ONLY;
+        }
+        String contentType = request.header("content-type");
+        if (contentType == null || !contentType.toLowerCase(Locale.ROOT).startsWith("application/x-tar")
+                || !request.hasStreamingBody()) {
+            return error(400, "Bad Request", "Content-Type must be application/x-tar");
+        }
+
+        PostImporter importer = new PostImporter(postService, ServerConfig.POST_IMPORT_PARALLELISM);
+        String formatError = null;
+        try {
+            TarReader reader = new TarReader(request.bodyStream());
+            TarReader.Entry entry;
+            while ((entry = reader.next()) != null) {
+                String name = entry.getName();
+                // 디렉터리째 묶은 아카이브도 받도록 마지막 경로 요소만 ID 로 쓴다.
+                String id = name.substring(name.lastIndexOf('/') + 1);
+                if (entry.getSize() > ServerConfig.POST_IMPORT_MAX_ENTRY_BYTES) {
+                    Logger.warn("Import entry too large, skipped: " + name);
+                    continue;
+                }
+                importer.add(id, reader.readContent());
+            }
+        } catch (TarReader.FormatException e) {
+            Logger.warn("Malformed import archive: " + e.getMessage());
+            formatError = "tar 아카이브 형식이 잘못되었습니다: " + e.getMessage();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return error(503, "Service Unavailable", "가져오기가 중단되었습니다.");
+        }
+
+        try {
+            if (!importer.await(ServerConfig.POST_WRITE_WAIT_TIMEOUT_MILLIS)) {
+                return error(503, "Service Unavailable", "가져오기 쓰기가 제한 시간 안에 끝나지 않았습니다.");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return error(503, "Service Unavailable", "가져오기가 중단되었습니다.");
+        }
+        Logger.info("Posts imported: " + importer.imported() + " (skipped " + importer.skipped()
+                + ", failed " + importer.failed() + ")");
+
+        JsonWriter json = new JsonWriter(128);
+        json.beginObject().name("success").value(String.valueOf(formatError == null));
+        if (formatError != null) {
+            json.name("message").value(formatError);
+        }
+        json.name("imported").value(importer.imported())
+            .name("skipped").value(importer.skipped())
+            .name("failed").value(importer.failed())
+            .endObject();
+        int status = formatError == null ? 200 : 400;
+        return HttpResponse.builder(status, formatError == null ? "OK" : "Bad Request")
+                .header("Content-Type", "application/json; charset=UTF-8")
+                .body(json.toByteArray())
+                .build();
+    }
+
+    private HttpResponse error(int status, String reason, String message) {
+        return HttpResponse.builder(status, reason)
+                .header("Content-Type", "application/json; charset=UTF-8")
+                .body(JsonUtil.createResponseBytes(false, message))
+                .build();
+    }
+}
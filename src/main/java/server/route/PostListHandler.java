@@ -0,0 +1,81 @@
+package server.route;
+
+import java.util.Map;
+
+import server.config.ServerConfig;
+import server.http.HttpRequest;
+import server.http.HttpResponse;
+import server.model.PostMetadata;
+import server.service.PostIndex;
+import server.service.PostService;
+import server.service.ViewCounter;
+import server.util.JsonUtil;
+import server.util.JsonWriter;
+import server.util.QueryUtil;
+
+/**
+ * 게시글 목록을 최신순으로 페이지 단위로 돌려주는 핸들러.
+ * 예: GET /posts/list?limit=20&cursor=... (cursor 는 이전 응답의 nextCursor)
+ */
+public final class PostListHandler implements Handler {
+    private final PostService postService;
+    private final ViewCounter viewCounter;
+
+    public PostListHandler(PostService postService) {
+        this(postService, null);
+    }
+
+    /**
+     * @param viewCounter 항목마다 조회수(views)를 함께 내려줄 카운터. null 이면 생략한다.
+     */
+    public PostListHandler(PostService postService, ViewCounter viewCounter) {
+        this.postService = postService;
+        this.viewCounter = viewCounter;
+    }
+
+    @Override
+    public HttpResponse handle(HttpRequest request) {
+        Map<String, String> params = QueryUtil.parse(request.target());
+        int limit = QueryUtil.intParam(params, "limit",
+                ServerConfig.POST_PAGE_DEFAULT_SIZE, 1, ServerConfig.POST_PAGE_MAX_SIZE);
+
+        PostIndex.Page page;
+        try {
+            page = postService.listPostsPage(params.get("cursor"), limit);
+        } catch (IllegalArgumentException e) {
+            return badRequest("잘못된 커서입니다.");
+        }
+
+        JsonWriter json = new JsonWriter(128 + page.getItems().size() * 160);
+        json.beginObject().name("posts").beginArray();
+        for (PostMetadata post : page.getItems()) {
+            json.beginObject()
+                .name("id").value(post.getId())
+                .name("title").value(post.getTitle())
+                .name("author").value(post.getAuthor())
+                .name("createdAt").value(post.getCreatedAt().toString())
+                .name("size").value(post.getSize());
+            if (viewCounter != null) {
+                json.name("views").value(viewCounter.views(post.getId()));
+            }
+            json.name("attachments").beginArray();
+            for (String attachment : post.getAttachments()) {
+                json.value(attachment);
+            }
+            json.endArray().endObject();
+        }
+        json.endArray().name("nextCursor").value(page.getNextCursor()).endObject();
+
+        return HttpResponse.builder(200, "OK")
+                .header("Content-Type", "application/json; charset=UTF-8")
+                .body(json.toByteArray())
+                .build();
+    }
+
+    private HttpResponse badRequest(String message) {
+        return HttpResponse.builder(400, "Bad Request")
+                .header("Content-Type", "application/json; charset=UTF-8")
+                .body(JsonUtil.createResponseBytes(false, message))
+                .build();
+    }
+}
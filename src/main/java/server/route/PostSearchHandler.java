@@ -0,0 +1,67 @@
+package server.route;
+
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+import server.config.ServerConfig;
+import server.http.HttpRequest;
+import server.http.HttpResponse;
+import server.model.PostMetadata;
+import server.search.SearchHit;
+import server.service.PostService;
+import server.util.JsonUtil;
+import server.util.JsonWriter;
+import server.util.QueryUtil;
+
+/**
+ * 게시글 전문 검색 핸들러.
+ * 예: GET /posts/search?q=개발 일지&k=10
+ */
+public final class PostSearchHandler implements Handler {
+    private final PostService postService;
+
+    public PostSearchHandler(PostService postService) {
+        this.postService = postService;
+    }
+
+    @Override
+    public HttpResponse handle(HttpRequest request) {
+        Map<String, String> params = QueryUtil.parse(request.target());
+        String query = params.get("q");
+        if (query == null || query.trim().isEmpty()) {
+            return badRequest("검색어(q)를 입력해 주세요.");
+        }
+        int k = QueryUtil.intParam(params, "k",
+                ServerConfig.SEARCH_DEFAULT_RESULTS, 1, ServerConfig.SEARCH_MAX_RESULTS);
+
+        List<SearchHit> hits = postService.searchPosts(query, k);
+        JsonWriter json = new JsonWriter(64 + hits.size() * 128);
+        json.beginObject().name("query").value(query).name("results").beginArray();
+        for (SearchHit hit : hits) {
+            PostMetadata post = postService.getPostMetadata(hit.getKey());
+            if (post == null) {
+                continue;
+            }
+            json.beginObject()
+                .name("id").value(post.getId())
+                .name("title").value(post.getTitle())
+                .name("author").value(post.getAuthor())
+                .name("score").rawValue(String.format(Locale.ROOT, "%.4f", hit.getScore()))
+                .endObject();
+        }
+        json.endArray().endObject();
+
+        return HttpResponse.builder(200, "OK")
+                .header("Content-Type", "application/json; charset=UTF-8")
+                .body(json.toByteArray())
+                .build();
+    }
+
+    private HttpResponse badRequest(String message) {
+        return HttpResponse.builder(400, "Bad Request")
+                .header("Content-Type", "application/json; charset=UTF-8")
+                .body(JsonUtil.createResponseBytes(false, message))
+                .build();
+    }
+}
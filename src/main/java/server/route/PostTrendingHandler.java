@@ -0,0 +1,54 @@
+package server.route;
+
+import java.util.Locale;
+import java.util.Map;
+
+import server.config.ServerConfig;
+import server.http.HttpRequest;
+import server.http.HttpResponse;
+import server.model.PostMetadata;
+import server.service.PostService;
+import server.service.ViewCounter;
+import server.util.JsonWriter;
+import server.util.QueryUtil;
+
+/**
+ * 최근 많이 읽힌 게시글을 돌려주는 핸들러. 순위는 조회수 카운터가 주기마다 계산해 둔 값을 그대로 쓴다.
+ * 예: GET /posts/trending?k=10
+ */
+public final class PostTrendingHandler implements Handler {
+    private final PostService postService;
+    private final ViewCounter viewCounter;
+
+    public PostTrendingHandler(PostService postService, ViewCounter viewCounter) {
+        this.postService = postService;
+        this.viewCounter = viewCounter;
+    }
+
+    @Override
+    public HttpResponse handle(HttpRequest request) {
+        Map<String, String> params = QueryUtil.parse(request.target());
+        int k = QueryUtil.intParam(params, "k", ServerConfig.VIEW_TRENDING_SIZE, 1, ServerConfig.VIEW_TRENDING_SIZE);
+
+        JsonWriter json = new JsonWriter();
+        json.beginObject().name("posts").beginArray();
+        for (ViewCounter.Trending item : viewCounter.trending(k)) {
+            PostMetadata post = postService.getPostMetadata(item.getId());
+            if (post == null) {
+                continue;
+            }
+            json.beginObject()
+                .name("id").value(post.getId())
+                .name("title").value(post.getTitle())
+                .name("author").value(post.getAuthor())
+                .name("views").value(viewCounter.views(post.getId()))
+                .name("score").rawValue(String.format(Locale.ROOT, "%.4f", item.getScore()))
+                .endObject();
+        }
+        json.endArray().endObject();
+        return HttpResponse.builder(200, "OK")
+                .header("Content-Type", "application/json; charset=UTF-8")
+                .body(json.toByteArray())
+                .build();
+    }
+}
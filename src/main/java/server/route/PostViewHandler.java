@@ -0,0 +1,122 @@
+package server.route;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.Optional;
+
+import server.http.CannedResponses;
+import server.http.HttpRequest;
+import server.http.HttpResponse;
+import server.render.PostRenderer;
+import server.render.RenderCache;
+import server.service.PostService;
+import server.service.ViewCounter;
+
+/**
+ * 마크다운/텍스트 게시글을 HTML 로 렌더링해 돌려주는 핸들러.
+ * 예: GET /posts/view/design_notes.md
+ * 게시글 저장소를 먼저 보고, 없으면 www/posts 아래의 파일을 읽는다.
+ * 렌더링 결과는 {@link RenderCache} 에 원문 해시로 보관해 같은 글은 다시 렌더링하지 않는다.
+ * 저장소의 글을 보여 줄 때마다 조회수를 센다.
+ */
+public final class PostViewHandler implements Handler {
+    private static final String PREFIX = "/posts/view/";
+
+    private final PostService postService;
+    private final RenderCache cache;
+    private final PostRenderer renderer;
+    private final Path postsDir;
+    private final ViewCounter viewCounter;
+
+    public PostViewHandler(PostService postService, RenderCache cache, PostRenderer renderer, Path postsDir) {
+        this(postService, cache, renderer, postsDir, null);
+    }
+
+    /**
+     * @param viewCounter 조회수를 셀 카운터. null 이면 세지 않는다.
+     */
+    public PostViewHandler(PostService postService, RenderCache cache, PostRenderer renderer, Path postsDir,
+                           ViewCounter viewCounter) {
+        this.postService = postService;
+        this.cache = cache;
+        this.renderer = renderer;
+        this.postsDir = postsDir.normalize().toAbsolutePath();
+        this.viewCounter = viewCounter;
+    }
+
+    @Override
+    public HttpResponse handle(HttpRequest request) throws IOException {
+        String target = request.target();
+        int queryIndex = target.indexOf('?');
+        String path = queryIndex >= 0 ? target.substring(0, queryIndex) : target;
+        if (!path.startsWith(PREFIX)) {
+            return CannedResponses.NOT_FOUND;
+        }
+        String id;
+        try {
+            id = URLDecoder.decode(path.substring(PREFIX.length()), StandardCharsets.UTF_8);
+        } catch (IllegalArgumentException e) {
+            return CannedResponses.NOT_FOUND;
+        }
+        if (id.isEmpty() || id.indexOf('/') >= 0 || id.indexOf('\\') >= 0 || id.contains("..")) {
+            return CannedResponses.NOT_FOUND;
+        }
+
+        // 저장소의 글은 바뀌지 않으므로(생성/삭제 때 무효화) 버전 없이, 파일은 수정 시각과 크기로 확인한다.
+        boolean stored = postService.hasPost(id);
+        Path file = stored ? null : postsDir.resolve(id);
+        String version = null;
+        if (file != null) {
+            if (!Files.isRegularFile(file)) {
+                return CannedResponses.NOT_FOUND;
+            }
+            version = Files.getLastModifiedTime(file).toMillis() + ":" + Files.size(file);
+        }
+
+        byte[] html = cache.get(id, version);
+        if (html == null) {
+            byte[] source;
+            if (stored) {
+                Optional<byte[]> content = postService.readPost(id);
+                if (content.isEmpty()) {
+                    return CannedResponses.NOT_FOUND;
+                }
+                source = content.get();
+            } else {
+                source = Files.readAllBytes(file);
+            }
+            String hash = sha256(source);
+            html = cache.getByHash(hash);
+            if (html == null) {
+                ByteArrayOutputStream out = new ByteArrayOutputStream(source.length * 2 + 512);
+                renderer.render(new ByteArrayInputStream(source), PostRenderer.Format.of(id), id, out);
+                html = out.toByteArray();
+            }
+            cache.put(id, version, hash, html);
+        }
+        if (stored && viewCounter != null) {
+            viewCounter.record(id);
+        }
+
+        return HttpResponse.builder(200, "OK")
+                .header("Content-Type", "text/html; charset=UTF-8")
+                .body(html)
+                .build();
+    }
+
+    private static String sha256(byte[] data) {
+        try {
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(data));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 algorithm not available", e);
+        }
+    }
+}
@@ -1,46 +1,415 @@
 package server.route;
 
+import server.http.CannedResponses;
 import server.http.HttpRequest;
 import server.http.HttpResponse;
 
 import java.io.IOException;
-import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
 
 /**
- * 요청 메소드/경로에 따라 적절한 핸들러로 분기해 주는 단순 라우터.
+ * (메소드, 경로 패턴) 으로 등록한 핸들러를 하나의 기수 트리(radix trie)로 묶어 찾는 라우터.
+ * 패턴은 고정 문자열 외에 경로 한 칸을 받는 {@code {name}} 과 나머지 경로 전체를 받는 끝자리 {@code *} 를 쓸 수 있다.
+ * 예: {@code /posts/list}, {@code /users/{name}/posts}, {@code /posts/view/*}
+ * <p>
+ * 요청 경로는 쿼리 앞까지 문자 단위로 트리를 내려가며 비교하므로 정규식이나 부분 문자열을 만들지 않는다.
+ * 같은 위치에서는 고정 문자열, 경로 변수, 와일드카드 순으로 시도하고, 경로는 맞지만 메소드가 없으면
+ * 노드마다 미리 만들어 둔 {@code Allow} 헤더로 405 를 돌려준다. HEAD 는 따로 등록하지 않으면 GET 핸들러가 받는다.
+ * 어느 경로에도 맞지 않는 GET/HEAD, POST 요청은 생성자로 받은 기본 핸들러로 넘긴다.
+ * 동기 {@link Handler} 와 {@link AsyncHandler} 를 함께 등록할 수 있고, 결과는 항상 {@link CompletionStage} 로 돌려준다.
+ * {@link #use(Filter)} 로 넣은 필터는 기본 핸들러와 405 응답을 포함한 모든 요청에 먼저 적용된다.
+ * <p>
+ * 등록은 서버 시작 전에 한 스레드에서 끝내야 한다. 이후 조회는 트리를 읽기만 하므로 여러 워커가 동시에 불러도 된다.
  */
 public final class Router {
-    private final Handler staticFileHandler;
-    private final Handler postHandler;
+    /** Allow 헤더에 나열할 메소드 순서. 여기에 없는 메소드는 이름순으로 뒤에 붙는다. */
+    private static final List<String> METHOD_ORDER = List.of("GET", "HEAD", "POST", "PUT", "PATCH", "DELETE", "OPTIONS");
+
+    private final Node root = new Node("");
+    private final Handler getFallback;
+    private final Handler postFallback;
+    private final HttpResponse fallbackNotAllowed;
+    private final List<Filter> filters = new ArrayList<>();
+    /** 전역 필터를 엮은 진입점. 필터가 바뀔 때만 다시 엮는다. */
+    private AsyncHandler pipeline = this::dispatch;
+    private int routeCount;
 
     public Router(Handler staticFileHandler) {
         this(staticFileHandler, null);
     }
 
-    public Router(Handler staticFileHandler, Handler postHandler) {
-        this.staticFileHandler = staticFileHandler;
-        this.postHandler = postHandler;
+    /**
+     * @param getFallback  등록된 경로에 맞지 않는 GET/HEAD 요청을 받을 핸들러(정적 파일 등)
+     * @param postFallback 등록된 경로에 맞지 않는 POST 요청을 받을 핸들러. null 이면 405
+     */
+    public Router(Handler getFallback, Handler postFallback) {
+        this.getFallback = getFallback;
+        this.postFallback = postFallback;
+        this.fallbackNotAllowed = CannedResponses.methodNotAllowed(postFallback != null ? "GET, HEAD, POST" : "GET, HEAD");
+    }
+
+    /**
+     * 모든 요청에 적용할 필터를 더한다. 먼저 넣은 필터가 바깥쪽에서 돈다.
+     */
+    public Router use(Filter filter) {
+        filters.add(filter);
+        pipeline = FilterChain.of(filters.toArray(new Filter[0])).wrapAsync(this::dispatch);
+        return this;
+    }
+
+    public Router get(String pattern, Handler handler) {
+        return add("GET", pattern, handler);
+    }
+
+    public Router post(String pattern, Handler handler) {
+        return add("POST", pattern, handler);
+    }
+
+    public Router getAsync(String pattern, AsyncHandler handler) {
+        return addAsync("GET", pattern, handler);
+    }
+
+    public Router postAsync(String pattern, AsyncHandler handler) {
+        return addAsync("POST", pattern, handler);
     }
 
-    public HttpResponse route(HttpRequest request) throws IOException {
+    public Router add(String method, String pattern, Handler handler) {
+        return addAsync(method, pattern, handler == null ? null : AsyncHandler.of(handler));
+    }
+
+    /**
+     * 메소드와 경로 패턴에 핸들러를 등록한다.
+     *
+     * @throws IllegalArgumentException 패턴이 잘못되었거나 같은 자리에 다른 이름의 변수가 이미 있을 때,
+     *                                  또는 같은 (메소드, 패턴) 이 이미 등록되어 있을 때
+     */
+    public Router addAsync(String method, String pattern, AsyncHandler handler) {
+        if (method == null || pattern == null || handler == null) {
+            throw new IllegalArgumentException("method, pattern, handler 는 null 일 수 없습니다.");
+        }
+        if (!pattern.startsWith("/")) {
+            throw new IllegalArgumentException("경로 패턴은 / 로 시작해야 합니다: " + pattern);
+        }
+        Node node = root;
+        int i = 0;
+        while (i < pattern.length()) {
+            char c = pattern.charAt(i);
+            if (c == '{') {
+                int close = pattern.indexOf('}', i);
+                if (close < 0 || close == i + 1 || (close + 1 < pattern.length() && pattern.charAt(close + 1) != '/')
+                        || pattern.charAt(i - 1) != '/') {
+                    throw new IllegalArgumentException("경로 변수는 {이름} 형태로 한 칸을 차지해야 합니다: " + pattern);
+                }
+                node = node.paramChild(pattern.substring(i + 1, close), pattern);
+                i = close + 1;
+            } else if (c == '*') {
+                if (i + 1 != pattern.length() || pattern.charAt(i - 1) != '/') {
+                    throw new IllegalArgumentException("* 는 패턴 끝의 /* 자리에만 올 수 있습니다: " + pattern);
+                }
+                node = node.wildcardChild();
+                i++;
+            } else {
+                int next = i;
+                while (next < pattern.length() && pattern.charAt(next) != '{' && pattern.charAt(next) != '*') {
+                    next++;
+                }
+                node = node.staticChild(pattern.substring(i, next));
+                i = next;
+            }
+        }
+        String key = method.toUpperCase();
+        if (node.handlers.putIfAbsent(key, handler) != null) {
+            throw new IllegalArgumentException("이미 등록된 라우트입니다: " + key + " " + pattern);
+        }
+        node.pattern = pattern;
+        node.compileAllow();
+        routeCount++;
+        return this;
+    }
+
+    public int routeCount() {
+        return routeCount;
+    }
+
+    /**
+     * 요청에 맞는 핸들러를 불러 응답 단계를 돌려준다. 동기 핸들러의 예외는 실패한 단계로 담긴다.
+     */
+    public CompletionStage<HttpResponse> route(HttpRequest request) {
+        try {
+            return pipeline.handleAsync(request);
+        } catch (RuntimeException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+    }
+
+    private CompletionStage<HttpResponse> dispatch(HttpRequest request) {
         String method = request.method();
-        if ("GET".equals(method) || "HEAD".equals(method)) {
-            return staticFileHandler.handle(request);
+        String target = request.target();
+        int end = pathEnd(target);
+
+        Match match = new Match();
+        if (end > 0 && target.charAt(0) == '/') {
+            match.method = method;
+            lookup(root, target, 0, end, match);
+        }
+        if (match.handler != null) {
+            request.context().setRoute(match.matched.pattern);
+            HttpRequest routed = match.paramCount == 0
+                    ? request
+                    : request.withPathParams(match.params(target));
+            try {
+                return match.handler.handleAsync(routed);
+            } catch (RuntimeException e) {
+                return CompletableFuture.failedFuture(e);
+            }
+        }
+        if (match.pathMatched != null) {
+            return CompletableFuture.completedFuture(match.pathMatched.notAllowed);
+        }
+        try {
+            if ("GET".equals(method) || "HEAD".equals(method)) {
+                return CompletableFuture.completedFuture(getFallback.handle(request));
+            }
+            if ("POST".equals(method) && postFallback != null) {
+                return CompletableFuture.completedFuture(postFallback.handle(request));
+            }
+        } catch (IOException | RuntimeException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+        return CompletableFuture.completedFuture(fallbackNotAllowed);
+    }
+
+    /**
+     * node 의 접두사까지 맞은 상태에서 path[pos, end) 를 마저 맞춘다.
+     * 메소드 핸들러가 있는 노드를 찾으면 true. 경로만 맞은 첫 노드는 405 응답용으로 기억한다.
+     */
+    private static boolean lookup(Node node, String path, int pos, int end, Match match) {
+        if (pos == end && node.accept(match)) {
+            return true;
+        }
+        if (pos < end) {
+            Node child = node.findStatic(path.charAt(pos));
+            if (child != null && pos + child.prefix.length() <= end
+                    && path.regionMatches(pos, child.prefix, 0, child.prefix.length())
+                    && lookup(child, path, pos + child.prefix.length(), end, match)) {
+                return true;
+            }
+            if (node.param != null) {
+                int segmentEnd = pos;
+                while (segmentEnd < end && path.charAt(segmentEnd) != '/') {
+                    segmentEnd++;
+                }
+                if (segmentEnd > pos) {
+                    int mark = match.push(node.param.name, pos, segmentEnd);
+                    if (lookup(node.param, path, segmentEnd, end, match)) {
+                        return true;
+                    }
+                    match.paramCount = mark;
+                }
+            }
+        }
+        if (node.wildcard != null) {
+            int mark = match.push("*", pos, end);
+            if (node.wildcard.accept(match)) {
+                return true;
+            }
+            match.paramCount = mark;
+        }
+        return false;
+    }
+
+    /** 쿼리나 프래그먼트를 뺀 경로의 끝 위치 */
+    private static int pathEnd(String target) {
+        for (int i = 0; i < target.length(); i++) {
+            char c = target.charAt(i);
+            if (c == '?' || c == '#') {
+                return i;
+            }
         }
-        if ("POST".equals(method)) {
-            if (postHandler != null) {
-                return postHandler.handle(request);
+        return target.length();
+    }
+
+    /**
+     * 트리의 한 노드. 고정 문자열 노드는 prefix 를, 변수 노드는 name 을 가진다.
+     */
+    private static final class Node {
+        private String prefix;
+        private final String name;
+        /** 고정 문자열 자식들의 첫 글자. children 과 같은 순서 */
+        private char[] indices = new char[0];
+        private Node[] children = new Node[0];
+        private Node param;
+        private Node wildcard;
+        private final Map<String, AsyncHandler> handlers = new HashMap<>();
+        private HttpResponse notAllowed;
+        /** 이 노드에 등록된 라우트 패턴 */
+        private String pattern;
+
+        private Node(String prefix) {
+            this(prefix, null);
+        }
+
+        private Node(String prefix, String name) {
+            this.prefix = prefix;
+            this.name = name;
+        }
+
+        private Node findStatic(char first) {
+            for (int i = 0; i < indices.length; i++) {
+                if (indices[i] == first) {
+                    return children[i];
+                }
             }
-            return notAllowed("GET, HEAD");
+            return null;
+        }
+
+        /**
+         * literal 을 따라 내려간 노드를 돌려준다. 기존 자식과 앞부분만 겹치면 겹친 곳에서 자식을 둘로 나눈다.
+         */
+        private Node staticChild(String literal) {
+            if (literal.isEmpty()) {
+                return this;
+            }
+            int index = indexOf(literal.charAt(0));
+            if (index < 0) {
+                Node child = new Node(literal);
+                indices = Arrays.copyOf(indices, indices.length + 1);
+                children = Arrays.copyOf(children, children.length + 1);
+                indices[indices.length - 1] = literal.charAt(0);
+                children[children.length - 1] = child;
+                return child;
+            }
+            Node child = children[index];
+            int common = 0;
+            int max = Math.min(child.prefix.length(), literal.length());
+            while (common < max && child.prefix.charAt(common) == literal.charAt(common)) {
+                common++;
+            }
+            if (common < child.prefix.length()) {
+                Node split = new Node(child.prefix.substring(0, common));
+                child.prefix = child.prefix.substring(common);
+                split.indices = new char[] {child.prefix.charAt(0)};
+                split.children = new Node[] {child};
+                children[index] = split;
+                child = split;
+            }
+            return child.staticChild(literal.substring(common));
+        }
+
+        private int indexOf(char first) {
+            for (int i = 0; i < indices.length; i++) {
+                if (indices[i] == first) {
+                    return i;
+                }
+            }
+            return -1;
+        }
+
+        private Node paramChild(String name, String pattern) {
+            if (param == null) {
+                param = new Node("", name);
+            } else if (!param.name.equals(name)) {
+                throw new IllegalArgumentException("같은 자리에 다른 이름의 경로 변수가 있습니다: {"
+                        + param.name + "} / " + pattern);
+            }
+            return param;
+        }
+
+        private Node wildcardChild() {
+            if (wildcard == null) {
+                wildcard = new Node("", "*");
+            }
+            return wildcard;
+        }
+
+        /**
+         * 이 노드에 요청 메소드의 핸들러가 있으면 골라 두고 true.
+         * 라우트는 있지만 메소드가 없으면 405 용으로 기억만 한다.
+         */
+        private boolean accept(Match match) {
+            if (handlers.isEmpty()) {
+                return false;
+            }
+            AsyncHandler handler = handlers.get(match.method);
+            if (handler == null && "HEAD".equals(match.method)) {
+                handler = handlers.get("GET");
+            }
+            if (handler != null) {
+                match.handler = handler;
+                match.matched = this;
+                return true;
+            }
+            if (match.pathMatched == null) {
+                match.pathMatched = this;
+            }
+            return false;
+        }
+
+        private void compileAllow() {
+            List<String> methods = new ArrayList<>(handlers.keySet());
+            if (handlers.containsKey("GET") && !handlers.containsKey("HEAD")) {
+                methods.add("HEAD");
+            }
+            methods.sort((a, b) -> {
+                int ia = METHOD_ORDER.indexOf(a);
+                int ib = METHOD_ORDER.indexOf(b);
+                if (ia >= 0 && ib >= 0) {
+                    return Integer.compare(ia, ib);
+                }
+                if (ia >= 0 || ib >= 0) {
+                    return ia >= 0 ? -1 : 1;
+                }
+                return a.compareTo(b);
+            });
+            notAllowed = CannedResponses.methodNotAllowed(String.join(", ", methods));
         }
-        return notAllowed(postHandler != null ? "GET, HEAD, POST" : "GET, HEAD");
     }
 
-    private HttpResponse notAllowed(String allowHeader) {
-        return HttpResponse.builder(405, "Method Not Allowed")
-                .header("Allow", allowHeader)
-                .header("Content-Type", "text/plain; charset=UTF-8")
-                .body("Method Not Allowed".getBytes(StandardCharsets.UTF_8))
-                .build();
+    /**
+     * 한 요청의 조회 상태. 경로 변수는 위치만 기록해 두고 핸들러를 찾은 뒤에만 문자열로 만든다.
+     */
+    private static final class Match {
+        private String method;
+        private AsyncHandler handler;
+        private Node matched;
+        private Node pathMatched;
+        private String[] names;
+        private int[] bounds;
+        private int paramCount;
+
+        private int push(String name, int start, int end) {
+            int mark = paramCount;
+            if (names == null) {
+                names = new String[4];
+                bounds = new int[8];
+            } else if (paramCount == names.length) {
+                names = Arrays.copyOf(names, paramCount * 2);
+                bounds = Arrays.copyOf(bounds, paramCount * 4);
+            }
+            names[paramCount] = name;
+            bounds[paramCount * 2] = start;
+            bounds[paramCount * 2 + 1] = end;
+            paramCount++;
+            return mark;
+        }
+
+        private Map<String, String> params(String path) {
+            if (paramCount == 1) {
+                return Collections.singletonMap(names[0], path.substring(bounds[0], bounds[1]));
+            }
+            Map<String, String> params = new LinkedHashMap<>(paramCount * 2);
+            for (int i = 0; i < paramCount; i++) {
+                params.put(names[i], path.substring(bounds[i * 2], bounds[i * 2 + 1]));
+            }
+            return params;
+        }
     }
 }
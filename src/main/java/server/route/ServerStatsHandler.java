@@ -0,0 +1,58 @@
+package server.route;
+
+import java.util.Locale;
+import java.util.Map;
+
+import server.filter.MetricsFilter;
+import server.filter.ResponseCacheFilter;
+import server.http.HttpRequest;
+import server.http.HttpResponse;
+import server.util.JsonWriter;
+
+/**
+ * {@link MetricsFilter} 가 모은 요청 수와 처리 시간을 JSON 으로 돌려주는 핸들러.
+ * 응답 캐시를 넘기면 적중/계산/합류 수도 함께 싣는다.
+ */
+public final class ServerStatsHandler implements Handler {
+    private final MetricsFilter metrics;
+    private final ResponseCacheFilter responseCache;
+
+    public ServerStatsHandler(MetricsFilter metrics) {
+        this(metrics, null);
+    }
+
+    public ServerStatsHandler(MetricsFilter metrics, ResponseCacheFilter responseCache) {
+        this.metrics = metrics;
+        this.responseCache = responseCache;
+    }
+
+    @Override
+    public HttpResponse handle(HttpRequest request) {
+        JsonWriter json = new JsonWriter(256);
+        json.beginObject().name("requests").value(metrics.requests());
+        for (int statusClass = 1; statusClass <= 5; statusClass++) {
+            json.name(statusClass + "xx").value(metrics.responses(statusClass));
+        }
+        json.name("averageMillis").rawValue(String.format(Locale.ROOT, "%.3f", metrics.averageMillis()))
+            .name("maxMillis").rawValue(String.format(Locale.ROOT, "%.3f", metrics.maxMillis()))
+            .name("routes").beginObject();
+        for (Map.Entry<String, Long> entry : metrics.requestsByRoute().entrySet()) {
+            json.name(entry.getKey()).value(entry.getValue());
+        }
+        json.endObject();
+        if (responseCache != null) {
+            json.name("responseCache").beginObject()
+                .name("hits").value(responseCache.hits())
+                .name("misses").value(responseCache.misses())
+                .name("coalesced").value(responseCache.coalesced())
+                .name("bytes").value(responseCache.totalBytes())
+                .endObject();
+        }
+        json.endObject();
+        return HttpResponse.builder(200, "OK")
+                .header("Content-Type", "application/json; charset=UTF-8")
+                .header("Cache-Control", "no-store")
+                .body(json.toByteArray())
+                .build();
+    }
+}
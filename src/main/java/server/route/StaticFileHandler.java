@@ -1,12 +1,12 @@
 package server.route;
 
 import server.config.ServerConfig;
+import server.http.CannedResponses;
 import server.http.HttpRequest;
 import server.http.HttpResponse;
 import server.util.MimeTypes;
 
 import java.io.IOException;
-import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
 
@@ -31,13 +31,13 @@ public final class StaticFileHandler implements Handler {
         }
         Path resolved = resolvePath(pathPart);
         if (resolved == null) {
-            return forbidden();
+            return CannedResponses.FORBIDDEN;
         }
         if (Files.isDirectory(resolved)) {
             resolved = resolved.resolve("index.html");
         }
         if (!Files.exists(resolved) || !Files.isReadable(resolved)) {
-            return notFound();
+            return CannedResponses.NOT_FOUND;
         }
         byte[] body = Files.readAllBytes(resolved);
         String mime = MimeTypes.probe(resolved);
@@ -66,18 +66,4 @@ public final class StaticFileHandler implements Handler {
         }
         return value;
     }
-
-    private HttpResponse forbidden() {
-        return HttpResponse.builder(403, "Forbidden")
-                .header("Content-Type", "text/plain; charset=UTF-8")
-                .body("Forbidden".getBytes(StandardCharsets.UTF_8))
-                .build();
-    }
-
-    private HttpResponse notFound() {
-        return HttpResponse.builder(404, "Not Found")
-                .header("Content-Type", "text/plain; charset=UTF-8")
-                .body("Not Found".getBytes(StandardCharsets.UTF_8))
-                .build();
-    }
 }
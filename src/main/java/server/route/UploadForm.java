@@ -0,0 +1,92 @@
+package server.route;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import server.config.ServerConfig;
+import server.http.HttpParseException;
+import server.http.HttpRequest;
+import server.http.MultipartReader;
+import server.service.UploadService;
+
+/**
+ * multipart/form-data 요청을 읽어 일반 필드는 문자열로, 파일 파트는 {@link UploadService} 로 저장한 결과.
+ * 파트마다 크기와 개수 제한을 적용한다.
+ */
+final class UploadForm {
+    private final Map<String, String> fields;
+    private final List<UploadService.StoredUpload> files;
+
+    private UploadForm(Map<String, String> fields, List<UploadService.StoredUpload> files) {
+        this.fields = fields;
+        this.files = files;
+    }
+
+    static boolean isMultipart(HttpRequest request) {
+        return MultipartReader.boundaryOf(request.header("content-type")) != null;
+    }
+
+    static UploadForm read(HttpRequest request, UploadService uploadService)
+            throws IOException, HttpParseException, UploadService.UploadException {
+        String boundary = MultipartReader.boundaryOf(request.header("content-type"));
+        if (boundary == null) {
+            throw new HttpParseException("Missing multipart boundary");
+        }
+        MultipartReader reader = new MultipartReader(request.bodyStream(), boundary);
+        Map<String, String> fields = new HashMap<>();
+        List<UploadService.StoredUpload> files = new ArrayList<>();
+        int parts = 0;
+        MultipartReader.Part part;
+        while ((part = reader.nextPart()) != null) {
+            if (++parts > ServerConfig.UPLOAD_MAX_PARTS) {
+                throw new UploadService.UploadException(413, "한 번에 올릴 수 있는 항목 수를 넘었습니다.");
+            }
+            if (part.name() == null) {
+                continue;
+            }
+            if (part.isFile()) {
+                if (!part.filename().isEmpty()) {
+                    files.add(uploadService.store(part.body(), ServerConfig.UPLOAD_MAX_FILE_BYTES));
+                }
+            } else {
+                fields.put(part.name(), readField(part.body()));
+            }
+        }
+        return new UploadForm(fields, files);
+    }
+
+    private static String readField(InputStream body) throws IOException, UploadService.UploadException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        byte[] buffer = new byte[4096];
+        int read;
+        while ((read = body.read(buffer)) != -1) {
+            if (out.size() + read > ServerConfig.UPLOAD_MAX_FIELD_BYTES) {
+                throw new UploadService.UploadException(413, "입력한 내용이 너무 깁니다.");
+            }
+            out.write(buffer, 0, read);
+        }
+        return out.toString(StandardCharsets.UTF_8);
+    }
+
+    String field(String name) {
+        return fields.get(name);
+    }
+
+    List<UploadService.StoredUpload> files() {
+        return files;
+    }
+
+    List<String> filePaths() {
+        List<String> paths = new ArrayList<>(files.size());
+        for (UploadService.StoredUpload file : files) {
+            paths.add(file.getPath());
+        }
+        return paths;
+    }
+}
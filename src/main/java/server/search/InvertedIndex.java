@@ -0,0 +1,314 @@
+package server.search;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * 메모리 역색인.
+ * 문서를 추가/삭제할 때마다 해당 단어의 posting list 만 갱신하고,
+ * 검색은 질의 단어의 posting list 만 읽어 BM25 점수 상위 k 개를 고른다. 단어마다 가장 큰 tf 로 점수 상한을 잡아
+ * 상위 k 개에 들 수 없는 문서는 점수를 계산하지 않고 건너뛴다(MaxScore).
+ * 삭제는 먼저 표시만 해 두고, 삭제된 문서가 많아지면 posting list 를 다시 압축하면서 문서 번호를 앞에서부터 다시 매긴다.
+ */
+public final class InvertedIndex {
+    private static final double K1 = 1.2;
+    private static final double B = 0.75;
+    private static final int COMPACT_MIN_DELETED = 64;
+    private static final int NO_MORE_DOCS = Integer.MAX_VALUE;
+
+    private final Tokenizer tokenizer;
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<String, PostingList> postings = new HashMap<>();
+    private final Map<String, Integer> docIdByKey = new HashMap<>();
+    private final List<String> keyByDocId = new ArrayList<>();
+    private int[] docLengths = new int[64];
+    private long totalLength;
+    private int liveDocs;
+    private int deletedDocs;
+
+    public InvertedIndex(Tokenizer tokenizer) {
+        this.tokenizer = tokenizer;
+    }
+
+    /**
+     * 문서를 색인한다. 같은 키가 이미 있으면 교체한다.
+     */
+    public void add(String key, String text) {
+        // 토큰화는 락 밖에서 끝내 검색을 오래 막지 않는다.
+        List<String> tokens = tokenizer.tokenize(text);
+        Map<String, Integer> frequencies = new LinkedHashMap<>();
+        for (String token : tokens) {
+            frequencies.merge(token, 1, Integer::sum);
+        }
+
+        lock.writeLock().lock();
+        try {
+            if (removeLocked(key)) {
+                compactIfNeededLocked();
+            }
+            int docId = keyByDocId.size();
+            keyByDocId.add(key);
+            docIdByKey.put(key, docId);
+            if (docId >= docLengths.length) {
+                docLengths = Arrays.copyOf(docLengths, docLengths.length * 2);
+            }
+            docLengths[docId] = tokens.size();
+            totalLength += tokens.size();
+            liveDocs++;
+            for (Map.Entry<String, Integer> entry : frequencies.entrySet()) {
+                postings.computeIfAbsent(entry.getKey(), term -> new PostingList()).add(docId, entry.getValue());
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public boolean remove(String key) {
+        lock.writeLock().lock();
+        try {
+            boolean removed = removeLocked(key);
+            if (removed) {
+                compactIfNeededLocked();
+            }
+            return removed;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return liveDocs;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * 질의와 가장 관련 있는 문서 상위 k 개를 점수 내림차순으로 돌려준다.
+     * 문서 번호 순으로 후보를 하나씩 보되, 점수 상한이 작은 단어부터 더한 합이 현재 k 번째 점수 이하인 단어들만으로는
+     * 상위 k 개에 들 수 없으므로 그 단어들의 목록에서는 후보를 꺼내지 않는다. 후보 점수를 더하다가 남은 상한을 다 더해도
+     * k 번째 점수를 넘지 못하면 나머지 단어는 보지 않고, 건너뛰기 지점으로 필요한 문서까지만 목록을 넘긴다.
+     */
+    public List<SearchHit> search(String query, int k) {
+        List<String> terms = new ArrayList<>(new LinkedHashSet<>(tokenizer.tokenize(query)));
+        if (terms.isEmpty() || k <= 0) {
+            return List.of();
+        }
+
+        lock.readLock().lock();
+        try {
+            if (liveDocs == 0) {
+                return List.of();
+            }
+            double averageLength = Math.max(1.0, (double) totalLength / liveDocs);
+            List<TermScorer> scorers = new ArrayList<>();
+            for (String term : terms) {
+                PostingList list = postings.get(term);
+                int documentFrequency = list != null ? liveDocumentCount(list) : 0;
+                if (documentFrequency > 0) {
+                    scorers.add(new TermScorer(list, idf(documentFrequency)));
+                }
+            }
+            if (scorers.isEmpty()) {
+                return List.of();
+            }
+            scorers.sort(Comparator.comparingDouble((TermScorer scorer) -> scorer.upperBound));
+
+            int count = scorers.size();
+            // boundBelow[i] 는 상한이 작은 쪽부터 i 개 단어의 상한 합
+            double[] boundBelow = new double[count + 1];
+            PostingList.Cursor[] cursors = new PostingList.Cursor[count];
+            int[] current = new int[count];
+            for (int i = 0; i < count; i++) {
+                boundBelow[i + 1] = boundBelow[i] + scorers.get(i).upperBound;
+                cursors[i] = scorers.get(i).list.cursor();
+                current[i] = cursors[i].next() ? cursors[i].docId() : NO_MORE_DOCS;
+            }
+
+            PriorityQueue<double[]> topK = new PriorityQueue<>(Comparator.comparingDouble(entry -> entry[1]));
+            double threshold = 0;
+            // 이 번호 앞의 단어들만 가진 문서는 상위 k 개에 들 수 없다.
+            int firstEssential = 0;
+            while (firstEssential < count) {
+                int docId = NO_MORE_DOCS;
+                for (int i = firstEssential; i < count; i++) {
+                    docId = Math.min(docId, current[i]);
+                }
+                if (docId == NO_MORE_DOCS) {
+                    break;
+                }
+                boolean live = keyByDocId.get(docId) != null;
+                double score = 0;
+                for (int i = firstEssential; i < count; i++) {
+                    if (current[i] == docId) {
+                        if (live) {
+                            score += scorers.get(i).score(cursors[i].termFrequency(), docLengths[docId], averageLength);
+                        }
+                        current[i] = cursors[i].next() ? cursors[i].docId() : NO_MORE_DOCS;
+                    }
+                }
+                if (!live) {
+                    continue;
+                }
+                for (int i = firstEssential - 1; i >= 0; i--) {
+                    if (score + boundBelow[i + 1] <= threshold) {
+                        break;
+                    }
+                    if (current[i] < docId) {
+                        current[i] = cursors[i].advance(docId) ? cursors[i].docId() : NO_MORE_DOCS;
+                    }
+                    if (current[i] == docId) {
+                        score += scorers.get(i).score(cursors[i].termFrequency(), docLengths[docId], averageLength);
+                    }
+                }
+                if (topK.size() < k || score > threshold) {
+                    offer(topK, new double[] {docId, score}, k);
+                    if (topK.size() == k) {
+                        threshold = topK.peek()[1];
+                        while (firstEssential < count && boundBelow[firstEssential + 1] <= threshold) {
+                            firstEssential++;
+                        }
+                    }
+                }
+            }
+
+            List<SearchHit> hits = new ArrayList<>(topK.size());
+            while (!topK.isEmpty()) {
+                double[] entry = topK.poll();
+                hits.add(new SearchHit(keyByDocId.get((int) entry[0]), entry[1]));
+            }
+            Collections.reverse(hits);
+            return hits;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * 전체 posting list 압축 크기(byte)
+     */
+    public long postingBytes() {
+        lock.readLock().lock();
+        try {
+            long bytes = 0;
+            for (PostingList list : postings.values()) {
+                bytes += list.sizeInBytes();
+            }
+            return bytes;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void offer(PriorityQueue<double[]> topK, double[] entry, int k) {
+        if (topK.size() < k) {
+            topK.add(entry);
+        } else if (entry[1] > topK.peek()[1]) {
+            topK.poll();
+            topK.add(entry);
+        }
+    }
+
+    private boolean removeLocked(String key) {
+        Integer docId = docIdByKey.remove(key);
+        if (docId == null) {
+            return false;
+        }
+        keyByDocId.set(docId, null);
+        totalLength -= docLengths[docId];
+        liveDocs--;
+        deletedDocs++;
+        return true;
+    }
+
+    /**
+     * 삭제 표시만 된 문서를 뺀 문서 수. 압축 전에는 posting list 에 지운 문서가 남아 있으므로 세어 본다.
+     */
+    private int liveDocumentCount(PostingList list) {
+        if (deletedDocs == 0) {
+            return list.documentCount();
+        }
+        int count = 0;
+        PostingList.Cursor cursor = list.cursor();
+        while (cursor.next()) {
+            if (keyByDocId.get(cursor.docId()) != null) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    private void compactIfNeededLocked() {
+        if (deletedDocs >= COMPACT_MIN_DELETED && deletedDocs > liveDocs / 4) {
+            compactLocked();
+        }
+    }
+
+    /**
+     * 지운 문서를 posting list 에서 빼고, 남은 문서에 순서를 지키며 0 부터 번호를 다시 매긴다.
+     * 그래야 문서 번호별 배열(키, 길이)이 지운 문서만큼 계속 자라지 않는다.
+     */
+    private void compactLocked() {
+        int[] remapped = new int[keyByDocId.size()];
+        List<String> keys = new ArrayList<>(liveDocs);
+        int[] lengths = new int[Math.max(64, liveDocs + liveDocs / 2)];
+        for (int docId = 0; docId < remapped.length; docId++) {
+            String key = keyByDocId.get(docId);
+            if (key == null) {
+                remapped[docId] = -1;
+                continue;
+            }
+            int next = keys.size();
+            remapped[docId] = next;
+            keys.add(key);
+            lengths[next] = docLengths[docId];
+            docIdByKey.put(key, next);
+        }
+        postings.replaceAll((term, list) -> list.remap(remapped));
+        postings.values().removeIf(list -> list.documentCount() == 0);
+        keyByDocId.clear();
+        keyByDocId.addAll(keys);
+        docLengths = lengths;
+        deletedDocs = 0;
+    }
+
+    private double idf(int documentFrequency) {
+        return Math.log(1 + (liveDocs - documentFrequency + 0.5) / (documentFrequency + 0.5));
+    }
+
+    /**
+     * 한 질의 단어의 BM25 점수 계산기
+     */
+    private static final class TermScorer {
+        private final PostingList list;
+        private final double idf;
+        /**
+         * 이 단어의 점수 상한. 점수는 tf 가 클수록, 문서가 짧을수록 크므로 목록의 가장 큰 tf 와 길이 0 으로 잡는다.
+         * 지운 문서의 tf 가 남아 있어도 상한이 커질 뿐 틀리지는 않는다.
+         */
+        private final double upperBound;
+
+        TermScorer(PostingList list, double idf) {
+            this.list = list;
+            this.idf = Math.max(0, idf);
+            int maxTf = list.maxTermFrequency();
+            this.upperBound = this.idf * maxTf * (K1 + 1) / (maxTf + K1 * (1 - B));
+        }
+
+        double score(int termFrequency, int docLength, double averageLength) {
+            double norm = K1 * (1 - B + B * docLength / averageLength);
+            return idf * termFrequency * (K1 + 1) / (termFrequency + norm);
+        }
+    }
+}
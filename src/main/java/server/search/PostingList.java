@@ -0,0 +1,177 @@
+package server.search;
+
+import java.util.Arrays;
+
+/**
+ * 한 단어의 문서 목록(posting list)을 압축해 보관한다.
+ * 문서 번호는 항상 증가하는 순서로 추가되므로 이전 번호와의 차이(delta)와 단어 빈도(tf)를
+ * 가변 길이 정수(varint)로 인코딩해 한 바이트 배열에 이어 붙인다.
+ * {@link #SKIP_INTERVAL} 개마다 (직전 문서 번호, 바이트 위치) 를 건너뛰기 지점으로 남겨 두어
+ * {@link Cursor#advance(int)} 가 앞부분을 풀지 않고 목표 번호 근처로 바로 갈 수 있다.
+ * 이 클래스는 스레드 안전하지 않으며 {@link InvertedIndex} 의 락 안에서만 다룬다.
+ */
+final class PostingList {
+    private static final int SKIP_INTERVAL = 64;
+
+    private byte[] data = new byte[8];
+    private int length;
+    private int lastDocId = -1;
+    private int documentCount;
+    private int maxTermFrequency;
+    /** 건너뛰기 지점 i 에서 시작하는 항목 바로 앞의 문서 번호와, 그 항목의 바이트 위치 */
+    private int[] skipDocIds = new int[0];
+    private int[] skipOffsets = new int[0];
+    private int skipCount;
+
+    void add(int docId, int termFrequency) {
+        if (docId <= lastDocId) {
+            throw new IllegalArgumentException("Document ids must increase");
+        }
+        if (documentCount > 0 && documentCount % SKIP_INTERVAL == 0) {
+            addSkip(lastDocId, length);
+        }
+        ensureCapacity(10);
+        writeVarint(docId - lastDocId);
+        writeVarint(termFrequency);
+        lastDocId = docId;
+        documentCount++;
+        maxTermFrequency = Math.max(maxTermFrequency, termFrequency);
+    }
+
+    int documentCount() {
+        return documentCount;
+    }
+
+    /** 이 목록에서 가장 큰 tf. 점수 상한 계산에 쓴다. */
+    int maxTermFrequency() {
+        return maxTermFrequency;
+    }
+
+    int sizeInBytes() {
+        return length;
+    }
+
+    Cursor cursor() {
+        return new Cursor();
+    }
+
+    /**
+     * 문서 번호를 newIds[이전 번호] 로 바꾼 새 목록을 만든다. 새 번호가 음수인 문서는 뺀다.
+     * 새 번호는 이전 번호의 순서를 지켜야 한다.
+     */
+    PostingList remap(int[] newIds) {
+        PostingList compacted = new PostingList();
+        Cursor cursor = cursor();
+        while (cursor.next()) {
+            int newId = newIds[cursor.docId()];
+            if (newId >= 0) {
+                compacted.add(newId, cursor.termFrequency());
+            }
+        }
+        return compacted;
+    }
+
+    private void addSkip(int previousDocId, int offset) {
+        if (skipCount == skipDocIds.length) {
+            int capacity = Math.max(4, skipCount * 2);
+            skipDocIds = Arrays.copyOf(skipDocIds, capacity);
+            skipOffsets = Arrays.copyOf(skipOffsets, capacity);
+        }
+        skipDocIds[skipCount] = previousDocId;
+        skipOffsets[skipCount] = offset;
+        skipCount++;
+    }
+
+    /**
+     * 직전 문서 번호가 target 보다 작은 마지막 건너뛰기 지점. 없으면 -1.
+     */
+    private int lastSkipBefore(int target) {
+        int low = 0;
+        int high = skipCount - 1;
+        int found = -1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            if (skipDocIds[mid] < target) {
+                found = mid;
+                low = mid + 1;
+            } else {
+                high = mid - 1;
+            }
+        }
+        return found;
+    }
+
+    private void ensureCapacity(int extra) {
+        if (length + extra > data.length) {
+            data = Arrays.copyOf(data, Math.max(data.length * 2, length + extra));
+        }
+    }
+
+    private void writeVarint(int value) {
+        while ((value & ~0x7F) != 0) {
+            data[length++] = (byte) ((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        data[length++] = (byte) value;
+    }
+
+    /**
+     * 목록을 앞에서부터 한 항목씩 풀어 읽는 커서.
+     */
+    final class Cursor {
+        private int position;
+        private int docId = -1;
+        private int termFrequency;
+
+        boolean next() {
+            if (position >= length) {
+                return false;
+            }
+            docId += readVarint();
+            termFrequency = readVarint();
+            return true;
+        }
+
+        /**
+         * 문서 번호가 target 이상인 첫 항목으로 간다. 그런 항목이 없으면 false.
+         * 지금 항목이 이미 target 이상이면 움직이지 않는다. 끝난 커서에는 부르지 않는다.
+         */
+        boolean advance(int target) {
+            if (docId >= target) {
+                return true;
+            }
+            int skip = lastSkipBefore(target);
+            if (skip >= 0 && skipOffsets[skip] > position) {
+                position = skipOffsets[skip];
+                docId = skipDocIds[skip];
+            }
+            while (next()) {
+                if (docId >= target) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        int docId() {
+            return docId;
+        }
+
+        int termFrequency() {
+            return termFrequency;
+        }
+
+        private int readVarint() {
+            int result = 0;
+            int shift = 0;
+            while (true) {
+                byte b = data[position++];
+                result |= (b & 0x7F) << shift;
+                if ((b & 0x80) == 0) {
+                    return result;
+                }
+                shift += 7;
+            }
+        }
+    }
+}
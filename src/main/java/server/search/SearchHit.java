@@ -0,0 +1,22 @@
+package server.search;
+
+/**
+ * 검색 결과 한 건 (문서 키와 BM25 점수)
+ */
+public final class SearchHit {
+    private final String key;
+    private final double score;
+
+    public SearchHit(String key, double score) {
+        this.key = key;
+        this.score = score;
+    }
+
+    public String getKey() {
+        return key;
+    }
+
+    public double getScore() {
+        return score;
+    }
+}
@@ -0,0 +1,60 @@
+package server.search;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * 검색용 토크나이저.
+ * 한글은 띄어쓰기만으로는 조사/어미가 붙어 검색이 잘 안 되므로 연속된 음절을 두 글자씩 겹쳐 자른다(bigram).
+ * 라틴 문자와 숫자는 공백/구두점 기준 단어로 자르고 소문자로 통일한다.
+ * 예: "개발 일지 devlog_01" -> [개발, 일지, devlog, 01]
+ *     "프로젝트" -> [프로, 로젝, 젝트]
+ */
+public final class Tokenizer {
+
+    public List<String> tokenize(String text) {
+        List<String> tokens = new ArrayList<>();
+        if (text == null || text.isEmpty()) {
+            return tokens;
+        }
+        int length = text.length();
+        int i = 0;
+        while (i < length) {
+            char c = text.charAt(i);
+            if (isHangul(c)) {
+                int start = i;
+                while (i < length && isHangul(text.charAt(i))) {
+                    i++;
+                }
+                emitBigrams(text, start, i, tokens);
+            } else if (Character.isLetterOrDigit(c)) {
+                int start = i;
+                while (i < length && Character.isLetterOrDigit(text.charAt(i)) && !isHangul(text.charAt(i))) {
+                    i++;
+                }
+                tokens.add(text.substring(start, i).toLowerCase(Locale.ROOT));
+            } else {
+                i++;
+            }
+        }
+        return tokens;
+    }
+
+    private void emitBigrams(String text, int start, int end, List<String> tokens) {
+        if (end - start == 1) {
+            // 한 글자짜리 한글은 그대로 하나의 토큰으로 쓴다.
+            tokens.add(text.substring(start, end));
+            return;
+        }
+        for (int i = start; i + 1 < end; i++) {
+            tokens.add(text.substring(i, i + 2));
+        }
+    }
+
+    private static boolean isHangul(char c) {
+        return (c >= '\uAC00' && c <= '\uD7A3')    // 완성형 음절
+                || (c >= '\u1100' && c <= '\u11FF') // 자모
+                || (c >= '\u3130' && c <= '\u318F'); // 호환 자모
+    }
+}
@@ -1,6 +1,9 @@
 package server.service;
 
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.TimeoutException;
 
 import server.model.Session;
 import server.model.User;
@@ -9,53 +12,96 @@ import server.model.User;
  * 사용자 인증 통합 서비스
  */
 public final class AuthService {
+    private static final String OVERLOADED_MESSAGE = "요청이 많아 잠시 후 다시 시도해주세요.";
+
     private final UserRepository userRepository;
     private final SessionManager sessionManager;
+    private final HashingExecutor hashingExecutor;
 
-    public AuthService() {
-        this.userRepository = new UserRepository();
-        this.sessionManager = new SessionManager();
+    public AuthService(UserRepository userRepository, SessionManager sessionManager, HashingExecutor hashingExecutor) {
+        this.userRepository = userRepository;
+        this.sessionManager = sessionManager;
+        this.hashingExecutor = hashingExecutor;
     }
 
     /**
-     * 사용자 회원가입
+     * 사용자 회원가입. 해시는 전용 풀에서 계산하고, 결과는 끝났을 때 완성되는 future 로 돌려준다.
      */
-    public RegisterResult register(String username, String password) {
+    public CompletableFuture<RegisterResult> registerAsync(String username, String password) {
         if (username == null || username.trim().isEmpty()) {
-            return new RegisterResult(false, "아이디를 입력해주세요.");
+            return CompletableFuture.completedFuture(new RegisterResult(false, "아이디를 입력해주세요."));
         }
 
         if (password == null || password.length() < 6) {
-            return new RegisterResult(false, "비밀번호는 최소 6자 이상이어야 합니다.");
+            return CompletableFuture.completedFuture(new RegisterResult(false, "비밀번호는 최소 6자 이상이어야 합니다."));
         }
 
         if (userRepository.userExists(username)) {
-            return new RegisterResult(false, "이미 존재하는 아이디입니다.");
+            return CompletableFuture.completedFuture(new RegisterResult(false, "이미 존재하는 아이디입니다."));
+        }
+
+        // 파일 생성은 해시가 제한 시간 안에 끝났을 때만 한다.
+        // 제한 시간이 지나 503 으로 끝난 요청의 해시가 늦게 끝나도 계정이 만들어지지 않는다.
+        CompletableFuture<String> hashed;
+        try {
+            hashed = hashingExecutor.submit(() -> userRepository.hashPassword(password));
+        } catch (HashingExecutor.OverloadedException e) {
+            return CompletableFuture.completedFuture(RegisterResult.overloaded());
         }
+        return hashed.handle((passwordHash, failure) -> {
+            if (failure instanceof TimeoutException) {
+                return RegisterResult.overloaded();
+            }
+            if (failure != null) {
+                throw new CompletionException(failure);
+            }
+            return store(username, passwordHash);
+        });
+    }
 
-        boolean success = userRepository.registerUser(username, password);
-        if (success) {
+    private RegisterResult store(String username, String passwordHash) {
+        if (userRepository.registerHashedUser(username, passwordHash)) {
             return new RegisterResult(true, "회원가입이 완료되었습니다.");
+        } else if (userRepository.hasUserFile(username)) {
+            // 같은 아이디로 동시에 들어온 가입 요청이 먼저 끝난 경우
+            return new RegisterResult(false, "이미 존재하는 아이디입니다.");
         } else {
             return new RegisterResult(false, "회원가입 중 오류가 발생했습니다.");
         }
     }
 
     /**
-     * 사용자 로그인
+     * 사용자 로그인. 비밀번호 확인은 전용 풀에서 하고, 결과는 끝났을 때 완성되는 future 로 돌려준다.
      */
-    public LoginResult login(String username, String password) {
+    public CompletableFuture<LoginResult> loginAsync(String username, String password) {
         if (username == null || username.trim().isEmpty() || password == null || password.isEmpty()) {
-            return new LoginResult(false, null, "아이디와 비밀번호를 입력해주세요.");
+            return CompletableFuture.completedFuture(new LoginResult(false, null, "아이디와 비밀번호를 입력해주세요."));
         }
 
-        boolean authenticated = userRepository.authenticateUser(username, password);
-        if (authenticated) {
-            Session session = sessionManager.createSession(username);
-            return new LoginResult(true, session, "로그인 성공");
-        } else {
-            return new LoginResult(false, null, "아이디 또는 비밀번호가 잘못되었습니다.");
+        // 필터가 확실히 없다고 하면 해시 풀과 파일 I/O 를 거치지 않고 바로 거절한다.
+        if (!userRepository.mightExist(username)) {
+            return CompletableFuture.completedFuture(new LoginResult(false, null, "아이디 또는 비밀번호가 잘못되었습니다."));
         }
+
+        CompletableFuture<Boolean> authenticated;
+        try {
+            authenticated = hashingExecutor.submit(() -> userRepository.authenticateUser(username, password));
+        } catch (HashingExecutor.OverloadedException e) {
+            return CompletableFuture.completedFuture(LoginResult.overloaded());
+        }
+        return authenticated.handle((success, failure) -> {
+            if (failure instanceof TimeoutException) {
+                return LoginResult.overloaded();
+            }
+            if (failure != null) {
+                throw new CompletionException(failure);
+            }
+            if (success) {
+                Session session = sessionManager.createSession(username);
+                return new LoginResult(true, session, "로그인 성공");
+            }
+            return new LoginResult(false, null, "아이디 또는 비밀번호가 잘못되었습니다.");
+        });
     }
 
     /**
@@ -86,6 +132,13 @@ public final class AuthService {
         return userRepository.loadUser(username);
     }
 
+    /**
+     * 사용자명 블룸 필터 통계
+     */
+    public UserRepository.FilterStats usernameFilterStats() {
+        return userRepository.usernameFilterStats();
+    }
+
     /**
      * 만료된 세션 정리
      */
@@ -93,22 +146,44 @@ public final class AuthService {
         sessionManager.cleanupExpiredSessions();
     }
 
+    /**
+     * 메모리에 모아 둔 사용자 정보를 저장소에 반영한다. 서버 종료 시 호출한다.
+     */
+    public void shutdown() {
+        userRepository.shutdown();
+    }
+
     /**
      * 회원가입 결과
      */
     public static class RegisterResult {
         private final boolean success;
+        private final boolean overloaded;
         private final String message;
 
         public RegisterResult(boolean success, String message) {
+            this(success, false, message);
+        }
+
+        private RegisterResult(boolean success, boolean overloaded, String message) {
             this.success = success;
+            this.overloaded = overloaded;
             this.message = message;
         }
 
+        static RegisterResult overloaded() {
+            return new RegisterResult(false, true, OVERLOADED_MESSAGE);
+        }
+
         public boolean isSuccess() {
             return success;
         }
 
+        /** 해시 풀이 가득 차 요청을 처리하지 못했는지 여부 */
+        public boolean isOverloaded() {
+            return overloaded;
+        }
+
         public String getMessage() {
             return message;
         }
@@ -119,19 +194,34 @@ public final class AuthService {
      */
     public static class LoginResult {
         private final boolean success;
+        private final boolean overloaded;
         private final Session session;
         private final String message;
 
         public LoginResult(boolean success, Session session, String message) {
+            this(success, false, session, message);
+        }
+
+        private LoginResult(boolean success, boolean overloaded, Session session, String message) {
             this.success = success;
+            this.overloaded = overloaded;
             this.session = session;
             this.message = message;
         }
 
+        static LoginResult overloaded() {
+            return new LoginResult(false, true, null, OVERLOADED_MESSAGE);
+        }
+
         public boolean isSuccess() {
             return success;
         }
 
+        /** 해시 풀이 가득 차 요청을 처리하지 못했는지 여부 */
+        public boolean isOverloaded() {
+            return overloaded;
+        }
+
         public Session getSession() {
             return session;
         }
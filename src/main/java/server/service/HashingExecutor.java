@@ -0,0 +1,81 @@
+package server.service;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import server.util.Logger;
+
+/**
+ * 비밀번호 해시처럼 CPU를 많이 쓰는 작업만 따로 돌리는 제한된 스레드 풀.
+ * 연결 워커 풀과 분리해 두어 로그인 폭주가 정적 파일 처리까지 막지 않도록 한다.
+ * 대기열이 가득 차면 {@link OverloadedException} 으로 거절하고, 제한 시간 안에 끝나지 않은 작업은 {@link TimeoutException} 으로 끝낸다.
+ */
+public final class HashingExecutor {
+    private final ThreadPoolExecutor pool;
+    private final long waitTimeoutMillis;
+
+    public HashingExecutor(int threads, int queueCapacity, long waitTimeoutMillis) {
+        AtomicInteger counter = new AtomicInteger();
+        this.pool = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "hash-worker-" + counter.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+        this.waitTimeoutMillis = waitTimeoutMillis;
+    }
+
+    /**
+     * 작업을 해시 풀에 넘기고 결과를 받을 future 를 바로 돌려준다. 부른 스레드는 기다리지 않는다.
+     * 제한 시간 안에 끝나지 않으면 future 는 {@link TimeoutException} 으로 실패하고, 그때까지 시작하지 않은 작업은 돌리지 않는다.
+     * 이미 돌고 있던 작업은 끝까지 두어 부분 쓰기를 막지만 결과는 버린다.
+     */
+    public <T> CompletableFuture<T> submit(Callable<T> task) throws OverloadedException {
+        CompletableFuture<T> result = new CompletableFuture<>();
+        try {
+            pool.execute(() -> {
+                if (result.isDone()) {
+                    return;
+                }
+                try {
+                    result.complete(task.call());
+                } catch (Throwable t) {
+                    result.completeExceptionally(t);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            throw new OverloadedException("Hashing queue is full");
+        }
+        return result.orTimeout(waitTimeoutMillis, TimeUnit.MILLISECONDS);
+    }
+
+    public void shutdown() {
+        pool.shutdown();
+        try {
+            if (!pool.awaitTermination(5, TimeUnit.SECONDS)) {
+                pool.shutdownNow();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            pool.shutdownNow();
+        }
+        Logger.info("Hashing executor stopped");
+    }
+
+    /**
+     * 해시 풀이 요청을 받을 수 없을 때 던지는 예외.
+     */
+    public static final class OverloadedException extends Exception {
+        public OverloadedException(String message) {
+            super(message);
+        }
+    }
+}
@@ -0,0 +1,573 @@
+package server.service;
+
+import java.awt.Color;
+import java.awt.Font;
+import java.awt.FontMetrics;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HexFormat;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReader;
+import javax.imageio.stream.ImageInputStream;
+
+import server.util.ByteLruCache;
+import server.util.Logger;
+
+/**
+ * 썸네일과 플레이스홀더 이미지를 만들어 캐시하는 서비스.
+ * 생성은 연결 워커와 분리된 제한된 풀에서 돌리고, 결과는 (원본 해시, 실제 출력 크기) 를 키로 메모리와 디스크에 둔다.
+ * 디스크 캐시도 전체 크기 한도를 넘으면 가장 오래 안 쓴 파일부터 지운다.
+ * 같은 변형을 여러 요청이 동시에 원하면 한 번만 만들고 나머지는 그 결과를 기다린다.
+ */
+public final class ImageService {
+    private static final int HASH_CHUNK_BYTES = 64 * 1024;
+    /** 플레이스홀더에 쓸 수 있는 최대 글자 수 */
+    private static final int PLACEHOLDER_MAX_TEXT_LENGTH = 64;
+
+    private final Path derivedDir;
+    private final long diskMaxBytes;
+    private final int maxDimension;
+    private final long maxSourcePixels;
+    private final long waitTimeoutMillis;
+    private final ThreadPoolExecutor pool;
+    private final ByteLruCache memory;
+    /** 생성 중인 변형. 같은 키의 요청은 이 future 를 함께 기다린다 */
+    private final Map<String, CompletableFuture<Variant>> inFlight = new ConcurrentHashMap<>();
+    /** 원본 파일 경로별 (수정 시각, 크기, 해시). 파일이 바뀌지 않았으면 다시 해시하지 않는다 */
+    private final Map<Path, SourceInfo> sources = new ConcurrentHashMap<>();
+    private final AtomicLong generated = new AtomicLong();
+    /** 디스크 캐시 파일 이름별 크기. 접근 순서라 앞쪽이 가장 오래 안 쓴 파일이다 */
+    private final LinkedHashMap<String, Long> diskEntries = new LinkedHashMap<>(64, 0.75f, true);
+    private long diskBytes;
+
+    public ImageService(Path derivedDir, int threads, int queueCapacity, long waitTimeoutMillis,
+                        int maxDimension, long maxSourcePixels, long cacheMaxBytes, long diskMaxBytes) {
+        this.derivedDir = derivedDir;
+        this.diskMaxBytes = diskMaxBytes;
+        this.maxDimension = maxDimension;
+        this.maxSourcePixels = maxSourcePixels;
+        this.waitTimeoutMillis = waitTimeoutMillis;
+        this.memory = new ByteLruCache(cacheMaxBytes);
+        AtomicInteger counter = new AtomicInteger();
+        this.pool = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "image-worker-" + counter.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+        loadDiskEntries();
+    }
+
+    public int maxDimension() {
+        return maxDimension;
+    }
+
+    /**
+     * 원본 이미지를 width x height 안에 들어가도록 비율을 유지해 줄인다. 원본보다 크게 늘리지는 않는다.
+     * 한쪽이 0 이면 다른 쪽에만 맞춘다. 결과는 생성이 끝났을 때 완성되는 future 로 돌려준다.
+     *
+     * @throws NoSuchFileException 원본이 없는 경우
+     * @throws UnsupportedImageException 읽을 수 없는 형식이거나 너무 큰 원본인 경우
+     * @see #variant
+     */
+    public CompletableFuture<Variant> thumbnailAsync(Path source, int width, int height)
+            throws IOException, UnsupportedImageException, OverloadedException {
+        SourceInfo info = sourceInfo(source);
+        String extension = "jpg".equals(info.extension) ? "jpg" : "png";
+        // 요청한 크기가 아니라 실제로 나올 크기로 키를 만들어, 원본보다 큰 요청들이 같은 파일을 함께 쓰게 한다.
+        double scale = 1.0;
+        if (width > 0) {
+            scale = Math.min(scale, (double) width / info.width);
+        }
+        if (height > 0) {
+            scale = Math.min(scale, (double) height / info.height);
+        }
+        int targetWidth = Math.max(1, (int) Math.round(info.width * scale));
+        int targetHeight = Math.max(1, (int) Math.round(info.height * scale));
+        String key = info.hash + "_" + targetWidth + "x" + targetHeight + "." + extension;
+        return variant(key, () -> renderThumbnail(source, targetWidth, targetHeight, extension));
+    }
+
+    /**
+     * 단색 배경 가운데에 글자를 쓴 플레이스홀더를 만든다.
+     *
+     * @param background 배경색 (RGB 16진수 3자리 또는 6자리)
+     * @param foreground 글자색
+     * @param text       쓸 글자. null 이면 "가로x세로"
+     * @see #variant
+     */
+    public CompletableFuture<Variant> placeholderAsync(int width, int height, String background, String foreground,
+                                                       String text) throws UnsupportedImageException, OverloadedException {
+        Color bg = parseColor(background);
+        Color fg = parseColor(foreground);
+        if (text != null && text.length() > PLACEHOLDER_MAX_TEXT_LENGTH) {
+            throw new UnsupportedImageException("글자는 " + PLACEHOLDER_MAX_TEXT_LENGTH + "자까지 쓸 수 있습니다.");
+        }
+        String label = text != null ? text : width + "x" + height;
+        // "fff" 와 "FFFFFF" 처럼 같은 색은 같은 키가 되도록 해석한 값으로 만든다.
+        String spec = width + "x" + height + "/" + hexOf(bg) + "/" + hexOf(fg) + "/" + label;
+        String key = "placeholder_" + sha256(spec.getBytes(StandardCharsets.UTF_8)) + ".png";
+        return variant(key, () -> renderPlaceholder(width, height, bg, fg, label));
+    }
+
+    /**
+     * 메모리 → 디스크 → 생성 순서로 찾는다. 생성은 풀에서 한 번만 돌린다.
+     * 돌려준 future 는 제한 시간 안에 끝나지 않으면 {@link TimeoutException} 으로, 생성에 실패하면
+     * {@link IOException} 이나 {@link UnsupportedImageException} 으로 실패한다.
+     */
+    private CompletableFuture<Variant> variant(String key, Renderer renderer) throws OverloadedException {
+        byte[] cached = memory.get(key);
+        if (cached != null) {
+            return CompletableFuture.completedFuture(new Variant(cached, contentTypeOf(key)));
+        }
+        CompletableFuture<Variant> created = new CompletableFuture<>();
+        CompletableFuture<Variant> future = inFlight.putIfAbsent(key, created);
+        if (future == null) {
+            future = created;
+            try {
+                pool.execute(() -> {
+                    try {
+                        Variant variant = load(key, renderer);
+                        inFlight.remove(key, created);
+                        created.complete(variant);
+                    } catch (Throwable t) {
+                        inFlight.remove(key, created);
+                        created.completeExceptionally(t);
+                    }
+                });
+            } catch (RejectedExecutionException e) {
+                inFlight.remove(key, created);
+                throw new OverloadedException("Image queue is full");
+            }
+        }
+        // 함께 기다리는 요청이 있으므로 원래 future 는 두고 복사본에만 제한 시간을 건다.
+        // 시간이 지나도 작업은 계속 돌려 결과를 캐시에 남긴다. 다음 요청은 그 결과를 쓴다.
+        return future.copy().orTimeout(waitTimeoutMillis, TimeUnit.MILLISECONDS);
+    }
+
+    private Variant load(String key, Renderer renderer) throws IOException, UnsupportedImageException {
+        Path file = derivedDir.resolve(key);
+        byte[] data = readDisk(key, file);
+        if (data == null) {
+            data = renderer.render();
+            writeAtomically(file, data);
+            addDiskEntry(key, data.length);
+            generated.incrementAndGet();
+        }
+        memory.put(key, data);
+        return new Variant(data, contentTypeOf(key));
+    }
+
+    /**
+     * 디스크 캐시에 있으면 읽는다. 읽기 직전에 한도 때문에 지워졌으면 null.
+     */
+    private byte[] readDisk(String key, Path file) throws IOException {
+        synchronized (diskEntries) {
+            if (diskEntries.get(key) == null) {
+                return null;
+            }
+        }
+        try {
+            return Files.readAllBytes(file);
+        } catch (NoSuchFileException e) {
+            synchronized (diskEntries) {
+                Long size = diskEntries.remove(key);
+                if (size != null) {
+                    diskBytes -= size;
+                }
+            }
+            return null;
+        }
+    }
+
+    /**
+     * 새로 쓴 파일을 기록하고, 한도를 넘으면 가장 오래 안 쓴 파일부터 지운다.
+     */
+    private void addDiskEntry(String key, long size) {
+        synchronized (diskEntries) {
+            Long previous = diskEntries.put(key, size);
+            diskBytes += size - (previous != null ? previous : 0);
+            Iterator<Map.Entry<String, Long>> eldest = diskEntries.entrySet().iterator();
+            while (diskBytes > diskMaxBytes && eldest.hasNext()) {
+                Map.Entry<String, Long> entry = eldest.next();
+                if (entry.getKey().equals(key)) {
+                    continue;
+                }
+                eldest.remove();
+                diskBytes -= entry.getValue();
+                try {
+                    Files.deleteIfExists(derivedDir.resolve(entry.getKey()));
+                } catch (IOException e) {
+                    Logger.warn("Failed to evict derived image " + entry.getKey() + ": " + e.getMessage());
+                }
+            }
+        }
+    }
+
+    /**
+     * 시작할 때 디스크 캐시에 남은 파일을 수정 시각 순으로 읽어 들이고, 한도를 넘는 만큼 오래된 것부터 지운다.
+     */
+    private void loadDiskEntries() {
+        if (!Files.isDirectory(derivedDir)) {
+            return;
+        }
+        List<Path> files;
+        try (Stream<Path> listing = Files.list(derivedDir)) {
+            files = listing.filter(Files::isRegularFile).toList();
+        } catch (IOException e) {
+            Logger.error("Failed to list derived images", e);
+            return;
+        }
+        List<Map.Entry<String, BasicFileAttributes>> found = new ArrayList<>(files.size());
+        for (Path file : files) {
+            String name = file.getFileName().toString();
+            try {
+                if (name.endsWith(".tmp")) {
+                    // 쓰는 도중 종료되어 남은 임시 파일
+                    Files.deleteIfExists(file);
+                    continue;
+                }
+                found.add(Map.entry(name, Files.readAttributes(file, BasicFileAttributes.class)));
+            } catch (IOException e) {
+                Logger.warn("Skipping derived image " + name + ": " + e.getMessage());
+            }
+        }
+        found.sort(Comparator.comparing(entry -> entry.getValue().lastModifiedTime()));
+        for (Map.Entry<String, BasicFileAttributes> entry : found) {
+            addDiskEntry(entry.getKey(), entry.getValue().size());
+        }
+    }
+
+    private byte[] renderThumbnail(Path source, int targetWidth, int targetHeight, String extension)
+            throws IOException, UnsupportedImageException {
+        BufferedImage original = decode(source);
+        boolean opaque = "jpg".equals(extension);
+        BufferedImage scaled = resize(original, targetWidth, targetHeight, opaque);
+        Logger.info("Thumbnail generated: " + source.getFileName() + " -> " + targetWidth + "x" + targetHeight);
+        return encode(scaled, opaque ? "jpg" : "png");
+    }
+
+    /**
+     * 크기를 먼저 확인하고 디코딩한다. 헤더만 보고 너무 큰 원본은 픽셀을 읽기 전에 거절한다.
+     */
+    private BufferedImage decode(Path source) throws IOException, UnsupportedImageException {
+        return read(source, true).image;
+    }
+
+    /**
+     * 헤더만 읽어 가로/세로를 돌려준다. decodePixels 면 픽셀까지 읽는다.
+     */
+    private Decoded read(Path source, boolean decodePixels) throws IOException, UnsupportedImageException {
+        try (ImageInputStream input = ImageIO.createImageInputStream(source.toFile())) {
+            Iterator<ImageReader> readers = input != null ? ImageIO.getImageReaders(input) : null;
+            if (readers == null || !readers.hasNext()) {
+                throw new UnsupportedImageException("지원하지 않는 이미지 형식입니다.");
+            }
+            ImageReader reader = readers.next();
+            try {
+                reader.setInput(input, true, true);
+                int width = reader.getWidth(0);
+                int height = reader.getHeight(0);
+                if ((long) width * height > maxSourcePixels) {
+                    throw new UnsupportedImageException("원본 이미지가 너무 큽니다.");
+                }
+                return new Decoded(width, height, decodePixels ? reader.read(0) : null);
+            } finally {
+                reader.dispose();
+            }
+        }
+    }
+
+    /**
+     * 한 번에 크게 줄이면 계단 현상이 생기므로 절반씩 나눠 줄인 뒤 마지막에 목표 크기로 맞춘다.
+     */
+    private static BufferedImage resize(BufferedImage image, int width, int height, boolean opaque) {
+        int type = opaque ? BufferedImage.TYPE_INT_RGB : BufferedImage.TYPE_INT_ARGB;
+        BufferedImage current = image;
+        int currentWidth = image.getWidth();
+        int currentHeight = image.getHeight();
+        do {
+            currentWidth = Math.max(width, currentWidth / 2);
+            currentHeight = Math.max(height, currentHeight / 2);
+            BufferedImage next = new BufferedImage(currentWidth, currentHeight, type);
+            Graphics2D g = next.createGraphics();
+            try {
+                if (opaque) {
+                    // 투명한 부분이 있는 원본을 JPEG 로 저장할 때 검게 나오지 않도록 흰 바탕을 깐다.
+                    g.setColor(Color.WHITE);
+                    g.fillRect(0, 0, currentWidth, currentHeight);
+                }
+                g.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+                g.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+                g.drawImage(current, 0, 0, currentWidth, currentHeight, null);
+            } finally {
+                g.dispose();
+            }
+            current = next;
+        } while (currentWidth != width || currentHeight != height);
+        return current;
+    }
+
+    private byte[] renderPlaceholder(int width, int height, Color background, Color foreground, String text)
+            throws IOException {
+        BufferedImage image = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+        Graphics2D g = image.createGraphics();
+        try {
+            g.setColor(background);
+            g.fillRect(0, 0, width, height);
+            drawCenteredText(g, text, foreground, width, height);
+        } finally {
+            g.dispose();
+        }
+        return encode(image, "png");
+    }
+
+    /**
+     * 글자 크기는 이미지의 짧은 변에 맞추고, 가로로 넘치면 줄인다.
+     * 글꼴을 쓸 수 없는 환경에서는 글자 없이 배경만 남긴다.
+     */
+    private static void drawCenteredText(Graphics2D g, String text, Color color, int width, int height) {
+        if (text.isEmpty()) {
+            return;
+        }
+        try {
+            g.setRenderingHint(RenderingHints.KEY_TEXT_ANTIALIASING, RenderingHints.VALUE_TEXT_ANTIALIAS_ON);
+            int size = Math.max(8, Math.min(height / 5, width / 8));
+            Font font = new Font(Font.SANS_SERIF, Font.PLAIN, size);
+            FontMetrics metrics = g.getFontMetrics(font);
+            int textWidth = metrics.stringWidth(text);
+            if (textWidth > width * 0.9 && textWidth > 0) {
+                font = font.deriveFont((float) Math.max(8, size * width * 0.9 / textWidth));
+                metrics = g.getFontMetrics(font);
+                textWidth = metrics.stringWidth(text);
+            }
+            g.setFont(font);
+            g.setColor(color);
+            int x = (width - textWidth) / 2;
+            int y = (height - metrics.getHeight()) / 2 + metrics.getAscent();
+            g.drawString(text, x, y);
+        } catch (RuntimeException | InternalError e) {
+            Logger.warn("Placeholder text skipped: " + e.getMessage());
+        }
+    }
+
+    private static byte[] encode(BufferedImage image, String format) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(16 * 1024);
+        if (!ImageIO.write(image, format, out)) {
+            throw new IOException("No image writer for " + format);
+        }
+        return out.toByteArray();
+    }
+
+    private void writeAtomically(Path file, byte[] data) throws IOException {
+        Files.createDirectories(derivedDir);
+        Path temp = Files.createTempFile(derivedDir, ".derived", ".tmp");
+        try {
+            Files.write(temp, data);
+            try {
+                Files.move(temp, file, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING);
+            }
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    /**
+     * 원본의 내용 해시와 형식을 돌려준다. 수정 시각과 크기가 같으면 캐시한 값을 쓴다.
+     */
+    private SourceInfo sourceInfo(Path source) throws IOException, UnsupportedImageException {
+        BasicFileAttributes attributes = Files.readAttributes(source, BasicFileAttributes.class);
+        if (!attributes.isRegularFile()) {
+            throw new NoSuchFileException(source.toString());
+        }
+        long modified = attributes.lastModifiedTime().toMillis();
+        long size = attributes.size();
+        SourceInfo cached = sources.get(source);
+        if (cached != null && cached.modifiedMillis == modified && cached.size == size) {
+            return cached;
+        }
+
+        MessageDigest digest = sha256();
+        byte[] buffer = new byte[HASH_CHUNK_BYTES];
+        byte[] head = null;
+        try (InputStream in = Files.newInputStream(source)) {
+            int read;
+            while ((read = in.read(buffer)) != -1) {
+                if (head == null) {
+                    head = Arrays.copyOf(buffer, Math.min(read, 16));
+                }
+                digest.update(buffer, 0, read);
+            }
+        }
+        String extension = head != null ? UploadService.ImageType.extensionOf(head) : null;
+        if (extension == null || "webp".equals(extension)) {
+            throw new UnsupportedImageException("PNG, JPEG, GIF 이미지만 줄일 수 있습니다.");
+        }
+        Decoded header = read(source, false);
+        SourceInfo info = new SourceInfo(modified, size, HexFormat.of().formatHex(digest.digest()), extension,
+                header.width, header.height);
+        sources.put(source, info);
+        return info;
+    }
+
+    private static Color parseColor(String hex) throws UnsupportedImageException {
+        if (hex != null && hex.length() == 3) {
+            hex = "" + hex.charAt(0) + hex.charAt(0) + hex.charAt(1) + hex.charAt(1) + hex.charAt(2) + hex.charAt(2);
+        }
+        if (hex == null || hex.length() != 6) {
+            throw new UnsupportedImageException("색상은 16진수 3자리 또는 6자리로 지정합니다.");
+        }
+        try {
+            return new Color(Integer.parseInt(hex, 16));
+        } catch (NumberFormatException e) {
+            throw new UnsupportedImageException("색상은 16진수 3자리 또는 6자리로 지정합니다.");
+        }
+    }
+
+    private static String hexOf(Color color) {
+        return String.format("%06x", color.getRGB() & 0xFFFFFF);
+    }
+
+    private static String contentTypeOf(String key) {
+        return key.endsWith(".jpg") ? "image/jpeg" : "image/png";
+    }
+
+    private static String sha256(byte[] data) {
+        return HexFormat.of().formatHex(sha256().digest(data));
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 algorithm not available", e);
+        }
+    }
+
+    public void shutdown() {
+        pool.shutdown();
+        try {
+            if (!pool.awaitTermination(5, TimeUnit.SECONDS)) {
+                pool.shutdownNow();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            pool.shutdownNow();
+        }
+        long cachedDiskBytes;
+        synchronized (diskEntries) {
+            cachedDiskBytes = diskBytes;
+        }
+        Logger.info("Image service stopped (generated=" + generated.get()
+                + ", cachedBytes=" + memory.totalBytes() + ", diskBytes=" + cachedDiskBytes + ")");
+    }
+
+    @FunctionalInterface
+    private interface Renderer {
+        byte[] render() throws IOException, UnsupportedImageException;
+    }
+
+    private static final class SourceInfo {
+        private final long modifiedMillis;
+        private final long size;
+        private final String hash;
+        private final String extension;
+        private final int width;
+        private final int height;
+
+        private SourceInfo(long modifiedMillis, long size, String hash, String extension, int width, int height) {
+            this.modifiedMillis = modifiedMillis;
+            this.size = size;
+            this.hash = hash;
+            this.extension = extension;
+            this.width = width;
+            this.height = height;
+        }
+    }
+
+    private static final class Decoded {
+        private final int width;
+        private final int height;
+        private final BufferedImage image;
+
+        private Decoded(int width, int height, BufferedImage image) {
+            this.width = width;
+            this.height = height;
+            this.image = image;
+        }
+    }
+
+    /**
+     * 생성된 이미지
+     */
+    public static final class Variant {
+        private final byte[] data;
+        private final String contentType;
+
+        Variant(byte[] data, String contentType) {
+            this.data = data;
+            this.contentType = contentType;
+        }
+
+        public byte[] getData() {
+            return data;
+        }
+
+        public String getContentType() {
+            return contentType;
+        }
+    }
+
+    /**
+     * 이미지 작업 대기열이 가득 찼거나 제한 시간 안에 만들지 못했을 때 던지는 예외.
+     */
+    public static final class OverloadedException extends Exception {
+        public OverloadedException(String message) {
+            super(message);
+        }
+    }
+
+    /**
+     * 요청한 이미지를 만들 수 없을 때 던지는 예외 (형식 오류, 잘못된 색상 등).
+     */
+    public static final class UnsupportedImageException extends Exception {
+        public UnsupportedImageException(String message) {
+            super(message);
+        }
+    }
+}
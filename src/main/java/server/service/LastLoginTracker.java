@@ -0,0 +1,114 @@
+package server.service;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import server.util.Logger;
+
+/**
+ * 사용자별 마지막 로그인 시각을 메모리에 모아 두었다가 주기적으로 한꺼번에 기록하는 테이블.
+ * 같은 사용자가 주기 안에 여러 번 로그인해도 가장 최근 값 하나만 파일에 쓴다.
+ */
+public final class LastLoginTracker {
+
+    /**
+     * 모인 로그인 시각을 실제 저장소에 반영하는 콜백.
+     */
+    @FunctionalInterface
+    public interface Flusher {
+        void write(String username, LocalDateTime lastLoginAt) throws Exception;
+    }
+
+    private final Map<String, LocalDateTime> pending = new ConcurrentHashMap<>();
+    private final Flusher flusher;
+    private final long intervalMillis;
+    private volatile ScheduledExecutorService scheduler;
+
+    public LastLoginTracker(Flusher flusher, long intervalMillis) {
+        this.flusher = flusher;
+        this.intervalMillis = intervalMillis;
+    }
+
+    /**
+     * 로그인 시각을 기록한다. 파일 쓰기는 다음 플러시 때 일어난다.
+     */
+    public void stamp(String username, LocalDateTime at) {
+        pending.merge(username, at, (oldValue, newValue) -> newValue.isAfter(oldValue) ? newValue : oldValue);
+        ensureStarted();
+    }
+
+    /**
+     * 아직 기록되지 않은 로그인 시각을 돌려준다. 없으면 null.
+     */
+    public LocalDateTime pendingFor(String username) {
+        return pending.get(username);
+    }
+
+    /**
+     * 모인 값을 모두 저장소에 반영한다.
+     * 반영 도중 더 새로운 값이 들어오면 그 값은 남겨 두고 다음 주기에 기록한다.
+     */
+    public void flush() {
+        if (pending.isEmpty()) {
+            return;
+        }
+        List<Map.Entry<String, LocalDateTime>> batch = new ArrayList<>(pending.entrySet());
+        int written = 0;
+        for (Map.Entry<String, LocalDateTime> entry : batch) {
+            try {
+                flusher.write(entry.getKey(), entry.getValue());
+                pending.remove(entry.getKey(), entry.getValue());
+                written++;
+            } catch (Exception e) {
+                Logger.error("Failed to flush last login for user: " + entry.getKey(), e);
+            }
+        }
+        if (written > 0) {
+            Logger.info("Flushed last login stamps: " + written);
+        }
+    }
+
+    /**
+     * 스케줄러를 멈추고 남은 값을 마지막으로 기록한다.
+     */
+    public void shutdown() {
+        ScheduledExecutorService current;
+        synchronized (this) {
+            current = scheduler;
+            scheduler = null;
+        }
+        if (current != null) {
+            current.shutdown();
+            try {
+                current.awaitTermination(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        flush();
+    }
+
+    private void ensureStarted() {
+        if (scheduler != null) {
+            return;
+        }
+        synchronized (this) {
+            if (scheduler != null) {
+                return;
+            }
+            // 로그인이 한 번도 없으면 스레드를 만들지 않도록 첫 기록 시점에 시작한다.
+            scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "last-login-flusher");
+                thread.setDaemon(true);
+                return thread;
+            });
+            scheduler.scheduleWithFixedDelay(this::flush, intervalMillis, intervalMillis, TimeUnit.MILLISECONDS);
+        }
+    }
+}
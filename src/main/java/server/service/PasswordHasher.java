@@ -0,0 +1,124 @@
+package server.service;
+
+import java.nio.charset.Charset;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+import java.util.Base64;
+
+import javax.crypto.SecretKeyFactory;
+import javax.crypto.spec.PBEKeySpec;
+
+import server.config.ServerConfig;
+
+/**
+ * PBKDF2 기반 비밀번호 해시 도구.
+ * 저장 형식은 {@code pbkdf2-sha256$반복횟수$솔트$해시} 이며, 솔트와 비용이 사용자 레코드에 함께 남는다.
+ * '$' 가 없는 값은 예전 방식(솔트 없는 SHA-256)으로 보고 검증만 지원한다.
+ */
+public final class PasswordHasher {
+    private static final String ALGORITHM = "PBKDF2WithHmacSHA256";
+    private static final String PREFIX = "pbkdf2-sha256";
+    private static final int SALT_BYTES = 16;
+    private static final int KEY_BITS = 256;
+
+    private final SecureRandom random = new SecureRandom();
+    private final int iterations;
+
+    public PasswordHasher() {
+        this(ServerConfig.PASSWORD_HASH_ITERATIONS);
+    }
+
+    public PasswordHasher(int iterations) {
+        this.iterations = iterations;
+    }
+
+    /**
+     * 새 솔트를 만들어 비밀번호를 해시한다.
+     */
+    public String hash(String password) {
+        byte[] salt = new byte[SALT_BYTES];
+        random.nextBytes(salt);
+        byte[] derived = pbkdf2(password, salt, iterations);
+        Base64.Encoder encoder = Base64.getEncoder();
+        return PREFIX + "$" + iterations + "$" + encoder.encodeToString(salt) + "$" + encoder.encodeToString(derived);
+    }
+
+    /**
+     * 저장된 해시와 비밀번호가 일치하는지 확인한다. 비교는 상수 시간으로 수행한다.
+     */
+    public boolean verify(String password, String stored) {
+        if (password == null || stored == null) {
+            return false;
+        }
+        // 저장된 값이 깨져 Base64 나 반복 횟수를 읽지 못하면 로그인 실패로 본다.
+        if (isLegacy(stored)) {
+            try {
+                byte[] expected = Base64.getDecoder().decode(stored);
+                return MessageDigest.isEqual(legacySha256(password), expected);
+            } catch (IllegalArgumentException e) {
+                return false;
+            }
+        }
+        String[] parts = stored.split("\\$");
+        if (parts.length != 4 || !PREFIX.equals(parts[0])) {
+            return false;
+        }
+        try {
+            int storedIterations = Integer.parseInt(parts[1]);
+            byte[] salt = Base64.getDecoder().decode(parts[2]);
+            byte[] expected = Base64.getDecoder().decode(parts[3]);
+            return MessageDigest.isEqual(pbkdf2(password, salt, storedIterations), expected);
+        } catch (IllegalArgumentException e) {
+            return false;
+        }
+    }
+
+    /**
+     * 예전 형식이거나 현재 설정보다 비용이 낮은 해시인지 확인한다.
+     */
+    public boolean needsRehash(String stored) {
+        if (stored == null || isLegacy(stored)) {
+            return true;
+        }
+        String[] parts = stored.split("\\$");
+        if (parts.length != 4 || !PREFIX.equals(parts[0])) {
+            return true;
+        }
+        try {
+            return Integer.parseInt(parts[1]) < iterations;
+        } catch (NumberFormatException e) {
+            return true;
+        }
+    }
+
+    private boolean isLegacy(String stored) {
+        return stored.indexOf('$') < 0;
+    }
+
+    private byte[] pbkdf2(String password, byte[] salt, int rounds) {
+        PBEKeySpec spec = new PBEKeySpec(password.toCharArray(), salt, rounds, KEY_BITS);
+        try {
+            return SecretKeyFactory.getInstance(ALGORITHM).generateSecret(spec).getEncoded();
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException(ALGORITHM + " algorithm not available", e);
+        } finally {
+            spec.clearPassword();
+        }
+    }
+
+    /**
+     * 예전 해시는 {@code password.getBytes()} 로 플랫폼 기본 문자셋을 썼으므로 검증도 같은 문자셋으로 한다.
+     * UTF-8 이 아닌 호스트(예: 한국어 Windows 의 MS949)에서 만든 한글 비밀번호도 그대로 맞아야 한다.
+     * 검증에 성공하면 {@link #needsRehash} 에 따라 PBKDF2 로 다시 저장된다.
+     */
+    private byte[] legacySha256(String password) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return digest.digest(password.getBytes(Charset.defaultCharset()));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 algorithm not available", e);
+        }
+    }
+}
@@ -0,0 +1,99 @@
+package server.service;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import server.storage.GroupCommitter;
+import server.util.Logger;
+
+/**
+ * 게시글을 대량으로 가져오는 작업 하나.
+ * 쓰기를 기다리지 않고 그룹 커밋 큐에 이어서 넣어 fsync 를 묶되, 동시에 진행 중인 쓰기 수를 세마포어로 제한해
+ * 가져오기가 큐를 독차지해 일반 게시글 작성이 밀려나지 않게 한다.
+ */
+public final class PostImporter {
+    /** 큐가 가득 찼을 때 다시 넣어 보는 횟수와 간격 */
+    private static final int MAX_RETRIES = 50;
+    private static final long RETRY_DELAY_MILLIS = 20;
+
+    private final PostService postService;
+    private final int parallelism;
+    private final Semaphore permits;
+    private final AtomicInteger imported = new AtomicInteger();
+    private final AtomicInteger skipped = new AtomicInteger();
+    private final AtomicInteger failed = new AtomicInteger();
+
+    public PostImporter(PostService postService, int parallelism) {
+        this.postService = postService;
+        this.parallelism = parallelism;
+        this.permits = new Semaphore(parallelism);
+    }
+
+    /**
+     * 게시글 하나를 쓰기 큐에 넣는다. 진행 중인 쓰기가 한도에 이르면 하나가 끝날 때까지 기다린다.
+     */
+    public void add(String id, byte[] content) throws InterruptedException {
+        permits.acquire();
+        CompletableFuture<Boolean> write;
+        try {
+            write = submit(id, content);
+        } catch (GroupCommitter.OverloadedException e) {
+            Logger.warn("Import write rejected: " + id + " (" + e.getMessage() + ")");
+            failed.incrementAndGet();
+            permits.release();
+            return;
+        }
+        write.whenComplete((created, error) -> {
+            if (error != null) {
+                Logger.error("Failed to import post: " + id, error);
+                failed.incrementAndGet();
+            } else if (created) {
+                imported.incrementAndGet();
+            } else {
+                skipped.incrementAndGet();
+            }
+            permits.release();
+        });
+    }
+
+    /**
+     * 지금까지 넣은 쓰기가 모두 디스크에 기록될 때까지 기다린다.
+     *
+     * @return 제한 시간 안에 모두 끝났으면 true
+     */
+    public boolean await(long timeoutMillis) throws InterruptedException {
+        if (!permits.tryAcquire(parallelism, timeoutMillis, TimeUnit.MILLISECONDS)) {
+            return false;
+        }
+        permits.release(parallelism);
+        return true;
+    }
+
+    private CompletableFuture<Boolean> submit(String id, byte[] content)
+            throws GroupCommitter.OverloadedException, InterruptedException {
+        for (int attempt = 0; ; attempt++) {
+            try {
+                return postService.importPost(id, content);
+            } catch (GroupCommitter.OverloadedException e) {
+                if (attempt >= MAX_RETRIES) {
+                    throw e;
+                }
+                Thread.sleep(RETRY_DELAY_MILLIS);
+            }
+        }
+    }
+
+    public int imported() {
+        return imported.get();
+    }
+
+    public int skipped() {
+        return skipped.get();
+    }
+
+    public int failed() {
+        return failed.get();
+    }
+}
@@ -0,0 +1,165 @@
+package server.service;
+
+import java.nio.charset.StandardCharsets;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+
+import server.model.PostMetadata;
+import server.util.IdGenerator;
+
+/**
+ * 게시글 메타데이터의 메모리 인덱스.
+ * 게시글 ID 에 담긴 시간순 번호의 내림차순으로 정렬된 상태를 유지하므로
+ * 목록 조회는 정렬이나 파일 시스템 접근 없이 커서 위치부터 필요한 만큼만 읽는다.
+ * 번호가 없는 예전 게시글은 작성일로 만든 번호를 대신 쓴다.
+ */
+public final class PostIndex {
+    private final NavigableMap<Key, PostMetadata> ordered = new ConcurrentSkipListMap<>();
+    private final Map<String, PostMetadata> byId = new ConcurrentHashMap<>();
+
+    /**
+     * 게시글을 추가하거나, 같은 ID 가 있으면 교체한다.
+     */
+    public synchronized void put(PostMetadata metadata) {
+        PostMetadata previous = byId.put(metadata.getId(), metadata);
+        if (previous != null) {
+            ordered.remove(keyOf(previous));
+        }
+        ordered.put(keyOf(metadata), metadata);
+    }
+
+    public synchronized boolean remove(String id) {
+        PostMetadata previous = byId.remove(id);
+        if (previous == null) {
+            return false;
+        }
+        ordered.remove(keyOf(previous));
+        return true;
+    }
+
+    public PostMetadata get(String id) {
+        return byId.get(id);
+    }
+
+    public int size() {
+        return byId.size();
+    }
+
+    /**
+     * 최신순 전체 ID 목록
+     */
+    public List<String> ids() {
+        List<String> ids = new ArrayList<>(byId.size());
+        for (PostMetadata metadata : ordered.values()) {
+            ids.add(metadata.getId());
+        }
+        return ids;
+    }
+
+    /**
+     * 커서 다음 위치부터 최대 limit 개를 돌려준다.
+     *
+     * @param cursor 이전 페이지의 {@link Page#getNextCursor()} 값, 첫 페이지는 null
+     * @throws IllegalArgumentException 커서 형식이 잘못된 경우
+     */
+    public Page page(String cursor, int limit) {
+        NavigableMap<Key, PostMetadata> view = ordered;
+        if (cursor != null && !cursor.isEmpty()) {
+            view = ordered.tailMap(decodeCursor(cursor), false);
+        }
+        List<PostMetadata> items = new ArrayList<>(Math.min(limit, 64));
+        Key last = null;
+        boolean more = false;
+        for (Map.Entry<Key, PostMetadata> entry : view.entrySet()) {
+            if (items.size() == limit) {
+                more = true;
+                break;
+            }
+            items.add(entry.getValue());
+            last = entry.getKey();
+        }
+        return new Page(items, more && last != null ? encodeCursor(last) : null);
+    }
+
+    private static Key keyOf(PostMetadata metadata) {
+        String id = metadata.getId();
+        long order = IdGenerator.parsePrefix(id);
+        if (order < 0) {
+            long millis = metadata.getCreatedAt().atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+            order = IdGenerator.floorFor(millis);
+        }
+        return new Key(order, id);
+    }
+
+    private static String encodeCursor(Key key) {
+        String raw = IdGenerator.format(key.order) + "|" + key.id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static Key decodeCursor(String cursor) {
+        String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+        int bar = raw.indexOf('|');
+        long order = IdGenerator.parsePrefix(raw);
+        if (bar != 16 || order < 0) {
+            throw new IllegalArgumentException("Invalid cursor");
+        }
+        return new Key(order, raw.substring(bar + 1));
+    }
+
+    /**
+     * 정렬 키. 번호 내림차순, 같으면 ID 오름차순.
+     */
+    private static final class Key implements Comparable<Key> {
+        private final long order;
+        private final String id;
+
+        private Key(long order, String id) {
+            this.order = order;
+            this.id = id;
+        }
+
+        @Override
+        public int compareTo(Key other) {
+            int byOrder = Long.compare(other.order, order);
+            return byOrder != 0 ? byOrder : id.compareTo(other.id);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof Key other && order == other.order && id.equals(other.id);
+        }
+
+        @Override
+        public int hashCode() {
+            return Long.hashCode(order) * 31 + id.hashCode();
+        }
+    }
+
+    /**
+     * 한 페이지 분량의 조회 결과
+     */
+    public static final class Page {
+        private final List<PostMetadata> items;
+        private final String nextCursor;
+
+        Page(List<PostMetadata> items, String nextCursor) {
+            this.items = List.copyOf(items);
+            this.nextCursor = nextCursor;
+        }
+
+        public List<PostMetadata> getItems() {
+            return items;
+        }
+
+        /** 다음 페이지 커서. 마지막 페이지면 null */
+        public String getNextCursor() {
+            return nextCursor;
+        }
+    }
+}
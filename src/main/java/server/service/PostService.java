@@ -1,115 +1,760 @@
 
 package server.service;
 
+import java.io.Closeable;
 import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.time.Instant;
 import java.time.LocalDateTime;
+import java.time.ZoneId;
 import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.time.temporal.ChronoUnit;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
 import server.config.ServerConfig;
+import server.model.PostMetadata;
+import server.search.InvertedIndex;
+import server.search.SearchHit;
+import server.search.Tokenizer;
+import server.storage.Durability;
+import server.storage.FilePostStore;
+import server.storage.GroupCommitter;
+import server.storage.PostStore;
+import server.storage.SegmentPostStore;
+import server.storage.StoredPost;
+import server.util.IdGenerator;
 import server.util.Logger;
 
 /**
  * 게시글 관리 서비스
- * posts/ 디렉토리에 텍스트 파일로 게시글을 저장
+ * 원문은 {@link PostStore}(기본은 세그먼트 파일)에 저장하고, 목록/검색용 색인은 메모리에 둔다.
  */
-public final class PostService {
-    private final Path postsDir;
+public final class PostService implements Closeable {
     private static final DateTimeFormatter DATETIME_FORMAT = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+    private static final String TITLE_PREFIX = "제목: ";
+    private static final String AUTHOR_PREFIX = "작성자: ";
+    private static final String CREATED_PREFIX = "작성일: ";
+    private static final String ATTACHMENTS_PREFIX = "첨부: ";
+    private static final String HEADER_LINE_BREAK_MESSAGE = "제목과 작성자에는 줄바꿈을 넣을 수 없습니다.";
+
+    private static final Durability DEFAULT_DURABILITY =
+            Durability.parse(ServerConfig.POST_DEFAULT_DURABILITY, Durability.BATCHED);
+
+    private static final IdGenerator ID_GENERATOR = new IdGenerator(ServerConfig.NODE_ID);
+    /** 시작할 때 이보다 더 미래 시각의 ID 는 생성기를 앞당기는 데 쓰지 않는다. 재시작 뒤 시계가 조금 뒤로 간 정도만 허용한다. */
+    private static final long ID_MAX_CLOCK_SKEW_MILLIS = 60 * 60_000L;
+    private static final int SLUG_MAX_LENGTH = 40;
+
+    private final PostStore store;
+    private final GroupCommitter committer;
+    /** 세그먼트 저장소로 옮기기 전의 게시글 파일 디렉터리. 없으면 null. */
+    private final Path legacyDir;
+    private final PostIndex index = new PostIndex();
+    private final InvertedIndex searchIndex = new InvertedIndex(new Tokenizer());
+    /** 게시글이 생성/삭제될 때 ID 를 받는 콜백 (렌더링 캐시 무효화 등) */
+    private final List<Consumer<String>> changeListeners = new CopyOnWriteArrayList<>();
 
     public PostService() {
-        this(ServerConfig.WEB_ROOT.resolve("posts"));
+        this(createDefaultStore(), ServerConfig.WEB_ROOT.resolve("posts"));
     }
 
     public PostService(Path postsDir) {
-        this.postsDir = postsDir.normalize();
-        try {
-            Files.createDirectories(this.postsDir);
-        } catch (IOException e) {
-            Logger.error("Failed to create posts directory", e);
-        }
+        this(new FilePostStore(postsDir), null);
+    }
+
+    public PostService(PostStore store, Path legacyDir) {
+        this.store = store;
+        this.committer = new GroupCommitter(store, ServerConfig.POST_WRITE_QUEUE_CAPACITY,
+                ServerConfig.POST_GROUP_COMMIT_MAX_BATCH, ServerConfig.POST_GROUP_COMMIT_LINGER_MILLIS);
+        this.legacyDir = store instanceof FilePostStore || legacyDir == null ? null : legacyDir.normalize();
+        importLegacyPosts();
+        loadIndex();
     }
 
     /**
-     * 새 게시글 작성
+     * 새 게시글 작성. 기본 내구성 단계로 저장한다.
      */
     public boolean createPost(String title, String content, String author) {
-        if (title == null || title.trim().isEmpty() || content == null || content.trim().isEmpty()) {
+        try {
+            return createPost(title, content, author, DEFAULT_DURABILITY);
+        } catch (GroupCommitter.OverloadedException e) {
+            Logger.warn("Post write rejected: " + e.getMessage());
             return false;
         }
+    }
 
+    /**
+     * 새 게시글 작성. 쓰기는 그룹 커밋 큐를 거치며, 요청한 내구성 단계에 이를 때까지 기다린다.
+     * 목록/검색 색인은 쓰기가 그 단계에 이른 뒤에 갱신된다.
+     *
+     * @throws GroupCommitter.OverloadedException 쓰기 대기열이 가득 찼거나 제한 시간 안에 커밋되지 않은 경우
+     */
+    public boolean createPost(String title, String content, String author, Durability durability)
+            throws GroupCommitter.OverloadedException {
+        return createPost(title, content, author, durability, List.of());
+    }
+
+    /**
+     * 첨부 파일이 있는 새 게시글 작성. 첨부는 이미 저장된 파일의 정적 경로 목록이며 머리말에 함께 기록된다.
+     *
+     * @throws GroupCommitter.OverloadedException 쓰기 대기열이 가득 찼거나 제한 시간 안에 커밋되지 않은 경우
+     */
+    public boolean createPost(String title, String content, String author, Durability durability,
+                              List<String> attachments) throws GroupCommitter.OverloadedException {
         try {
-            String filename = generateFilename(title);
-            Path postFile = postsDir.resolve(filename);
-            
-            StringBuilder postContent = new StringBuilder();
-            postContent.append("제목: ").append(title).append("\n");
-            postContent.append("작성자: ").append(author != null ? author : "익명").append("\n");
-            postContent.append("작성일: ").append(LocalDateTime.now().format(DATETIME_FORMAT)).append("\n");
-            postContent.append("---\n");
-            postContent.append(content);
-
-            Files.writeString(postFile, postContent.toString());
-            Logger.info("Post created: " + filename);
-            return true;
-        } catch (Exception e) {
-            Logger.error("Failed to create post: " + title, e);
+            return createPostAsync(title, content, author, durability, attachments).get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new GroupCommitter.OverloadedException("Interrupted while waiting for post write");
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof TimeoutException) {
+                throw new GroupCommitter.OverloadedException("Post write timed out");
+            }
+            Logger.error("Failed to create post: " + title, e.getCause());
             return false;
         }
     }
 
     /**
-     * 게시글 목록 조회
+     * {@link #createPost(String, String, String, Durability, List)} 의 비동기 버전. 쓰기를 큐에 넣고 바로 돌아온다.
+     * 돌려준 단계는 내구성 단계에 이르면 성공 여부로 완료되고, 제한 시간 안에 이르지 못하면
+     * 새 게시글 ID 를 담은 {@link PendingWriteException} 으로 실패한다. 저장 중 오류는 로그를 남기고 false 로 끝난다.
+     *
+     * @throws IllegalArgumentException           제목이나 작성자에 줄바꿈이 있는 경우
+     * @throws GroupCommitter.OverloadedException 쓰기 대기열이 가득 찬 경우
+     */
+    public CompletableFuture<Boolean> createPostAsync(String title, String content, String author,
+                                                      Durability durability, List<String> attachments)
+            throws GroupCommitter.OverloadedException {
+        if (title == null || title.trim().isEmpty() || content == null || content.trim().isEmpty()) {
+            return CompletableFuture.completedFuture(false);
+        }
+        if (hasLineBreak(title) || hasLineBreak(author)) {
+            throw new IllegalArgumentException(HEADER_LINE_BREAK_MESSAGE);
+        }
+
+        Draft draft = draft(title, content, author != null ? author : "익명", attachments);
+        // 제한 시간이 지나도 쓰기 자체는 큐에 남아 끝나므로, 색인 갱신은 커밋 완료 시점에 붙이고
+        // 제한 시간은 복사본에만 건다.
+        CompletableFuture<Boolean> committed = committer.submit(draft.filename, draft.bytes, durability)
+                .handle((created, failure) -> {
+                    if (failure != null) {
+                        Logger.error("Failed to create post: " + title, failure);
+                        return false;
+                    }
+                    if (!created) {
+                        // 같은 ID 가 이미 있으면 덮어쓰지 않고 실패로 처리한다.
+                        Logger.warn("Post already exists: " + draft.filename);
+                        return false;
+                    }
+                    indexCreated(draft);
+                    return true;
+                });
+        return withPendingTimeout(committed, draft.filename);
+    }
+
+    /**
+     * 커밋을 기다리는 복사본에만 제한 시간을 건다. 시간이 지나면 그 ID 를 담은 {@link PendingWriteException} 으로 실패한다.
+     */
+    private static CompletableFuture<Boolean> withPendingTimeout(CompletableFuture<Boolean> committed, String id) {
+        return committed.copy()
+                .orTimeout(ServerConfig.POST_WRITE_WAIT_TIMEOUT_MILLIS, TimeUnit.MILLISECONDS)
+                .exceptionally(failure -> {
+                    if (failure instanceof TimeoutException) {
+                        throw new CompletionException(new PendingWriteException(id));
+                    }
+                    throw failure instanceof CompletionException completion ? completion : new CompletionException(failure);
+                });
+    }
+
+    /**
+     * 여러 생성/삭제를 한 번에 처리한다. 모든 쓰기를 그룹 커밋 큐의 한 칸으로 넣으므로
+     * 같은 배치에서 순서대로 적용되고 fsync 한 번을 함께 기다린다. 결과는 작업 순서대로 돌려준다.
+     * 제한 시간 안에 끝나지 않은 작업은 실패가 아니라 202(처리 중) 결과로 돌려준다. 그 작업은 큐에 남아 이어서 처리된다.
+     *
+     * @param author 생성할 게시글의 작성자
+     * @throws GroupCommitter.OverloadedException 쓰기 대기열이 가득 찬 경우
+     */
+    public List<BatchResult> applyBatch(List<BatchOperation> operations, String author, Durability durability)
+            throws GroupCommitter.OverloadedException {
+        try {
+            return applyBatchAsync(operations, author, durability).get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new GroupCommitter.OverloadedException("Interrupted while waiting for post batch");
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Post batch failed", e.getCause());
+        }
+    }
+
+    /**
+     * {@link #applyBatch(List, String, Durability)} 의 비동기 버전. 돌려준 단계는 모든 작업이 끝나거나
+     * 제한 시간이 지나면 완료되며, 그때까지 끝나지 않은 작업은 202 결과로 담긴다.
+     *
+     * @throws GroupCommitter.OverloadedException 쓰기 대기열이 가득 찬 경우
+     */
+    public CompletableFuture<List<BatchResult>> applyBatchAsync(List<BatchOperation> operations, String author,
+                                                                Durability durability)
+            throws GroupCommitter.OverloadedException {
+        String authorName = author != null ? author : "익명";
+        List<CompletableFuture<BatchResult>> results = new ArrayList<>(operations.size());
+        // 결과를 만들 수 없을 때(실패, 시간 초과) 알려 줄 ID. 생성은 새로 만든 ID 이다.
+        List<String> ids = new ArrayList<>(operations.size());
+        List<GroupCommitter.Operation> queued = new ArrayList<>();
+        for (BatchOperation operation : operations) {
+            if (operation.isDelete()) {
+                String id = operation.id;
+                ids.add(id);
+                if (!isValidId(id)) {
+                    results.add(CompletableFuture.completedFuture(new BatchResult(400, id, "잘못된 게시글 ID 입니다.")));
+                    continue;
+                }
+                GroupCommitter.Operation delete = GroupCommitter.Operation.delete(id);
+                queued.add(delete);
+                results.add(delete.future().thenApply(deleted -> {
+                    boolean removed = deleteLegacyFile(id) || deleted;
+                    if (!removed) {
+                        return new BatchResult(404, id, "삭제할 게시글을 찾을 수 없습니다.");
+                    }
+                    indexDeleted(id);
+                    return new BatchResult(200, id, "게시글이 삭제되었습니다.");
+                }));
+            } else {
+                ids.add(null);
+                if (operation.title == null || operation.title.trim().isEmpty()
+                        || operation.content == null || operation.content.trim().isEmpty()) {
+                    results.add(CompletableFuture.completedFuture(new BatchResult(400, null, "제목과 내용을 입력해 주세요.")));
+                    continue;
+                }
+                if (hasLineBreak(operation.title) || hasLineBreak(authorName)) {
+                    results.add(CompletableFuture.completedFuture(new BatchResult(400, null, HEADER_LINE_BREAK_MESSAGE)));
+                    continue;
+                }
+                Draft draft = draft(operation.title, operation.content, authorName, List.of());
+                ids.set(ids.size() - 1, draft.filename);
+                GroupCommitter.Operation create = GroupCommitter.Operation.create(draft.filename, draft.bytes);
+                queued.add(create);
+                results.add(create.future().thenApply(created -> {
+                    if (!created) {
+                        return new BatchResult(409, draft.filename, "같은 ID 의 게시글이 이미 있습니다.");
+                    }
+                    indexCreated(draft);
+                    return new BatchResult(201, draft.filename, "게시글이 작성되었습니다.");
+                }));
+            }
+        }
+        if (!queued.isEmpty()) {
+            committer.submitAll(queued, durability);
+        }
+
+        // 일부가 커밋된 뒤에 시간이 다 되어도 요청 전체를 실패로 돌리지 않고, 그 시점의 작업별 상태를 돌려준다.
+        return CompletableFuture.allOf(results.toArray(new CompletableFuture<?>[0]))
+                .handle((ignored, failure) -> (Void) null)
+                .completeOnTimeout(null, ServerConfig.POST_WRITE_WAIT_TIMEOUT_MILLIS, TimeUnit.MILLISECONDS)
+                .thenApply(ignored -> {
+                    List<BatchResult> completed = new ArrayList<>(results.size());
+                    for (int i = 0; i < results.size(); i++) {
+                        CompletableFuture<BatchResult> result = results.get(i);
+                        if (!result.isDone()) {
+                            completed.add(new BatchResult(202, ids.get(i),
+                                    "아직 처리 중입니다. 잠시 후 목록에서 확인해 주세요."));
+                        } else if (result.isCompletedExceptionally()) {
+                            result.exceptionally(error -> {
+                                Logger.error("Post batch operation failed", error);
+                                return null;
+                            });
+                            completed.add(new BatchResult(500, ids.get(i), "게시글을 처리하지 못했습니다."));
+                        } else {
+                            completed.add(result.join());
+                        }
+                    }
+                    return completed;
+                });
+    }
+
+    /**
+     * 내보낸 게시글 원문을 ID 그대로 저장한다. 그룹 커밋 큐에 넣고 기다리지 않으므로
+     * 여러 건을 이어서 넣으면 한 번의 fsync 로 묶인다. 같은 ID 가 이미 있으면 덮어쓰지 않고 false 로 끝난다.
+     * ID 는 이 서버가 만드는 형식(16자리 시간순 ID + 선택적 slug + .txt)이고 생성 시각이 미래가 아니어야 한다.
+     * 가져온 ID 로 ID 생성기를 앞당기지는 않는다.
+     *
+     * @throws GroupCommitter.OverloadedException 쓰기 대기열이 가득 찬 경우
+     */
+    public CompletableFuture<Boolean> importPost(String id, byte[] content) throws GroupCommitter.OverloadedException {
+        if (!isImportableId(id) || store.exists(id)) {
+            return CompletableFuture.completedFuture(false);
+        }
+        return committer.submit(id, content, Durability.BATCHED)
+                .thenApply(created -> {
+                    if (!created) {
+                        return false;
+                    }
+                    String text = new String(content, StandardCharsets.UTF_8);
+                    PostMetadata metadata = parseMetadata(new StoredPost(id, content, System.currentTimeMillis()), text);
+                    index.put(metadata);
+                    searchIndex.add(id, metadata.getTitle() + "\n" + bodyOf(text));
+                    notifyChanged(id);
+                    return true;
+                });
+    }
+
+    /**
+     * 저장된 모든 게시글 원문을 한 건씩 넘겨준다. 전체를 메모리에 모으지 않으므로 내보내기에 쓴다.
+     */
+    public void forEachPost(PostVisitor visitor) throws IOException {
+        try {
+            store.scan(post -> {
+                try {
+                    visitor.visit(post);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    /**
+     * 게시글 목록 조회 (최신순 파일명)
      */
     public List<String> listPosts() {
-        List<String> posts = new ArrayList<>();
+        return index.ids();
+    }
+
+    /**
+     * 게시글 목록을 최신순으로 한 페이지씩 조회한다. 메모리 인덱스만 읽는다.
+     *
+     * @throws IllegalArgumentException 커서 형식이 잘못된 경우
+     */
+    public PostIndex.Page listPostsPage(String cursor, int limit) {
+        return index.page(cursor, limit);
+    }
+
+    /**
+     * 제목과 본문에서 질의와 가장 관련 있는 게시글 상위 k 개를 찾는다.
+     */
+    public List<SearchHit> searchPosts(String query, int k) {
+        return searchIndex.search(query, k);
+    }
+
+    /**
+     * 게시글 메타데이터 조회. 없으면 null.
+     */
+    public PostMetadata getPostMetadata(String id) {
+        return index.get(id);
+    }
+
+    /**
+     * 게시글이 생성/삭제될 때마다 그 ID 로 호출될 콜백을 등록한다.
+     */
+    public void addChangeListener(Consumer<String> listener) {
+        changeListeners.add(listener);
+    }
+
+    /**
+     * 저장소에 게시글이 있는지 확인한다. 원문은 읽지 않는다.
+     */
+    public boolean hasPost(String id) {
+        return isValidId(id) && store.exists(id);
+    }
+
+    /**
+     * 게시글 원문 조회
+     */
+    public Optional<byte[]> readPost(String id) {
+        if (!isValidId(id)) {
+            return Optional.empty();
+        }
         try {
-            Files.list(postsDir)
-                .filter(Files::isRegularFile)
-                .filter(path -> path.toString().endsWith(".txt"))
-                .forEach(path -> posts.add(path.getFileName().toString()));
-        } catch (Exception e) {
-            Logger.error("Failed to list posts", e);
+            return store.read(id);
+        } catch (IOException e) {
+            Logger.error("Failed to read post: " + id, e);
+            return Optional.empty();
+        }
+    }
+
+    /**
+     * 게시글 삭제. 생성과 같은 그룹 커밋 큐를 거치므로 같은 ID 의 앞선 쓰기 뒤에 순서대로 적용되고 배치 fsync 를 함께 기다린다.
+     * 돌려준 단계는 지워졌는지로 완료되고, 제한 시간 안에 커밋되지 않으면 {@link PendingWriteException} 으로 실패한다.
+     *
+     * @throws GroupCommitter.OverloadedException 쓰기 대기열이 가득 찬 경우
+     */
+    public CompletableFuture<Boolean> deletePostAsync(String filename) throws GroupCommitter.OverloadedException {
+        if (!isValidId(filename)) {
+            // 디렉터리 탈출 방지
+            return CompletableFuture.completedFuture(false);
+        }
+
+        GroupCommitter.Operation delete = GroupCommitter.Operation.delete(filename);
+        committer.submitAll(List.of(delete), DEFAULT_DURABILITY);
+        CompletableFuture<Boolean> committed = delete.future().handle((deleted, failure) -> {
+            if (failure != null) {
+                Logger.error("Failed to delete post: " + filename, failure);
+                return false;
+            }
+            boolean removed = deleteLegacyFile(filename) || deleted;
+            if (removed) {
+                indexDeleted(filename);
+            }
+            return removed;
+        });
+        return withPendingTimeout(committed, filename);
+    }
+
+    /**
+     * 저장소를 닫는다. 서버 종료 시 호출한다.
+     */
+    @Override
+    public void close() {
+        committer.close();
+        try {
+            store.close();
+        } catch (IOException e) {
+            Logger.error("Failed to close post store", e);
         }
-        return posts;
     }
 
     /**
-     * 게시글 삭제
+     * 게시글 ID 생성: 16자리 시간순 ID 뒤에 제목에서 만든 slug 를 붙인다.
+     * 예: 0a1b2c3d4e5f6789_첫_글.txt
      */
-    public boolean deletePost(String filename) {
-        if (filename == null || filename.trim().isEmpty()) {
+    private String generateFilename(String title) {
+        String slug = slugOf(title);
+        String id = IdGenerator.format(ID_GENERATOR.nextId());
+        return slug.isEmpty() ? id + ".txt" : id + "_" + slug + ".txt";
+    }
+
+    /**
+     * 영문/숫자/한글만 남기고 공백은 '_' 하나로 줄인다. 정규식을 쓰지 않고 한 번만 훑는다.
+     */
+    private static String slugOf(String title) {
+        StringBuilder slug = new StringBuilder(Math.min(title.length(), SLUG_MAX_LENGTH));
+        boolean pendingSeparator = false;
+        for (int i = 0; i < title.length() && slug.length() < SLUG_MAX_LENGTH; i++) {
+            char c = title.charAt(i);
+            if (c >= 'A' && c <= 'Z') {
+                c = (char) (c + ('a' - 'A'));
+            }
+            if ((c >= 'a' && c <= 'z') || (c >= '0' && c <= '9') || (c >= '가' && c <= '힣')) {
+                // 첫 글자 앞이나 끝의 공백은 버리고, 사이의 공백만 구분자로 남긴다.
+                if (pendingSeparator && slug.length() > 0) {
+                    slug.append('_');
+                }
+                pendingSeparator = false;
+                slug.append(c);
+            } else if (Character.isWhitespace(c)) {
+                pendingSeparator = true;
+            }
+        }
+        return slug.toString();
+    }
+
+    /**
+     * 머리말은 한 줄에 한 필드이므로 줄바꿈이 든 값은 다른 필드(예: 첨부:)를 끼워 넣을 수 있다.
+     */
+    private static boolean hasLineBreak(String value) {
+        return value != null && (value.indexOf('\n') >= 0 || value.indexOf('\r') >= 0);
+    }
+
+    /**
+     * 머리말과 본문을 합친 저장용 원문과 새 ID 를 만든다.
+     */
+    private Draft draft(String title, String content, String authorName, List<String> attachments) {
+        String filename = generateFilename(title);
+        LocalDateTime createdAt = LocalDateTime.now().truncatedTo(ChronoUnit.SECONDS);
+
+        StringBuilder postContent = new StringBuilder();
+        postContent.append(TITLE_PREFIX).append(title).append("\n");
+        postContent.append(AUTHOR_PREFIX).append(authorName).append("\n");
+        postContent.append(CREATED_PREFIX).append(createdAt.format(DATETIME_FORMAT)).append("\n");
+        if (!attachments.isEmpty()) {
+            postContent.append(ATTACHMENTS_PREFIX).append(String.join(", ", attachments)).append("\n");
+        }
+        postContent.append("---\n");
+        postContent.append(content);
+
+        byte[] bytes = postContent.toString().getBytes(StandardCharsets.UTF_8);
+        PostMetadata metadata = new PostMetadata(filename, title, authorName, createdAt, bytes.length, attachments);
+        return new Draft(filename, bytes, metadata, content);
+    }
+
+    private void indexCreated(Draft draft) {
+        index.put(draft.metadata);
+        searchIndex.add(draft.filename, draft.metadata.getTitle() + "\n" + draft.body);
+        notifyChanged(draft.filename);
+        Logger.info("Post created: " + draft.filename);
+    }
+
+    private void indexDeleted(String id) {
+        index.remove(id);
+        searchIndex.remove(id);
+        notifyChanged(id);
+        Logger.info("Post deleted: " + id);
+    }
+
+    /**
+     * 세그먼트로 옮겨 온 원본 파일도 함께 지워 정적 경로로 다시 보이지 않게 한다.
+     */
+    private boolean deleteLegacyFile(String id) {
+        if (legacyDir == null) {
             return false;
         }
+        try {
+            return Files.deleteIfExists(legacyDir.resolve(id));
+        } catch (IOException e) {
+            Logger.error("Failed to delete legacy post file: " + id, e);
+            return false;
+        }
+    }
 
-        Path postFile = postsDir.resolve(filename).normalize();
-        if (!postFile.startsWith(postsDir)) {
-            // 디렉터리 탈출 방지
+    private void notifyChanged(String id) {
+        for (Consumer<String> listener : changeListeners) {
+            try {
+                listener.accept(id);
+            } catch (RuntimeException e) {
+                Logger.error("Post change listener failed: " + id, e);
+            }
+        }
+    }
+
+    private static boolean isValidId(String id) {
+        return id != null && !id.trim().isEmpty()
+                && id.indexOf('/') < 0 && id.indexOf('\\') < 0 && !id.contains("..");
+    }
+
+    /**
+     * {@link #generateFilename(String)} 가 만드는 형식이고, ID 의 생성 시각이 지금보다 뒤가 아닌지 확인한다.
+     */
+    private static boolean isImportableId(String id) {
+        if (!isValidId(id) || !id.endsWith(".txt")) {
+            return false;
+        }
+        long order = IdGenerator.parsePrefix(id);
+        if (order < 0 || (id.charAt(16) != '.' && id.charAt(16) != '_')) {
             return false;
         }
+        return IdGenerator.timestampOf(order) <= System.currentTimeMillis();
+    }
+
+    private static PostStore createDefaultStore() {
+        Path postsDir = ServerConfig.WEB_ROOT.resolve("posts");
+        if ("segment".equals(ServerConfig.POST_STORE_ENGINE)) {
+            try {
+                return new SegmentPostStore(ServerConfig.POST_SEGMENT_DIR, ServerConfig.POST_SEGMENT_MAX_BYTES,
+                        ServerConfig.POST_COMPACTION_GARBAGE_RATIO, ServerConfig.POST_COMPACTION_INTERVAL_MILLIS);
+            } catch (IOException e) {
+                Logger.error("Failed to open post segments, falling back to file store", e);
+            }
+        }
+        return new FilePostStore(postsDir);
+    }
 
+    /**
+     * 세그먼트 저장소에 아직 없는 예전 게시글 파일(.txt)을 원래 수정 시각과 함께 옮겨 온다.
+     * 원본 파일은 지우지 않고, 게시글을 삭제할 때 함께 지운다.
+     */
+    private void importLegacyPosts() {
+        if (legacyDir == null || !(store instanceof SegmentPostStore segmentStore) || !Files.isDirectory(legacyDir)) {
+            return;
+        }
+        int imported = 0;
+        try (Stream<Path> files = Files.list(legacyDir)) {
+            for (Path path : (Iterable<Path>) files::iterator) {
+                String id = path.getFileName().toString();
+                if (!Files.isRegularFile(path) || !id.endsWith(".txt") || segmentStore.exists(id)) {
+                    continue;
+                }
+                if (segmentStore.put(id, Files.readAllBytes(path), Files.getLastModifiedTime(path).toMillis())) {
+                    imported++;
+                }
+            }
+        } catch (IOException e) {
+            Logger.error("Failed to import legacy posts", e);
+        }
+        if (imported > 0) {
+            Logger.info("Imported legacy post files into segments: " + imported);
+        }
+    }
+
+    /**
+     * 시작 시 한 번 저장소를 훑어 메타데이터 인덱스와 검색 색인을 만든다.
+     */
+    private void loadIndex() {
+        long latestTrusted = System.currentTimeMillis() + ID_MAX_CLOCK_SKEW_MILLIS;
         try {
-            boolean deleted = Files.deleteIfExists(postFile);
-            if (deleted) {
-                Logger.info("Post deleted: " + filename);
+            store.scan(post -> {
+                // 잘못된 UTF-8 바이트는 대체 문자로 바꿔 읽는다.
+                String text = new String(post.getContent(), StandardCharsets.UTF_8);
+                PostMetadata metadata = parseMetadata(post, text);
+                long id = IdGenerator.parsePrefix(metadata.getId());
+                if (id >= 0) {
+                    if (IdGenerator.timestampOf(id) <= latestTrusted) {
+                        ID_GENERATOR.advancePast(id);
+                    } else {
+                        // 예전에 가져온 비정상 ID 로 생성기가 넘치지 않게 한다.
+                        Logger.warn("Ignoring future post ID for ID generation: " + metadata.getId());
+                    }
+                }
+                index.put(metadata);
+                searchIndex.add(metadata.getId(), metadata.getTitle() + "\n" + bodyOf(text));
+            });
+            Logger.info("Post index loaded: " + index.size() + " posts");
+        } catch (IOException e) {
+            Logger.error("Failed to list posts", e);
+        }
+    }
+
+    /**
+     * 게시글 머리말(제목/작성자/작성일/첨부)을 읽는다.
+     * 머리말이 없는 글은 ID 와 저장 시각으로 대신한다.
+     */
+    private PostMetadata parseMetadata(StoredPost post, String text) {
+        String id = post.getId();
+        String title = id.endsWith(".txt") ? id.substring(0, id.length() - 4) : id;
+        String author = null;
+        LocalDateTime createdAt = null;
+        List<String> attachments = List.of();
+        String[] lines = text.split("\n", 5);
+        for (int i = 0; i < Math.min(4, lines.length); i++) {
+            String line = lines[i];
+            if (line.startsWith(ATTACHMENTS_PREFIX)) {
+                attachments = List.of(line.substring(ATTACHMENTS_PREFIX.length()).split(",\\s*"));
+            } else if (line.startsWith(TITLE_PREFIX)) {
+                title = line.substring(TITLE_PREFIX.length());
+            } else if (line.startsWith(AUTHOR_PREFIX)) {
+                author = line.substring(AUTHOR_PREFIX.length());
+            } else if (line.startsWith(CREATED_PREFIX)) {
+                try {
+                    createdAt = LocalDateTime.parse(line.substring(CREATED_PREFIX.length()), DATETIME_FORMAT);
+                } catch (DateTimeParseException ignored) {
+                    // 형식이 다르면 저장 시각을 쓴다.
+                }
             }
-            return deleted;
-        } catch (Exception e) {
-            Logger.error("Failed to delete post: " + filename, e);
-            return false;
         }
+        if (createdAt == null) {
+            createdAt = LocalDateTime.ofInstant(Instant.ofEpochMilli(post.getStoredAtMillis()), ZoneId.systemDefault())
+                    .truncatedTo(ChronoUnit.SECONDS);
+        }
+        return new PostMetadata(id, title, author, createdAt, post.getContent().length, attachments);
     }
 
     /**
-     * 파일명 생성 (제목을 안전한 파일명으로 변환)
+     * 머리말 구분선(---) 뒤의 본문만 돌려준다. 구분선이 없으면 전체가 본문이다.
      */
-    private String generateFilename(String title) {
-        String safe = title.replaceAll("[^a-zA-Z0-9가-힣\\s]", "")
-                          .replaceAll("\\s+", "_")
-                          .toLowerCase();
-        return safe + "_" + System.currentTimeMillis() + ".txt";
+    private static String bodyOf(String text) {
+        int separator = text.indexOf("\n---\n");
+        return separator >= 0 ? text.substring(separator + 5) : text;
+    }
+
+    /**
+     * {@link #forEachPost(PostVisitor)} 에 넘기는 콜백
+     */
+    @FunctionalInterface
+    public interface PostVisitor {
+        void visit(StoredPost post) throws IOException;
+    }
+
+    private static final class Draft {
+        private final String filename;
+        private final byte[] bytes;
+        private final PostMetadata metadata;
+        private final String body;
+
+        private Draft(String filename, byte[] bytes, PostMetadata metadata, String body) {
+            this.filename = filename;
+            this.bytes = bytes;
+            this.metadata = metadata;
+            this.body = body;
+        }
+    }
+
+    /**
+     * {@link #applyBatch} 에 넘기는 작업 하나
+     */
+    public static final class BatchOperation {
+        private final String id;
+        private final String title;
+        private final String content;
+
+        private BatchOperation(String id, String title, String content) {
+            this.id = id;
+            this.title = title;
+            this.content = content;
+        }
+
+        public static BatchOperation create(String title, String content) {
+            return new BatchOperation(null, title, content);
+        }
+
+        public static BatchOperation delete(String id) {
+            return new BatchOperation(id, null, null);
+        }
+
+        public boolean isDelete() {
+            return id != null;
+        }
+    }
+
+    /**
+     * 일괄 처리 작업 하나의 결과. 상태는 같은 작업을 단건 API 로 보냈을 때의 HTTP 상태 코드와 같다.
+     */
+    public static final class BatchResult {
+        private final int status;
+        private final String id;
+        private final String message;
+
+        BatchResult(int status, String id, String message) {
+            this.status = status;
+            this.id = id;
+            this.message = message;
+        }
+
+        public boolean isSuccess() {
+            return status < 300;
+        }
+
+        public int getStatus() {
+            return status;
+        }
+
+        /** 생성되었거나 삭제한 게시글 ID. 알 수 없으면 null */
+        public String getId() {
+            return id;
+        }
+
+        public String getMessage() {
+            return message;
+        }
+    }
+
+    /**
+     * 제한 시간 안에 커밋되지 않은 쓰기. 쓰기는 큐에 남아 이어서 처리되므로 다시 보내지 말고 그 ID 로 확인한다.
+     */
+    public static final class PendingWriteException extends TimeoutException {
+        private final String id;
+
+        public PendingWriteException(String id) {
+            super("Post write is still pending: " + id);
+            this.id = id;
+        }
+
+        public String getId() {
+            return id;
+        }
     }
 }
@@ -7,9 +7,14 @@ import java.nio.file.Paths;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
 import java.util.Optional;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Stream;
 
+import server.config.ServerConfig;
 import server.model.Session;
+import server.util.FileUtil;
 import server.util.Logger;
+import server.util.StripedLocks;
 
 /**
  * 파일 기반 세션 관리자
@@ -19,6 +24,7 @@ public final class SessionManager {
     private static final Path SESSIONS_DIR = Paths.get("sessions");
     private static final DateTimeFormatter DATETIME_FORMAT = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
     private static final long DEFAULT_SESSION_DURATION_MINUTES = 120; // 2시간
+    private static final StripedLocks LOCKS = new StripedLocks(ServerConfig.LOCK_STRIPES);
 
     public SessionManager() {
         try {
@@ -60,7 +66,7 @@ public final class SessionManager {
 
         Session session = sessionOpt.get();
         if (session.isExpired()) {
-            deleteSession(sessionId);
+            deleteIfExpired(sessionId);
             return Optional.empty();
         }
 
@@ -76,11 +82,15 @@ public final class SessionManager {
         }
 
         Path sessionFile = SESSIONS_DIR.resolve(sessionId + ".txt");
+        ReentrantLock lock = LOCKS.lockFor(sessionId);
+        lock.lock();
         try {
             Files.deleteIfExists(sessionFile);
             Logger.info("Session deleted: " + sessionId);
         } catch (IOException e) {
             Logger.error("Failed to delete session: " + sessionId, e);
+        } finally {
+            lock.unlock();
         }
     }
 
@@ -88,22 +98,35 @@ public final class SessionManager {
      * 만료된 세션들 정리
      */
     public void cleanupExpiredSessions() {
-        try {
-            Files.list(SESSIONS_DIR)
-                .filter(Files::isRegularFile)
+        try (Stream<Path> files = Files.list(SESSIONS_DIR)) {
+            files.filter(Files::isRegularFile)
                 .filter(path -> path.toString().endsWith(".txt"))
                 .forEach(path -> {
                     String sessionId = path.getFileName().toString().replace(".txt", "");
-                    Optional<Session> sessionOpt = loadSession(sessionId);
-                    if (sessionOpt.isPresent() && sessionOpt.get().isExpired()) {
-                        deleteSession(sessionId);
-                    }
+                    deleteIfExpired(sessionId);
                 });
         } catch (IOException e) {
             Logger.error("Failed to cleanup expired sessions", e);
         }
     }
 
+    /**
+     * 세션 키 락을 잡고 다시 읽어 여전히 만료 상태일 때만 삭제한다.
+     * 검사와 삭제 사이에 같은 ID 로 새 세션이 저장되어도 지우지 않는다.
+     */
+    private void deleteIfExpired(String sessionId) {
+        ReentrantLock lock = LOCKS.lockFor(sessionId);
+        lock.lock();
+        try {
+            Optional<Session> sessionOpt = loadSession(sessionId);
+            if (sessionOpt.isPresent() && sessionOpt.get().isExpired()) {
+                deleteSession(sessionId);
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
     /**
      * 세션 정보 로드
      */
@@ -148,10 +171,14 @@ public final class SessionManager {
         content.append("createdAt:").append(session.getCreatedAt().format(DATETIME_FORMAT)).append("\n");
         content.append("expiresAt:").append(session.getExpiresAt().format(DATETIME_FORMAT)).append("\n");
 
+        ReentrantLock lock = LOCKS.lockFor(session.getSessionId());
+        lock.lock();
         try {
-            Files.writeString(sessionFile, content.toString());
+            FileUtil.writeAtomically(sessionFile, content.toString());
         } catch (IOException e) {
             Logger.error("Failed to save session: " + session.getSessionId(), e);
+        } finally {
+            lock.unlock();
         }
     }
 }
\ No newline at end of file
@@ -0,0 +1,218 @@
+package server.service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.DirectoryStream;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.PosixFileAttributeView;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.HexFormat;
+
+import server.util.FileUtil;
+import server.util.Logger;
+
+/**
+ * 업로드된 이미지를 디스크에 저장하는 서비스.
+ * 파트 본문을 고정 크기 버퍼로 읽어 FileChannel 로 바로 쓰고, 쓰는 동안 SHA-256 을 계산한다.
+ * 파일 이름은 내용 해시이므로 같은 이미지를 여러 번 올려도 한 벌만 남는다.
+ * 확장자는 클라이언트가 보낸 파일명이 아니라 내용의 시그니처로 정한다.
+ */
+public final class UploadService {
+    private static final int CHUNK_BYTES = 64 * 1024;
+
+    private static final String TEMP_PREFIX = ".upload";
+    private static final String TEMP_SUFFIX = ".tmp";
+
+    private final Path dir;
+    private final Path tempDir;
+    private final String urlPrefix;
+
+    /**
+     * @param dir       저장 디렉터리
+     * @param tempDir   받는 중인 파일을 둘 디렉터리. 받는 도중의 파일이 보이지 않도록 정적 경로 밖이어야 한다
+     * @param urlPrefix 저장된 파일을 가리킬 URL 경로 접두사 (예: "/images/")
+     */
+    public UploadService(Path dir, Path tempDir, String urlPrefix) {
+        this.dir = dir.normalize();
+        this.tempDir = tempDir.normalize();
+        this.urlPrefix = urlPrefix;
+        // 예전처럼 저장 디렉터리에 남았거나, 받다가 서버가 멈춰 남은 임시 파일을 지운다.
+        deleteLeftovers(this.dir);
+        deleteLeftovers(this.tempDir);
+    }
+
+    /**
+     * 스트림을 끝까지 읽어 저장한다.
+     *
+     * @throws UploadException 크기 제한을 넘었거나 지원하지 않는 형식인 경우
+     */
+    public StoredUpload store(InputStream data, long maxBytes) throws IOException, UploadException {
+        Files.createDirectories(dir);
+        Files.createDirectories(tempDir);
+        Path temp = Files.createTempFile(tempDir, TEMP_PREFIX, TEMP_SUFFIX);
+        try {
+            MessageDigest digest = sha256();
+            ByteBuffer buffer = ByteBuffer.allocate(CHUNK_BYTES);
+            // 형식 판별용 앞부분. 첫 read 가 짧게 끝나도 모일 때까지 채운다.
+            byte[] head = new byte[16];
+            int headLength = 0;
+            long size = 0;
+            try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.WRITE)) {
+                int read;
+                while ((read = data.read(buffer.array(), 0, buffer.capacity())) != -1) {
+                    size += read;
+                    if (size > maxBytes) {
+                        throw new UploadException(413, "파일이 너무 큽니다. 최대 " + (maxBytes / 1024 / 1024) + "MB 까지 올릴 수 있습니다.");
+                    }
+                    if (headLength < head.length) {
+                        int copy = Math.min(read, head.length - headLength);
+                        System.arraycopy(buffer.array(), 0, head, headLength, copy);
+                        headLength += copy;
+                    }
+                    digest.update(buffer.array(), 0, read);
+                    buffer.limit(read);
+                    buffer.position(0);
+                    while (buffer.hasRemaining()) {
+                        channel.write(buffer);
+                    }
+                    buffer.clear();
+                }
+                channel.force(true);
+            }
+            // 임시 파일은 소유자 전용 권한으로 만들어지므로 정적 파일과 같은 권한으로 연다.
+            if (Files.getFileStore(temp).supportsFileAttributeView(PosixFileAttributeView.class)) {
+                Files.setPosixFilePermissions(temp, PosixFilePermissions.fromString("rw-r--r--"));
+            }
+            String extension = ImageType.extensionOf(Arrays.copyOf(head, headLength));
+            if (extension == null) {
+                throw new UploadException(415, "PNG, JPEG, GIF, WebP 이미지만 올릴 수 있습니다.");
+            }
+
+            String name = HexFormat.of().formatHex(digest.digest()) + "." + extension;
+            Path target = dir.resolve(name);
+            boolean deduplicated;
+            try {
+                Files.move(temp, target);
+                FileUtil.forceDirectory(dir);
+                deduplicated = false;
+            } catch (FileAlreadyExistsException e) {
+                deduplicated = true;
+            }
+            Logger.info((deduplicated ? "Upload deduplicated: " : "Upload stored: ") + name + " (" + size + " bytes)");
+            return new StoredUpload(urlPrefix + name, size, deduplicated);
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    private static void deleteLeftovers(Path directory) {
+        if (!Files.isDirectory(directory)) {
+            return;
+        }
+        try (DirectoryStream<Path> leftovers = Files.newDirectoryStream(directory, TEMP_PREFIX + "*" + TEMP_SUFFIX)) {
+            for (Path leftover : leftovers) {
+                Files.deleteIfExists(leftover);
+                Logger.info("Removed leftover upload: " + leftover);
+            }
+        } catch (IOException e) {
+            Logger.warn("Failed to clean up leftover uploads in " + directory + ": " + e.getMessage());
+        }
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 algorithm not available", e);
+        }
+    }
+
+    /**
+     * 파일 앞부분의 시그니처로 이미지 형식을 판별한다.
+     */
+    static final class ImageType {
+        private ImageType() {}
+
+        static String extensionOf(byte[] head) {
+            if (startsWith(head, 0x89, 'P', 'N', 'G', 0x0D, 0x0A, 0x1A, 0x0A)) {
+                return "png";
+            }
+            if (startsWith(head, 0xFF, 0xD8, 0xFF)) {
+                return "jpg";
+            }
+            if (startsWith(head, 'G', 'I', 'F', '8')) {
+                return "gif";
+            }
+            if (head.length >= 12 && startsWith(head, 'R', 'I', 'F', 'F')
+                    && head[8] == 'W' && head[9] == 'E' && head[10] == 'B' && head[11] == 'P') {
+                return "webp";
+            }
+            return null;
+        }
+
+        private static boolean startsWith(byte[] head, int... signature) {
+            if (head.length < signature.length) {
+                return false;
+            }
+            for (int i = 0; i < signature.length; i++) {
+                if ((head[i] & 0xFF) != signature[i]) {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+
+    /**
+     * 저장 결과
+     */
+    public static final class StoredUpload {
+        private final String path;
+        private final long size;
+        private final boolean deduplicated;
+
+        StoredUpload(String path, long size, boolean deduplicated) {
+            this.path = path;
+            this.size = size;
+            this.deduplicated = deduplicated;
+        }
+
+        /** 정적 경로 (예: /images/ab12...ef.png) */
+        public String getPath() {
+            return path;
+        }
+
+        public long getSize() {
+            return size;
+        }
+
+        /** 같은 내용의 파일이 이미 있어 새로 쓰지 않았는지 */
+        public boolean isDeduplicated() {
+            return deduplicated;
+        }
+    }
+
+    /**
+     * 업로드를 받아들일 수 없을 때 던지는 예외. 응답할 HTTP 상태 코드를 함께 담는다.
+     */
+    public static final class UploadException extends Exception {
+        private final int status;
+
+        public UploadException(int status, String message) {
+            super(message);
+            this.status = status;
+        }
+
+        public int getStatus() {
+            return status;
+        }
+    }
+}
@@ -3,15 +3,20 @@ import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
-import java.security.MessageDigest;
-import java.security.NoSuchAlgorithmException;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
-import java.util.Base64;
 import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.UnaryOperator;
+import java.util.stream.Stream;
 
+import server.config.ServerConfig;
 import server.model.User;
+import server.util.BloomFilter;
+import server.util.FileUtil;
 import server.util.Logger;
+import server.util.StripedLocks;
 
 /**
  * 파일 시스템 기반 사용자 저장소
@@ -20,20 +25,53 @@ import server.util.Logger;
 public final class UserRepository {
     private static final Path USERS_DIR = Paths.get("users");
     private static final DateTimeFormatter DATETIME_FORMAT = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
-    
+    /** 사용자 파일은 전역 디렉터리이므로 락도 모든 인스턴스가 공유한다. */
+    private static final StripedLocks LOCKS = new StripedLocks(ServerConfig.LOCK_STRIPES);
+
+    private final PasswordHasher passwordHasher;
+    private final LastLoginTracker lastLogins;
+    private volatile BloomFilter usernameFilter;
+    private final AtomicLong filterLookups = new AtomicLong();
+    private final AtomicLong filterDefiniteMisses = new AtomicLong();
+    private final AtomicLong filterFalsePositives = new AtomicLong();
+
     public UserRepository() {
+        this(new PasswordHasher());
+    }
+
+    public UserRepository(PasswordHasher passwordHasher) {
+        this.passwordHasher = passwordHasher;
+        this.lastLogins = new LastLoginTracker(this::writeLastLogin, ServerConfig.LAST_LOGIN_FLUSH_INTERVAL_MILLIS);
         try {
             Files.createDirectories(USERS_DIR);
         } catch (IOException e) {
             Logger.error("Failed to create users directory", e);
         }
+        this.usernameFilter = buildUsernameFilter(ServerConfig.USERNAME_FILTER_EXPECTED_USERS);
     }
 
     /**
      * 사용자 등록
      */
     public boolean registerUser(String username, String password) {
-        if (username == null || username.trim().isEmpty() || password == null || password.isEmpty()) {
+        if (password == null || password.isEmpty()) {
+            return false;
+        }
+        return registerHashedUser(username, hashPassword(password));
+    }
+
+    /**
+     * 새 솔트로 비밀번호를 해시한다. 해시 풀에서 부르고, 저장은 {@link #registerHashedUser} 로 따로 한다.
+     */
+    public String hashPassword(String password) {
+        return passwordHasher.hash(password);
+    }
+
+    /**
+     * 이미 해시한 비밀번호로 사용자를 등록한다.
+     */
+    public boolean registerHashedUser(String username, String passwordHash) {
+        if (username == null || username.trim().isEmpty() || passwordHash == null || passwordHash.isEmpty()) {
             return false;
         }
 
@@ -43,9 +81,17 @@ public final class UserRepository {
         }
 
         try {
-            String passwordHash = hashPassword(password);
             User user = new User(username, passwordHash);
-            saveUser(user);
+            ReentrantLock lock = LOCKS.lockFor(username);
+            lock.lock();
+            try {
+                if (!FileUtil.createAtomically(userFile, serialize(user))) {
+                    return false; // 동시에 같은 아이디로 가입한 요청이 먼저 끝났다
+                }
+            } finally {
+                lock.unlock();
+            }
+            addToUsernameFilter(username);
             Logger.info("User registered: " + username);
             return true;
         } catch (Exception e) {
@@ -55,7 +101,7 @@ public final class UserRepository {
     }
 
     /**
-     * 사용자 로그인 검증
+     * 사용자 로그인 검증. {@link #mightExist} 로 먼저 거른 뒤 부르며, 그 조회가 오탐이었으면 여기서 기록한다.
      */
     public boolean authenticateUser(String username, String password) {
         if (username == null || password == null) {
@@ -64,16 +110,27 @@ public final class UserRepository {
 
         Optional<User> userOpt = loadUser(username);
         if (userOpt.isEmpty()) {
+            if (usernameFilter.mightContain(username) && !hasUserFile(username)) {
+                filterFalsePositives.incrementAndGet();
+            }
             return false;
         }
 
         User user = userOpt.get();
-        String passwordHash = hashPassword(password);
-        
-        if (passwordHash.equals(user.getPasswordHash())) {
-            // 로그인 시간 업데이트
-            User updatedUser = user.withLastLogin(LocalDateTime.now());
-            saveUser(updatedUser);
+        if (passwordHasher.verify(password, user.getPasswordHash())) {
+            // 예전 방식이거나 비용이 낮은 해시는 평문을 알고 있는 지금 새로 만들어 둔다.
+            if (passwordHasher.needsRehash(user.getPasswordHash())) {
+                String upgraded = passwordHasher.hash(password);
+                try {
+                    updateUser(username, stored -> stored.withPasswordHash(upgraded));
+                    Logger.info("Password hash upgraded for user: " + username);
+                } catch (IOException e) {
+                    // 갱신에 실패해도 로그인은 성공시키고 다음 로그인 때 다시 시도한다.
+                    Logger.error("Failed to upgrade password hash: " + username, e);
+                }
+            }
+            // 로그인 시간은 메모리에만 기록하고 파일 반영은 주기적으로 모아서 한다.
+            lastLogins.stamp(user.getUsername(), LocalDateTime.now());
             Logger.info("User authenticated: " + username);
             return true;
         }
@@ -85,18 +142,111 @@ public final class UserRepository {
      * 사용자 존재 여부 확인
      */
     public boolean userExists(String username) {
+        if (!mightExist(username)) {
+            return false;
+        }
+        return recordLookup(hasUserFile(username));
+    }
+
+    /**
+     * 필터 통계를 세지 않고 사용자 파일이 있는지만 본다. 통계는 요청 입구의 확인({@link #userExists},
+     * {@link #mightExist})만 세야 필터의 실제 오탐률이 된다.
+     */
+    boolean hasUserFile(String username) {
+        return Files.exists(USERS_DIR.resolve(username + ".txt"));
+    }
+
+    /**
+     * 블룸 필터만 보고 사용자가 있을 수도 있는지 확인한다. 파일 I/O 는 하지 않는다.
+     * false 면 확실히 없는 사용자다.
+     */
+    public boolean mightExist(String username) {
         if (username == null || username.trim().isEmpty()) {
             return false;
         }
-        Path userFile = USERS_DIR.resolve(username + ".txt");
-        return Files.exists(userFile);
+        filterLookups.incrementAndGet();
+        if (!usernameFilter.mightContain(username)) {
+            filterDefiniteMisses.incrementAndGet();
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * 사용자명 블룸 필터 통계
+     */
+    public FilterStats usernameFilterStats() {
+        BloomFilter filter = usernameFilter;
+        return new FilterStats(filter.insertions(), filter.bitCount(), filter.hashCount(),
+                filterLookups.get(), filterDefiniteMisses.get(), filterFalsePositives.get(),
+                filter.expectedFalsePositiveRate());
     }
 
     /**
      * 사용자 정보 로드
+     * 아직 파일에 반영되지 않은 로그인 시각이 있으면 그 값을 덮어 돌려준다.
      */
     public Optional<User> loadUser(String username) {
-        if (username == null || username.trim().isEmpty()) {
+        Optional<User> stored = readUserFile(username);
+        if (stored.isEmpty()) {
+            return stored;
+        }
+        User user = stored.get();
+        LocalDateTime pending = lastLogins.pendingFor(user.getUsername());
+        if (pending != null && (user.getLastLoginAt() == null || pending.isAfter(user.getLastLoginAt()))) {
+            return Optional.of(user.withLastLogin(pending));
+        }
+        return stored;
+    }
+
+    /**
+     * 모아 둔 로그인 시각을 즉시 파일에 반영한다.
+     */
+    public void flushLastLogins() {
+        lastLogins.flush();
+    }
+
+    /**
+     * 주기적 기록을 멈추고 남은 로그인 시각을 모두 반영한다.
+     */
+    public void shutdown() {
+        lastLogins.shutdown();
+    }
+
+    private void writeLastLogin(String username, LocalDateTime lastLoginAt) throws IOException {
+        updateUser(username, user -> {
+            if (user.getLastLoginAt() != null && !lastLoginAt.isAfter(user.getLastLoginAt())) {
+                return user;
+            }
+            return user.withLastLogin(lastLoginAt);
+        });
+    }
+
+    /**
+     * 사용자 키 락을 잡은 채로 파일을 다시 읽고, 변경한 결과를 원자적으로 기록한다.
+     */
+    private void updateUser(String username, UnaryOperator<User> change) throws IOException {
+        ReentrantLock lock = LOCKS.lockFor(username);
+        lock.lock();
+        try {
+            Optional<User> stored = readUserFile(username);
+            if (stored.isEmpty()) {
+                return;
+            }
+            User updated = change.apply(stored.get());
+            if (updated != stored.get()) {
+                saveUser(updated);
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * 사용자 파일을 읽는다. 로그인, 로그인 시각 기록처럼 안에서 부르는 읽기이므로 필터 통계는 세지 않는다.
+     */
+    private Optional<User> readUserFile(String username) {
+        if (username == null || username.trim().isEmpty() || !usernameFilter.mightContain(username)) {
             return Optional.empty();
         }
 
@@ -135,9 +285,12 @@ public final class UserRepository {
     /**
      * 사용자 정보 저장
      */
-    private void saveUser(User user) {
+    private void saveUser(User user) throws IOException {
         Path userFile = USERS_DIR.resolve(user.getUsername() + ".txt");
-        
+        FileUtil.writeAtomically(userFile, serialize(user));
+    }
+
+    private String serialize(User user) {
         StringBuilder content = new StringBuilder();
         content.append("username:").append(user.getUsername()).append("\n");
         content.append("password:").append(user.getPasswordHash()).append("\n");
@@ -145,24 +298,113 @@ public final class UserRepository {
         content.append("lastLoginAt:").append(
             user.getLastLoginAt() != null ? user.getLastLoginAt().format(DATETIME_FORMAT) : "null"
         ).append("\n");
+        return content.toString();
+    }
 
-        try {
-            Files.writeString(userFile, content.toString());
+    /**
+     * 필터가 "있을 수도 있다"고 한 뒤 실제 파일 확인 결과를 기록한다.
+     */
+    private boolean recordLookup(boolean exists) {
+        if (!exists) {
+            filterFalsePositives.incrementAndGet();
+        }
+        return exists;
+    }
+
+    /**
+     * 가입한 사용자를 필터에 넣는다. 다시 만드는 동안 가입한 사용자가 새 필터에서 빠지지 않도록
+     * 넣기와 다시 만들기를 같은 잠금 안에서 한다. 파일을 먼저 만들고 부르므로, 다시 만들 때 목록에서 놓친
+     * 사용자는 잠금을 기다렸다가 새 필터에 들어간다.
+     */
+    private synchronized void addToUsernameFilter(String username) {
+        BloomFilter filter = usernameFilter;
+        filter.put(username);
+        if (filter.insertions() > filter.expectedInsertions()) {
+            // 예상 용량을 넘기면 오탐률이 급격히 오르므로 두 배 크기로 다시 만든다.
+            usernameFilter = buildUsernameFilter(filter.expectedInsertions() * 2);
+        }
+    }
+
+    /**
+     * users/ 디렉토리의 사용자 파일로 블룸 필터를 만든다.
+     */
+    private BloomFilter buildUsernameFilter(long minimumCapacity) {
+        BloomFilter filter;
+        try (Stream<Path> files = Files.list(USERS_DIR)) {
+            var usernames = files
+                    .filter(Files::isRegularFile)
+                    .map(path -> path.getFileName().toString())
+                    .filter(name -> name.endsWith(".txt"))
+                    .map(name -> name.substring(0, name.length() - 4))
+                    .toList();
+            filter = BloomFilter.create(Math.max(minimumCapacity, usernames.size() * 2L),
+                    ServerConfig.USERNAME_FILTER_FALSE_POSITIVE_RATE);
+            usernames.forEach(filter::put);
+            Logger.info("Username filter built: " + usernames.size() + " users, " + filter.bitCount() + " bits");
         } catch (IOException e) {
-            Logger.error("Failed to save user: " + user.getUsername(), e);
+            Logger.error("Failed to build username filter", e);
+            filter = BloomFilter.create(minimumCapacity, ServerConfig.USERNAME_FILTER_FALSE_POSITIVE_RATE);
         }
+        return filter;
     }
 
     /**
-     * 비밀번호 해시화
+     * 사용자명 블룸 필터 통계 스냅샷
      */
-    private String hashPassword(String password) {
-        try {
-            MessageDigest digest = MessageDigest.getInstance("SHA-256");
-            byte[] hash = digest.digest(password.getBytes());
-            return Base64.getEncoder().encodeToString(hash);
-        } catch (NoSuchAlgorithmException e) {
-            throw new RuntimeException("SHA-256 algorithm not available", e);
+    public static final class FilterStats {
+        private final long entries;
+        private final long bits;
+        private final int hashFunctions;
+        private final long lookups;
+        private final long definiteMisses;
+        private final long falsePositives;
+        private final double expectedFalsePositiveRate;
+
+        FilterStats(long entries, long bits, int hashFunctions, long lookups,
+                    long definiteMisses, long falsePositives, double expectedFalsePositiveRate) {
+            this.entries = entries;
+            this.bits = bits;
+            this.hashFunctions = hashFunctions;
+            this.lookups = lookups;
+            this.definiteMisses = definiteMisses;
+            this.falsePositives = falsePositives;
+            this.expectedFalsePositiveRate = expectedFalsePositiveRate;
+        }
+
+        public long getEntries() {
+            return entries;
+        }
+
+        public long getBits() {
+            return bits;
+        }
+
+        public int getHashFunctions() {
+            return hashFunctions;
+        }
+
+        public long getLookups() {
+            return lookups;
+        }
+
+        /** 필터만으로 I/O 없이 거절한 조회 수 */
+        public long getDefiniteMisses() {
+            return definiteMisses;
+        }
+
+        /** 필터는 통과했지만 실제로는 없던 조회 수 */
+        public long getFalsePositives() {
+            return falsePositives;
+        }
+
+        /** 없는 사용자 조회 중 필터가 잘못 통과시킨 비율 */
+        public double getObservedFalsePositiveRate() {
+            long negatives = definiteMisses + falsePositives;
+            return negatives == 0 ? 0.0 : (double) falsePositives / negatives;
+        }
+
+        public double getExpectedFalsePositiveRate() {
+            return expectedFalsePositiveRate;
         }
     }
 }
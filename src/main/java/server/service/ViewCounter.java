@@ -0,0 +1,260 @@
+package server.service;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Predicate;
+
+import server.util.FileUtil;
+import server.util.Logger;
+
+/**
+ * 게시글 조회수를 메모리에서 세고 주기적으로 파일에 한꺼번에 기록하는 카운터.
+ * 조회 한 번은 게시글별 {@link LongAdder} 를 올리기만 하므로 읽기 요청이 쓰기로 바뀌지 않고, 동시에 몰려도 경합이 적다.
+ * 기록 주기마다 그동안의 조회수를 시간 감쇠 점수에 더해 인기 게시글 상위 N 개를 다시 뽑아 둔다.
+ * 새로 생긴 카운터는 다음 기록 때 게시글이 남아 있는지 확인한다. 삭제와 겹친 조회가 {@link #remove} 뒤에 카운터를 다시 만들어도 그때 버린다.
+ */
+public final class ViewCounter {
+    private final Path file;
+    private final long intervalMillis;
+    /** 기록 주기 한 번마다 점수에 곱하는 값. 반감기 동안 점수가 절반이 된다 */
+    private final double decayPerTick;
+    private final int trendingSize;
+    private final Predicate<String> exists;
+    private final Map<String, Counter> counters = new ConcurrentHashMap<>();
+    private volatile List<Trending> trending = List.of();
+    /** 게시글이 지워져 파일에서도 빼야 하는지. 기록 스레드만 내린다. */
+    private volatile boolean removed;
+    private ScheduledExecutorService scheduler;
+
+    /**
+     * @param halfLifeMillis 인기 점수가 절반으로 줄어드는 시간
+     * @param exists 게시글이 아직 있는지 확인하는 함수
+     */
+    public ViewCounter(Path file, long intervalMillis, long halfLifeMillis, int trendingSize,
+                       Predicate<String> exists) {
+        this.file = file;
+        this.intervalMillis = intervalMillis;
+        this.decayPerTick = Math.pow(0.5, (double) intervalMillis / halfLifeMillis);
+        this.trendingSize = trendingSize;
+        this.exists = exists;
+        load();
+        rank();
+    }
+
+    /**
+     * 주기적인 기록을 시작한다.
+     */
+    public synchronized void start() {
+        if (scheduler != null) {
+            return;
+        }
+        scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "view-counter-checkpoint");
+            thread.setDaemon(true);
+            return thread;
+        });
+        scheduler.scheduleWithFixedDelay(this::checkpoint, intervalMillis, intervalMillis, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * 조회 한 번을 센다.
+     */
+    public void record(String id) {
+        Counter counter = counters.get(id);
+        if (counter == null) {
+            counter = counters.computeIfAbsent(id, key -> new Counter());
+        }
+        counter.pending.increment();
+    }
+
+    /**
+     * 누적 조회수. 아직 기록하지 않은 조회도 포함한다.
+     */
+    public long views(String id) {
+        Counter counter = counters.get(id);
+        return counter == null ? 0 : counter.total + counter.pending.sum();
+    }
+
+    /**
+     * 마지막 기록 시점의 인기 게시글을 점수가 높은 순으로 최대 k 개 돌려준다.
+     */
+    public List<Trending> trending(int k) {
+        List<Trending> snapshot = trending;
+        return snapshot.size() <= k ? snapshot : snapshot.subList(0, k);
+    }
+
+    /**
+     * 삭제된 게시글의 카운터를 버린다.
+     */
+    public void remove(String id) {
+        if (counters.remove(id) != null) {
+            removed = true;
+        }
+    }
+
+    /**
+     * 모인 조회수를 누적값과 인기 점수에 반영하고, 바뀐 것이 있으면 파일에 기록한다.
+     */
+    public synchronized void checkpoint() {
+        boolean changed = removed;
+        removed = false;
+        for (Map.Entry<String, Counter> entry : counters.entrySet()) {
+            Counter counter = entry.getValue();
+            if (counter.unchecked) {
+                if (!exists.test(entry.getKey())) {
+                    counters.remove(entry.getKey(), counter);
+                    changed = true;
+                    continue;
+                }
+                counter.unchecked = false;
+            }
+            long delta = counter.pending.sumThenReset();
+            if (delta > 0) {
+                counter.total += delta;
+                changed = true;
+            }
+            double score = counter.score * decayPerTick + delta;
+            counter.score = score < 0.001 ? 0 : score;
+        }
+        rank();
+        if (changed) {
+            save();
+        }
+    }
+
+    /**
+     * 점수가 높은 N 개를 크기 N 의 최소 힙으로 골라 순위를 바꿔 끼운다.
+     */
+    private void rank() {
+        PriorityQueue<Trending> top = new PriorityQueue<>(Comparator.comparingDouble(Trending::getScore));
+        for (Map.Entry<String, Counter> entry : counters.entrySet()) {
+            Counter counter = entry.getValue();
+            if (counter.score <= 0) {
+                continue;
+            }
+            top.add(new Trending(entry.getKey(), counter.score, counter.total));
+            if (top.size() > trendingSize) {
+                top.poll();
+            }
+        }
+        List<Trending> ranking = new ArrayList<>(top);
+        ranking.sort(Comparator.comparingDouble(Trending::getScore).reversed());
+        trending = List.copyOf(ranking);
+    }
+
+    /**
+     * 기록 스레드를 멈추고 남은 조회수를 마지막으로 기록한다.
+     */
+    public void shutdown() {
+        ScheduledExecutorService current;
+        synchronized (this) {
+            current = scheduler;
+            scheduler = null;
+        }
+        if (current != null) {
+            current.shutdown();
+            try {
+                current.awaitTermination(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        checkpoint();
+    }
+
+    /**
+     * "ID\t누적 조회수\t인기 점수" 한 줄씩 쓴다.
+     */
+    private void save() {
+        StringBuilder text = new StringBuilder(counters.size() * 48);
+        for (Map.Entry<String, Counter> entry : counters.entrySet()) {
+            String id = entry.getKey();
+            if (id.indexOf('\t') >= 0 || id.indexOf('\n') >= 0) {
+                continue;
+            }
+            text.append(id).append('\t').append(entry.getValue().total)
+                .append('\t').append(entry.getValue().score).append('\n');
+        }
+        try {
+            Files.createDirectories(file.toAbsolutePath().getParent());
+            FileUtil.writeAtomically(file, text.toString());
+        } catch (IOException e) {
+            Logger.error("Failed to save view counts", e);
+        }
+    }
+
+    private void load() {
+        if (!Files.isRegularFile(file)) {
+            return;
+        }
+        try {
+            for (String line : Files.readAllLines(file, StandardCharsets.UTF_8)) {
+                String[] fields = line.split("\t");
+                if (fields.length < 2) {
+                    continue;
+                }
+                try {
+                    Counter counter = new Counter();
+                    counter.total = Long.parseLong(fields[1]);
+                    counter.score = fields.length > 2 ? Double.parseDouble(fields[2]) : 0;
+                    counters.put(fields[0], counter);
+                } catch (NumberFormatException e) {
+                    // 깨진 줄은 건너뛴다.
+                }
+            }
+            Logger.info("View counts loaded: " + counters.size() + " posts");
+        } catch (IOException e) {
+            Logger.error("Failed to load view counts", e);
+        }
+    }
+
+    private static final class Counter {
+        /** 마지막 기록 이후의 조회수 */
+        private final LongAdder pending = new LongAdder();
+        /** 기록된 누적 조회수. 기록 스레드만 쓴다. */
+        private volatile long total;
+        private volatile double score;
+        /** 게시글이 남아 있는지 아직 확인하지 않았는지. 기록 스레드만 내린다. */
+        private volatile boolean unchecked = true;
+    }
+
+    /**
+     * 인기 게시글 한 건
+     */
+    public static final class Trending {
+        private final String id;
+        private final double score;
+        private final long views;
+
+        Trending(String id, double score, long views) {
+            this.id = id;
+            this.score = score;
+            this.views = views;
+        }
+
+        public String getId() {
+            return id;
+        }
+
+        /** 시간 감쇠를 적용한 최근 조회 점수 */
+        public double getScore() {
+            return score;
+        }
+
+        public long getViews() {
+            return views;
+        }
+    }
+}
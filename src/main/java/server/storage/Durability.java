@@ -0,0 +1,27 @@
+package server.storage;
+
+import java.util.Locale;
+
+/**
+ * 게시글 쓰기를 언제 완료로 볼지 정하는 내구성 단계.
+ */
+public enum Durability {
+    /** 저장소에 덧붙이면 바로 응답한다. fsync 는 다음 배치나 종료 때 일어난다. */
+    ASYNC,
+    /** 함께 모인 쓰기와 한 번의 fsync 를 공유한 뒤 응답한다. 잠깐 기다려 배치를 키운다. */
+    BATCHED,
+    /** 기다리지 않고 지금까지 모인 배치를 바로 fsync 한 뒤 응답한다. */
+    SYNC;
+
+    /**
+     * "async", "batched", "sync" 를 대소문자 구분 없이 읽는다. 비어 있으면 기본값을 쓴다.
+     *
+     * @throws IllegalArgumentException 알 수 없는 값인 경우
+     */
+    public static Durability parse(String value, Durability defaultValue) {
+        if (value == null || value.isBlank()) {
+            return defaultValue;
+        }
+        return valueOf(value.trim().toUpperCase(Locale.ROOT));
+    }
+}
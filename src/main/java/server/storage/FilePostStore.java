@@ -0,0 +1,133 @@
+package server.storage;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Optional;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+import server.config.ServerConfig;
+import server.util.FileUtil;
+import server.util.Logger;
+import server.util.StripedLocks;
+
+/**
+ * 게시글 하나를 .txt 파일 하나로 저장하는 기존 방식의 저장소.
+ */
+public final class FilePostStore implements PostStore {
+    private static final StripedLocks LOCKS = new StripedLocks(ServerConfig.LOCK_STRIPES);
+
+    private final Path dir;
+    /** 아직 fsync 하지 않은 게시글 ID */
+    private final Queue<String> unsynced = new ConcurrentLinkedQueue<>();
+
+    public FilePostStore(Path dir) {
+        this.dir = dir.normalize();
+        try {
+            Files.createDirectories(this.dir);
+        } catch (IOException e) {
+            Logger.error("Failed to create posts directory", e);
+        }
+    }
+
+    @Override
+    public boolean create(String id, byte[] content) throws IOException {
+        Path file = resolve(id);
+        ReentrantLock lock = LOCKS.lockFor(id);
+        lock.lock();
+        try {
+            // 같은 파일명이 이미 있으면 덮어쓰지 않고 실패로 처리한다.
+            if (!FileUtil.createAtomically(file, new String(content, StandardCharsets.UTF_8))) {
+                return false;
+            }
+            unsynced.add(id);
+            return true;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public Optional<byte[]> read(String id) throws IOException {
+        Path file = resolve(id);
+        if (!Files.isRegularFile(file)) {
+            return Optional.empty();
+        }
+        return Optional.of(Files.readAllBytes(file));
+    }
+
+    @Override
+    public boolean delete(String id) throws IOException {
+        Path file = resolve(id);
+        ReentrantLock lock = LOCKS.lockFor(id);
+        lock.lock();
+        try {
+            return Files.deleteIfExists(file);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public boolean exists(String id) {
+        return Files.isRegularFile(resolve(id));
+    }
+
+    @Override
+    public void scan(Consumer<StoredPost> consumer) throws IOException {
+        try (Stream<Path> files = Files.list(dir)) {
+            files.filter(Files::isRegularFile)
+                .filter(path -> path.toString().endsWith(".txt"))
+                .forEach(path -> {
+                    try {
+                        consumer.accept(new StoredPost(path.getFileName().toString(), Files.readAllBytes(path),
+                                Files.getLastModifiedTime(path).toMillis()));
+                    } catch (IOException e) {
+                        Logger.error("Failed to read post: " + path.getFileName(), e);
+                    }
+                });
+        }
+    }
+
+    /**
+     * 마지막 sync 이후 만든 파일과 디렉터리 항목을 fsync 한다.
+     */
+    @Override
+    public void sync() throws IOException {
+        boolean created = false;
+        String id;
+        while ((id = unsynced.poll()) != null) {
+            Path file = resolve(id);
+            if (Files.isRegularFile(file)) {
+                try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+                    channel.force(true);
+                }
+                created = true;
+            }
+        }
+        if (created) {
+            FileUtil.forceDirectory(dir);
+        }
+    }
+
+    @Override
+    public void close() {
+        // 파일별 저장은 열어 둔 자원이 없다.
+    }
+
+    private Path resolve(String id) {
+        Path file = dir.resolve(id).normalize();
+        if (!file.startsWith(dir) || file.equals(dir)) {
+            // 디렉터리 탈출 방지
+            throw new IllegalArgumentException("Invalid post id: " + id);
+        }
+        return file;
+    }
+}
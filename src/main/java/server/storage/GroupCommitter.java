@@ -0,0 +1,270 @@
+package server.storage;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import server.util.Logger;
+
+/**
+ * 게시글 쓰기를 대기열에 모아 전용 스레드 하나가 순서대로 저장하고, 배치마다 fsync 를 한 번만 하는 그룹 커밋 큐.
+ * 요청 스레드는 {@link #submit} 이 돌려준 future 로 자기 쓰기가 요청한 내구성 단계에 이르렀는지 기다린다.
+ * 대기열이 가득 차면 {@link OverloadedException} 으로 거절한다.
+ */
+public final class GroupCommitter implements Closeable {
+    /** 대기열이 비어 있을 때 깨어나 밀린 ASYNC 쓰기를 fsync 하는 간격 */
+    private static final long IDLE_POLL_MILLIS = 100;
+
+    private final PostStore store;
+    private final BlockingQueue<Write> queue;
+    private final int maxBatch;
+    private final long lingerNanos;
+    private final Thread writer;
+    private final AtomicLong writes = new AtomicLong();
+    private final AtomicLong batches = new AtomicLong();
+    private final AtomicLong syncs = new AtomicLong();
+    private volatile boolean running = true;
+    /** fsync 없이 덧붙이기만 한 쓰기가 남아 있는지. 작성 스레드만 읽고 쓴다. */
+    private boolean dirty;
+
+    public GroupCommitter(PostStore store, int queueCapacity, int maxBatch, long lingerMillis) {
+        this.store = store;
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+        this.maxBatch = Math.max(1, maxBatch);
+        this.lingerNanos = TimeUnit.MILLISECONDS.toNanos(lingerMillis);
+        this.writer = new Thread(this::runLoop, "post-group-commit");
+        writer.setDaemon(true);
+        writer.start();
+    }
+
+    /**
+     * 쓰기를 대기열에 넣는다.
+     * future 는 ASYNC 면 저장소에 덧붙인 뒤, 그 외에는 배치의 fsync 가 끝난 뒤 완료된다.
+     * 값은 새로 저장했으면 true, 같은 ID 가 이미 있으면 false 이다.
+     */
+    public CompletableFuture<Boolean> submit(String id, byte[] content, Durability durability)
+            throws OverloadedException {
+        Operation operation = Operation.create(id, content);
+        submitAll(List.of(operation), durability);
+        return operation.future();
+    }
+
+    /**
+     * 여러 생성/삭제를 대기열의 한 칸으로 넣는다. 한 배치 안에서 순서대로 적용되고 fsync 한 번을 함께 기다린다.
+     * 각 작업의 결과는 {@link Operation#future()} 로 받는다. 값은 적용되었으면 true, 같은 ID 가 이미 있거나(생성)
+     * 없으면(삭제) false 이다.
+     */
+    public void submitAll(List<Operation> operations, Durability durability) throws OverloadedException {
+        if (!running) {
+            throw new OverloadedException("Post writer is stopped");
+        }
+        if (!queue.offer(new Write(operations, durability))) {
+            throw new OverloadedException("Post write queue is full");
+        }
+    }
+
+    public long writes() {
+        return writes.get();
+    }
+
+    public long batches() {
+        return batches.get();
+    }
+
+    public long syncs() {
+        return syncs.get();
+    }
+
+    /**
+     * 남은 쓰기를 모두 저장하고 fsync 한 뒤 작성 스레드를 멈춘다.
+     */
+    @Override
+    public void close() {
+        running = false;
+        try {
+            writer.join(TimeUnit.SECONDS.toMillis(10));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        Logger.info("Post group commit stopped: " + writes.get() + " writes in "
+                + batches.get() + " batches, " + syncs.get() + " fsyncs");
+    }
+
+    private void runLoop() {
+        List<Write> batch = new ArrayList<>(maxBatch);
+        while (running || !queue.isEmpty()) {
+            Write first;
+            try {
+                first = queue.poll(IDLE_POLL_MILLIS, TimeUnit.MILLISECONDS);
+            } catch (InterruptedException e) {
+                continue;
+            }
+            if (first == null) {
+                syncIfDirty();
+                continue;
+            }
+            batch.add(first);
+            queue.drainTo(batch, maxBatch - batch.size());
+            linger(batch);
+            commit(batch);
+            batch.clear();
+        }
+        syncIfDirty();
+    }
+
+    /**
+     * 배치가 전부 BATCHED 면 잠깐 더 기다려 뒤따라오는 쓰기를 같은 fsync 에 태운다.
+     * SYNC 가 섞이거나 ASYNC 뿐이면 기다리지 않는다.
+     */
+    private void linger(List<Write> batch) {
+        if (lingerNanos <= 0 || !allBatched(batch)) {
+            return;
+        }
+        long deadline = System.nanoTime() + lingerNanos;
+        while (batch.size() < maxBatch && running) {
+            long remaining = deadline - System.nanoTime();
+            if (remaining <= 0) {
+                return;
+            }
+            Write next;
+            try {
+                next = queue.poll(remaining, TimeUnit.NANOSECONDS);
+            } catch (InterruptedException e) {
+                return;
+            }
+            if (next == null) {
+                return;
+            }
+            batch.add(next);
+            queue.drainTo(batch, maxBatch - batch.size());
+            if (!allBatched(batch)) {
+                return;
+            }
+        }
+    }
+
+    private void commit(List<Write> batch) {
+        List<Operation> waiting = new ArrayList<>();
+        int operations = 0;
+        for (Write write : batch) {
+            for (Operation operation : write.operations) {
+                operations++;
+                try {
+                    boolean applied = operation.content != null
+                            ? store.create(operation.id, operation.content)
+                            : store.delete(operation.id);
+                    if (applied) {
+                        dirty = true;
+                    }
+                    if (!applied || write.durability == Durability.ASYNC) {
+                        operation.future.complete(applied);
+                    } else {
+                        waiting.add(operation);
+                    }
+                } catch (Exception e) {
+                    operation.future.completeExceptionally(e);
+                }
+            }
+        }
+        writes.addAndGet(operations);
+        batches.incrementAndGet();
+        if (waiting.isEmpty()) {
+            return;
+        }
+        try {
+            store.sync();
+            syncs.incrementAndGet();
+            dirty = false;
+            for (Operation operation : waiting) {
+                operation.future.complete(true);
+            }
+        } catch (IOException e) {
+            Logger.error("Post group commit fsync failed", e);
+            for (Operation operation : waiting) {
+                operation.future.completeExceptionally(e);
+            }
+        }
+    }
+
+    private void syncIfDirty() {
+        if (!dirty) {
+            return;
+        }
+        try {
+            store.sync();
+            syncs.incrementAndGet();
+            dirty = false;
+        } catch (IOException e) {
+            Logger.error("Post background fsync failed", e);
+        }
+    }
+
+    private static boolean allBatched(List<Write> batch) {
+        for (Write write : batch) {
+            if (write.durability != Durability.BATCHED) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static final class Write {
+        private final List<Operation> operations;
+        private final Durability durability;
+
+        private Write(List<Operation> operations, Durability durability) {
+            this.operations = operations;
+            this.durability = durability;
+        }
+    }
+
+    /**
+     * 대기열에 넣을 게시글 생성 또는 삭제 하나
+     */
+    public static final class Operation {
+        private final String id;
+        /** 삭제면 null */
+        private final byte[] content;
+        private final CompletableFuture<Boolean> future = new CompletableFuture<>();
+
+        private Operation(String id, byte[] content) {
+            this.id = id;
+            this.content = content;
+        }
+
+        public static Operation create(String id, byte[] content) {
+            return new Operation(id, content);
+        }
+
+        public static Operation delete(String id) {
+            return new Operation(id, null);
+        }
+
+        public String id() {
+            return id;
+        }
+
+        public boolean isDelete() {
+            return content == null;
+        }
+
+        public CompletableFuture<Boolean> future() {
+            return future;
+        }
+    }
+
+    /**
+     * 쓰기 대기열이 요청을 받을 수 없을 때 던지는 예외.
+     */
+    public static final class OverloadedException extends Exception {
+        public OverloadedException(String message) {
+            super(message);
+        }
+    }
+}
@@ -0,0 +1,46 @@
+package server.storage;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.Optional;
+import java.util.function.Consumer;
+
+/**
+ * 게시글 원문을 ID 단위로 저장하는 저장소 인터페이스.
+ * PostService 는 이 인터페이스만 보고 생성/조회/삭제를 하므로 저장 방식(파일별, 세그먼트)을 바꿀 수 있다.
+ */
+public interface PostStore extends Closeable {
+
+    /**
+     * 같은 ID 가 없을 때만 저장한다.
+     *
+     * @return 새로 저장했으면 true, 이미 있으면 false
+     */
+    boolean create(String id, byte[] content) throws IOException;
+
+    /**
+     * 저장된 원문을 읽는다.
+     */
+    Optional<byte[]> read(String id) throws IOException;
+
+    /**
+     * @return 삭제했으면 true, 없던 ID 면 false
+     */
+    boolean delete(String id) throws IOException;
+
+    boolean exists(String id);
+
+    /**
+     * 저장된 모든 게시글을 한 번씩 넘겨준다. 시작 시 색인을 만들 때 쓴다.
+     */
+    void scan(Consumer<StoredPost> consumer) throws IOException;
+
+    /**
+     * 지금까지 저장한 내용을 디스크에 강제로 기록(fsync)한다.
+     * 여러 쓰기를 모아 한 번만 호출하는 그룹 커밋에서 쓴다.
+     */
+    void sync() throws IOException;
+
+    @Override
+    void close() throws IOException;
+}
@@ -0,0 +1,549 @@
+package server.storage;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.zip.CRC32;
+
+import server.util.Logger;
+
+/**
+ * 여러 게시글을 큰 세그먼트 파일에 이어 붙여 저장하는 저장소.
+ * <p>
+ * 레코드 형식: magic(4) | type(1) | storedAt(8) | idLength(4) | dataLength(4) | id | data | crc32(4)
+ * <ul>
+ *   <li>쓰기는 활성 세그먼트 끝에 덧붙이기만 하고, 크기가 한도를 넘으면 새 세그먼트로 넘어간다.</li>
+ *   <li>삭제는 tombstone 레코드를 덧붙이는 것으로 처리한다.</li>
+ *   <li>ID 별 위치는 메모리 오프셋 인덱스에 두고, 시작 시 세그먼트를 순서대로 다시 읽어 복구한다.
+ *       봉인된 세그먼트의 손상된 레코드는 건너뛰고 다음 레코드부터 다시 읽는다.</li>
+ *   <li>읽기는 세그먼트를 메모리 매핑해 복사 없이 잘라 낸다.</li>
+ *   <li>백그라운드 압축이 쓰레기 비율이 높은 세그먼트의 살아 있는 레코드만 옮기고 파일을 지운다.</li>
+ * </ul>
+ */
+public final class SegmentPostStore implements PostStore {
+    private static final int MAGIC = 0x50535431; // "PST1"
+    private static final byte TYPE_PUT = 1;
+    private static final byte TYPE_DELETE = 2;
+    private static final int HEADER_BYTES = 4 + 1 + 8 + 4 + 4;
+    private static final int TRAILER_BYTES = 4;
+    private static final String SEGMENT_PREFIX = "segment-";
+    private static final String SEGMENT_SUFFIX = ".log";
+
+    private final Path dir;
+    private final long maxSegmentBytes;
+    private final double compactGarbageRatio;
+    private final Map<String, Location> index = new ConcurrentHashMap<>();
+    private final ConcurrentSkipListMap<Integer, Segment> segments = new ConcurrentSkipListMap<>();
+    /** 덧붙이기/세그먼트 교체/압축은 이 락 하나로 순서를 맞춘다. 읽기는 락을 잡지 않는다. */
+    private final ReentrantLock writeLock = new ReentrantLock();
+    private final ScheduledExecutorService compactor;
+    private volatile Segment active;
+
+    public SegmentPostStore(Path dir, long maxSegmentBytes, double compactGarbageRatio,
+                            long compactIntervalMillis) throws IOException {
+        if (maxSegmentBytes > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Segment size must fit in a single mapping");
+        }
+        this.dir = dir.normalize();
+        this.maxSegmentBytes = maxSegmentBytes;
+        this.compactGarbageRatio = compactGarbageRatio;
+        Files.createDirectories(this.dir);
+        recover();
+        this.compactor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "segment-compactor");
+            thread.setDaemon(true);
+            return thread;
+        });
+        compactor.scheduleWithFixedDelay(this::compactQuietly,
+                compactIntervalMillis, compactIntervalMillis, TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public boolean create(String id, byte[] content) throws IOException {
+        return put(id, content, System.currentTimeMillis());
+    }
+
+    /**
+     * 저장 시각을 지정해 저장한다. 기존 파일을 옮겨 올 때 원래 수정 시각을 유지하는 데 쓴다.
+     */
+    public boolean put(String id, byte[] content, long storedAtMillis) throws IOException {
+        writeLock.lock();
+        try {
+            if (index.containsKey(id)) {
+                return false;
+            }
+            Location location = append(TYPE_PUT, id, content, storedAtMillis);
+            index.put(id, location);
+            location.segment.liveBytes.addAndGet(location.recordLength);
+            return true;
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    @Override
+    public Optional<byte[]> read(String id) throws IOException {
+        ByteBuffer slice = readBuffer(id);
+        if (slice == null) {
+            return Optional.empty();
+        }
+        byte[] bytes = new byte[slice.remaining()];
+        slice.get(bytes);
+        return Optional.of(bytes);
+    }
+
+    /**
+     * 매핑된 세그먼트에서 본문 영역만 잘라 읽기 전용 버퍼로 돌려준다. 없으면 null.
+     */
+    public ByteBuffer readBuffer(String id) throws IOException {
+        // 압축이 레코드를 옮기고 이전 세그먼트를 지웠다면 인덱스를 다시 보고 재시도한다.
+        for (int attempt = 0; attempt < 3; attempt++) {
+            Location location = index.get(id);
+            if (location == null) {
+                return null;
+            }
+            if (segments.get(location.segment.number) == location.segment) {
+                return location.segment.slice(location.dataOffset, location.dataLength).asReadOnlyBuffer();
+            }
+        }
+        throw new IOException("Post moved repeatedly while reading: " + id);
+    }
+
+    @Override
+    public boolean delete(String id) throws IOException {
+        writeLock.lock();
+        try {
+            Location previous = index.get(id);
+            if (previous == null) {
+                return false;
+            }
+            append(TYPE_DELETE, id, new byte[0], System.currentTimeMillis());
+            index.remove(id);
+            previous.segment.liveBytes.addAndGet(-previous.recordLength);
+            previous.segment.deadPutIds.add(id);
+            return true;
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    @Override
+    public boolean exists(String id) {
+        return index.containsKey(id);
+    }
+
+    public int size() {
+        return index.size();
+    }
+
+    @Override
+    public void scan(Consumer<StoredPost> consumer) throws IOException {
+        for (Map.Entry<String, Location> entry : index.entrySet()) {
+            ByteBuffer slice = readBuffer(entry.getKey());
+            if (slice == null) {
+                continue;
+            }
+            byte[] bytes = new byte[slice.remaining()];
+            slice.get(bytes);
+            consumer.accept(new StoredPost(entry.getKey(), bytes, entry.getValue().storedAtMillis));
+        }
+    }
+
+    /**
+     * 활성 세그먼트를 fsync 한다. 봉인된 세그먼트는 교체될 때 이미 기록되었다.
+     * 락 없이 호출하므로 fsync 하는 동안에도 다른 쓰기가 이어서 덧붙을 수 있다.
+     */
+    @Override
+    public void sync() throws IOException {
+        Segment current = active;
+        try {
+            current.channel.force(false);
+        } catch (ClosedChannelException e) {
+            // 그 사이 세그먼트가 교체되고 압축까지 끝났다면 교체 시점에 이미 기록되었다.
+            if (segments.get(current.number) == current) {
+                throw e;
+            }
+        }
+    }
+
+    /**
+     * 쓰레기 비율이 기준을 넘은 봉인된 세그먼트를 압축한다.
+     *
+     * @return 압축한 세그먼트 수
+     */
+    public int compact() throws IOException {
+        int compacted = 0;
+        for (Segment segment : new ArrayList<>(segments.values())) {
+            if (segment == active || segment.totalBytes == 0) {
+                continue;
+            }
+            double garbage = 1.0 - (double) segment.liveBytes.get() / segment.totalBytes;
+            if (garbage >= compactGarbageRatio) {
+                compactSegment(segment);
+                compacted++;
+            }
+        }
+        return compacted;
+    }
+
+    @Override
+    public void close() throws IOException {
+        compactor.shutdown();
+        try {
+            compactor.awaitTermination(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        writeLock.lock();
+        try {
+            if (active != null) {
+                active.channel.force(false);
+            }
+            for (Segment segment : segments.values()) {
+                segment.channel.close();
+            }
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    private void compactQuietly() {
+        try {
+            int compacted = compact();
+            if (compacted > 0) {
+                Logger.info("Compacted post segments: " + compacted);
+            }
+        } catch (Exception e) {
+            Logger.error("Post segment compaction failed", e);
+        }
+    }
+
+    /**
+     * 세그먼트의 살아 있는 레코드를 활성 세그먼트로 옮긴 뒤 파일을 지운다.
+     * tombstone 은 더 오래된 세그먼트에 지워진 원본 PUT 이 아직 남아 있을 때만 옮기고, 옮긴 것은 살아 있는 것으로 센다.
+     */
+    private void compactSegment(Segment segment) throws IOException {
+        writeLock.lock();
+        try {
+            Map<Integer, Segment> older = segments.headMap(segment.number);
+            MappedByteBuffer mapped = segment.map();
+            long offset = 0;
+            long end = segment.totalBytes;
+            while (offset < end) {
+                Record record = Record.read(mapped, offset, end);
+                if (record == null) {
+                    // 복구할 때 건너뛴 손상 구간이다. 뒤의 레코드도 옮겨야 하므로 같은 방법으로 다시 맞춘다.
+                    offset = resync(mapped, offset + 1, end);
+                    continue;
+                }
+                if (record.type == TYPE_PUT) {
+                    Location current = index.get(record.id);
+                    if (current != null && current.segment == segment && current.recordOffset == offset) {
+                        byte[] data = new byte[record.dataLength];
+                        mapped.get((int) record.dataOffset, data);
+                        Location moved = append(TYPE_PUT, record.id, data, record.storedAtMillis);
+                        index.put(record.id, moved);
+                        moved.segment.liveBytes.addAndGet(moved.recordLength);
+                    }
+                } else if (record.type == TYPE_DELETE && !index.containsKey(record.id)
+                        && shadowsOlderPut(older, record.id)) {
+                    Location carried = append(TYPE_DELETE, record.id, new byte[0], record.storedAtMillis);
+                    carried.segment.liveBytes.addAndGet(carried.recordLength);
+                }
+                offset += record.length;
+            }
+            // 옮긴 레코드가 디스크에 남은 뒤에야 원본 세그먼트를 지운다.
+            active.channel.force(false);
+            segments.remove(segment.number);
+            segment.channel.close();
+            Files.deleteIfExists(segment.path);
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    private static boolean shadowsOlderPut(Map<Integer, Segment> older, String id) {
+        for (Segment segment : older.values()) {
+            if (segment.deadPutIds.contains(id)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private Location append(byte type, String id, byte[] data, long storedAtMillis) throws IOException {
+        byte[] idBytes = id.getBytes(StandardCharsets.UTF_8);
+        int recordLength = HEADER_BYTES + idBytes.length + data.length + TRAILER_BYTES;
+        if (active.size > 0 && active.size + recordLength > maxSegmentBytes) {
+            rollSegment();
+        }
+        ByteBuffer buffer = ByteBuffer.allocate(recordLength);
+        buffer.putInt(MAGIC)
+              .put(type)
+              .putLong(storedAtMillis)
+              .putInt(idBytes.length)
+              .putInt(data.length)
+              .put(idBytes)
+              .put(data);
+        CRC32 crc = new CRC32();
+        crc.update(buffer.array(), 4, recordLength - 4 - TRAILER_BYTES);
+        buffer.putInt((int) crc.getValue());
+        buffer.flip();
+
+        long recordOffset = active.size;
+        long position = recordOffset;
+        while (buffer.hasRemaining()) {
+            position += active.channel.write(buffer, position);
+        }
+        active.size = position;
+        active.totalBytes = position;
+        long dataOffset = recordOffset + HEADER_BYTES + idBytes.length;
+        return new Location(active, recordOffset, recordLength, dataOffset, data.length, storedAtMillis);
+    }
+
+    private void rollSegment() throws IOException {
+        active.channel.force(false);
+        int next = active.number + 1;
+        active = openSegment(next);
+        segments.put(next, active);
+    }
+
+    /**
+     * 세그먼트 파일을 번호 순으로 다시 읽어 오프셋 인덱스를 만든다.
+     * 마지막 세그먼트 끝의 잘린 레코드(쓰는 도중 종료된 경우)는 잘라 낸다. 봉인된 세그먼트는 자르지 않고
+     * 손상된 구간만 건너뛰며, 그 구간은 쓰레기로 남아 다음 압축 때 사라진다.
+     */
+    private void recover() throws IOException {
+        List<Integer> numbers = new ArrayList<>();
+        try (Stream<Path> files = Files.list(dir)) {
+            files.map(path -> path.getFileName().toString())
+                .filter(name -> name.startsWith(SEGMENT_PREFIX) && name.endsWith(SEGMENT_SUFFIX))
+                .forEach(name -> numbers.add(Integer.parseInt(
+                        name.substring(SEGMENT_PREFIX.length(), name.length() - SEGMENT_SUFFIX.length()))));
+        }
+        numbers.sort(null);
+        for (int i = 0; i < numbers.size(); i++) {
+            Segment segment = openSegment(numbers.get(i));
+            segments.put(segment.number, segment);
+            long valid = replay(segment, i == numbers.size() - 1);
+            if (valid < segment.size) {
+                Logger.warn("Truncating damaged tail of " + segment.path.getFileName()
+                        + " at " + valid + " of " + segment.size + " bytes");
+                segment.channel.truncate(valid);
+                segment.mapped = null;
+                segment.size = valid;
+                segment.totalBytes = valid;
+            }
+        }
+        if (segments.isEmpty()) {
+            Segment first = openSegment(1);
+            segments.put(1, first);
+        }
+        active = segments.lastEntry().getValue();
+        Logger.info("Post segments recovered: " + segments.size() + " segments, " + index.size() + " posts");
+    }
+
+    /**
+     * @param last 마지막(활성이 될) 세그먼트인지. 마지막이면 첫 손상 위치를 돌려주고, 아니면 끝까지 읽는다.
+     * @return 온전한 것으로 볼 길이
+     */
+    private long replay(Segment segment, boolean last) throws IOException {
+        if (segment.size == 0) {
+            return 0;
+        }
+        MappedByteBuffer mapped = segment.map();
+        long offset = 0;
+        while (offset < segment.size) {
+            Record record = Record.read(mapped, offset, segment.size);
+            if (record == null) {
+                if (last) {
+                    return offset;
+                }
+                long next = resync(mapped, offset + 1, segment.size);
+                Logger.warn("Skipping damaged record in " + segment.path.getFileName()
+                        + " at " + offset + " (" + (next - offset) + " bytes)");
+                offset = next;
+                continue;
+            }
+            Location previous = index.remove(record.id);
+            if (previous != null) {
+                previous.segment.liveBytes.addAndGet(-previous.recordLength);
+                previous.segment.deadPutIds.add(record.id);
+            }
+            if (record.type == TYPE_PUT) {
+                Location location = new Location(segment, offset, record.length,
+                        record.dataOffset, record.dataLength, record.storedAtMillis);
+                index.put(record.id, location);
+                segment.liveBytes.addAndGet(record.length);
+            }
+            offset += record.length;
+        }
+        return offset;
+    }
+
+    /**
+     * from 부터 온전한 레코드가 시작하는 다음 위치를 찾는다. 없으면 end.
+     */
+    private static long resync(ByteBuffer buffer, long from, long end) {
+        for (long offset = from; offset + HEADER_BYTES <= end; offset++) {
+            if (buffer.getInt((int) offset) == MAGIC && Record.read(buffer, offset, end) != null) {
+                return offset;
+            }
+        }
+        return end;
+    }
+
+    private Segment openSegment(int number) throws IOException {
+        Path path = dir.resolve(String.format("%s%06d%s", SEGMENT_PREFIX, number, SEGMENT_SUFFIX));
+        FileChannel channel = FileChannel.open(path,
+                StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        return new Segment(number, path, channel, channel.size());
+    }
+
+    /**
+     * 세그먼트 파일 하나
+     */
+    private static final class Segment {
+        private final int number;
+        private final Path path;
+        private final FileChannel channel;
+        private final AtomicLong liveBytes = new AtomicLong();
+        /** 이 세그먼트에 남아 있지만 지워졌거나 덮어쓴 PUT 의 ID. writeLock 안(또는 복구 중)에서만 쓴다. */
+        private final Set<String> deadPutIds = new HashSet<>();
+        private volatile long size;
+        private volatile long totalBytes;
+        private volatile MappedByteBuffer mapped;
+
+        Segment(int number, Path path, FileChannel channel, long size) {
+            this.number = number;
+            this.path = path;
+            this.channel = channel;
+            this.size = size;
+            this.totalBytes = size;
+        }
+
+        /**
+         * 현재 파일 크기만큼 매핑한다. 활성 세그먼트가 자라서 범위를 벗어나면 다시 매핑한다.
+         */
+        MappedByteBuffer map() throws IOException {
+            MappedByteBuffer current = mapped;
+            long currentSize = size;
+            if (current != null && current.capacity() >= currentSize) {
+                return current;
+            }
+            synchronized (this) {
+                current = mapped;
+                if (current == null || current.capacity() < size) {
+                    current = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+                    mapped = current;
+                }
+                return current;
+            }
+        }
+
+        ByteBuffer slice(long offset, int length) throws IOException {
+            MappedByteBuffer current = mapped;
+            if (current == null || current.capacity() < offset + length) {
+                current = map();
+            }
+            return current.slice((int) offset, length);
+        }
+    }
+
+    /**
+     * 인덱스가 가리키는 레코드 위치
+     */
+    private static final class Location {
+        private final Segment segment;
+        private final long recordOffset;
+        private final int recordLength;
+        private final long dataOffset;
+        private final int dataLength;
+        private final long storedAtMillis;
+
+        Location(Segment segment, long recordOffset, int recordLength,
+                 long dataOffset, int dataLength, long storedAtMillis) {
+            this.segment = segment;
+            this.recordOffset = recordOffset;
+            this.recordLength = recordLength;
+            this.dataOffset = dataOffset;
+            this.dataLength = dataLength;
+            this.storedAtMillis = storedAtMillis;
+        }
+    }
+
+    /**
+     * 세그먼트에서 읽어 낸 레코드 머리 정보
+     */
+    private static final class Record {
+        private final byte type;
+        private final String id;
+        private final long storedAtMillis;
+        private final long dataOffset;
+        private final int dataLength;
+        private final int length;
+
+        private Record(byte type, String id, long storedAtMillis, long dataOffset, int dataLength, int length) {
+            this.type = type;
+            this.id = id;
+            this.storedAtMillis = storedAtMillis;
+            this.dataOffset = dataOffset;
+            this.dataLength = dataLength;
+            this.length = length;
+        }
+
+        /**
+         * offset 위치의 레코드를 검증하며 읽는다. 잘렸거나 손상되었으면 null.
+         */
+        static Record read(ByteBuffer buffer, long offset, long end) {
+            if (offset + HEADER_BYTES > end) {
+                return null;
+            }
+            int position = (int) offset;
+            if (buffer.getInt(position) != MAGIC) {
+                return null;
+            }
+            byte type = buffer.get(position + 4);
+            long storedAt = buffer.getLong(position + 5);
+            int idLength = buffer.getInt(position + 13);
+            int dataLength = buffer.getInt(position + 17);
+            if ((type != TYPE_PUT && type != TYPE_DELETE) || idLength < 0 || dataLength < 0) {
+                return null;
+            }
+            long length = (long) HEADER_BYTES + idLength + dataLength + TRAILER_BYTES;
+            if (offset + length > end) {
+                return null;
+            }
+            byte[] covered = new byte[(int) length - 4 - TRAILER_BYTES];
+            buffer.get(position + 4, covered);
+            CRC32 crc = new CRC32();
+            crc.update(covered);
+            if ((int) crc.getValue() != buffer.getInt(position + (int) length - TRAILER_BYTES)) {
+                return null;
+            }
+            String id = new String(covered, HEADER_BYTES - 4, idLength, StandardCharsets.UTF_8);
+            return new Record(type, id, storedAt, offset + HEADER_BYTES + idLength, dataLength, (int) length);
+        }
+    }
+}
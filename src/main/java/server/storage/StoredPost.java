@@ -0,0 +1,29 @@
+package server.storage;
+
+/**
+ * 저장소에서 꺼낸 게시글 원문 한 건
+ */
+public final class StoredPost {
+    private final String id;
+    private final byte[] content;
+    private final long storedAtMillis;
+
+    public StoredPost(String id, byte[] content, long storedAtMillis) {
+        this.id = id;
+        this.content = content;
+        this.storedAtMillis = storedAtMillis;
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public byte[] getContent() {
+        return content;
+    }
+
+    /** 저장 시각(epoch 밀리초). 머리말에 작성일이 없을 때 대신 쓴다. */
+    public long getStoredAtMillis() {
+        return storedAtMillis;
+    }
+}
@@ -0,0 +1,377 @@
+package server.util;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.util.Arrays;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * 요청마다 한 줄씩 JSON 으로 남기는 접근 로그.
+ * <pre>
+ * {"time":1760860641657,"remote":"127.0.0.1","method":"GET","target":"/posts/list","status":200,"bytes":512,"durationMicros":84,"connectionRequests":3}
+ * </pre>
+ * 워커는 항목을 링 버퍼에 넣기만 하고, 전용 스레드 하나가 모아서 JSON 으로 만들어 버퍼를 거쳐 파일에 쓴다.
+ * 버퍼가 가득 차면 요청을 붙잡지 않도록 새 항목을 버리고 센다.
+ * <p>
+ * 파일이 maxBytes 를 넘거나 rotateIntervalMillis 가 지나면 {@code access-yyyyMMdd-HHmmss.log} 로 이름을 바꾸고 새 파일을 연다.
+ * 기간은 마지막으로 바꾼 시각부터 재고, 재시작해서 기존 파일에 이어 쓸 때는 그 파일의 첫 항목 시각부터 잰다.
+ * gzip 을 켜면 이름을 바꾼 파일은 별도 스레드에서 압축한다.
+ * 디스크 오류로 쓰기가 실패하면 기록을 멈추지 않고 파일을 다시 열어 이어 쓴다.
+ */
+public final class AccessLog {
+    private static final DateTimeFormatter ROTATED_SUFFIX =
+            DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss").withZone(ZoneId.systemDefault());
+    private static final int WRITE_BUFFER_BYTES = 64 * 1024;
+    private static final long IDLE_PARK_NANOS = TimeUnit.MILLISECONDS.toNanos(200);
+    private static final long RETRY_MIN_MILLIS = 100;
+    private static final long RETRY_MAX_MILLIS = 10_000;
+    /** 기존 파일의 시작 시각을 찾으려고 읽는 첫 줄의 최대 길이 */
+    private static final int FIRST_LINE_MAX_BYTES = 8 * 1024;
+
+    private final Path file;
+    private final long maxBytes;
+    private final long rotateIntervalMillis;
+    private final boolean gzip;
+
+    private final MpscRingBuffer<Entry> ring;
+    private final AtomicLong dropped = new AtomicLong();
+    private final AtomicLong written = new AtomicLong();
+    private volatile boolean running;
+    private Thread writer;
+    private ExecutorService compressor;
+
+    // 아래는 기록 스레드만 쓴다.
+    private final JsonWriter json = new JsonWriter(512);
+    private OutputStream out;
+    private long fileBytes;
+    /** 지금 파일에 쓰기 시작한 시각. 오류로 다시 열 때는 그대로 두어 바꿀 시각이 밀리지 않게 한다. */
+    private long periodStartMillis;
+    private long reportedDrops;
+    /** 쓰기 버퍼에만 있고 아직 파일로 내보내지 않은 항목 수 */
+    private int unflushed;
+    /** 다시 열기 전에 기다릴 시간. 버퍼를 한 번 무사히 내보내면 0 으로 돌아간다. */
+    private long retryMillis;
+
+    public AccessLog(Path file, int bufferSize, long maxBytes, long rotateIntervalMillis, boolean gzip) {
+        this.file = file;
+        this.maxBytes = maxBytes;
+        this.rotateIntervalMillis = rotateIntervalMillis;
+        this.gzip = gzip;
+        this.ring = new MpscRingBuffer<>(bufferSize);
+    }
+
+    /**
+     * 파일을 열고 기록 스레드를 시작한다.
+     */
+    public synchronized void start() {
+        if (writer != null) {
+            return;
+        }
+        if (gzip) {
+            compressor = Executors.newSingleThreadExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "access-log-gzip");
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+        running = true;
+        writer = new Thread(this::drainLoop, "access-log");
+        writer.setDaemon(true);
+        writer.start();
+    }
+
+    /**
+     * 요청 하나를 남긴다. 워커 스레드에서 응답을 쓴 직후 부른다.
+     *
+     * @param bytes              연결에 쓴 응답 바이트 수(헤더 포함)
+     * @param connectionRequests 이 연결에서 몇 번째 요청인지
+     */
+    public void record(String remote, String method, String target, int status, long bytes, long durationNanos,
+                       int connectionRequests) {
+        if (!running) {
+            return;
+        }
+        if (!ring.offer(new Entry(System.currentTimeMillis(), remote, method, target, status, bytes,
+                durationNanos, connectionRequests))) {
+            dropped.incrementAndGet();
+        }
+    }
+
+    /** 파일로 내보낸 항목 수 */
+    public long written() {
+        return written.get();
+    }
+
+    /** 버퍼가 가득 차 버린 항목 수 */
+    public long dropped() {
+        return dropped.get();
+    }
+
+    /**
+     * 남은 항목을 모두 쓰고 파일을 닫는다. 진행 중인 압축은 끝날 때까지 기다린다.
+     */
+    public void close() {
+        Thread current;
+        synchronized (this) {
+            current = writer;
+            writer = null;
+        }
+        if (current == null) {
+            return;
+        }
+        running = false;
+        LockSupport.unpark(current);
+        try {
+            current.join(TimeUnit.SECONDS.toMillis(5));
+            // 마지막으로 비우면서 바꾼 파일도 압축하도록 기록 스레드가 끝난 뒤 내린다.
+            if (compressor != null) {
+                compressor.shutdown();
+                compressor.awaitTermination(30, TimeUnit.SECONDS);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * 쓰기나 파일 바꾸기가 실패하면 파일을 닫고 기다렸다가 다시 연다. 기다리는 시간은 실패가 이어질수록 늘린다.
+     * 그동안 버퍼에 쌓인 항목은 다시 연 뒤에 쓰고, 넘친 항목은 버린 수로 센다.
+     */
+    private void drainLoop() {
+        while (true) {
+            try {
+                drain();
+                return;
+            } catch (IOException e) {
+                // 버퍼에만 있던 항목은 파일에 닿지 못했다.
+                dropped.addAndGet(unflushed);
+                unflushed = 0;
+                closeFile();
+                if (!running) {
+                    Logger.error("Access log stopped", e);
+                    discardRemaining();
+                    return;
+                }
+                retryMillis = retryMillis == 0 ? RETRY_MIN_MILLIS : Math.min(retryMillis * 2, RETRY_MAX_MILLIS);
+                Logger.error("Access log write failed, reopening in " + retryMillis + "ms", e);
+                LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(retryMillis));
+            }
+        }
+    }
+
+    /**
+     * 파일을 열고 멈출 때까지 버퍼를 비운다. 정상적으로 멈추면 파일을 닫고 돌아온다.
+     */
+    private void drain() throws IOException {
+        open();
+        while (true) {
+            Entry entry = ring.poll();
+            if (entry == null) {
+                if (unflushed > 0) {
+                    out.flush();
+                    flushed();
+                }
+                long drops = dropped.get();
+                if (drops != reportedDrops) {
+                    Logger.warn((drops - reportedDrops)
+                            + " access log entries dropped (buffer full or write failure)");
+                    reportedDrops = drops;
+                }
+                if (!running && ring.isDrained()) {
+                    closeFile();
+                    return;
+                }
+                rotateIfNeeded(System.currentTimeMillis());
+                ring.awaitItems(IDLE_PARK_NANOS);
+                continue;
+            }
+            write(entry);
+            rotateIfNeeded(entry.millis);
+        }
+    }
+
+    private void flushed() {
+        written.addAndGet(unflushed);
+        unflushed = 0;
+        retryMillis = 0;
+    }
+
+    /** 종료 중에 파일을 다시 열 수 없으면 남은 항목은 버린 수로 센다. */
+    private void discardRemaining() {
+        while (!ring.isDrained()) {
+            if (ring.poll() != null) {
+                dropped.incrementAndGet();
+            } else {
+                Thread.onSpinWait();
+            }
+        }
+        long drops = dropped.get();
+        if (drops != reportedDrops) {
+            Logger.warn((drops - reportedDrops) + " access log entries dropped");
+            reportedDrops = drops;
+        }
+    }
+
+    private void write(Entry entry) throws IOException {
+        json.reset()
+                .beginObject()
+                .name("time").value(entry.millis)
+                .name("remote").value(entry.remote)
+                .name("method").value(entry.method)
+                .name("target").value(entry.target)
+                .name("status").value(entry.status)
+                .name("bytes").value(entry.bytes)
+                .name("durationMicros").value(entry.durationNanos / 1000)
+                .name("connectionRequests").value(entry.connectionRequests)
+                .endObject();
+        json.writeTo(out);
+        out.write('\n');
+        fileBytes += json.size() + 1;
+        unflushed++;
+    }
+
+    private void open() throws IOException {
+        Path parent = file.toAbsolutePath().getParent();
+        if (parent != null) {
+            Files.createDirectories(parent);
+        }
+        // 재시작하면 이어서 쓰고, 크기 한도도 이어서 센다.
+        fileBytes = Files.exists(file) ? Files.size(file) : 0;
+        if (periodStartMillis == 0) {
+            periodStartMillis = fileBytes > 0 ? existingStartMillis() : System.currentTimeMillis();
+        }
+        out = new BufferedOutputStream(Files.newOutputStream(file, StandardOpenOption.CREATE,
+                StandardOpenOption.APPEND), WRITE_BUFFER_BYTES);
+    }
+
+    private void rotateIfNeeded(long nowMillis) throws IOException {
+        if (fileBytes == 0) {
+            return;
+        }
+        if (fileBytes < maxBytes && nowMillis - periodStartMillis < rotateIntervalMillis) {
+            return;
+        }
+        out.close();
+        flushed();
+        Path rotated = rotatedPath(nowMillis);
+        Files.move(file, rotated);
+        periodStartMillis = nowMillis;
+        open();
+        if (compressor != null) {
+            compressor.execute(() -> compress(rotated));
+        }
+    }
+
+    /**
+     * 재시작 전에 쓰던 파일이 언제 시작됐는지 첫 항목의 time 으로 구한다. 읽지 못하면 파일 생성 시각을 쓰는데,
+     * 생성 시각을 모르는 파일 시스템에서는 마지막 수정 시각이 돌아온다.
+     */
+    private long existingStartMillis() throws IOException {
+        byte[] head;
+        try (InputStream in = Files.newInputStream(file)) {
+            head = in.readNBytes(FIRST_LINE_MAX_BYTES);
+        }
+        for (int i = 0; i < head.length; i++) {
+            if (head[i] == '\n') {
+                try {
+                    String time = JsonReader.readStringFields(Arrays.copyOf(head, i), "time")[0];
+                    if (time != null) {
+                        return Long.parseLong(time);
+                    }
+                } catch (IllegalArgumentException e) {
+                    // 형식이 다른 줄이면 파일 속성으로 넘어간다.
+                }
+                break;
+            }
+        }
+        return Files.readAttributes(file, BasicFileAttributes.class).creationTime().toMillis();
+    }
+
+    private Path rotatedPath(long millis) {
+        String name = file.getFileName().toString();
+        int dot = name.lastIndexOf('.');
+        String base = dot > 0 ? name.substring(0, dot) : name;
+        String extension = dot > 0 ? name.substring(dot) : "";
+        String stamp = base + "-" + ROTATED_SUFFIX.format(Instant.ofEpochMilli(millis));
+        // 1초 안에 여러 번 바뀌어도 덮어쓰지 않는다.
+        Path candidate = file.resolveSibling(stamp + extension);
+        for (int i = 1; Files.exists(candidate) || Files.exists(gzipPath(candidate)); i++) {
+            candidate = file.resolveSibling(stamp + "-" + i + extension);
+        }
+        return candidate;
+    }
+
+    private static void compress(Path source) {
+        Path target = gzipPath(source);
+        try (InputStream in = Files.newInputStream(source);
+             OutputStream gz = new GZIPOutputStream(Files.newOutputStream(target), WRITE_BUFFER_BYTES)) {
+            in.transferTo(gz);
+        } catch (IOException e) {
+            Logger.error("Failed to compress " + source, e);
+            try {
+                Files.deleteIfExists(target);
+            } catch (IOException ignored) {
+                // 원본은 남아 있으므로 그대로 둔다.
+            }
+            return;
+        }
+        try {
+            Files.delete(source);
+        } catch (IOException e) {
+            Logger.warn("Failed to delete " + source + ": " + e.getMessage());
+        }
+    }
+
+    private static Path gzipPath(Path source) {
+        return source.resolveSibling(source.getFileName() + ".gz");
+    }
+
+    private void closeFile() {
+        if (out == null) {
+            return;
+        }
+        try {
+            out.close();
+        } catch (IOException e) {
+            Logger.warn("Failed to close access log: " + e.getMessage());
+        }
+        out = null;
+    }
+
+    private static final class Entry {
+        private final long millis;
+        private final String remote;
+        private final String method;
+        private final String target;
+        private final int status;
+        private final long bytes;
+        private final long durationNanos;
+        private final int connectionRequests;
+
+        private Entry(long millis, String remote, String method, String target, int status, long bytes,
+                      long durationNanos, int connectionRequests) {
+            this.millis = millis;
+            this.remote = remote;
+            this.method = method;
+            this.target = target;
+            this.status = status;
+            this.bytes = bytes;
+            this.durationNanos = durationNanos;
+            this.connectionRequests = connectionRequests;
+        }
+    }
+}
@@ -0,0 +1,110 @@
+package server.util;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * 문자열 키용 블룸 필터.
+ * "없다"는 대답은 항상 정확하고, "있을 수도 있다"는 대답만 오탐 가능성이 있다.
+ * 비트 배열은 AtomicLongArray 로 관리해 락 없이 여러 스레드가 동시에 추가/조회할 수 있다.
+ */
+public final class BloomFilter {
+    private final AtomicLongArray bits;
+    private final long bitCount;
+    private final int hashCount;
+    private final long expectedInsertions;
+    private final AtomicLong insertions = new AtomicLong();
+
+    private BloomFilter(long bitCount, int hashCount, long expectedInsertions) {
+        int words = (int) ((bitCount + 63) / 64);
+        this.bits = new AtomicLongArray(words);
+        this.bitCount = (long) words * 64;
+        this.hashCount = hashCount;
+        this.expectedInsertions = expectedInsertions;
+    }
+
+    /**
+     * 예상 원소 수와 목표 오탐률에 맞춰 비트 수와 해시 함수 개수를 정한다.
+     */
+    public static BloomFilter create(long expectedInsertions, double falsePositiveRate) {
+        long n = Math.max(1, expectedInsertions);
+        double ln2 = Math.log(2);
+        long m = (long) Math.ceil(-n * Math.log(falsePositiveRate) / (ln2 * ln2));
+        int k = Math.max(1, (int) Math.round((double) m / n * ln2));
+        return new BloomFilter(Math.max(64, m), k, n);
+    }
+
+    public void put(String key) {
+        long h1 = hash(key, 0x9E3779B97F4A7C15L);
+        long h2 = hash(key, 0xC2B2AE3D27D4EB4FL) | 1L;
+        for (int i = 0; i < hashCount; i++) {
+            long bit = Math.floorMod(h1 + i * h2, bitCount);
+            setBit(bit);
+        }
+        insertions.incrementAndGet();
+    }
+
+    public boolean mightContain(String key) {
+        long h1 = hash(key, 0x9E3779B97F4A7C15L);
+        long h2 = hash(key, 0xC2B2AE3D27D4EB4FL) | 1L;
+        for (int i = 0; i < hashCount; i++) {
+            long bit = Math.floorMod(h1 + i * h2, bitCount);
+            if ((bits.get((int) (bit >>> 6)) & (1L << bit)) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /** 지금까지 추가된 원소 수(중복 포함) */
+    public long insertions() {
+        return insertions.get();
+    }
+
+    /** 생성 시 가정한 원소 수 */
+    public long expectedInsertions() {
+        return expectedInsertions;
+    }
+
+    public long bitCount() {
+        return bitCount;
+    }
+
+    public int hashCount() {
+        return hashCount;
+    }
+
+    /**
+     * 현재 원소 수 기준 이론적 오탐률 (1 - e^(-kn/m))^k.
+     */
+    public double expectedFalsePositiveRate() {
+        double exponent = -(double) hashCount * insertions.get() / bitCount;
+        return Math.pow(1 - Math.exp(exponent), hashCount);
+    }
+
+    private void setBit(long bit) {
+        int index = (int) (bit >>> 6);
+        long mask = 1L << bit;
+        while (true) {
+            long current = bits.get(index);
+            if ((current & mask) != 0 || bits.compareAndSet(index, current, current | mask)) {
+                return;
+            }
+        }
+    }
+
+    private static long hash(String key, long seed) {
+        long h = seed;
+        for (int i = 0; i < key.length(); i++) {
+            h ^= key.charAt(i);
+            h *= 0x100000001B3L;
+        }
+        // splitmix64 마무리 단계로 비트를 고르게 섞는다.
+        h ^= h >>> 33;
+        h *= 0xFF51AFD7ED558CCDL;
+        h ^= h >>> 33;
+        h *= 0xC4CEB9FE1A85EC53L;
+        h ^= h >>> 33;
+        return h;
+    }
+}
@@ -0,0 +1,47 @@
+package server.util;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * 전체 바이트 수로 크기를 제한하는 LRU 캐시.
+ * 한도를 넘으면 가장 오래 쓰이지 않은 항목부터 버린다. 모든 메서드는 this 로 동기화한다.
+ */
+public final class ByteLruCache {
+    private final long maxBytes;
+    private final LinkedHashMap<String, byte[]> entries = new LinkedHashMap<>(64, 0.75f, true);
+    private long totalBytes;
+
+    public ByteLruCache(long maxBytes) {
+        this.maxBytes = maxBytes;
+    }
+
+    public synchronized byte[] get(String key) {
+        return entries.get(key);
+    }
+
+    /**
+     * 값을 넣는다. 값 하나가 한도보다 크면 넣지 않는다.
+     */
+    public synchronized void put(String key, byte[] value) {
+        if (value.length > maxBytes) {
+            return;
+        }
+        byte[] previous = entries.put(key, value);
+        totalBytes += value.length - (previous != null ? previous.length : 0);
+        Iterator<Map.Entry<String, byte[]>> iterator = entries.entrySet().iterator();
+        while (totalBytes > maxBytes && iterator.hasNext()) {
+            totalBytes -= iterator.next().getValue().length;
+            iterator.remove();
+        }
+    }
+
+    public synchronized long totalBytes() {
+        return totalBytes;
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+}
@@ -13,6 +13,8 @@ import server.http.HttpResponse;
  * HTTP 쿠키 처리 유틸리티
  */
 public final class CookieUtil {
+    /** 세션 ID 를 담는 쿠키 이름 */
+    public static final String SESSION_COOKIE = "JSESSIONID";
 
     private CookieUtil() {}
 
@@ -20,9 +22,15 @@ public final class CookieUtil {
      * 요청에서 쿠키 파싱
      */
     public static Map<String, String> parseCookies(HttpRequest request) {
+        return parseCookies(request.header("cookie"));
+    }
+
+    /**
+     * Cookie 헤더 값 파싱
+     */
+    public static Map<String, String> parseCookies(String cookieHeader) {
         Map<String, String> cookies = new HashMap<>();
-        String cookieHeader = request.header("cookie");
-        
+
         if (cookieHeader == null || cookieHeader.trim().isEmpty()) {
             return cookies;
         }
@@ -48,8 +56,99 @@ public final class CookieUtil {
      * 쿠키 값 가져오기
      */
     public static String getCookie(HttpRequest request, String name) {
-        Map<String, String> cookies = parseCookies(request);
-        return cookies.get(name);
+        return getCookie(request.header("cookie"), name);
+    }
+
+    /**
+     * Cookie 헤더 값에서 쿠키 하나 가져오기.
+     * 헤더를 처음부터 훑으며 이름을 제자리에서 비교하므로 Map 이나 조각 문자열을 만들지 않는다.
+     * 값은 찾은 쿠키 하나만 잘라 내고, %XX 나 + 가 들어 있을 때만 URL 디코딩한다.
+     * 같은 이름이 여러 번 있으면 {@link #parseCookies(String)} 처럼 마지막 값을 쓴다.
+     */
+    public static String getCookie(String cookieHeader, String name) {
+        if (cookieHeader == null) {
+            return null;
+        }
+        int length = cookieHeader.length();
+        int valueStart = -1;
+        int valueEnd = -1;
+        int pos = 0;
+        while (pos < length) {
+            int end = cookieHeader.indexOf(';', pos);
+            if (end < 0) {
+                end = length;
+            }
+            // '=' 는 이 조각 안에서만 찾는다. 헤더 끝까지 찾으면 '=' 없는 조각이 많을 때 전체가 제곱으로 느려진다.
+            int eq = indexOf(cookieHeader, '=', pos, end);
+            if (eq >= 0) {
+                int nameStart = skipSpaces(cookieHeader, pos, eq);
+                int nameEnd = trimSpaces(cookieHeader, nameStart, eq);
+                if (nameMatches(cookieHeader, nameStart, nameEnd, name)) {
+                    valueStart = skipSpaces(cookieHeader, eq + 1, end);
+                    valueEnd = trimSpaces(cookieHeader, valueStart, end);
+                }
+            }
+            pos = end + 1;
+        }
+        if (valueStart < 0) {
+            return null;
+        }
+        // RFC 6265 는 값을 큰따옴표로 감쌀 수 있게 한다.
+        if (valueEnd - valueStart >= 2 && cookieHeader.charAt(valueStart) == '"'
+                && cookieHeader.charAt(valueEnd - 1) == '"') {
+            valueStart++;
+            valueEnd--;
+        }
+        return decodeIfNeeded(cookieHeader.substring(valueStart, valueEnd));
+    }
+
+    private static boolean nameMatches(String header, int start, int end, String name) {
+        int length = end - start;
+        if (length == name.length() && header.regionMatches(start, name, 0, length)) {
+            return true;
+        }
+        // 인코딩된 이름은 드물므로 그때만 풀어서 비교한다.
+        if (length > name.length() && indexOf(header, '%', start, end) >= 0) {
+            String decoded = decodeIfNeeded(header.substring(start, end));
+            return name.equals(decoded);
+        }
+        return false;
+    }
+
+    /** [from, to) 안에서 ch 의 위치. 없으면 -1 */
+    private static int indexOf(String text, char ch, int from, int to) {
+        for (int i = from; i < to; i++) {
+            if (text.charAt(i) == ch) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private static String decodeIfNeeded(String value) {
+        if (value.indexOf('%') < 0 && value.indexOf('+') < 0) {
+            return value;
+        }
+        try {
+            return URLDecoder.decode(value, StandardCharsets.UTF_8);
+        } catch (IllegalArgumentException e) {
+            // 디코딩 실패 시 원래 값을 쓴다.
+            return value;
+        }
+    }
+
+    private static int skipSpaces(String text, int from, int to) {
+        while (from < to && text.charAt(from) <= ' ') {
+            from++;
+        }
+        return from;
+    }
+
+    private static int trimSpaces(String text, int from, int to) {
+        while (to > from && text.charAt(to - 1) <= ' ') {
+            to--;
+        }
+        return to;
     }
 
     /**
@@ -103,20 +202,20 @@ public final class CookieUtil {
      * 세션 쿠키 설정
      */
     public static void setSessionCookie(HttpResponse.Builder responseBuilder, String sessionId) {
-        setCookie(responseBuilder, "JSESSIONID", sessionId, -1, "/", false, true);
+        setCookie(responseBuilder, SESSION_COOKIE, sessionId, -1, "/", false, true);
     }
 
     /**
      * 세션 쿠키 삭제
      */
     public static void deleteSessionCookie(HttpResponse.Builder responseBuilder) {
-        deleteCookie(responseBuilder, "JSESSIONID", "/");
+        deleteCookie(responseBuilder, SESSION_COOKIE, "/");
     }
 
     /**
-     * 요청에서 세션 ID 가져오기
+     * 요청에서 세션 ID 가져오기. 요청 컨텍스트에 한 번 해석해 둔 값을 쓴다.
      */
     public static String getSessionId(HttpRequest request) {
-        return getCookie(request, "JSESSIONID");
+        return request.context().sessionId();
     }
 }
\ No newline at end of file
@@ -0,0 +1,93 @@
+package server.util;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AccessDeniedException;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * 파일 저장소에서 공통으로 쓰는 파일 유틸리티.
+ */
+public final class FileUtil {
+
+    private FileUtil() {}
+
+    /**
+     * 같은 디렉터리의 임시 파일에 먼저 쓴 뒤 rename 으로 교체한다.
+     * 읽는 쪽은 항상 이전 내용 전체나 새 내용 전체만 보게 된다.
+     */
+    public static void writeAtomically(Path target, String content) throws IOException {
+        Path temp = writeTemp(target, content);
+        try {
+            move(temp, target, true);
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    /**
+     * 대상 파일이 없을 때만 원자적으로 생성한다.
+     * 하드 링크 생성은 대상이 있으면 실패하므로 확인과 생성 사이에 틈이 없다.
+     *
+     * @return 새로 만들었으면 true, 이미 있으면 false
+     */
+    public static boolean createAtomically(Path target, String content) throws IOException {
+        Path temp = writeTemp(target, content);
+        try {
+            Files.createLink(target, temp);
+            return true;
+        } catch (FileAlreadyExistsException e) {
+            return false;
+        } catch (UnsupportedOperationException e) {
+            // 하드 링크를 지원하지 않는 파일 시스템에서는 호출자의 키 락에 기대어 확인 후 이동한다.
+            if (Files.exists(target)) {
+                return false;
+            }
+            move(temp, target, false);
+            return true;
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    /**
+     * 디렉터리를 fsync 해 새로 만든 파일 항목이 디스크에 남도록 한다.
+     * 디렉터리를 열 수 없는 플랫폼(Windows 등)에서는 조용히 건너뛴다.
+     */
+    public static void forceDirectory(Path dir) throws IOException {
+        try (FileChannel channel = FileChannel.open(dir, StandardOpenOption.READ)) {
+            channel.force(true);
+        } catch (AccessDeniedException | UnsupportedOperationException e) {
+            // 디렉터리 fsync 를 지원하지 않는 환경
+        }
+    }
+
+    private static Path writeTemp(Path target, String content) throws IOException {
+        Path dir = target.toAbsolutePath().getParent();
+        Path temp = Files.createTempFile(dir, "." + target.getFileName(), ".tmp");
+        Files.writeString(temp, content, StandardCharsets.UTF_8);
+        return temp;
+    }
+
+    private static void move(Path source, Path target, boolean replace) throws IOException {
+        try {
+            if (replace) {
+                Files.move(source, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            } else {
+                Files.move(source, target, StandardCopyOption.ATOMIC_MOVE);
+            }
+        } catch (AtomicMoveNotSupportedException e) {
+            if (replace) {
+                Files.move(source, target, StandardCopyOption.REPLACE_EXISTING);
+            } else {
+                Files.move(source, target);
+            }
+        }
+    }
+}
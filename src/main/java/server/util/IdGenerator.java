@@ -0,0 +1,102 @@
+package server.util;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 시간순으로 정렬되는 64비트 ID 생성기.
+ * 구성은 상위부터 41비트 밀리초(EPOCH_MILLIS 기준) | 10비트 노드 번호 | 12비트 순번이다.
+ *
+ * 마지막으로 낸 (시각, 순번) 쌍을 AtomicLong 하나에 담아 CAS 로만 갱신하므로 락이 없다.
+ * 같은 밀리초에 순번 4096 개를 다 쓰면 다음 밀리초를 미리 빌려 쓰고, 시계가 뒤로 가도
+ * 이전 값보다 작은 ID 는 내지 않는다.
+ */
+public final class IdGenerator {
+    /** 2024-01-01T00:00:00Z */
+    public static final long EPOCH_MILLIS = 1_704_067_200_000L;
+    public static final int MAX_NODE_ID = (1 << 10) - 1;
+
+    private static final int NODE_BITS = 10;
+    private static final int SEQUENCE_BITS = 12;
+    private static final int TIMESTAMP_SHIFT = NODE_BITS + SEQUENCE_BITS;
+    private static final long SEQUENCE_MASK = (1L << SEQUENCE_BITS) - 1;
+    private static final int FORMATTED_LENGTH = 16;
+
+    private final long nodeBits;
+    /** (EPOCH 기준 밀리초 << SEQUENCE_BITS) | 순번 */
+    private final AtomicLong last = new AtomicLong();
+
+    public IdGenerator(int nodeId) {
+        if (nodeId < 0 || nodeId > MAX_NODE_ID) {
+            throw new IllegalArgumentException("Node id must be between 0 and " + MAX_NODE_ID);
+        }
+        this.nodeBits = (long) nodeId << SEQUENCE_BITS;
+    }
+
+    public long nextId() {
+        long now = (System.currentTimeMillis() - EPOCH_MILLIS) << SEQUENCE_BITS;
+        while (true) {
+            long previous = last.get();
+            long next = Math.max(now, previous + 1);
+            if (last.compareAndSet(previous, next)) {
+                return compose(next);
+            }
+        }
+    }
+
+    /**
+     * 이미 존재하는 ID 보다 뒤의 값만 내도록 상태를 앞당긴다.
+     * 재시작 후 시계가 뒤로 가 있어도 기존 ID 와 겹치지 않게 하려고 시작 시 호출한다.
+     */
+    public void advancePast(long id) {
+        long state = ((id >>> TIMESTAMP_SHIFT) << SEQUENCE_BITS) | (id & SEQUENCE_MASK);
+        last.accumulateAndGet(state, Math::max);
+    }
+
+    /**
+     * ID 에 담긴 생성 시각 (epoch 밀리초)
+     */
+    public static long timestampOf(long id) {
+        return (id >>> TIMESTAMP_SHIFT) + EPOCH_MILLIS;
+    }
+
+    /**
+     * 주어진 시각에 만들어질 수 있는 가장 작은 ID. ID 가 없는 예전 데이터를 같은 순서에 끼워 넣을 때 쓴다.
+     */
+    public static long floorFor(long epochMillis) {
+        return Math.max(0, epochMillis - EPOCH_MILLIS) << TIMESTAMP_SHIFT;
+    }
+
+    /**
+     * 16자리 소문자 16진수. 자릿수가 고정이라 문자열 순서와 숫자 순서가 같다.
+     */
+    public static String format(long id) {
+        String hex = Long.toHexString(id);
+        if (hex.length() >= FORMATTED_LENGTH) {
+            return hex;
+        }
+        return "0".repeat(FORMATTED_LENGTH - hex.length()) + hex;
+    }
+
+    /**
+     * 문자열 앞 16자리가 {@link #format(long)} 형식이면 그 값을, 아니면 -1 을 돌려준다.
+     */
+    public static long parsePrefix(String value) {
+        if (value == null || value.length() < FORMATTED_LENGTH) {
+            return -1;
+        }
+        long id = 0;
+        for (int i = 0; i < FORMATTED_LENGTH; i++) {
+            int digit = Character.digit(value.charAt(i), 16);
+            if (digit < 0 || Character.isUpperCase(value.charAt(i))) {
+                return -1;
+            }
+            id = (id << 4) | digit;
+        }
+        return id;
+    }
+
+    private long compose(long state) {
+        long timestamp = state >>> SEQUENCE_BITS;
+        return (timestamp << TIMESTAMP_SHIFT) | nodeBits | (state & SEQUENCE_MASK);
+    }
+}
@@ -0,0 +1,521 @@
+package server.util;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * UTF-8 바이트 배열 위에서 바로 읽는 당겨 읽기(pull) 방식 JSON 리더.
+ * 문서 전체를 트리로 만들지 않고, 호출한 값만 그 자리에서 해석한다. 키는 문자열로 만들지 않고 바이트로 비교할 수 있고,
+ * 이스케이프가 없는 문자열 값은 복사 없이 한 번에 디코딩한다.
+ * <p>
+ * 예: 요청 본문에서 필요한 필드만 꺼낼 때는 {@link #readStringFields(byte[], String...)} 를 쓴다.
+ * 형식이 잘못되면 위치를 담은 {@link IllegalArgumentException} 을 던진다.
+ */
+public final class JsonReader {
+    private static final int MAX_DEPTH = 64;
+
+    /** 다음 값의 종류 */
+    public enum Type { OBJECT, ARRAY, STRING, NUMBER, BOOLEAN, NULL, END }
+
+    private final byte[] buf;
+    private final int limit;
+    private int pos;
+    /** 컨테이너마다 아직 첫 원소를 읽기 전인지 */
+    private final boolean[] first = new boolean[MAX_DEPTH + 1];
+    private int depth;
+
+    public JsonReader(byte[] buf) {
+        this(buf, 0, buf.length);
+    }
+
+    public JsonReader(byte[] buf, int offset, int length) {
+        this.buf = buf;
+        this.pos = offset;
+        this.limit = offset + length;
+    }
+
+    /**
+     * 최상위 객체에서 names 에 해당하는 필드를 문자열로 꺼낸다. 결과는 names 와 같은 순서이며 없거나 null 인 필드는 null 이다.
+     * 숫자와 true/false 는 쓰인 그대로의 문자열로 돌려주고, 객체와 배열 값은 건너뛴다.
+     *
+     * @throws IllegalArgumentException 최상위가 객체가 아니거나 JSON 형식이 잘못된 경우
+     */
+    public static String[] readStringFields(byte[] json, String... names) {
+        byte[][] keys = new byte[names.length][];
+        for (int i = 0; i < names.length; i++) {
+            keys[i] = names[i].getBytes(StandardCharsets.UTF_8);
+        }
+        String[] values = new String[names.length];
+        JsonReader reader = new JsonReader(json);
+        reader.beginObject();
+        while (reader.hasNext()) {
+            int index = reader.nextName(keys);
+            if (index < 0) {
+                reader.skipValue();
+                continue;
+            }
+            switch (reader.peek()) {
+                case STRING -> values[index] = reader.nextString();
+                case NUMBER, BOOLEAN -> values[index] = reader.nextLiteral();
+                case NULL -> {
+                    reader.nextNull();
+                    values[index] = null;
+                }
+                default -> reader.skipValue();
+            }
+        }
+        reader.endObject();
+        reader.endDocument();
+        return values;
+    }
+
+    public Type peek() {
+        skipWhitespace();
+        if (pos >= limit) {
+            return Type.END;
+        }
+        byte b = buf[pos];
+        switch (b) {
+            case '{':
+                return Type.OBJECT;
+            case '[':
+                return Type.ARRAY;
+            case '"':
+                return Type.STRING;
+            case 't':
+            case 'f':
+                return Type.BOOLEAN;
+            case 'n':
+                return Type.NULL;
+            default:
+                if (b == '-' || (b >= '0' && b <= '9')) {
+                    return Type.NUMBER;
+                }
+                throw error("Unexpected character '" + (char) (b & 0xFF) + "'");
+        }
+    }
+
+    public void beginObject() {
+        open('{');
+    }
+
+    public void endObject() {
+        close('}');
+    }
+
+    public void beginArray() {
+        open('[');
+    }
+
+    public void endArray() {
+        close(']');
+    }
+
+    /**
+     * 현재 객체나 배열에 읽을 원소가 더 있는지 본다. 원소 사이의 쉼표는 여기서 소비한다.
+     */
+    public boolean hasNext() {
+        skipWhitespace();
+        if (pos >= limit) {
+            throw error("Unexpected end of input");
+        }
+        byte b = buf[pos];
+        if (b == '}' || b == ']') {
+            return false;
+        }
+        if (first[depth]) {
+            first[depth] = false;
+            return true;
+        }
+        if (b != ',') {
+            throw error("Expected ','");
+        }
+        pos++;
+        return true;
+    }
+
+    public String nextName() {
+        String name = nextString();
+        expectColon();
+        return name;
+    }
+
+    /**
+     * 다음 키가 candidates 중 몇 번째와 같은지 돌려준다. 없으면 -1. 키를 문자열로 만들지 않고 바이트로 비교한다.
+     */
+    public int nextName(byte[][] candidates) {
+        skipWhitespace();
+        expect('"');
+        int start = pos;
+        while (pos < limit && buf[pos] != '"' && buf[pos] != '\\') {
+            pos++;
+        }
+        if (pos < limit && buf[pos] == '"') {
+            int length = pos - start;
+            pos++;
+            expectColon();
+            for (int i = 0; i < candidates.length; i++) {
+                if (regionEquals(start, length, candidates[i])) {
+                    return i;
+                }
+            }
+            return -1;
+        }
+        // 이스케이프가 든 키는 드물므로 디코딩해서 비교한다.
+        pos = start - 1;
+        byte[] name = nextString().getBytes(StandardCharsets.UTF_8);
+        expectColon();
+        for (int i = 0; i < candidates.length; i++) {
+            if (Arrays.equals(name, candidates[i])) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    public String nextString() {
+        skipWhitespace();
+        expect('"');
+        int start = pos;
+        while (pos < limit) {
+            byte b = buf[pos];
+            if (b == '"') {
+                String value = new String(buf, start, pos - start, StandardCharsets.UTF_8);
+                pos++;
+                return value;
+            }
+            if (b == '\\') {
+                return escapedString(start);
+            }
+            if ((b & 0xFF) < 0x20) {
+                throw error("Control character in string");
+            }
+            pos++;
+        }
+        throw error("Unterminated string");
+    }
+
+    public long nextLong() {
+        skipWhitespace();
+        int start = pos;
+        boolean negative = false;
+        if (pos < limit && buf[pos] == '-') {
+            negative = true;
+            pos++;
+        }
+        if (pos >= limit || buf[pos] < '0' || buf[pos] > '9') {
+            throw error("Expected number");
+        }
+        if (buf[pos] == '0' && pos + 1 < limit && buf[pos + 1] >= '0' && buf[pos + 1] <= '9') {
+            throw error("Leading zero in number");
+        }
+        long value = 0;
+        while (pos < limit && buf[pos] >= '0' && buf[pos] <= '9') {
+            int digit = buf[pos] - '0';
+            if (value < (Long.MIN_VALUE + digit) / 10) {
+                throw error("Number out of range");
+            }
+            value = value * 10 - digit;
+            pos++;
+        }
+        if (pos < limit && (buf[pos] == '.' || buf[pos] == 'e' || buf[pos] == 'E')) {
+            pos = start;
+            throw error("Expected integer");
+        }
+        if (!negative) {
+            if (value == Long.MIN_VALUE) {
+                throw error("Number out of range");
+            }
+            value = -value;
+        }
+        expectValueEnd();
+        return value;
+    }
+
+    public int nextInt() {
+        long value = nextLong();
+        if (value < Integer.MIN_VALUE || value > Integer.MAX_VALUE) {
+            throw error("Number out of range");
+        }
+        return (int) value;
+    }
+
+    public boolean nextBoolean() {
+        skipWhitespace();
+        if (matches("true")) {
+            pos += 4;
+            expectValueEnd();
+            return true;
+        }
+        if (matches("false")) {
+            pos += 5;
+            expectValueEnd();
+            return false;
+        }
+        throw error("Expected boolean");
+    }
+
+    public void nextNull() {
+        skipWhitespace();
+        if (!matches("null")) {
+            throw error("Expected null");
+        }
+        pos += 4;
+        expectValueEnd();
+    }
+
+    /**
+     * 숫자, true/false, null 을 쓰인 그대로의 문자열로 읽는다.
+     * 단어는 정확히 true/false/null 이어야 하고, 숫자는 JSON 숫자 문법(예: -0.5e+3)에 맞아야 한다.
+     */
+    public String nextLiteral() {
+        skipWhitespace();
+        if (pos >= limit) {
+            throw error("Unexpected end of input");
+        }
+        int start = pos;
+        switch (buf[pos]) {
+            case 't' -> literalWord("true");
+            case 'f' -> literalWord("false");
+            case 'n' -> literalWord("null");
+            default -> literalNumber();
+        }
+        expectValueEnd();
+        return new String(buf, start, pos - start, StandardCharsets.US_ASCII);
+    }
+
+    /**
+     * 다음 값을 통째로 건너뛴다. 객체와 배열은 안쪽까지 건너뛴다.
+     */
+    public void skipValue() {
+        switch (peek()) {
+            case OBJECT -> {
+                beginObject();
+                while (hasNext()) {
+                    skipString();
+                    expectColon();
+                    skipValue();
+                }
+                endObject();
+            }
+            case ARRAY -> {
+                beginArray();
+                while (hasNext()) {
+                    skipValue();
+                }
+                endArray();
+            }
+            case STRING -> skipString();
+            case NUMBER, BOOLEAN -> nextLiteral();
+            case NULL -> nextNull();
+            case END -> throw error("Unexpected end of input");
+        }
+    }
+
+    /**
+     * 문서 뒤에 공백 말고는 남은 것이 없는지 확인한다.
+     */
+    public void endDocument() {
+        skipWhitespace();
+        if (pos != limit) {
+            throw error("Unexpected trailing characters");
+        }
+    }
+
+    private void literalWord(String word) {
+        if (!matches(word)) {
+            throw error("Expected literal");
+        }
+        pos += word.length();
+    }
+
+    /** -? (0 | [1-9][0-9]*) (. [0-9]+)? ([eE] [+-]? [0-9]+)? */
+    private void literalNumber() {
+        if (buf[pos] == '-') {
+            pos++;
+        }
+        if (pos < limit && buf[pos] == '0') {
+            pos++;
+        } else if (skipDigits() == 0) {
+            throw error("Invalid number");
+        }
+        if (pos < limit && buf[pos] == '.') {
+            pos++;
+            if (skipDigits() == 0) {
+                throw error("Invalid number");
+            }
+        }
+        if (pos < limit && (buf[pos] == 'e' || buf[pos] == 'E')) {
+            pos++;
+            if (pos < limit && (buf[pos] == '+' || buf[pos] == '-')) {
+                pos++;
+            }
+            if (skipDigits() == 0) {
+                throw error("Invalid number");
+            }
+        }
+    }
+
+    private int skipDigits() {
+        int start = pos;
+        while (pos < limit && buf[pos] >= '0' && buf[pos] <= '9') {
+            pos++;
+        }
+        return pos - start;
+    }
+
+    /**
+     * 숫자나 단어 바로 뒤에는 공백, 구분자, 문서 끝만 올 수 있다. {@code tx}, {@code 1-2-3}, {@code 01} 같은 입력을 여기서 거른다.
+     */
+    private void expectValueEnd() {
+        if (pos >= limit) {
+            return;
+        }
+        byte b = buf[pos];
+        if (b != ',' && b != '}' && b != ']' && b != ' ' && b != '\t' && b != '\n' && b != '\r') {
+            throw error("Unexpected character '" + (char) (b & 0xFF) + "'");
+        }
+    }
+
+    private void open(char bracket) {
+        skipWhitespace();
+        expect(bracket);
+        if (depth == MAX_DEPTH) {
+            throw error("Nesting too deep");
+        }
+        first[++depth] = true;
+    }
+
+    private void close(char bracket) {
+        skipWhitespace();
+        expect(bracket);
+        depth--;
+    }
+
+    private void skipString() {
+        skipWhitespace();
+        expect('"');
+        while (pos < limit) {
+            byte b = buf[pos++];
+            if (b == '"') {
+                return;
+            }
+            if (b == '\\') {
+                pos++;
+            }
+        }
+        throw error("Unterminated string");
+    }
+
+    private String escapedString(int start) {
+        StringBuilder sb = new StringBuilder(pos - start + 16);
+        int run = start;
+        while (pos < limit) {
+            byte b = buf[pos];
+            if (b == '"') {
+                appendUtf8(sb, run, pos);
+                pos++;
+                return sb.toString();
+            }
+            if ((b & 0xFF) < 0x20) {
+                throw error("Control character in string");
+            }
+            if (b != '\\') {
+                pos++;
+                continue;
+            }
+            appendUtf8(sb, run, pos);
+            pos++;
+            if (pos >= limit) {
+                break;
+            }
+            byte escaped = buf[pos++];
+            switch (escaped) {
+                case '"', '\\', '/' -> sb.append((char) escaped);
+                case 'b' -> sb.append('\b');
+                case 'f' -> sb.append('\f');
+                case 'n' -> sb.append('\n');
+                case 'r' -> sb.append('\r');
+                case 't' -> sb.append('\t');
+                case 'u' -> sb.append(unicodeEscape());
+                default -> throw error("Invalid escape '\\" + (char) (escaped & 0xFF) + "'");
+            }
+            run = pos;
+        }
+        throw error("Unterminated string");
+    }
+
+    private char unicodeEscape() {
+        if (pos + 4 > limit) {
+            throw error("Invalid unicode escape");
+        }
+        int value = 0;
+        for (int i = 0; i < 4; i++) {
+            int digit = Character.digit(buf[pos++], 16);
+            if (digit < 0) {
+                throw error("Invalid unicode escape");
+            }
+            value = (value << 4) | digit;
+        }
+        return (char) value;
+    }
+
+    private void appendUtf8(StringBuilder sb, int from, int to) {
+        if (to > from) {
+            sb.append(new String(buf, from, to - from, StandardCharsets.UTF_8));
+        }
+    }
+
+    private boolean regionEquals(int start, int length, byte[] candidate) {
+        if (candidate.length != length) {
+            return false;
+        }
+        for (int i = 0; i < length; i++) {
+            if (buf[start + i] != candidate[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private boolean matches(String word) {
+        if (pos + word.length() > limit) {
+            return false;
+        }
+        for (int i = 0; i < word.length(); i++) {
+            if (buf[pos + i] != word.charAt(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private void expectColon() {
+        skipWhitespace();
+        expect(':');
+    }
+
+    private void expect(char expected) {
+        if (pos >= limit) {
+            throw error("Unexpected end of input");
+        }
+        if (buf[pos] != expected) {
+            throw error("Expected '" + expected + "'");
+        }
+        pos++;
+    }
+
+    private void skipWhitespace() {
+        while (pos < limit) {
+            byte b = buf[pos];
+            if (b != ' ' && b != '\t' && b != '\n' && b != '\r') {
+                return;
+            }
+            pos++;
+        }
+    }
+
+    private IllegalArgumentException error(String message) {
+        return new IllegalArgumentException(message + " at position " + pos);
+    }
+}
@@ -1,61 +1,50 @@
 package server.util;
 
+import java.nio.charset.StandardCharsets;
 import java.util.HashMap;
 import java.util.Map;
 
 /**
  * 간단한 JSON 파싱 유틸리티
- * 복잡한 JSON 라이브러리 대신 기본적인 key-value 파싱만 지원
+ * 복잡한 JSON 라이브러리 대신 기본적인 key-value 파싱과 응답 JSON 생성을 제공
+ * 바이트 단위로 읽고 쓰는 일은 {@link JsonReader}/{@link JsonWriter} 가 맡는다.
  */
 public final class JsonUtil {
 
     private JsonUtil() {}
 
     /**
-     * 간단한 JSON 객체를 Map으로 파싱
+     * 간단한 JSON 객체의 최상위 필드를 Map으로 파싱
      * 예: {"username":"test","password":"123"} -> Map
+     * 문자열 값의 이스케이프를 풀고, 숫자/true/false 는 쓰인 그대로, 객체/배열 값은 건너뛴다.
+     * 형식이 잘못되었으면 빈 Map 을 돌려준다. 필요한 필드가 정해져 있으면 {@link JsonReader#readStringFields} 가 더 싸다.
      */
     public static Map<String, String> parseSimpleJson(String json) {
         Map<String, String> result = new HashMap<>();
-        
-        if (json == null || json.trim().isEmpty()) {
+        if (json == null || json.isBlank()) {
             return result;
         }
-
-        String cleaned = json.trim();
-        if (!cleaned.startsWith("{") || !cleaned.endsWith("}")) {
-            return result;
-        }
-
-        // 중괄호 제거
-        cleaned = cleaned.substring(1, cleaned.length() - 1).trim();
-        
-        if (cleaned.isEmpty()) {
-            return result;
-        }
-
-        // 쉼표로 분리
-        String[] pairs = cleaned.split(",");
-        
-        for (String pair : pairs) {
-            pair = pair.trim();
-            int colonIndex = pair.indexOf(':');
-            
-            if (colonIndex > 0 && colonIndex < pair.length() - 1) {
-                String key = pair.substring(0, colonIndex).trim();
-                String value = pair.substring(colonIndex + 1).trim();
-                
-                // 따옴표 제거
-                key = removeQuotes(key);
-                value = removeQuotes(value);
-                
-                if (!key.isEmpty()) {
-                    result.put(key, value);
+        try {
+            JsonReader reader = new JsonReader(json.getBytes(StandardCharsets.UTF_8));
+            reader.beginObject();
+            while (reader.hasNext()) {
+                String key = reader.nextName();
+                switch (reader.peek()) {
+                    case STRING -> result.put(key, reader.nextString());
+                    case NUMBER, BOOLEAN -> result.put(key, reader.nextLiteral());
+                    case NULL -> {
+                        reader.nextNull();
+                        result.put(key, "null");
+                    }
+                    default -> reader.skipValue();
                 }
             }
+            reader.endObject();
+            reader.endDocument();
+            return result;
+        } catch (IllegalArgumentException e) {
+            return new HashMap<>();
         }
-        
-        return result;
     }
 
     /**
@@ -65,58 +54,41 @@ public final class JsonUtil {
         if (map == null || map.isEmpty()) {
             return "{}";
         }
-
-        StringBuilder json = new StringBuilder();
-        json.append("{");
-        
-        boolean first = true;
+        JsonWriter json = new JsonWriter();
+        json.beginObject();
         for (Map.Entry<String, String> entry : map.entrySet()) {
-            if (!first) {
-                json.append(",");
-            }
-            json.append("\"").append(escapeJson(entry.getKey())).append("\"");
-            json.append(":");
-            json.append("\"").append(escapeJson(entry.getValue())).append("\"");
-            first = false;
+            json.name(entry.getKey()).value(entry.getValue() != null ? entry.getValue() : "");
         }
-        
-        json.append("}");
-        return json.toString();
+        json.endObject();
+        return new String(json.toByteArray(), StandardCharsets.UTF_8);
     }
 
     /**
      * 성공/실패 응답 JSON 생성
      */
     public static String createResponse(boolean success, String message) {
-        Map<String, String> response = new HashMap<>();
-        response.put("success", String.valueOf(success));
-        response.put("message", message != null ? message : "");
-        return toSimpleJson(response);
+        return new String(createResponseBytes(success, message), StandardCharsets.UTF_8);
     }
 
     /**
-     * 따옴표 제거
+     * {@link #createResponse} 와 같은 내용을 응답 본문에 바로 쓸 UTF-8 바이트로 만든다.
      */
-    private static String removeQuotes(String str) {
-        if (str.length() >= 2 && str.startsWith("\"") && str.endsWith("\"")) {
-            return str.substring(1, str.length() - 1);
-        }
-        return str;
+    public static byte[] createResponseBytes(boolean success, String message) {
+        return new JsonWriter(64)
+                .beginObject()
+                .name("success").value(String.valueOf(success))
+                .name("message").value(message != null ? message : "")
+                .endObject()
+                .toByteArray();
     }
 
     /**
-     * JSON 문자열 이스케이프
+     * 문자열을 이스케이프해 따옴표로 감싼 JSON 문자열 값으로 만든다. null 은 null 리터럴이 된다.
      */
-    private static String escapeJson(String str) {
+    public static String quote(String str) {
         if (str == null) {
-            return "";
+            return "null";
         }
-        return str.replace("\\", "\\\\")
-                  .replace("\"", "\\\"")
-                  .replace("\b", "\\b")
-                  .replace("\f", "\\f")
-                  .replace("\n", "\\n")
-                  .replace("\r", "\\r")
-                  .replace("\t", "\\t");
+        return JsonWriter.quote(str);
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,282 @@
+package server.util;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * JSON 을 UTF-8 바이트로 바로 써 나가는 작성기. 중간 String 이나 Map 없이 응답 본문 버퍼를 채운다.
+ * 원소 사이 쉼표는 작성기가 넣으므로 호출하는 쪽은 순서대로 이름과 값만 쓰면 된다.
+ * <pre>
+ * JsonWriter json = new JsonWriter();
+ * json.beginObject().name("id").value(id).name("size").value(size).endObject();
+ * byte[] body = json.toByteArray();
+ * </pre>
+ */
+public final class JsonWriter {
+    private static final int MAX_DEPTH = 64;
+    private static final byte[] HEX = "0123456789abcdef".getBytes(StandardCharsets.US_ASCII);
+
+    private byte[] buf;
+    private int count;
+    /** 컨테이너마다 아직 첫 원소를 쓰기 전인지 */
+    private final boolean[] first = new boolean[MAX_DEPTH + 1];
+    private int depth;
+    /** 이름을 쓴 직후라 값 앞에 쉼표를 넣지 않아야 하는지 */
+    private boolean afterName;
+
+    public JsonWriter() {
+        this(256);
+    }
+
+    public JsonWriter(int initialCapacity) {
+        this.buf = new byte[Math.max(16, initialCapacity)];
+    }
+
+    public JsonWriter beginObject() {
+        return open('{');
+    }
+
+    public JsonWriter endObject() {
+        return close('}');
+    }
+
+    public JsonWriter beginArray() {
+        return open('[');
+    }
+
+    public JsonWriter endArray() {
+        return close(']');
+    }
+
+    public JsonWriter name(String name) {
+        separate();
+        writeString(name);
+        write(':');
+        afterName = true;
+        return this;
+    }
+
+    /** 문자열 값. null 이면 null 리터럴을 쓴다. */
+    public JsonWriter value(String value) {
+        separate();
+        if (value == null) {
+            writeAscii("null");
+        } else {
+            writeString(value);
+        }
+        return this;
+    }
+
+    public JsonWriter value(long value) {
+        separate();
+        if (value == Long.MIN_VALUE) {
+            writeAscii(Long.toString(value));
+            return this;
+        }
+        if (value < 0) {
+            write('-');
+            value = -value;
+        }
+        int digits = 1;
+        for (long rest = value / 10; rest > 0; rest /= 10) {
+            digits++;
+        }
+        ensure(digits);
+        for (int i = count + digits - 1; i >= count; i--) {
+            buf[i] = (byte) ('0' + value % 10);
+            value /= 10;
+        }
+        count += digits;
+        return this;
+    }
+
+    public JsonWriter value(boolean value) {
+        separate();
+        writeAscii(value ? "true" : "false");
+        return this;
+    }
+
+    /**
+     * 이미 JSON 으로 만든 값(자릿수를 맞춘 실수 등)을 그대로 쓴다. ASCII 만 받는다.
+     */
+    public JsonWriter rawValue(String json) {
+        separate();
+        writeAscii(json);
+        return this;
+    }
+
+    public JsonWriter nullValue() {
+        separate();
+        writeAscii("null");
+        return this;
+    }
+
+    /**
+     * 쓴 내용을 비우고 처음부터 다시 쓴다. 버퍼는 그대로 두므로 한 줄씩 여러 번 쓸 때 재사용한다.
+     */
+    public JsonWriter reset() {
+        count = 0;
+        depth = 0;
+        first[0] = false;
+        afterName = false;
+        return this;
+    }
+
+    /** 지금까지 쓴 바이트 수 */
+    public int size() {
+        return count;
+    }
+
+    public byte[] toByteArray() {
+        return Arrays.copyOf(buf, count);
+    }
+
+    public void writeTo(OutputStream out) throws IOException {
+        out.write(buf, 0, count);
+    }
+
+    /**
+     * 문자열 하나를 따옴표로 감싼 JSON 문자열로 만든다. 작성기 없이 값 하나만 필요할 때 쓴다.
+     */
+    static String quote(String value) {
+        StringBuilder sb = new StringBuilder(value.length() + 8);
+        sb.append('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            String escape = escapeOf(c);
+            if (escape != null) {
+                sb.append(escape);
+            } else if (c < 0x20) {
+                sb.append("\\u00").append((char) HEX[c >> 4]).append((char) HEX[c & 0xF]);
+            } else {
+                sb.append(c);
+            }
+        }
+        return sb.append('"').toString();
+    }
+
+    private JsonWriter open(char bracket) {
+        separate();
+        if (depth == MAX_DEPTH) {
+            throw new IllegalStateException("Nesting too deep");
+        }
+        write(bracket);
+        first[++depth] = true;
+        return this;
+    }
+
+    private JsonWriter close(char bracket) {
+        if (depth == 0) {
+            throw new IllegalStateException("Unbalanced '" + bracket + "'");
+        }
+        depth--;
+        write(bracket);
+        return this;
+    }
+
+    /** 값이나 이름 앞에 필요한 쉼표를 넣는다. */
+    private void separate() {
+        if (afterName) {
+            afterName = false;
+            return;
+        }
+        if (first[depth]) {
+            first[depth] = false;
+        } else if (depth > 0) {
+            write(',');
+        }
+    }
+
+    private void writeString(String value) {
+        int length = value.length();
+        // 보통 글자는 UTF-8 로 최대 3바이트다. 이스케이프(최대 6바이트)를 만나면 그때 더 늘린다.
+        ensure(length * 3 + 2);
+        byte[] b = buf;
+        int n = count;
+        b[n++] = '"';
+        for (int i = 0; i < length; i++) {
+            char c = value.charAt(i);
+            if (c < 0x80) {
+                String escape = escapeOf(c);
+                if ((escape != null || c < 0x20) && n + 6 + (length - i) * 3 + 1 > b.length) {
+                    count = n;
+                    ensure(6 + (length - i) * 3 + 1);
+                    b = buf;
+                }
+                if (escape != null) {
+                    for (int j = 0; j < escape.length(); j++) {
+                        b[n++] = (byte) escape.charAt(j);
+                    }
+                } else if (c < 0x20) {
+                    b[n++] = '\\';
+                    b[n++] = 'u';
+                    b[n++] = '0';
+                    b[n++] = '0';
+                    b[n++] = HEX[c >> 4];
+                    b[n++] = HEX[c & 0xF];
+                } else {
+                    b[n++] = (byte) c;
+                }
+            } else if (c < 0x800) {
+                b[n++] = (byte) (0xC0 | (c >> 6));
+                b[n++] = (byte) (0x80 | (c & 0x3F));
+            } else if (Character.isHighSurrogate(c) && i + 1 < length && Character.isLowSurrogate(value.charAt(i + 1))) {
+                int codePoint = Character.toCodePoint(c, value.charAt(++i));
+                b[n++] = (byte) (0xF0 | (codePoint >> 18));
+                b[n++] = (byte) (0x80 | ((codePoint >> 12) & 0x3F));
+                b[n++] = (byte) (0x80 | ((codePoint >> 6) & 0x3F));
+                b[n++] = (byte) (0x80 | (codePoint & 0x3F));
+            } else if (Character.isSurrogate(c)) {
+                // 짝이 없는 서로게이트는 String.getBytes 와 같이 '?' 로 바꾼다.
+                b[n++] = '?';
+            } else {
+                b[n++] = (byte) (0xE0 | (c >> 12));
+                b[n++] = (byte) (0x80 | ((c >> 6) & 0x3F));
+                b[n++] = (byte) (0x80 | (c & 0x3F));
+            }
+        }
+        b[n++] = '"';
+        count = n;
+    }
+
+    private static String escapeOf(char c) {
+        switch (c) {
+            case '"':
+                return "\\\"";
+            case '\\':
+                return "\\\\";
+            case '\b':
+                return "\\b";
+            case '\f':
+                return "\\f";
+            case '\n':
+                return "\\n";
+            case '\r':
+                return "\\r";
+            case '\t':
+                return "\\t";
+            default:
+                return null;
+        }
+    }
+
+    private void writeAscii(String text) {
+        ensure(text.length());
+        for (int i = 0; i < text.length(); i++) {
+            buf[count++] = (byte) text.charAt(i);
+        }
+    }
+
+    private void write(char c) {
+        ensure(1);
+        buf[count++] = (byte) c;
+    }
+
+    private void ensure(int extra) {
+        if (count + extra > buf.length) {
+            buf = Arrays.copyOf(buf, Math.max(buf.length * 2, count + extra));
+        }
+    }
+}
@@ -1,33 +1,225 @@
 package server.util;
 
+import java.io.PrintStream;
+import java.io.PrintWriter;
+import java.io.StringWriter;
+import java.time.Instant;
 import java.time.LocalDateTime;
+import java.time.ZoneId;
 import java.time.format.DateTimeFormatter;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+import server.config.ServerConfig;
 
 /**
  * 간단한 콘솔 로깅 유틸리티.
  * 시간 포맷을 통일하고 로그 레벨별 출력 채널을 나눈다.
+ * <p>
+ * 요청 스레드는 이벤트를 링 버퍼에 넣기만 하고, 전용 스레드 하나가 모인 이벤트를 포맷해 한꺼번에 출력한다.
+ * 그래서 여러 워커가 System.out 잠금을 두고 다투지 않는다. 버퍼가 가득 차면 {@link ServerConfig#LOG_OVERFLOW_POLICY}
+ * 에 따라 INFO/WARN 을 버리거나 자리가 날 때까지 기다린다. ERROR 는 버리지 않는다.
  */
 public final class Logger {
-    private static final DateTimeFormatter FORMATTER = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+    private static final DateTimeFormatter FORMATTER = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss.SSS");
+    private static final int BATCH_CHARS = 16 * 1024;
+    private static final long BLOCK_PARK_NANOS = TimeUnit.MILLISECONDS.toNanos(10);
+    private static final long SHUTDOWN_WAIT_MILLIS = TimeUnit.SECONDS.toMillis(5);
+
+    private static final MpscRingBuffer<Event> ring = new MpscRingBuffer<>(ServerConfig.LOG_BUFFER_SIZE);
+    private static final boolean dropOnOverflow = "drop".equals(ServerConfig.LOG_OVERFLOW_POLICY);
+    private static final AtomicLong dropped = new AtomicLong();
+    private static volatile boolean running = true;
+    private static final Thread consumer;
+
+    /** 같은 밀리초의 이벤트는 시각 문자열을 다시 만들지 않는다. 소비 스레드만 쓴다. */
+    private static long cachedMillis = Long.MIN_VALUE;
+    private static String cachedTimestamp = "";
+
+    static {
+        consumer = new Thread(Logger::drainLoop, "logger");
+        consumer.setDaemon(true);
+        consumer.start();
+    }
 
     private Logger() {}
 
     public static void info(String message) {
-        System.out.println(timestamp() + " [INFO ] " + message);
+        publish(new Event(System.currentTimeMillis(), " [INFO ] ", message, null, false));
     }
 
     public static void warn(String message) {
-        System.out.println(timestamp() + " [WARN ] " + message);
+        publish(new Event(System.currentTimeMillis(), " [WARN ] ", message, null, false));
     }
 
     public static void error(String message, Throwable t) {
-        System.err.println(timestamp() + " [ERROR] " + message);
-        if (t != null) {
-            t.printStackTrace(System.err);
+        publish(new Event(System.currentTimeMillis(), " [ERROR] ", message, t, true));
+    }
+
+    /** 버퍼가 가득 차 버린 INFO/WARN 이벤트 수 */
+    public static long droppedEvents() {
+        return dropped.get();
+    }
+
+    /**
+     * 남은 이벤트를 모두 출력하고 소비 스레드를 멈춘다. 그 뒤의 로그는 호출한 스레드에서 바로 출력한다.
+     * 서버 종료 훅의 마지막에 부른다.
+     */
+    public static void shutdown() {
+        running = false;
+        LockSupport.unpark(consumer);
+        try {
+            consumer.join(SHUTDOWN_WAIT_MILLIS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static void publish(Event event) {
+        if (!running || Thread.currentThread() == consumer || !consumer.isAlive()) {
+            writeDirect(event);
+            return;
+        }
+        while (!ring.offer(event)) {
+            if (dropOnOverflow && !event.error) {
+                dropped.incrementAndGet();
+                return;
+            }
+            // 소비 스레드가 멈췄으면 자리가 영영 나지 않으므로 기다리지 않는다.
+            if (!running || !consumer.isAlive()) {
+                writeDirect(event);
+                return;
+            }
+            // 소비 스레드가 칸을 비우면 깨워 준다. 종료 여부를 다시 보도록 오래 자지는 않는다.
+            ring.awaitSpace(BLOCK_PARK_NANOS);
+        }
+        // 넣는 사이에 소비 스레드가 마지막 확인을 끝내고 멈췄을 수 있다. 그러면 남은 것을 직접 출력한다.
+        if (!running || !consumer.isAlive()) {
+            drainAfterStop();
+        }
+    }
+
+    /**
+     * 소비 스레드가 끝나기를 기다린 뒤 버퍼에 남은 이벤트를 호출한 스레드에서 출력한다.
+     * 소비 스레드와 동시에 꺼내지 않도록, 제한 시간 안에 끝나지 않으면 그 스레드에 맡긴다.
+     */
+    private static void drainAfterStop() {
+        try {
+            consumer.join(SHUTDOWN_WAIT_MILLIS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return;
+        }
+        if (consumer.isAlive()) {
+            return;
+        }
+        synchronized (ring) {
+            Event event;
+            while ((event = ring.poll()) != null) {
+                writeDirect(event);
+            }
+        }
+    }
+
+    private static void drainLoop() {
+        StringBuilder out = new StringBuilder(BATCH_CHARS);
+        StringBuilder err = new StringBuilder(1024);
+        long reportedDrops = 0;
+        while (true) {
+            // 이벤트 하나를 출력하다 무엇이 던져져도 소비 스레드는 살려 둔다. 죽으면 "block" 정책의 생산자가 모두 멈춘다.
+            try {
+                Event event = ring.poll();
+                if (event == null) {
+                    flush(out, err);
+                    long drops = dropped.get();
+                    if (drops != reportedDrops) {
+                        System.out.println(timestamp(System.currentTimeMillis()) + " [WARN ] "
+                                + (drops - reportedDrops) + " log events dropped (buffer full)");
+                        reportedDrops = drops;
+                    }
+                    if (!running && ring.isDrained()) {
+                        return;
+                    }
+                    ring.awaitItems(TimeUnit.MILLISECONDS.toNanos(100));
+                    continue;
+                }
+                format(event, timestamp(event.millis), event.error ? err : out);
+                if (out.length() >= BATCH_CHARS || err.length() > 0) {
+                    flush(out, err);
+                }
+            } catch (Throwable t) {
+                out.setLength(0);
+                err.setLength(0);
+                reportFailure(t);
+            }
         }
     }
 
-    private static String timestamp() {
-        return LocalDateTime.now().format(FORMATTER);
+    private static void reportFailure(Throwable t) {
+        try {
+            System.err.println(timestamp(System.currentTimeMillis()) + " [ERROR] Failed to write log event: " + t);
+        } catch (Throwable ignored) {
+            // 알릴 곳도 없으면 그 이벤트만 버린다.
+        }
+    }
+
+    private static void format(Event event, String timestamp, StringBuilder sb) {
+        sb.append(timestamp).append(event.level).append(event.message).append(System.lineSeparator());
+        if (event.throwable != null) {
+            StringWriter trace = new StringWriter();
+            event.throwable.printStackTrace(new PrintWriter(trace));
+            sb.append(trace);
+        }
+    }
+
+    private static void flush(StringBuilder out, StringBuilder err) {
+        if (out.length() > 0) {
+            write(System.out, out);
+        }
+        if (err.length() > 0) {
+            write(System.err, err);
+        }
+    }
+
+    private static void write(PrintStream stream, StringBuilder sb) {
+        stream.print(sb);
+        stream.flush();
+        sb.setLength(0);
+    }
+
+    /** 소비 스레드가 멈춘 뒤나 소비 스레드 자신이 남기는 로그. 시각 캐시는 소비 스레드 전용이라 쓰지 않는다. */
+    private static void writeDirect(Event event) {
+        StringBuilder sb = new StringBuilder(128);
+        format(event, formatTimestamp(event.millis), sb);
+        write(event.error ? System.err : System.out, sb);
+    }
+
+    private static String formatTimestamp(long millis) {
+        return LocalDateTime.ofInstant(Instant.ofEpochMilli(millis), ZoneId.systemDefault()).format(FORMATTER);
+    }
+
+    private static String timestamp(long millis) {
+        if (millis != cachedMillis) {
+            cachedTimestamp = formatTimestamp(millis);
+            cachedMillis = millis;
+        }
+        return cachedTimestamp;
+    }
+
+    private static final class Event {
+        private final long millis;
+        private final String level;
+        private final String message;
+        private final Throwable throwable;
+        private final boolean error;
+
+        private Event(long millis, String level, String message, Throwable throwable, boolean error) {
+            this.millis = millis;
+            this.level = level;
+            this.message = message;
+            this.throwable = throwable;
+            this.error = error;
+        }
     }
 }
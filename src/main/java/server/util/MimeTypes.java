@@ -27,7 +27,13 @@ public final class MimeTypes {
     private MimeTypes() {}
 
     public static String probe(Path path) {
-        String filename = path.getFileName().toString();
+        return probe(path.getFileName().toString());
+    }
+
+    /**
+     * 파일 이름의 확장자로 MIME 타입을 고른다.
+     */
+    public static String probe(String filename) {
         int idx = filename.lastIndexOf('.');
         if (idx != -1 && idx < filename.length() - 1) {
             String ext = filename.substring(idx + 1).toLowerCase(Locale.ROOT);
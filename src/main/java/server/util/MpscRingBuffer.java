@@ -0,0 +1,123 @@
+package server.util;
+
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * 여러 생산자가 넣고 소비 스레드 하나가 꺼내는 고정 크기 링 버퍼.
+ * 생산자는 tail 을 CAS 로 올려 자리를 받은 뒤 그 칸에 값을 넣고, 소비자는 head 칸이 채워졌는지로 꺼낼 값을 판단한다.
+ * 자리를 받고 아직 값을 넣지 않은 생산자가 있을 수 있으므로 비었는지는 tail 이 아니라 칸으로 본다.
+ * <p>
+ * 가득 찬 버퍼에 넣으려는 생산자는 {@link #awaitSpace(long)} 로 잠들고, 소비자가 칸을 비울 때마다 하나씩 깨운다.
+ * <p>
+ * {@link #poll()}, {@link #isDrained()}, {@link #awaitItems(long)} 는 소비 스레드에서만 부른다.
+ */
+final class MpscRingBuffer<E> {
+    private final int capacity;
+    private final int mask;
+    private final AtomicReferenceArray<E> slots;
+    /** 다음에 넣을 자리. 생산자들이 CAS 로 나눠 가진다. */
+    private final AtomicLong tail = new AtomicLong();
+    /** 다음에 꺼낼 자리. 소비 스레드만 올린다. */
+    private volatile long head;
+    private volatile boolean consumerParked;
+    private volatile Thread consumer;
+    /** 자리가 나기를 기다리며 잠든 생산자들 */
+    private final ConcurrentLinkedQueue<Thread> spaceWaiters = new ConcurrentLinkedQueue<>();
+
+    /**
+     * @param requestedCapacity 원하는 크기. 2 이상인 2 의 거듭제곱으로 내림한다.
+     */
+    MpscRingBuffer(int requestedCapacity) {
+        this.capacity = Integer.highestOneBit(Math.max(2, requestedCapacity));
+        this.mask = capacity - 1;
+        this.slots = new AtomicReferenceArray<>(capacity);
+    }
+
+    int capacity() {
+        return capacity;
+    }
+
+    /**
+     * 값을 넣는다. 버퍼가 가득 찼으면 넣지 않고 false 를 돌려준다.
+     */
+    boolean offer(E value) {
+        long slot;
+        do {
+            slot = tail.get();
+            if (slot - head >= capacity) {
+                return false;
+            }
+        } while (!tail.compareAndSet(slot, slot + 1));
+        slots.set((int) slot & mask, value);
+        if (consumerParked) {
+            wakeConsumer();
+        }
+        return true;
+    }
+
+    /**
+     * 다음 값을 꺼낸다. 비었거나 다음 칸을 받은 생산자가 아직 값을 넣지 않았으면 null.
+     */
+    E poll() {
+        long next = head;
+        int index = (int) next & mask;
+        E value = slots.get(index);
+        if (value == null) {
+            return null;
+        }
+        slots.lazySet(index, null);
+        head = next + 1;
+        Thread waiter = spaceWaiters.peek();
+        if (waiter != null) {
+            LockSupport.unpark(waiter);
+        }
+        return value;
+    }
+
+    /**
+     * 받아 간 자리가 모두 꺼내졌는지. 종료할 때 남은 값이 없는지 확인하는 데 쓴다.
+     */
+    boolean isDrained() {
+        return tail.get() == head;
+    }
+
+    /**
+     * 다음 칸이 채워지거나 nanos 가 지나거나 {@link #wakeConsumer()} 가 불릴 때까지 소비 스레드를 재운다.
+     */
+    void awaitItems(long nanos) {
+        consumer = Thread.currentThread();
+        consumerParked = true;
+        if (slots.get((int) head & mask) == null) {
+            LockSupport.parkNanos(this, nanos);
+        }
+        consumerParked = false;
+    }
+
+    /**
+     * 버퍼가 가득 차 있는 동안 호출한 생산자를 재운다. 소비자가 칸을 비우거나 nanos 가 지나면 돌아온다.
+     * 돌아와도 자리가 남아 있다는 보장은 없으므로 {@link #offer} 를 다시 시도한다.
+     */
+    void awaitSpace(long nanos) {
+        Thread current = Thread.currentThread();
+        spaceWaiters.add(current);
+        try {
+            // 등록한 뒤에 다시 확인해야 그 사이 비운 칸의 깨우기를 놓치지 않는다.
+            if (tail.get() - head >= capacity) {
+                wakeConsumer();
+                LockSupport.parkNanos(this, nanos);
+            }
+        } finally {
+            spaceWaiters.remove(current);
+        }
+    }
+
+    void wakeConsumer() {
+        Thread thread = consumer;
+        if (thread != null) {
+            LockSupport.unpark(thread);
+        }
+    }
+}
@@ -0,0 +1,58 @@
+package server.util;
+
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * 요청 대상(target)의 쿼리 스트링 처리 유틸리티
+ */
+public final class QueryUtil {
+
+    private QueryUtil() {}
+
+    /**
+     * 요청 대상에서 쿼리 파라미터를 파싱한다. 같은 이름이 여러 번 나오면 처음 값을 쓴다.
+     * 예: /posts/list?limit=10&cursor=abc -> {limit=10, cursor=abc}
+     */
+    public static Map<String, String> parse(String target) {
+        Map<String, String> params = new HashMap<>();
+        if (target == null) {
+            return params;
+        }
+        int queryIndex = target.indexOf('?');
+        if (queryIndex < 0 || queryIndex == target.length() - 1) {
+            return params;
+        }
+        for (String pair : target.substring(queryIndex + 1).split("&")) {
+            if (pair.isEmpty()) {
+                continue;
+            }
+            int eq = pair.indexOf('=');
+            try {
+                String name = URLDecoder.decode(eq >= 0 ? pair.substring(0, eq) : pair, StandardCharsets.UTF_8);
+                String value = eq >= 0 ? URLDecoder.decode(pair.substring(eq + 1), StandardCharsets.UTF_8) : "";
+                params.putIfAbsent(name, value);
+            } catch (IllegalArgumentException e) {
+                // 잘못된 퍼센트 인코딩은 무시
+            }
+        }
+        return params;
+    }
+
+    /**
+     * 정수 파라미터를 읽는다. 없거나 형식이 틀리면 기본값을 쓰고, 범위를 벗어나면 잘라낸다.
+     */
+    public static int intParam(Map<String, String> params, String name, int defaultValue, int min, int max) {
+        String value = params.get(name);
+        if (value == null || value.isEmpty()) {
+            return defaultValue;
+        }
+        try {
+            return Math.max(min, Math.min(max, Integer.parseInt(value)));
+        } catch (NumberFormatException e) {
+            return defaultValue;
+        }
+    }
+}
@@ -0,0 +1,37 @@
+package server.util;
+
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * 키(엔티티 ID)별 락을 고정된 개수의 줄무늬(stripe)로 나눠 제공하는 락 관리자.
+ * 같은 키는 항상 같은 락을 받으므로 읽기-수정-쓰기 구간이 원자적으로 실행되고,
+ * 서로 다른 키는 대부분 다른 락을 받아 동시에 진행된다.
+ */
+public final class StripedLocks {
+    private final ReentrantLock[] stripes;
+    private final int mask;
+
+    /**
+     * @param stripes 줄무늬 개수. 2의 거듭제곱으로 올림한다.
+     */
+    public StripedLocks(int stripes) {
+        int size = Integer.highestOneBit(Math.max(1, stripes - 1)) << 1;
+        this.stripes = new ReentrantLock[size];
+        for (int i = 0; i < size; i++) {
+            this.stripes[i] = new ReentrantLock();
+        }
+        this.mask = size - 1;
+    }
+
+    /**
+     * 키에 대응하는 락을 돌려준다. 호출자는 lock/unlock 을 try-finally 로 감싸야 한다.
+     */
+    public ReentrantLock lockFor(String key) {
+        int h = key.hashCode();
+        // 상위 비트를 섞어 비슷한 키가 한 줄무늬에 몰리지 않게 한다.
+        h ^= (h >>> 16);
+        h *= 0x85EBCA6B;
+        h ^= (h >>> 13);
+        return stripes[h & mask];
+    }
+}
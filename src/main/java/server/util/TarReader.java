@@ -0,0 +1,221 @@
+package server.util;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * tar 아카이브를 항목 단위로 차례로 읽는 스트림 판독기.
+ * 일반 파일 항목만 돌려주고 디렉터리 등은 건너뛴다. 긴 이름은 PAX(path)와 GNU(././@LongLink) 방식을 모두 읽는다.
+ *
+ * <pre>
+ * TarReader reader = new TarReader(in);
+ * TarReader.Entry entry;
+ * while ((entry = reader.next()) != null) {
+ *     byte[] data = reader.readContent();
+ * }
+ * </pre>
+ */
+public final class TarReader {
+    private static final int BLOCK_SIZE = TarWriter.BLOCK_SIZE;
+    /** 이름을 담는 확장 헤더의 최대 크기 */
+    private static final int MAX_EXTENDED_HEADER_BYTES = 64 * 1024;
+
+    private final InputStream in;
+    private final byte[] block = new byte[BLOCK_SIZE];
+    /** 현재 항목에서 아직 읽지 않은 내용과 블록 패딩의 바이트 수 */
+    private long remaining;
+    private long padding;
+
+    public TarReader(InputStream in) {
+        this.in = in;
+    }
+
+    /**
+     * 다음 파일 항목으로 넘어간다. 이전 항목에서 읽지 않은 내용은 버린다.
+     *
+     * @return 다음 항목, 아카이브가 끝났으면 null
+     * @throws FormatException 헤더가 tar 형식이 아닌 경우
+     */
+    public Entry next() throws IOException {
+        String longName = null;
+        while (true) {
+            skip(remaining + padding);
+            remaining = 0;
+            padding = 0;
+            if (!readBlock()) {
+                return null;
+            }
+            if (isZeroBlock()) {
+                return null;
+            }
+            long expected = parseOctal(148, 8);
+            Arrays.fill(block, 148, 156, (byte) ' ');
+            if (TarWriter.checksum(block) != expected) {
+                throw new FormatException("Invalid tar header checksum");
+            }
+            long size = parseOctal(124, 12);
+            long modifiedSeconds = parseOctal(136, 12);
+            byte type = block[156];
+            String name = string(0, 100);
+            if (block[257] == 'u' && block[258] == 's' && block[259] == 't' && block[260] == 'a' && block[261] == 'r') {
+                String prefix = string(345, 155);
+                if (!prefix.isEmpty()) {
+                    name = prefix + "/" + name;
+                }
+            }
+            remaining = size;
+            padding = (BLOCK_SIZE - size % BLOCK_SIZE) % BLOCK_SIZE;
+
+            if (type == 'x' || type == 'L') {
+                if (size > MAX_EXTENDED_HEADER_BYTES) {
+                    throw new FormatException("Extended tar header too large");
+                }
+                String value = new String(readContent(), StandardCharsets.UTF_8);
+                longName = type == 'L' ? trimNul(value) : paxPath(value, longName);
+                continue;
+            }
+            if (type != '0' && type != 0) {
+                // 디렉터리, 링크, 전역 PAX 헤더 등은 건너뛴다.
+                longName = null;
+                continue;
+            }
+            return new Entry(longName != null ? longName : name, size, modifiedSeconds * 1000);
+        }
+    }
+
+    /**
+     * 현재 항목의 남은 내용을 모두 읽는다. 호출하기 전에 {@link Entry#getSize()} 로 크기를 확인한다.
+     */
+    public byte[] readContent() throws IOException {
+        if (remaining > Integer.MAX_VALUE - 8) {
+            throw new FormatException("Tar entry too large");
+        }
+        byte[] data = new byte[(int) remaining];
+        int offset = 0;
+        while (offset < data.length) {
+            int read = in.read(data, offset, data.length - offset);
+            if (read == -1) {
+                throw new FormatException("Unexpected end of tar archive");
+            }
+            offset += read;
+        }
+        remaining = 0;
+        return data;
+    }
+
+    private boolean readBlock() throws IOException {
+        int offset = 0;
+        while (offset < BLOCK_SIZE) {
+            int read = in.read(block, offset, BLOCK_SIZE - offset);
+            if (read == -1) {
+                if (offset == 0) {
+                    // 끝 표시 블록 없이 끝난 아카이브도 받아들인다.
+                    return false;
+                }
+                throw new FormatException("Unexpected end of tar archive");
+            }
+            offset += read;
+        }
+        return true;
+    }
+
+    private void skip(long count) throws IOException {
+        byte[] scratch = count > 0 ? new byte[(int) Math.min(count, 8192)] : null;
+        while (count > 0) {
+            int read = in.read(scratch, 0, (int) Math.min(count, scratch.length));
+            if (read == -1) {
+                throw new FormatException("Unexpected end of tar archive");
+            }
+            count -= read;
+        }
+    }
+
+    private boolean isZeroBlock() {
+        for (byte b : block) {
+            if (b != 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private long parseOctal(int offset, int length) throws FormatException {
+        long value = 0;
+        int end = offset + length;
+        int i = offset;
+        while (i < end && (block[i] == ' ' || block[i] == 0)) {
+            i++;
+        }
+        for (; i < end && block[i] != ' ' && block[i] != 0; i++) {
+            if (block[i] < '0' || block[i] > '7') {
+                throw new FormatException("Invalid octal field in tar header");
+            }
+            value = value * 8 + (block[i] - '0');
+        }
+        return value;
+    }
+
+    private String string(int offset, int length) {
+        int end = offset;
+        while (end < offset + length && block[end] != 0) {
+            end++;
+        }
+        return new String(block, offset, end - offset, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * "길이 키=값\n" 레코드들에서 path 값을 찾는다. 없으면 이전 값을 그대로 둔다.
+     */
+    private static String paxPath(String records, String current) {
+        for (String record : records.split("\n")) {
+            int space = record.indexOf(' ');
+            if (space >= 0 && record.startsWith("path=", space + 1)) {
+                return record.substring(space + 1 + "path=".length());
+            }
+        }
+        return current;
+    }
+
+    private static String trimNul(String value) {
+        int nul = value.indexOf('\0');
+        return nul >= 0 ? value.substring(0, nul) : value;
+    }
+
+    /**
+     * 아카이브의 파일 항목 하나
+     */
+    public static final class Entry {
+        private final String name;
+        private final long size;
+        private final long modifiedMillis;
+
+        private Entry(String name, long size, long modifiedMillis) {
+            this.name = name;
+            this.size = size;
+            this.modifiedMillis = modifiedMillis;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public long getSize() {
+            return size;
+        }
+
+        public long getModifiedMillis() {
+            return modifiedMillis;
+        }
+    }
+
+    /**
+     * 읽은 내용이 tar 형식이 아닐 때 던지는 예외.
+     */
+    public static final class FormatException extends IOException {
+        public FormatException(String message) {
+            super(message);
+        }
+    }
+}
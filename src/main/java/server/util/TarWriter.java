@@ -0,0 +1,107 @@
+package server.util;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * 파일 항목을 ustar 형식의 tar 아카이브로 차례로 쓰는 스트림 작성기.
+ * 항목마다 헤더와 내용만 바로 내보내므로 아카이브 전체를 메모리에 두지 않는다.
+ * 이름이 100바이트를 넘으면 PAX 확장 헤더(path)로 전체 이름을 남긴다.
+ */
+public final class TarWriter {
+    static final int BLOCK_SIZE = 512;
+    private static final int NAME_LENGTH = 100;
+
+    private final OutputStream out;
+    private final byte[] header = new byte[BLOCK_SIZE];
+
+    public TarWriter(OutputStream out) {
+        this.out = out;
+    }
+
+    /**
+     * 일반 파일 항목 하나를 쓴다.
+     */
+    public void addFile(String name, byte[] content, long modifiedMillis) throws IOException {
+        byte[] nameBytes = name.getBytes(StandardCharsets.UTF_8);
+        if (nameBytes.length > NAME_LENGTH) {
+            byte[] pax = paxRecord("path", name);
+            writeHeader(("PaxHeaders/" + Math.abs(name.hashCode())).getBytes(StandardCharsets.US_ASCII),
+                    pax.length, modifiedMillis, (byte) 'x');
+            writeContent(pax);
+            nameBytes = Arrays.copyOf(nameBytes, NAME_LENGTH);
+        }
+        writeHeader(nameBytes, content.length, modifiedMillis, (byte) '0');
+        writeContent(content);
+    }
+
+    /**
+     * 아카이브 끝을 알리는 빈 블록 두 개를 쓴다.
+     */
+    public void finish() throws IOException {
+        Arrays.fill(header, (byte) 0);
+        out.write(header);
+        out.write(header);
+        out.flush();
+    }
+
+    private void writeHeader(byte[] name, long size, long modifiedMillis, byte type) throws IOException {
+        Arrays.fill(header, (byte) 0);
+        System.arraycopy(name, 0, header, 0, Math.min(name.length, NAME_LENGTH));
+        octal(0644, header, 100, 8);
+        octal(0, header, 108, 8);
+        octal(0, header, 116, 8);
+        octal(size, header, 124, 12);
+        octal(Math.max(0, modifiedMillis / 1000), header, 136, 12);
+        header[156] = type;
+        byte[] magic = {'u', 's', 't', 'a', 'r', 0, '0', '0'};
+        System.arraycopy(magic, 0, header, 257, magic.length);
+        // 체크섬은 체크섬 칸을 공백으로 채운 상태에서 모든 바이트를 더한 값이다.
+        Arrays.fill(header, 148, 156, (byte) ' ');
+        octal(checksum(header), header, 148, 7);
+        out.write(header);
+    }
+
+    private void writeContent(byte[] content) throws IOException {
+        out.write(content);
+        int padding = (BLOCK_SIZE - content.length % BLOCK_SIZE) % BLOCK_SIZE;
+        if (padding > 0) {
+            out.write(new byte[padding]);
+        }
+    }
+
+    /**
+     * "길이 키=값\n" 형식의 PAX 레코드. 길이에는 길이 숫자 자신도 포함된다.
+     */
+    private static byte[] paxRecord(String key, String value) {
+        int bodyLength = (" " + key + "=" + value + "\n").getBytes(StandardCharsets.UTF_8).length;
+        int length = bodyLength + Integer.toString(bodyLength).length();
+        if (Integer.toString(length).length() != Integer.toString(bodyLength).length()) {
+            length = bodyLength + Integer.toString(length).length();
+        }
+        return (length + " " + key + "=" + value + "\n").getBytes(StandardCharsets.UTF_8);
+    }
+
+    static long checksum(byte[] block) {
+        long sum = 0;
+        for (byte b : block) {
+            sum += b & 0xFF;
+        }
+        return sum;
+    }
+
+    /**
+     * 값을 0 으로 채운 8진수 문자열로 쓰고 끝에 NUL 을 둔다.
+     */
+    private static void octal(long value, byte[] target, int offset, int length) {
+        String digits = Long.toOctalString(value);
+        int width = length - 1;
+        int pad = width - digits.length();
+        for (int i = 0; i < width; i++) {
+            target[offset + i] = (byte) (i < pad ? '0' : digits.charAt(i - pad));
+        }
+        target[offset + width] = 0;
+    }
+}